@@ -0,0 +1,101 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.benchmarks;
+
+import com.eviware.soapui.config.TestAssertionConfig;
+import com.eviware.soapui.impl.wsdl.WsdlSubmitContext;
+import com.eviware.soapui.impl.wsdl.teststeps.assertions.basic.XPathContainsAssertion;
+import com.eviware.soapui.impl.wsdl.teststeps.assertions.json.JsonPathContentAssertion;
+import com.eviware.soapui.model.testsuite.AssertionException;
+import com.eviware.soapui.support.ParsedContentCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of XPath and JsonPath assertions; the first assertion on a response has to parse it, following
+ * assertions on the same response reuse the parsed content.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AssertionBenchmark {
+    @Param({"10", "1000"})
+    private int itemCount;
+
+    private WsdlSubmitContext context;
+    private String soapResponse;
+    private String jsonResponse;
+    private XPathContainsAssertion xpathAssertion;
+    private JsonPathContentAssertion jsonPathAssertion;
+
+    @Setup
+    public void setUp() throws AssertionException {
+        context = new WsdlSubmitContext(null);
+        soapResponse = BenchmarkPayloads.createSoapResponse(itemCount);
+        jsonResponse = BenchmarkPayloads.createJson(itemCount);
+
+        xpathAssertion = new XPathContainsAssertion(TestAssertionConfig.Factory.newInstance(), null);
+        xpathAssertion.setPath("declare namespace it='" + BenchmarkPayloads.ITEMS_NAMESPACE + "';"
+                + "//it:item[1]/it:name");
+        xpathAssertion.setExpectedContent("item0");
+
+        jsonPathAssertion = new JsonPathContentAssertion(TestAssertionConfig.Factory.newInstance(), null);
+        jsonPathAssertion.setPath("$.items[0].name");
+        jsonPathAssertion.setExpectedContent("item0");
+
+        // fail fast if the assertions do not match the generated content
+        xpathAssertion.assertContent(soapResponse, context, "Response");
+        jsonPathAssertion.assertContent(jsonResponse, context, "Response");
+    }
+
+    @Benchmark
+    public String xpathAssertion() throws AssertionException {
+        ParsedContentCache.clear();
+        return xpathAssertion.assertContent(soapResponse, context, "Response");
+    }
+
+    @Benchmark
+    public String xpathAssertionOnParsedResponse() throws AssertionException {
+        return xpathAssertion.assertContent(soapResponse, context, "Response");
+    }
+
+    @Benchmark
+    public String jsonPathAssertion() throws AssertionException {
+        ParsedContentCache.clear();
+        return jsonPathAssertion.assertContent(jsonResponse, context, "Response");
+    }
+
+    @Benchmark
+    public String jsonPathAssertionOnParsedResponse() throws AssertionException {
+        return jsonPathAssertion.assertContent(jsonResponse, context, "Response");
+    }
+}
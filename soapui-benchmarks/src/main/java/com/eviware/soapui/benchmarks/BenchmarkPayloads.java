@@ -0,0 +1,79 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.benchmarks;
+
+/**
+ * Generates the messages used by the benchmarks, sized by the number of items they contain
+ */
+
+public class BenchmarkPayloads {
+    public final static String ITEMS_NAMESPACE = "http://soapui.org/benchmarks/items";
+
+    /**
+     * Creates a SOAP 1.1 getItemsResponse message that is valid against the benchmarks/items.wsdl
+     */
+
+    public static String createSoapResponse(int itemCount) {
+        StringBuilder buf = new StringBuilder(200 + itemCount * 200);
+        buf.append("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:it=\"")
+                .append(ITEMS_NAMESPACE).append("\"><soapenv:Header/><soapenv:Body><it:getItemsResponse>");
+
+        for (int c = 0; c < itemCount; c++) {
+            buf.append("<it:item available=\"").append(c % 2 == 0).append("\"><it:id>").append(c)
+                    .append("</it:id><it:name>item").append(c).append("</it:name><it:price>").append(c).append(".95")
+                    .append("</it:price><it:tags>tag").append(c % 10).append("</it:tags><it:tags>common</it:tags></it:item>");
+        }
+
+        buf.append("</it:getItemsResponse></soapenv:Body></soapenv:Envelope>");
+        return buf.toString();
+    }
+
+    /**
+     * Creates a getItems request where each item carries property expansions
+     */
+
+    public static String createExpandableRequest(int itemCount) {
+        StringBuilder buf = new StringBuilder(200 + itemCount * 100);
+        buf.append("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:it=\"")
+                .append(ITEMS_NAMESPACE).append("\"><soapenv:Header/><soapenv:Body><it:getItems>");
+
+        for (int c = 0; c < itemCount; c++) {
+            buf.append("<it:category>${category}-").append(c).append("</it:category><it:maxCount>${maxCount}</it:maxCount>");
+        }
+
+        buf.append("</it:getItems></soapenv:Body></soapenv:Envelope>");
+        return buf.toString();
+    }
+
+    public static String createJson(int itemCount) {
+        StringBuilder buf = new StringBuilder(50 + itemCount * 120);
+        buf.append("{\"count\":").append(itemCount).append(",\"items\":[");
+
+        for (int c = 0; c < itemCount; c++) {
+            if (c > 0) {
+                buf.append(',');
+            }
+
+            buf.append("{\"id\":").append(c).append(",\"name\":\"item").append(c).append("\",\"price\":").append(c)
+                    .append(".95,\"available\":").append(c % 2 == 0).append(",\"tags\":[\"tag").append(c % 10)
+                    .append("\",\"common\"]}");
+        }
+
+        buf.append("]}");
+        return buf.toString();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.benchmarks;
+
+import com.eviware.soapui.impl.WsdlInterfaceFactory;
+import com.eviware.soapui.impl.wsdl.WsdlInterface;
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.submit.AbstractWsdlMessageExchange;
+import com.eviware.soapui.model.iface.Attachment;
+import com.eviware.soapui.model.iface.Response;
+import com.eviware.soapui.support.types.StringToStringsMap;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Vector;
+
+/**
+ * The getItems operation of the benchmarks/items.wsdl, imported into a new project
+ */
+
+public class ItemService {
+    private final WsdlInterface iface;
+    private final WsdlOperation operation;
+
+    public ItemService() throws Exception {
+        // the wsdl is copied to a file since the wsdl loaders can not read from inside the benchmarks jar
+        File wsdlFile = File.createTempFile("items", ".wsdl");
+        wsdlFile.deleteOnExit();
+
+        InputStream in = ItemService.class.getResourceAsStream("/benchmarks/items.wsdl");
+        try {
+            FileUtils.copyInputStreamToFile(in, wsdlFile);
+        } finally {
+            in.close();
+        }
+
+        iface = WsdlInterfaceFactory.importWsdl(new WsdlProject(), wsdlFile.toURI().toString(), false)[0];
+        operation = iface.getOperationByName("getItems");
+        if (operation == null) {
+            throw new IOException("Missing getItems operation in imported wsdl");
+        }
+    }
+
+    public WsdlInterface getInterface() {
+        return iface;
+    }
+
+    public WsdlOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Creates a message exchange for the operation that only has the specified response
+     */
+
+    public ResponseMessageExchange createResponseExchange(String responseContent) {
+        return new ResponseMessageExchange(operation, responseContent);
+    }
+
+    public static class ResponseMessageExchange extends AbstractWsdlMessageExchange<WsdlOperation> {
+        private final String responseContent;
+
+        public ResponseMessageExchange(WsdlOperation operation, String responseContent) {
+            super(operation);
+            this.responseContent = responseContent;
+        }
+
+        @Override
+        public WsdlOperation getOperation() {
+            return getModelItem();
+        }
+
+        public Response getResponse() {
+            return null;
+        }
+
+        public String getEndpoint() {
+            return null;
+        }
+
+        public Vector<?> getRequestWssResult() {
+            return null;
+        }
+
+        public Vector<?> getResponseWssResult() {
+            return null;
+        }
+
+        public String getRequestContent() {
+            return null;
+        }
+
+        public StringToStringsMap getRequestHeaders() {
+            return new StringToStringsMap();
+        }
+
+        public Attachment[] getRequestAttachments() {
+            return new Attachment[0];
+        }
+
+        public String getResponseContent() {
+            return responseContent;
+        }
+
+        public StringToStringsMap getResponseHeaders() {
+            return new StringToStringsMap();
+        }
+
+        public Attachment[] getResponseAttachments() {
+            return new Attachment[0];
+        }
+
+        public long getTimeTaken() {
+            return 0;
+        }
+
+        public long getTimestamp() {
+            return 0;
+        }
+
+        public boolean isDiscarded() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.benchmarks;
+
+import com.eviware.soapui.impl.wsdl.WsdlSubmitContext;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expansion of request content, done for every request sent by a test step, loadtest thread or mock response
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PropertyExpansionBenchmark {
+    @Param({"10", "1000"})
+    private int itemCount;
+
+    private WsdlSubmitContext context;
+    private String expandableContent;
+    private String literalContent;
+
+    @Setup
+    public void setUp() {
+        context = new WsdlSubmitContext(null);
+        context.setProperty("category", "books");
+        context.setProperty("maxCount", "25");
+
+        expandableContent = BenchmarkPayloads.createExpandableRequest(itemCount);
+        literalContent = BenchmarkPayloads.createSoapResponse(itemCount);
+    }
+
+    @Benchmark
+    public String expandContent() {
+        return PropertyExpander.expandProperties(context, expandableContent);
+    }
+
+    @Benchmark
+    public String expandContentEntitized() {
+        return PropertyExpander.expandProperties(context, expandableContent, true);
+    }
+
+    @Benchmark
+    public String expandContentWithoutExpansions() {
+        return PropertyExpander.expandProperties(context, literalContent);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.benchmarks;
+
+import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlValidator;
+import com.eviware.soapui.model.testsuite.AssertionError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schema validation of responses, done by the SOAP Response and Schema Compliance assertions
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class WsdlValidatorBenchmark {
+    @Param({"10", "1000"})
+    private int itemCount;
+
+    private WsdlValidator validator;
+    private ItemService.ResponseMessageExchange responseExchange;
+
+    @Setup
+    public void setUp() throws Exception {
+        ItemService itemService = new ItemService();
+        validator = new WsdlValidator(itemService.getInterface().getWsdlContext());
+        responseExchange = itemService.createResponseExchange(BenchmarkPayloads.createSoapResponse(itemCount));
+
+        AssertionError[] errors = validator.assertResponse(responseExchange, false);
+        if (errors.length > 0) {
+            throw new IllegalStateException("Benchmark response is not valid: " + errors[0]);
+        }
+    }
+
+    @Benchmark
+    public AssertionError[] assertResponse() {
+        return validator.assertResponse(responseExchange, false);
+    }
+
+    @Benchmark
+    public AssertionError[] assertResponseEnvelope() {
+        return validator.assertResponse(responseExchange, true);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingestion of loadtest samples the way LoadTestStatistics does it; virtual users publish their step samples into
+ * the samples buffer, which is drained into the per step latency histograms. Lives in the package of the buffer
+ * since it is not public.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LoadTestSamplesBenchmark {
+    private final static int BATCH_SIZE = 64;
+
+    @Param({"1", "10"})
+    private int stepCount;
+
+    private LoadTestSamplesBuffer buffer;
+    private LatencyHistogram[] histograms;
+    private LoadTestSamplesBuffer.SlotConsumer consumer;
+    private long timeTaken;
+
+    @Setup
+    public void setUp() {
+        buffer = new LoadTestSamplesBuffer(stepCount);
+        histograms = new LatencyHistogram[stepCount];
+        for (int c = 0; c < stepCount; c++) {
+            histograms[c] = new LatencyHistogram();
+        }
+
+        consumer = new LoadTestSamplesBuffer.SlotConsumer() {
+            public void consume(LoadTestSamplesBuffer buffer, int slot) {
+                for (int c = 0; c < histograms.length; c++) {
+                    long sampleCount = buffer.getSampleCount(slot, c);
+                    if (sampleCount > 0) {
+                        histograms[c].recordValue(buffer.getSample(slot, c) / sampleCount, sampleCount);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Publishes and merges a batch of testcase results, each with a sample for every step
+     */
+
+    @Benchmark
+    public int publishAndMergeTestCaseResults() {
+        long startTime = System.currentTimeMillis();
+        for (int c = 0; c < BATCH_SIZE; c++) {
+            long sequence = buffer.claim();
+            for (int step = 0; step < stepCount; step++) {
+                timeTaken = (timeTaken + 7) % 1000;
+                buffer.add(sequence, step, timeTaken, 1024);
+            }
+
+            buffer.publish(sequence, startTime, timeTaken * stepCount, true);
+        }
+
+        return buffer.drain(consumer);
+    }
+}
@@ -57,6 +57,7 @@ import com.eviware.soapui.impl.wsdl.actions.support.OpenUrlAction;
 import com.eviware.soapui.impl.wsdl.panels.teststeps.support.PropertyHolderTable;
 import com.eviware.soapui.impl.wsdl.submit.transports.jms.util.HermesUtils;
 import com.eviware.soapui.impl.wsdl.support.HelpUrls;
+import com.eviware.soapui.impl.wsdl.support.http.AsyncHttpClientSupport;
 import com.eviware.soapui.impl.wsdl.support.http.ProxyUtils;
 import com.eviware.soapui.model.ModelItem;
 import com.eviware.soapui.model.PanelBuilder;
@@ -1182,6 +1183,7 @@ public class SoapUI {
 
     public static void shutdown() {
         soapUITimer.cancel();
+        AsyncHttpClientSupport.shutdown();
     }
 
     public static void logError(Throwable e) {
@@ -18,6 +18,7 @@ package com.eviware.soapui.actions;
 
 import com.eviware.soapui.impl.wsdl.support.CompressionSupport;
 import com.eviware.soapui.model.settings.Settings;
+import com.eviware.soapui.monitor.MockEngineThreadPool;
 import com.eviware.soapui.settings.HttpSettings;
 import com.eviware.soapui.support.components.SimpleForm;
 import com.eviware.soapui.support.types.StringToStringMap;
@@ -41,14 +42,21 @@ public class HttpPrefs implements Prefs {
     public static final String USER_AGENT_HEADER = "User-Agent Header";
     public static final String SOCKET_TIMEOUT = "Socket Timeout";
     public static final String MAX_RESPONSE_SIZE = "Max response size";
+    public static final String RESPONSE_SPOOL_THRESHOLD = "Response spool threshold";
     public static final String ENCODED_URLS = "Pre-encoded Endpoints";
     public static final String MAX_CONNECTIONS_PER_HOST = "Max Connections Per Host";
     public static final String MAX_TOTAL_CONNECTIONS = "Max Total Connections";
+    public static final String CONNECTION_POOL_ENDPOINTS = "Connection Pool Endpoints";
+    public static final String ASYNC_HTTP_TRANSPORT = "Asynchronous Transport";
+    public static final String ASYNC_HTTP2 = "Asynchronous HTTP/2";
     public static final String BIND_ADDRESS = "Bind Address";
     public static final String LEAVE_MOCKENGINE = "Leave MockEngine";
     public static final String CHUNKING_THRESHOLD = "Chunking Threshold";
     public static final String HTTP_VERSION = "HTTP Version";
     public static final String ENABLE_MOCK_WIRE_LOG = "Enable Mock HTTP Log";
+    public static final String ASYNC_MOCK_RESPONSE_DELAYS = "Asynchronous Mock Delays";
+    public static final String MOCK_MAX_THREADS = "MockEngine Max Threads";
+    public static final String MOCK_MAX_QUEUED = "MockEngine Max Queued";
     public static final String DISABLE_RESPONSE_DECOMPRESSION = "Disable Response Decompression";
     public static final String FORWARD_SLASHES = "Normalize Forward Slashes";
 
@@ -99,12 +107,25 @@ public class HttpPrefs implements Prefs {
                     "Includes the time it took to read the entire response in time-taken", true);
             httpForm.appendTextField(HttpPrefs.SOCKET_TIMEOUT, "Socket timeout in milliseconds");
             httpForm.appendTextField(HttpPrefs.MAX_RESPONSE_SIZE, "Maximum size to read from response (0 = no limit)");
+            httpForm.appendTextField(HttpPrefs.RESPONSE_SPOOL_THRESHOLD,
+                    "Responses larger than this are spooled to a temporary file (0 = never)");
             httpForm.appendTextField(HttpPrefs.MAX_CONNECTIONS_PER_HOST, "Maximum number of Connections Per Host");
             httpForm.appendTextField(HttpPrefs.MAX_TOTAL_CONNECTIONS, "Maximum number of Total Connections");
+            httpForm.appendTextField(HttpPrefs.CONNECTION_POOL_ENDPOINTS,
+                    "Per endpoint connection pool settings, for example: * validate=2000; host:443 max=50 ttl=60000 warmup=10");
+            httpForm.appendCheckBox(HttpPrefs.ASYNC_HTTP_TRANSPORT, "Sends HTTP requests with the HttpClient 5 client, "
+                    + "except requests using sessions, proxies, NTLM/Kerberos, bind addresses or client certificates", false);
+            httpForm.appendCheckBox(HttpPrefs.ASYNC_HTTP2, "Uses HTTP/2 for the asynchronous transport, h2c for http endpoints",
+                    false);
             httpForm.appendSeparator();
             httpForm.appendCheckBox(HttpPrefs.LEAVE_MOCKENGINE, "Leave MockEngine running when stopping MockServices",
                     false);
             httpForm.appendCheckBox(HttpPrefs.ENABLE_MOCK_WIRE_LOG, "Logs wire content of all mock requests", false);
+            httpForm.appendCheckBox(HttpPrefs.ASYNC_MOCK_RESPONSE_DELAYS,
+                    "Delays mock responses without holding a MockEngine thread", false);
+            httpForm.appendTextField(HttpPrefs.MOCK_MAX_THREADS, "Maximum number of threads handling mock requests");
+            httpForm.appendTextField(HttpPrefs.MOCK_MAX_QUEUED,
+                    "Maximum number of mock requests waiting for a thread (0 = no queue)");
             httpForm.addSpace(5);
         }
 
@@ -132,14 +153,21 @@ public class HttpPrefs implements Prefs {
         settings.setString(HttpSettings.ENCODED_URLS, httpValues.get(ENCODED_URLS));
         settings.setString(HttpSettings.FORWARD_SLASHES, httpValues.get(FORWARD_SLASHES));
         settings.setString(HttpSettings.MAX_RESPONSE_SIZE, httpValues.get(MAX_RESPONSE_SIZE));
+        settings.setString(HttpSettings.RESPONSE_SPOOL_THRESHOLD, httpValues.get(RESPONSE_SPOOL_THRESHOLD));
         settings.setString(HttpSettings.INCLUDE_REQUEST_IN_TIME_TAKEN, httpValues.get(INCLUDE_REQUEST_IN_TIME_TAKEN));
         settings
                 .setString(HttpSettings.INCLUDE_RESPONSE_IN_TIME_TAKEN, httpValues.get(INCLUDE_RESPONSE_IN_TIME_TAKEN));
         settings.setString(HttpSettings.MAX_CONNECTIONS_PER_HOST, httpValues.get(MAX_CONNECTIONS_PER_HOST));
         settings.setString(HttpSettings.MAX_TOTAL_CONNECTIONS, httpValues.get(MAX_TOTAL_CONNECTIONS));
+        settings.setString(HttpSettings.CONNECTION_POOL_ENDPOINTS, httpValues.get(CONNECTION_POOL_ENDPOINTS));
+        settings.setString(HttpSettings.ASYNC_HTTP_TRANSPORT, httpValues.get(ASYNC_HTTP_TRANSPORT));
+        settings.setString(HttpSettings.ASYNC_HTTP2, httpValues.get(ASYNC_HTTP2));
         settings.setString(HttpSettings.BIND_ADDRESS, httpValues.get(BIND_ADDRESS));
         settings.setString(HttpSettings.LEAVE_MOCKENGINE, httpValues.get(LEAVE_MOCKENGINE));
         settings.setString(HttpSettings.ENABLE_MOCK_WIRE_LOG, httpValues.get(ENABLE_MOCK_WIRE_LOG));
+        settings.setString(HttpSettings.ASYNC_MOCK_RESPONSE_DELAYS, httpValues.get(ASYNC_MOCK_RESPONSE_DELAYS));
+        settings.setString(HttpSettings.MOCK_MAX_THREADS, httpValues.get(MOCK_MAX_THREADS));
+        settings.setString(HttpSettings.MOCK_MAX_QUEUED, httpValues.get(MOCK_MAX_QUEUED));
     }
 
     public void setFormValues(Settings settings) {
@@ -166,12 +194,21 @@ public class HttpPrefs implements Prefs {
         httpValues.put(SOCKET_TIMEOUT, settings.getString(HttpSettings.SOCKET_TIMEOUT, null));
         httpValues.put(ENCODED_URLS, settings.getString(HttpSettings.ENCODED_URLS, null));
         httpValues.put(MAX_RESPONSE_SIZE, settings.getString(HttpSettings.MAX_RESPONSE_SIZE, "0"));
+        httpValues.put(RESPONSE_SPOOL_THRESHOLD, settings.getString(HttpSettings.RESPONSE_SPOOL_THRESHOLD, "0"));
         httpValues.put(MAX_CONNECTIONS_PER_HOST, settings.getString(HttpSettings.MAX_CONNECTIONS_PER_HOST, "500"));
         httpValues.put(MAX_TOTAL_CONNECTIONS, settings.getString(HttpSettings.MAX_TOTAL_CONNECTIONS, "2000"));
+        httpValues.put(CONNECTION_POOL_ENDPOINTS, settings.getString(HttpSettings.CONNECTION_POOL_ENDPOINTS, ""));
+        httpValues.put(ASYNC_HTTP_TRANSPORT, settings.getString(HttpSettings.ASYNC_HTTP_TRANSPORT, null));
+        httpValues.put(ASYNC_HTTP2, settings.getString(HttpSettings.ASYNC_HTTP2, null));
         httpValues.put(BIND_ADDRESS, settings.getString(HttpSettings.BIND_ADDRESS, ""));
         httpValues.put(FORWARD_SLASHES, settings.getString(HttpSettings.FORWARD_SLASHES, ""));
         httpValues.put(LEAVE_MOCKENGINE, settings.getString(HttpSettings.LEAVE_MOCKENGINE, null));
         httpValues.put(ENABLE_MOCK_WIRE_LOG, settings.getString(HttpSettings.ENABLE_MOCK_WIRE_LOG, null));
+        httpValues.put(ASYNC_MOCK_RESPONSE_DELAYS, settings.getString(HttpSettings.ASYNC_MOCK_RESPONSE_DELAYS, null));
+        httpValues.put(MOCK_MAX_THREADS, settings.getString(HttpSettings.MOCK_MAX_THREADS,
+                String.valueOf(MockEngineThreadPool.DEFAULT_MAX_THREADS)));
+        httpValues.put(MOCK_MAX_QUEUED, settings.getString(HttpSettings.MOCK_MAX_QUEUED,
+                String.valueOf(MockEngineThreadPool.DEFAULT_MAX_QUEUED)));
         return httpValues;
     }
 
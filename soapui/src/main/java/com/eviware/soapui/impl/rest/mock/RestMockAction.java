@@ -39,6 +39,9 @@ import java.io.InputStreamReader;
 import java.util.List;
 
 public class RestMockAction extends AbstractMockOperation<RESTMockActionConfig, RestMockResponse> implements HasHelpUrl {
+    public final static String RESOURCE_PATH_PROPERTY = "resourcePath";
+    public final static String HTTP_METHOD_PROPERTY = "httpMethod";
+
     private RestResource resource = null;
 
     public RestMockAction(RestMockService mockService, RESTMockActionConfig config) {
@@ -164,7 +167,7 @@ public class RestMockAction extends AbstractMockOperation<RESTMockActionConfig,
         getConfig().setMethod(method.name());
         setIcon(UISupport.createImageIcon(getIconName(method.name())));
 
-        notifyPropertyChanged("httpMethod", null, this);
+        notifyPropertyChanged(HTTP_METHOD_PROPERTY, null, this);
     }
 
     public RestRequestInterface.HttpMethod getMethod() {
@@ -173,7 +176,7 @@ public class RestMockAction extends AbstractMockOperation<RESTMockActionConfig,
 
     public void setResourcePath(String path) {
         getConfig().setResourcePath(path);
-        notifyPropertyChanged("resourcePath", null, this);
+        notifyPropertyChanged(RESOURCE_PATH_PROPERTY, null, this);
     }
 
     public void setResource(RestResource resource) {
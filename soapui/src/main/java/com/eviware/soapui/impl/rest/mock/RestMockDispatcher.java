@@ -21,6 +21,7 @@ import com.eviware.soapui.impl.wsdl.mock.DispatchException;
 import com.eviware.soapui.impl.wsdl.mock.WsdlMockRunContext;
 import com.eviware.soapui.model.mock.MockResult;
 import com.eviware.soapui.model.support.AbstractMockDispatcher;
+import com.eviware.soapui.monitor.PropertySupport;
 import org.apache.commons.httpclient.HttpStatus;
 
 import javax.servlet.http.HttpServletRequest;
@@ -34,6 +35,7 @@ public class RestMockDispatcher extends AbstractMockDispatcher {
     public RestMockDispatcher(RestMockService mockService, WsdlMockRunContext mockContext) {
         this.mockService = mockService;
         this.mockContext = mockContext;
+        PropertySupport.applySystemProperties(getResultLog(), "soapui.mock.results", mockService);
     }
 
     @Override
@@ -56,6 +58,7 @@ public class RestMockDispatcher extends AbstractMockDispatcher {
             return createServerErrorMockResult(restMockRequest);
         } finally {
             mockService.fireOnMockResult(result);
+            completeMockResult(result);
         }
     }
 
@@ -71,7 +74,14 @@ public class RestMockDispatcher extends AbstractMockDispatcher {
         RestMockAction mockAction = (RestMockAction) mockService.findBestMatchedOperation(pathToFind, restMockRequest.getMethod());
 
         if (mockAction != null) {
-            return mockAction.dispatchRequest(restMockRequest);
+            long startTime = System.nanoTime();
+            RestMockResult result = mockAction.dispatchRequest(restMockRequest);
+            if (result != null) {
+                result.setTimeTaken((System.nanoTime() - startTime) / 1000000);
+                addMockResult(result);
+            }
+
+            return result;
         } else {
             return createNotFoundResponse(restMockRequest);
         }
@@ -154,6 +154,11 @@ public class RestMockResponse extends AbstractMockResponse<RESTMockResponseConfi
         return getMediaType();
     }
 
+    @Override
+    protected boolean requiresSpecificsContext() {
+        return false;
+    }
+
     @Override
     protected String removeEmptyContent(String responseContent) {
         return responseContent;
@@ -174,6 +179,11 @@ public class RestMockResponse extends AbstractMockResponse<RESTMockResponseConfi
         return false;
     }
 
+    @Override
+    public boolean isRemoveEmptyContent() {
+        return false;
+    }
+
     @Override
     public String getMediaType() {
         return getConfig().isSetMediaType() ? getConfig().getMediaType() : RestRequestInterface.DEFAULT_MEDIATYPE;
@@ -0,0 +1,306 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.rest.mock;
+
+import com.eviware.soapui.impl.rest.RestRequestInterface.HttpMethod;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route table of the actions of a RestMockService, one character trie of resource paths per HTTP method, so that
+ * finding the action for a request takes time proportional to the length of its path instead of the number of
+ * mocked resources.
+ * <p/>
+ * A request path matches an action if it equals or starts with the resource path of the action, the action with
+ * the longest match is selected. Template parameters in a resource path (like /items/{id}) match any non-empty part
+ * of a single path segment, literal characters are preferred over templates when both match. Actions are added and
+ * removed incrementally, and moved when their resource path or method changes.
+ */
+
+public class RestMockRouteTable {
+    private final Map<HttpMethod, Node> roots = new EnumMap<HttpMethod, Node>(HttpMethod.class);
+    private final Map<RestMockAction, Route> routes = new IdentityHashMap<RestMockAction, Route>();
+    private final InternalPropertyChangeListener propertyChangeListener = new InternalPropertyChangeListener();
+    private long sequence;
+
+    public synchronized void addAction(RestMockAction action) {
+        if (routes.containsKey(action)) {
+            return;
+        }
+
+        Route route = new Route(sequence++, action);
+        routes.put(action, route);
+        addRoute(route);
+
+        action.addPropertyChangeListener(propertyChangeListener);
+    }
+
+    public synchronized void removeAction(RestMockAction action) {
+        Route route = routes.remove(action);
+        if (route != null) {
+            removeRoute(route);
+            action.removePropertyChangeListener(propertyChangeListener);
+        }
+    }
+
+    /**
+     * Moves the action to its current resource path and method, keeping its position among actions with the same
+     * resource path
+     */
+
+    public synchronized void updateAction(RestMockAction action) {
+        Route route = routes.get(action);
+        if (route != null) {
+            removeRoute(route);
+            route.update();
+            addRoute(route);
+        }
+    }
+
+    public synchronized void release() {
+        for (RestMockAction action : routes.keySet()) {
+            action.removePropertyChangeListener(propertyChangeListener);
+        }
+
+        routes.clear();
+        roots.clear();
+    }
+
+    /**
+     * Finds the action best matching the specified path and method
+     *
+     * @param includePartialMatch if actions matching the start of the path should be included
+     * @return the matching action, or null if no action matches
+     */
+
+    public synchronized RestMockAction findAction(String path, HttpMethod method, boolean includePartialMatch) {
+        Node root = roots.get(method);
+        if (root == null || path == null) {
+            return null;
+        }
+
+        Match match = new Match(path.length());
+        find(root, path, 0, includePartialMatch, match);
+        return match.action;
+    }
+
+    private void find(Node node, String path, int pos, boolean includePartialMatch, Match match) {
+        if (!node.routes.isEmpty() && pos > match.length && (includePartialMatch || pos == path.length())) {
+            match.action = node.routes.get(0).action;
+            match.length = pos;
+        }
+
+        if (pos == path.length()) {
+            return;
+        }
+
+        Node child = node.children.get(path.charAt(pos));
+        if (child != null) {
+            find(child, path, pos + 1, includePartialMatch, match);
+        }
+
+        if (node.template != null && !match.isComplete()) {
+            int segmentEnd = path.indexOf('/', pos);
+            if (segmentEnd == -1) {
+                segmentEnd = path.length();
+            }
+
+            // the longest value first, the remaining path after a template is usually a new segment
+            for (int end = segmentEnd; end > pos && !match.isComplete(); end--) {
+                find(node.template, path, end, includePartialMatch, match);
+            }
+        }
+    }
+
+    private void addRoute(Route route) {
+        if (route.method == null || route.path == null) {
+            return;
+        }
+
+        Node root = roots.get(route.method);
+        if (root == null) {
+            root = new Node();
+            roots.put(route.method, root);
+        }
+
+        List<Node> nodes = getNodes(root, route.path, true);
+        List<Route> nodeRoutes = nodes.get(nodes.size() - 1).routes;
+
+        // actions sharing a resource path are selected in the order they were added
+        int ix = nodeRoutes.size();
+        while (ix > 0 && nodeRoutes.get(ix - 1).sequence > route.sequence) {
+            ix--;
+        }
+
+        nodeRoutes.add(ix, route);
+    }
+
+    private void removeRoute(Route route) {
+        if (route.method == null || route.path == null) {
+            return;
+        }
+
+        Node root = roots.get(route.method);
+        List<Node> nodes = root == null ? null : getNodes(root, route.path, false);
+        if (nodes == null) {
+            return;
+        }
+
+        nodes.get(nodes.size() - 1).routes.remove(route);
+
+        // prune the nodes that no longer lead to any route
+        for (int c = nodes.size() - 1; c > 0 && nodes.get(c).isEmpty(); c--) {
+            nodes.get(c - 1).removeChild(nodes.get(c));
+        }
+
+        if (root.isEmpty()) {
+            roots.remove(route.method);
+        }
+    }
+
+    /**
+     * Returns the nodes along the specified resource path starting with the root
+     *
+     * @return the nodes, or null if create is false and the path is not in the trie
+     */
+
+    private static List<Node> getNodes(Node root, String path, boolean create) {
+        List<Node> nodes = new ArrayList<Node>(path.length() + 1);
+        nodes.add(root);
+
+        Node node = root;
+        int pos = 0;
+        while (pos < path.length()) {
+            int templateEnd = getTemplateEnd(path, pos);
+            Node next;
+            if (templateEnd != -1) {
+                next = node.template;
+                if (next == null && create) {
+                    next = node.template = new Node();
+                }
+
+                pos = templateEnd + 1;
+            } else {
+                next = node.children.get(path.charAt(pos));
+                if (next == null && create) {
+                    next = new Node();
+                    node.children.put(path.charAt(pos), next);
+                }
+
+                pos++;
+            }
+
+            if (next == null) {
+                return null;
+            }
+
+            nodes.add(next);
+            node = next;
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Returns the index of the closing brace of the template parameter starting at the specified position, or -1 if
+     * there is none
+     */
+
+    private static int getTemplateEnd(String path, int pos) {
+        if (path.charAt(pos) != '{') {
+            return -1;
+        }
+
+        for (int c = pos + 1; c < path.length(); c++) {
+            char ch = path.charAt(c);
+            if (ch == '}') {
+                return c > pos + 1 ? c : -1;
+            } else if (ch == '/' || ch == '{') {
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<Character, Node>(4);
+        private final List<Route> routes = new ArrayList<Route>(1);
+        private Node template;
+
+        private boolean isEmpty() {
+            return routes.isEmpty() && children.isEmpty() && template == null;
+        }
+
+        private void removeChild(Node child) {
+            if (template == child) {
+                template = null;
+            } else {
+                children.values().remove(child);
+            }
+        }
+    }
+
+    private static class Route {
+        private final long sequence;
+        private final RestMockAction action;
+        private HttpMethod method;
+        private String path;
+
+        private Route(long sequence, RestMockAction action) {
+            this.sequence = sequence;
+            this.action = action;
+            update();
+        }
+
+        private void update() {
+            String methodName = action.getConfig().getMethod();
+            method = methodName == null ? null : HttpMethod.valueOf(methodName);
+            path = action.getResourcePath();
+        }
+    }
+
+    private static class Match {
+        private final int pathLength;
+        private RestMockAction action;
+        private int length = -1;
+
+        private Match(int pathLength) {
+            this.pathLength = pathLength;
+        }
+
+        private boolean isComplete() {
+            return length == pathLength;
+        }
+    }
+
+    private class InternalPropertyChangeListener implements PropertyChangeListener {
+        public void propertyChange(PropertyChangeEvent evt) {
+            if (RestMockAction.RESOURCE_PATH_PROPERTY.equals(evt.getPropertyName())
+                    || RestMockAction.HTTP_METHOD_PROPERTY.equals(evt.getPropertyName())) {
+                updateAction((RestMockAction) evt.getSource());
+            }
+        }
+    }
+}
@@ -41,6 +41,8 @@ public class RestMockService extends AbstractMockService<RestMockAction, RESTMoc
     public final static String ICON_NAME = "/rest_virt.png";
     public static final String STRING_ID = "REST";
 
+    private final RestMockRouteTable routeTable = new RestMockRouteTable();
+
     public String getStringID() {
         return STRING_ID;
     }
@@ -72,6 +74,24 @@ public class RestMockService extends AbstractMockService<RestMockAction, RESTMoc
         return new RestMockDispatcher(this, mockContext);
     }
 
+    @Override
+    public void addMockOperation(RestMockAction mockOperation) {
+        super.addMockOperation(mockOperation);
+        routeTable.addAction(mockOperation);
+    }
+
+    @Override
+    public void removeMockOperation(MockOperation mockOperation) {
+        super.removeMockOperation(mockOperation);
+        routeTable.removeAction((RestMockAction) mockOperation);
+    }
+
+    @Override
+    public void release() {
+        super.release();
+        routeTable.release();
+    }
+
     @Override
     public List<? extends ModelItem> getChildren() {
         return getMockOperationList();
@@ -126,37 +146,7 @@ public class RestMockService extends AbstractMockService<RestMockAction, RESTMoc
     }
 
     private MockOperation findMatchedOperation(String pathToFind, HttpMethod verbToFind, boolean includePartialMatch) {
-        MockOperation bestMatchedOperation = null;
-
-        for (MockOperation operation : getMockOperationList()) {
-            String operationPath = ((RestMockAction) operation).getResourcePath();
-            HttpMethod operationVerb = ((RestMockAction) operation).getMethod();
-
-            boolean matchesPath = operationPath.equals(pathToFind);
-            boolean matchesVerb = verbToFind == operationVerb;
-            boolean matchesPathPartially = pathToFind.startsWith(operationPath);
-
-            if (matchesPath && matchesVerb) {
-                return operation;
-            } else if (includePartialMatch && matchesPathPartially && matchesVerb) {
-                bestMatchedOperation = getBestMatchedOperation(bestMatchedOperation, operation, operationPath);
-            }
-        }
-
-        return bestMatchedOperation;
-    }
-
-    private MockOperation getBestMatchedOperation(MockOperation currentBestMatchedOperation, MockOperation operation, String operationPath) {
-        MockOperation bestMatchedOperation = currentBestMatchedOperation;
-
-        if (bestMatchedOperation == null || foundBetterMatch((RestMockAction) bestMatchedOperation, operationPath)) {
-            bestMatchedOperation = operation;
-        }
-        return bestMatchedOperation;
-    }
-
-    private boolean foundBetterMatch(RestMockAction bestMatchedOperation, String operationPath) {
-        return bestMatchedOperation.getResourcePath().length() < operationPath.length();
+        return routeTable.findAction(pathToFind, verbToFind, includePartialMatch);
     }
 
     public boolean canIAddAMockOperation(RestMockAction mockOperation) {
@@ -48,20 +48,12 @@ public class JsonMediaTypeHandler implements MediaTypeHandler {
             if (!StringUtils.hasContent(content)) {
                 return null;
             }
-            // remove nulls - workaround for bug in xmlserializer!?
-            content = content.replaceAll("\\\\u0000", "");
-            JSON json = new JsonUtil().parseTrimmedText(content);
-            JsonXmlSerializer serializer = new JsonXmlSerializer();
-            serializer.setTypeHintsEnabled(false);
-            serializer.setRootName(HttpUtils.isErrorStatus(response.getStatusCode()) ? "Fault" : "Response");
+            String rootName = HttpUtils.isErrorStatus(response.getStatusCode()) ? "Fault" : "Response";
             URL url = response.getURL();
             String originalUri = readOriginalUriFrom(response.getRequest());
             String namespaceUri = originalUri != null ? originalUri : makeNamespaceUriFrom(url);
-            serializer.setNamespace("", namespaceUri);
-            content = serializer.write(json);
-            content = XmlUtils.prettyPrintXml(content);
 
-            return content;
+            return convertToXml(content, rootName, namespaceUri);
         } catch (JSONException ignore) {
             // if the content is not valid JSON, empty XML will be returned
         } catch (Exception e) {
@@ -77,17 +69,8 @@ public class JsonMediaTypeHandler implements MediaTypeHandler {
             if (!StringUtils.hasContent(content)) {
                 return null;
             }
-            // remove nulls - workaround for bug in xmlserializer!?
-            content = content.replaceAll("\\\\u0000", "");
-            JSON json = new JsonUtil().parseTrimmedText(content);
-            JsonXmlSerializer serializer = new JsonXmlSerializer();
-            serializer.setTypeHintsEnabled(false);
-            serializer.setRootName("Response");
-            serializer.setNamespace("", "json");
-            content = serializer.write(json);
-            content = XmlUtils.prettyPrintXml(content);
-
-            return content;
+
+            return convertToXml(content, "Response", "json");
         } catch (JSONException ignore) {
             // if the content is not valid JSON, empty XML will be returned
         } catch (Exception e) {
@@ -96,6 +79,30 @@ public class JsonMediaTypeHandler implements MediaTypeHandler {
         return "<xml/>";
     }
 
+    /**
+     * Converts the JSON with a {@link StreamingJsonXmlSerializer}, falling back to parsing it and writing it with a
+     * {@link JsonXmlSerializer} if it relies on json-lib specific behaviour
+     */
+
+    private String convertToXml(String content, String rootName, String namespaceUri) {
+        // remove nulls - workaround for bug in xmlserializer!?
+        if (content.contains("\\u0000")) {
+            content = content.replaceAll("\\\\u0000", "");
+        }
+
+        String xml = new StreamingJsonXmlSerializer(rootName, namespaceUri).write(content);
+        if (xml != null) {
+            return xml;
+        }
+
+        JSON json = new JsonUtil().parseTrimmedText(content);
+        JsonXmlSerializer serializer = new JsonXmlSerializer();
+        serializer.setTypeHintsEnabled(false);
+        serializer.setRootName(rootName);
+        serializer.setNamespace("", namespaceUri);
+        return XmlUtils.prettyPrintXml(serializer.write(json));
+    }
+
     private String readOriginalUriFrom(AbstractHttpRequestInterface<?> request) {
         if (request instanceof RestRequest) {
             AbstractRequestConfig config = ((RestRequest) request).getConfig();
@@ -0,0 +1,547 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.rest.support.handlers;
+
+import com.eviware.soapui.support.StringUtils;
+import net.sf.json.util.JSONUtils;
+import org.apache.commons.lang.math.NumberUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Converts JSON text directly to the pretty printed XML that {@link JsonXmlSerializer} creates with type hints
+ * disabled, without building json-lib JSON objects, a XOM document and an intermediate XML string first.
+ * <p/>
+ * The JSON is read token by token and each value is written as soon as it is read; only the member names of the
+ * object that is currently written are kept, since the members are written sorted by name. JSON that relies on
+ * json-lib specific behaviour, for example comments, duplicate member names, functions or names starting with '@',
+ * is not converted and must be handled by {@link JsonXmlSerializer} instead.
+ */
+
+public class StreamingJsonXmlSerializer {
+    private final static String INDENT = "   ";
+    private final static String ARRAY_ELEMENT_NAME = "e";
+
+    private final String rootName;
+    private final String namespaceUri;
+
+    /**
+     * @param rootName     the name of the root element
+     * @param namespaceUri the default namespace of the root element, only written if the root is a non-empty object
+     */
+
+    public StreamingJsonXmlSerializer(String rootName, String namespaceUri) {
+        this.rootName = StringUtils.createXmlName(rootName);
+        this.namespaceUri = namespaceUri == null ? null : namespaceUri.trim();
+    }
+
+    /**
+     * @return the XML for the specified JSON, or null if it can not be converted by this serializer
+     */
+
+    public String write(String json) {
+        if (json == null || !isSupportedNamespace()) {
+            return null;
+        }
+
+        try {
+            return new Converter(json).convert();
+        } catch (UnsupportedJsonException e) {
+            return null;
+        }
+    }
+
+    private boolean isSupportedNamespace() {
+        if (namespaceUri == null) {
+            return true;
+        }
+
+        for (int c = 0; c < namespaceUri.length(); c++) {
+            char ch = namespaceUri.charAt(c);
+            if (ch <= ' ' || ch == '"' || ch == '<' || ch == '>' || ch == '{' || ch == '}' || ch == '|'
+                    || ch == '\\' || ch == '^' || ch == '`' || ch >= 0x7f) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static class UnsupportedJsonException extends Exception {
+        private UnsupportedJsonException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static class Member implements Comparable<Member> {
+        private final String name;
+        private final int valueStart;
+        private int valueEnd;
+
+        private Member(String name, int valueStart) {
+            this.name = name;
+            this.valueStart = valueStart;
+        }
+
+        public int compareTo(Member other) {
+            return name.compareTo(other.name);
+        }
+    }
+
+    /**
+     * State of a single conversion
+     */
+
+    private class Converter {
+        private final String json;
+        private final StringBuilder out;
+        private int pos;
+
+        private Converter(String json) {
+            this.json = json;
+            this.out = new StringBuilder(json.length() * 2);
+        }
+
+        private String convert() throws UnsupportedJsonException {
+            skipWhitespace();
+            if (pos >= json.length() || (json.charAt(pos) != '{' && json.charAt(pos) != '[')) {
+                throw new UnsupportedJsonException();
+            }
+
+            writeValue(rootName, 0, true);
+
+            skipWhitespace();
+            if (pos != json.length()) {
+                throw new UnsupportedJsonException();
+            }
+
+            return out.toString();
+        }
+
+        private void writeValue(String name, int depth, boolean root) throws UnsupportedJsonException {
+            skipWhitespace();
+            if (pos >= json.length()) {
+                throw new UnsupportedJsonException();
+            }
+
+            char ch = json.charAt(pos);
+            if (ch == '{') {
+                writeObject(name, depth, root);
+            } else if (ch == '[') {
+                writeArray(name, depth);
+            } else if (ch == '"' || ch == '\'') {
+                String value = readString();
+
+                // json-lib quotes these or turns them into functions, arrays or objects
+                if (value.equals("null") || value.startsWith("function") || mayBeJson(value)) {
+                    throw new UnsupportedJsonException();
+                }
+                writeText(name, depth, value, true);
+            } else {
+                writeLiteral(name, depth);
+            }
+        }
+
+        private boolean mayBeJson(String value) {
+            String trimmed = value.trim();
+            return trimmed.startsWith("[") || trimmed.startsWith("{");
+        }
+
+        private void writeObject(String name, int depth, boolean root) throws UnsupportedJsonException {
+            List<Member> members = new ArrayList<Member>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    skipWhitespace();
+                    String memberName = readName();
+                    skipWhitespace();
+                    if (peek() != ':') {
+                        throw new UnsupportedJsonException();
+                    }
+                    pos++;
+                    skipWhitespace();
+                    Member member = new Member(memberName, pos);
+                    skipValue();
+                    skipWhitespace();
+                    member.valueEnd = pos;
+                    members.add(member);
+
+                    char ch = peek();
+                    pos++;
+                    if (ch == '}') {
+                        break;
+                    } else if (ch != ',') {
+                        throw new UnsupportedJsonException();
+                    }
+                }
+            }
+
+            if (members.isEmpty()) {
+                writeEmptyElement(name, depth, false);
+                return;
+            }
+
+            Collections.sort(members);
+            for (int c = 1; c < members.size(); c++) {
+                // json-lib accumulates the values of duplicate names in an array
+                if (members.get(c).name.equals(members.get(c - 1).name)) {
+                    throw new UnsupportedJsonException();
+                }
+            }
+
+            int end = pos;
+            startLine(depth);
+            out.append('<').append(name);
+            if (root && StringUtils.hasContent(namespaceUri)) {
+                out.append(" xmlns=\"");
+                appendEscaped(namespaceUri, true);
+                out.append('"');
+            }
+            out.append('>');
+
+            for (Member member : members) {
+                pos = member.valueStart;
+                writeValue(StringUtils.createXmlName(member.name), depth + 1, false);
+
+                // the value must end where it was found to end when it was skipped
+                skipWhitespace();
+                if (pos != member.valueEnd) {
+                    throw new UnsupportedJsonException();
+                }
+            }
+
+            startLine(depth);
+            out.append("</").append(name).append('>');
+            pos = end;
+        }
+
+        private void writeArray(String name, int depth) throws UnsupportedJsonException {
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                writeEmptyElement(name, depth, false);
+                return;
+            }
+
+            startLine(depth);
+            out.append('<').append(name).append('>');
+            while (true) {
+                writeValue(ARRAY_ELEMENT_NAME, depth + 1, false);
+                skipWhitespace();
+
+                char ch = peek();
+                pos++;
+                if (ch == ']') {
+                    break;
+                } else if (ch != ',') {
+                    throw new UnsupportedJsonException();
+                }
+            }
+
+            startLine(depth);
+            out.append("</").append(name).append('>');
+        }
+
+        /**
+         * Writes true, false, null or a number the same way as json-lib parses and prints them
+         */
+
+        private void writeLiteral(String name, int depth) throws UnsupportedJsonException {
+            String literal = readLiteral();
+            if (literal.equalsIgnoreCase("true") || literal.equalsIgnoreCase("false")) {
+                writeText(name, depth, literal.toLowerCase(), false);
+            } else if (literal.equals("null")) {
+                writeEmptyElement(name, depth, true);
+            } else {
+                char first = literal.charAt(0);
+                if (!(Character.isDigit(first) || first == '-' || first == '.')) {
+                    throw new UnsupportedJsonException();
+                }
+
+                // json-lib reads numbers starting with 0 as octal or hexadecimal
+                if (first == '0' && literal.length() > 1 && literal.charAt(1) != '.') {
+                    throw new UnsupportedJsonException();
+                }
+
+                try {
+                    writeText(name, depth, JSONUtils.transformNumber(NumberUtils.createNumber(literal)).toString(),
+                            false);
+                } catch (NumberFormatException e) {
+                    throw new UnsupportedJsonException();
+                }
+            }
+        }
+
+        private void writeText(String name, int depth, String text, boolean escape) throws UnsupportedJsonException {
+            if (text.length() == 0) {
+                writeEmptyElement(name, depth, false);
+                return;
+            }
+
+            startLine(depth);
+            out.append('<').append(name).append('>');
+            if (escape) {
+                appendEscaped(text, false);
+            } else {
+                out.append(text);
+            }
+            out.append("</").append(name).append('>');
+        }
+
+        private void writeEmptyElement(String name, int depth, boolean isNull) {
+            startLine(depth);
+            out.append('<').append(name);
+            if (isNull) {
+                out.append(" null=\"true\"");
+            }
+            out.append("/>");
+        }
+
+        private void startLine(int depth) {
+            if (out.length() > 0) {
+                out.append('\n');
+            }
+            for (int c = 0; c < depth; c++) {
+                out.append(INDENT);
+            }
+        }
+
+        /**
+         * Escapes text like the XOM serializer used by JsonXmlSerializer does, and rejects characters that are not
+         * allowed in XML since XOM fails on them
+         */
+
+        private void appendEscaped(String text, boolean attribute) throws UnsupportedJsonException {
+            for (int c = 0; c < text.length(); c++) {
+                char ch = text.charAt(c);
+                switch (ch) {
+                    case '&':
+                        out.append("&amp;");
+                        break;
+                    case '<':
+                        out.append("&lt;");
+                        break;
+                    case '>':
+                        out.append("&gt;");
+                        break;
+                    case '\r':
+                        out.append("&#x0D;");
+                        break;
+                    case '"':
+                        out.append(attribute ? "&quot;" : "\"");
+                        break;
+                    case '\t':
+                        out.append(attribute ? "&#x09;" : "\t");
+                        break;
+                    case '\n':
+                        out.append(attribute ? "&#x0A;" : "\n");
+                        break;
+                    default:
+                        if (ch < 0x20 || ch == 0xfffe || ch == 0xffff) {
+                            throw new UnsupportedJsonException();
+                        } else if (Character.isHighSurrogate(ch)) {
+                            if (c + 1 >= text.length() || !Character.isLowSurrogate(text.charAt(c + 1))) {
+                                throw new UnsupportedJsonException();
+                            }
+                            out.append(ch).append(text.charAt(++c));
+                        } else if (Character.isLowSurrogate(ch)) {
+                            throw new UnsupportedJsonException();
+                        } else {
+                            out.append(ch);
+                        }
+                }
+            }
+        }
+
+        private char peek() throws UnsupportedJsonException {
+            if (pos >= json.length()) {
+                throw new UnsupportedJsonException();
+            }
+            return json.charAt(pos);
+        }
+
+        private void skipWhitespace() throws UnsupportedJsonException {
+            while (pos < json.length()) {
+                char ch = json.charAt(pos);
+                if (ch == '/' || ch == '#') {
+                    // comments are skipped by json-lib
+                    throw new UnsupportedJsonException();
+                } else if (ch > ' ') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        private String readName() throws UnsupportedJsonException {
+            char ch = peek();
+            String name;
+            if (ch == '"' || ch == '\'') {
+                name = readString();
+            } else {
+                // json-lib parses unquoted names as values, so only plain identifiers keep their text
+                name = readLiteral();
+                char first = name.charAt(0);
+                if (!(Character.isLetter(first) || first == '_' || first == '$') || name.equalsIgnoreCase("true")
+                        || name.equalsIgnoreCase("false") || name.equals("null") || name.startsWith("function")) {
+                    throw new UnsupportedJsonException();
+                }
+                for (int c = 1; c < name.length(); c++) {
+                    char nameChar = name.charAt(c);
+                    if (!(Character.isLetterOrDigit(nameChar) || nameChar == '_' || nameChar == '$' || nameChar == '-')) {
+                        throw new UnsupportedJsonException();
+                    }
+                }
+            }
+
+            // written as attributes and text by JsonXmlSerializer
+            if (name.startsWith("@") || name.equals("#text")) {
+                throw new UnsupportedJsonException();
+            }
+
+            return name;
+        }
+
+        private String readLiteral() throws UnsupportedJsonException {
+            int start = pos;
+            while (pos < json.length()) {
+                char ch = json.charAt(pos);
+                if (ch <= ' ' || ch == ',' || ch == ':' || ch == ']' || ch == '}' || ch == '/' || ch == '#') {
+                    break;
+                } else if (ch == '[' || ch == '{' || ch == '"' || ch == '\'' || ch == '\\' || ch == ';'
+                        || ch == '=') {
+                    throw new UnsupportedJsonException();
+                }
+                pos++;
+            }
+
+            if (pos == start) {
+                throw new UnsupportedJsonException();
+            }
+
+            return json.substring(start, pos);
+        }
+
+        private String readString() throws UnsupportedJsonException {
+            char quote = json.charAt(pos++);
+            int start = pos;
+
+            // strings without escapes are the common case and do not need to be copied char by char
+            while (pos < json.length()) {
+                char ch = json.charAt(pos);
+                if (ch == quote) {
+                    return json.substring(start, pos++);
+                } else if (ch == '\\') {
+                    break;
+                } else if (ch < ' ') {
+                    throw new UnsupportedJsonException();
+                }
+                pos++;
+            }
+
+            StringBuilder buf = new StringBuilder(json.substring(start, pos));
+            while (pos < json.length()) {
+                char ch = json.charAt(pos++);
+                if (ch == quote) {
+                    return buf.toString();
+                } else if (ch < ' ') {
+                    throw new UnsupportedJsonException();
+                } else if (ch != '\\') {
+                    buf.append(ch);
+                    continue;
+                }
+
+                char escaped = peek();
+                pos++;
+                switch (escaped) {
+                    case '"':
+                    case '\'':
+                    case '\\':
+                    case '/':
+                        buf.append(escaped);
+                        break;
+                    case 'b':
+                        buf.append('\b');
+                        break;
+                    case 'f':
+                        buf.append('\f');
+                        break;
+                    case 'n':
+                        buf.append('\n');
+                        break;
+                    case 'r':
+                        buf.append('\r');
+                        break;
+                    case 't':
+                        buf.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > json.length()) {
+                            throw new UnsupportedJsonException();
+                        }
+                        try {
+                            buf.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new UnsupportedJsonException();
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        throw new UnsupportedJsonException();
+                }
+            }
+
+            throw new UnsupportedJsonException();
+        }
+
+        /**
+         * Skips the value at the current position, values are validated when they are written
+         */
+
+        private void skipValue() throws UnsupportedJsonException {
+            int nesting = 0;
+            while (pos < json.length()) {
+                char ch = json.charAt(pos);
+                if (ch == '"' || ch == '\'') {
+                    readString();
+                } else {
+                    if (ch == '{' || ch == '[') {
+                        nesting++;
+                    } else if (ch == '}' || ch == ']') {
+                        if (nesting == 0) {
+                            return;
+                        }
+                        nesting--;
+                    } else if (ch == ',' && nesting == 0) {
+                        return;
+                    }
+                    pos++;
+                }
+
+                if (nesting == 0 && (ch == '}' || ch == ']' || ch == '"' || ch == '\'')) {
+                    return;
+                }
+            }
+        }
+    }
+}
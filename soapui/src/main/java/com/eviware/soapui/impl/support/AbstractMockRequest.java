@@ -274,6 +274,18 @@ public abstract class AbstractMockRequest implements MockRequest {
         this.requestContent = requestContent;
     }
 
+    /**
+     * Drops the content of this request, after which it has empty content and no attachments
+     */
+
+    public void discardContent() {
+        requestContent = "";
+        actualRequestContent = null;
+        multipartMessageSupport = null;
+        mockRequestDataSource = null;
+        requestXmlObject = null;
+    }
+
     public void setMockRequestDataSource(MockRequestDataSource mockRequestDataSource) {
         this.mockRequestDataSource = mockRequestDataSource;
     }
@@ -48,6 +48,7 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContainer;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.model.testsuite.TestPropertyListener;
+import com.eviware.soapui.monitor.DelayedMockResponse;
 import com.eviware.soapui.settings.CommonSettings;
 import com.eviware.soapui.support.scripting.ScriptEnginePool;
 import com.eviware.soapui.support.scripting.SoapUIScriptEngine;
@@ -78,6 +79,7 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
 
     private String responseContent;
     private MockResult mockResult;
+    private volatile PreparedMockResponse preparedResponse;
     private ScriptEnginePool scriptEnginePool;
 
 
@@ -236,7 +238,7 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
             getProperty("Request").setValue(request.getRequestContent());
 
             long delay = getResponseDelay();
-            if (delay > 0) {
+            if (delay > 0 && !DelayedMockResponse.addDelay(request, delay)) {
                 Thread.sleep(delay);
             }
 
@@ -246,23 +248,25 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
             }
 
             String responseContent = getResponseContent();
+            StringToStringsMap responseHeaders = getResponseHeaders();
 
-            // create merged context
-            WsdlMockRunContext context = new WsdlMockRunContext(request.getContext().getMockService(), null);
-            context.setMockResponse(this);
-
-            // casting below cause WsdlMockRunContext is both a MockRunContext AND a Map<String,Object>
-            context.putAll((WsdlMockRunContext) request.getContext());
-            context.putAll((WsdlMockRunContext) request.getRequestContext());
+            // the merged context is only needed for expansions, static responses are sent as they are
+            WsdlMockRunContext context = null;
+            if (requiresSpecificsContext() || hasPropertyExpansions(responseContent)
+                    || hasPropertyExpansions(responseHeaders)) {
+                context = createMergedContext(request);
+            }
 
-            StringToStringsMap responseHeaders = getResponseHeaders();
             for (Map.Entry<String, List<String>> headerEntry : responseHeaders.entrySet()) {
                 for (String value : headerEntry.getValue()) {
-                    result.addHeader(headerEntry.getKey(), PropertyExpander.expandProperties(context, value));
+                    result.addHeader(headerEntry.getKey(),
+                            context == null ? value : PropertyExpander.expandProperties(context, value));
                 }
             }
 
-            responseContent = PropertyExpander.expandProperties(context, responseContent, isEntitizeProperties());
+            if (context != null) {
+                responseContent = PropertyExpander.expandProperties(context, responseContent, isEntitizeProperties());
+            }
 
             responseContent = executeSpecifics(request, responseContent, context);
 
@@ -281,7 +285,47 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
         }
     }
 
+    private WsdlMockRunContext createMergedContext(MockRequest request) {
+        WsdlMockRunContext context = new WsdlMockRunContext(request.getContext().getMockService(), null);
+        context.setMockResponse(this);
+
+        // casting below cause WsdlMockRunContext is both a MockRunContext AND a Map<String,Object>
+        context.putAll((WsdlMockRunContext) request.getContext());
+        context.putAll((WsdlMockRunContext) request.getRequestContext());
+        return context;
+    }
+
+    private static boolean hasPropertyExpansions(String content) {
+        return content != null && content.contains("${");
+    }
+
+    private static boolean hasPropertyExpansions(StringToStringsMap headers) {
+        for (List<String> values : headers.values()) {
+            for (String value : values) {
+                if (hasPropertyExpansions(value)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if {@link #executeSpecifics} needs the merged run context of the request; if not, responses without
+     * property expansions are sent without creating it.
+     */
+
+    protected boolean requiresSpecificsContext() {
+        return true;
+    }
+
     public String writeResponse(MockResult result, String responseContent) throws Exception {
+        // responses without attachments are prepared once and written as they are while their content is unchanged
+        if (!isMtomEnabled() && !isInlineFilesEnabled() && getAttachmentCount() == 0) {
+            return writePreparedResponse(result, responseContent);
+        }
+
         MimeMultipart mp = null;
 
         Operation operation = getMockOperation().getOperation();
@@ -399,6 +443,60 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
         return responseContent;
     }
 
+    private String writePreparedResponse(MockResult result, String responseContent) throws Exception {
+        boolean isWsdlOperation = getMockOperation().getOperation() instanceof WsdlOperation;
+        String encoding = getEncoding();
+        boolean removeEmptyContent = isWsdlOperation && isRemoveEmptyContent();
+        boolean stripWhitespaces = isStripWhitespaces();
+
+        PreparedMockResponse prepared = preparedResponse;
+        if (prepared == null || !prepared.matches(responseContent, encoding, removeEmptyContent, stripWhitespaces)) {
+            String content = isWsdlOperation ? removeEmptyContent(responseContent) : responseContent;
+            if (stripWhitespaces) {
+                content = XmlUtils.stripWhitespaces(content);
+            }
+
+            prepared = new PreparedMockResponse(responseContent, encoding, removeEmptyContent, stripWhitespaces,
+                    content);
+            preparedResponse = prepared;
+        }
+
+        MockRequest request = result.getMockRequest();
+        request.getHttpResponse().setStatus(this.getResponseHttpStatus());
+
+        if (!result.getResponseHeaders().containsKeyIgnoreCase("Content-Type")) {
+            result.setContentType(getContentType());
+        }
+
+        byte[] data = prepared.getData();
+        String responseCompression = getResponseCompression();
+        String acceptEncoding = request.getRequestHeaders().get("Accept-Encoding", "");
+        if (AUTO_RESPONSE_COMPRESSION.equals(responseCompression) && acceptEncoding != null
+                && acceptEncoding.toUpperCase().contains("GZIP")) {
+            if (!headerExists("Content-Encoding", "gzip", result)) {
+                result.addHeader("Content-Encoding", "gzip");
+            }
+            data = prepared.getCompressedData(CompressionSupport.ALG_GZIP);
+        } else if (AUTO_RESPONSE_COMPRESSION.equals(responseCompression) && acceptEncoding != null
+                && acceptEncoding.toUpperCase().contains("DEFLATE")) {
+            result.addHeader("Content-Encoding", "deflate");
+            data = prepared.getCompressedData(CompressionSupport.ALG_DEFLATE);
+        } else if (data.length > 0 && (responseCompression.equals(CompressionSupport.ALG_DEFLATE)
+                || responseCompression.equals(CompressionSupport.ALG_GZIP))) {
+            result.addHeader("Content-Encoding", responseCompression);
+            data = prepared.getCompressedData(responseCompression);
+        }
+
+        if (data.length > 0) {
+            if (result.getResponseHeaders().get("Transfer-Encoding") == null) {
+                result.addHeader("Content-Length", "" + data.length);
+            }
+            result.writeRawResponseData(data);
+        }
+
+        return prepared.getContent();
+    }
+
     private boolean headerExists(String headerName, String headerValue, MockResult result) {
         StringToStringsMap resultResponseHeaders = result.getResponseHeaders();
 
@@ -458,6 +556,8 @@ public abstract class AbstractMockResponse<MockResponseConfigType extends BaseMo
 
     public abstract boolean isStripWhitespaces();
 
+    public abstract boolean isRemoveEmptyContent();
+
     public void addTestPropertyListener(TestPropertyListener listener) {
         propertyHolder.addTestPropertyListener(listener);
     }
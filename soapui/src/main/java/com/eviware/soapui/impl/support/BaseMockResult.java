@@ -27,6 +27,7 @@ import com.eviware.soapui.support.types.StringToStringsMap;
 import org.mortbay.jetty.HttpFields;
 
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Date;
@@ -100,8 +101,13 @@ public class BaseMockResult<MockRequestType extends MockRequest, MockOperationTy
 
     @SuppressWarnings("unchecked")
     public void finish() {
-        if (mockRequest.getHttpResponse() instanceof org.mortbay.jetty.Response) {
-            HttpFields httpFields = ((org.mortbay.jetty.Response) mockRequest.getHttpResponse()).getHttpFields();
+        HttpServletResponse httpResponse = mockRequest.getHttpResponse();
+        while (httpResponse instanceof HttpServletResponseWrapper) {
+            httpResponse = (HttpServletResponse) ((HttpServletResponseWrapper) httpResponse).getResponse();
+        }
+
+        if (httpResponse instanceof org.mortbay.jetty.Response) {
+            HttpFields httpFields = ((org.mortbay.jetty.Response) httpResponse).getHttpFields();
 
             Enumeration<String> e = httpFields.getFieldNames();
             while (e.hasMoreElements()) {
@@ -150,6 +156,19 @@ public class BaseMockResult<MockRequestType extends MockRequest, MockOperationTy
         setRawResponseData(bs);
     }
 
+    /**
+     * Drops the request and response content kept by this result, the headers and timings are kept
+     */
+
+    public void discardContent() {
+        responseContent = null;
+        rawResponseData = null;
+
+        if (mockRequest instanceof AbstractMockRequest) {
+            ((AbstractMockRequest) mockRequest).discardContent();
+        }
+    }
+
     public void setMockOperation(MockOperationType mockOperation) {
         this.mockOperation = mockOperation;
     }
@@ -0,0 +1,98 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.support;
+
+import com.eviware.soapui.impl.wsdl.support.CompressionSupport;
+
+import java.io.UnsupportedEncodingException;
+
+/**
+ * The content of a mock response after empty content removal, whitespace stripping and encoding, together with its
+ * compressed variants, so that responses with the same content can be written without preparing them again.
+ * <p/>
+ * A prepared response is only valid for the content and settings it was created with, see {@link #matches}.
+ */
+
+public class PreparedMockResponse {
+    private final String sourceContent;
+    private final String encoding;
+    private final boolean removeEmptyContent;
+    private final boolean stripWhitespaces;
+
+    private final String content;
+    private final byte[] data;
+    private volatile byte[] gzipData;
+    private volatile byte[] deflateData;
+
+    /**
+     * @param sourceContent the response content as passed to writeResponse
+     * @param content       the prepared content that is sent
+     */
+
+    public PreparedMockResponse(String sourceContent, String encoding, boolean removeEmptyContent,
+                                boolean stripWhitespaces, String content) throws UnsupportedEncodingException {
+        this.sourceContent = sourceContent;
+        this.encoding = encoding;
+        this.removeEmptyContent = removeEmptyContent;
+        this.stripWhitespaces = stripWhitespaces;
+
+        this.content = content == null ? "" : content;
+        data = encoding == null ? this.content.getBytes() : this.content.getBytes(encoding);
+    }
+
+    public boolean matches(String sourceContent, String encoding, boolean removeEmptyContent, boolean stripWhitespaces) {
+        // unchanged static content is usually the same instance
+        boolean sameContent = sourceContent == this.sourceContent
+                || (sourceContent != null && sourceContent.equals(this.sourceContent));
+
+        return sameContent && removeEmptyContent == this.removeEmptyContent
+                && stripWhitespaces == this.stripWhitespaces
+                && (encoding == null ? this.encoding == null : encoding.equals(this.encoding));
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * Returns the data compressed with the specified algorithm, compressing it on first use
+     */
+
+    public byte[] getCompressedData(String algorithm) throws Exception {
+        if (CompressionSupport.ALG_GZIP.equals(algorithm)) {
+            byte[] result = gzipData;
+            if (result == null) {
+                result = gzipData = CompressionSupport.compress(algorithm, data);
+            }
+
+            return result;
+        } else if (CompressionSupport.ALG_DEFLATE.equals(algorithm)) {
+            byte[] result = deflateData;
+            if (result == null) {
+                result = deflateData = CompressionSupport.compress(algorithm, data);
+            }
+
+            return result;
+        }
+
+        return CompressionSupport.compress(algorithm, data);
+    }
+}
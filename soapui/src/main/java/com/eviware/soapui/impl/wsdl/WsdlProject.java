@@ -82,6 +82,7 @@ import com.eviware.soapui.support.SoapUIException;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.jdbc.JdbcConnectionPool;
 import com.eviware.soapui.support.resolver.ResolveContext;
 import com.eviware.soapui.support.resolver.ResolveDialog;
 import com.eviware.soapui.support.scripting.SoapUIScriptEngine;
@@ -173,6 +174,7 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
     private SoapUIScriptEngine beforeRunScriptEngine;
     private Set<ProjectRunListener> runListeners = new HashSet<ProjectRunListener>();
     private Environment environment;
+    private JdbcConnectionPool jdbcConnectionPool;
 
     public WsdlProject() throws XmlException, IOException, SoapUIException {
         this((WorkspaceImpl) null);
@@ -1202,6 +1204,27 @@ public class WsdlProject extends AbstractTestPropertyHolderWsdlModelItem<Project
         if (beforeSaveScriptEngine != null) {
             beforeSaveScriptEngine.release();
         }
+
+        synchronized (this) {
+            if (jdbcConnectionPool != null) {
+                jdbcConnectionPool.close();
+                jdbcConnectionPool = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the pool of JDBC connections shared by the JDBC TestSteps of this project, configured by the
+     * JDBC_POOL settings in {@link ProjectSettings}
+     */
+
+    public synchronized JdbcConnectionPool getJdbcConnectionPool() {
+        if (jdbcConnectionPool == null) {
+            jdbcConnectionPool = new JdbcConnectionPool();
+            jdbcConnectionPool.configure(getSettings());
+        }
+
+        return jdbcConnectionPool;
     }
 
     public WsdlMockService addNewMockService(String name) {
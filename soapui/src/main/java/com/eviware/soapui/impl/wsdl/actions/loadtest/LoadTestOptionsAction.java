@@ -16,6 +16,7 @@
 
 package com.eviware.soapui.impl.wsdl.actions.loadtest;
 
+import com.eviware.soapui.impl.wsdl.loadtest.LoadTestThreadMode;
 import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
 import com.eviware.soapui.impl.wsdl.support.HelpUrls;
 import com.eviware.soapui.model.settings.Settings;
@@ -60,6 +61,8 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         dialog.setIntValue(SettingsForm.STRATEGY_INTERVAL, (int) loadTest.getStrategyInterval());
         dialog.setBooleanValue(SettingsForm.CANCEL_EXCESSIVE, loadTest.getCancelExcessiveThreads());
         dialog.setBooleanValue(SettingsForm.TESTSTEP_STATISTICS, loadTest.getUpdateStatisticsPerTestStep());
+        dialog.setValue(SettingsForm.THREAD_MODE, loadTest.getThreadMode().getDescription());
+        dialog.setBooleanValue(SettingsForm.WARM_UP_CONNECTIONS, loadTest.getWarmUpConnections());
 
         Settings settings = loadTest.getSettings();
 
@@ -87,6 +90,8 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
                         WsdlLoadTest.DEFAULT_STRATEGY_INTERVAL));
                 loadTest.setCancelExcessiveThreads(dialog.getBooleanValue(SettingsForm.CANCEL_EXCESSIVE));
                 loadTest.setUpdateStatisticsPerTestStep(dialog.getBooleanValue(SettingsForm.TESTSTEP_STATISTICS));
+                loadTest.setThreadMode(LoadTestThreadMode.fromDescription(dialog.getValue(SettingsForm.THREAD_MODE)));
+                loadTest.setWarmUpConnections(dialog.getBooleanValue(SettingsForm.WARM_UP_CONNECTIONS));
 
                 settings.setBoolean(HttpSettings.INCLUDE_REQUEST_IN_TIME_TAKEN,
                         dialog.getBooleanValue(SettingsForm.INCLUDE_REQUEST));
@@ -107,6 +112,7 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
 
     private void buildDialog() {
         dialog = ADialogBuilder.buildTabbedDialog(WizardForm.class, null);
+        dialog.setOptions(SettingsForm.THREAD_MODE, LoadTestThreadMode.getDescriptions());
         dialog.getFormField(SettingsForm.DISABLE_HISTORY).addFormFieldListener(new XFormFieldListener() {
             public void valueChanged(XFormField sourceField, String newValue, String oldValue) {
                 dialog.getFormField(SettingsForm.SAMPLE_INTERVAL).setEnabled(!Boolean.parseBoolean(newValue));
@@ -164,6 +170,12 @@ public class LoadTestOptionsAction extends AbstractSoapUIAction<WsdlLoadTest> {
         @AField(name = "Strategy Interval", description = "LoadTest Strategy application interval in milliseconds", type = AFieldType.INT)
         public final static String STRATEGY_INTERVAL = "Strategy Interval";
 
+        @AField(name = "Thread Mode", description = "Threads used for running virtual users (Virtual Threads require Java 21)", type = AFieldType.ENUMERATION)
+        public final static String THREAD_MODE = "Thread Mode";
+
+        @AField(name = "Warm Up Connections", description = "Open connections to all endpoints before starting threads", type = AFieldType.BOOLEAN)
+        public final static String WARM_UP_CONNECTIONS = "Warm Up Connections";
+
     }
 
     @AForm(name = "Logging", description = "", helpUrl = HelpUrls.LOADTESTOPTIONS_HELP_URL, icon = UISupport.OPTIONS_ICON_PATH)
@@ -0,0 +1,112 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.actions.project;
+
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.model.settings.Settings;
+import com.eviware.soapui.settings.ProjectSettings;
+import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.action.support.AbstractSoapUIAction;
+import com.eviware.soapui.support.jdbc.JdbcConnectionPool;
+import com.eviware.soapui.support.jdbc.JdbcConnectionPoolStatistics;
+import com.eviware.x.form.XFormDialog;
+import com.eviware.x.form.support.ADialogBuilder;
+import com.eviware.x.form.support.AField;
+import com.eviware.x.form.support.AField.AFieldType;
+import com.eviware.x.form.support.AForm;
+
+import java.util.List;
+
+/**
+ * Displays the options and statistics of the JDBC connection pool of a project
+ */
+
+public class JdbcConnectionPoolOptionsAction extends AbstractSoapUIAction<WsdlProject> {
+    public static final String SOAPUI_ACTION_ID = "JdbcConnectionPoolOptionsAction";
+    private XFormDialog dialog;
+
+    public JdbcConnectionPoolOptionsAction() {
+        super("JDBC Connection Pool", "Sets options for the JDBC connections of JDBC TestSteps in this project");
+    }
+
+    public void perform(WsdlProject project, Object param) {
+        if (dialog == null) {
+            dialog = ADialogBuilder.buildDialog(Form.class);
+        }
+
+        JdbcConnectionPool pool = project.getJdbcConnectionPool();
+        dialog.setIntValue(Form.MAX_CONNECTIONS, pool.getMaxConnections());
+        dialog.setIntValue(Form.MAX_WAIT, (int) pool.getMaxWait());
+        dialog.setIntValue(Form.VALIDATE_AFTER_INACTIVITY, (int) pool.getValidateAfterInactivity());
+        dialog.setIntValue(Form.IDLE_TIMEOUT, (int) pool.getIdleTimeout());
+        dialog.setIntValue(Form.STATEMENT_CACHE_SIZE, pool.getStatementCacheSize());
+        dialog.setValue(Form.STATISTICS, buildStatistics(pool.getStatistics()));
+
+        if (dialog.show()) {
+            Settings settings = project.getSettings();
+            settings.setLong(ProjectSettings.JDBC_POOL_MAX_CONNECTIONS,
+                    dialog.getIntValue(Form.MAX_CONNECTIONS, JdbcConnectionPool.DEFAULT_MAX_CONNECTIONS));
+            settings.setLong(ProjectSettings.JDBC_POOL_MAX_WAIT,
+                    dialog.getIntValue(Form.MAX_WAIT, (int) JdbcConnectionPool.DEFAULT_MAX_WAIT));
+            settings.setLong(ProjectSettings.JDBC_POOL_VALIDATE_AFTER_INACTIVITY, dialog.getIntValue(
+                    Form.VALIDATE_AFTER_INACTIVITY, (int) JdbcConnectionPool.DEFAULT_VALIDATE_AFTER_INACTIVITY));
+            settings.setLong(ProjectSettings.JDBC_POOL_IDLE_TIMEOUT,
+                    dialog.getIntValue(Form.IDLE_TIMEOUT, (int) JdbcConnectionPool.DEFAULT_IDLE_TIMEOUT));
+            settings.setLong(ProjectSettings.JDBC_POOL_STATEMENT_CACHE_SIZE,
+                    dialog.getIntValue(Form.STATEMENT_CACHE_SIZE, JdbcConnectionPool.DEFAULT_STATEMENT_CACHE_SIZE));
+
+            pool.configure(settings);
+        }
+    }
+
+    private static String buildStatistics(List<JdbcConnectionPoolStatistics> statistics) {
+        if (statistics.isEmpty()) {
+            return "No pooled connections";
+        }
+
+        StringBuilder buf = new StringBuilder();
+        for (JdbcConnectionPoolStatistics poolStatistics : statistics) {
+            if (buf.length() > 0) {
+                buf.append('\n');
+            }
+            buf.append(poolStatistics);
+        }
+
+        return buf.toString();
+    }
+
+    @AForm(name = "JDBC Connection Pool", description = "Set options for pooled JDBC connections", icon = UISupport.OPTIONS_ICON_PATH)
+    private interface Form {
+        @AField(name = "Max Connections", description = "for each connection string, 0 (the default) opens a new connection for each request", type = AFieldType.INT)
+        public final static String MAX_CONNECTIONS = "Max Connections";
+
+        @AField(name = "Max Wait", description = "time in milliseconds to wait for a connection when all are in use", type = AFieldType.INT)
+        public final static String MAX_WAIT = "Max Wait";
+
+        @AField(name = "Validate After", description = "idle time in milliseconds after which a connection is validated before reuse, -1 never validates", type = AFieldType.INT)
+        public final static String VALIDATE_AFTER_INACTIVITY = "Validate After";
+
+        @AField(name = "Idle Timeout", description = "idle time in milliseconds after which a connection is closed, 0 keeps idle connections", type = AFieldType.INT)
+        public final static String IDLE_TIMEOUT = "Idle Timeout";
+
+        @AField(name = "Statement Cache", description = "number of prepared statements cached for each connection", type = AFieldType.INT)
+        public final static String STATEMENT_CACHE_SIZE = "Statement Cache";
+
+        @AField(name = "Statistics", description = "current state of the pooled connections", type = AFieldType.INFORMATION)
+        public final static String STATISTICS = "Statistics";
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.SoapUI;
+import org.apache.log4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Defines on which threads the virtual users of a LoadTest are run
+ */
+
+public enum LoadTestThreadMode {
+    SHARED_POOL("Shared Pool"), DEDICATED_THREADS("Dedicated Threads"), VIRTUAL_THREADS("Virtual Threads");
+
+    public final static String THREAD_MODE_SETTING = WsdlLoadTest.class.getSimpleName() + "@" + "thread-mode";
+
+    private final static Logger log = Logger.getLogger(LoadTestThreadMode.class);
+    private final String description;
+
+    LoadTestThreadMode(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String toString() {
+        return description;
+    }
+
+    public static LoadTestThreadMode fromDescription(String description) {
+        for (LoadTestThreadMode mode : values()) {
+            if (mode.description.equals(description) || mode.name().equals(description)) {
+                return mode;
+            }
+        }
+
+        return SHARED_POOL;
+    }
+
+    public static String[] getDescriptions() {
+        LoadTestThreadMode[] modes = values();
+        String[] result = new String[modes.length];
+        for (int c = 0; c < modes.length; c++) {
+            result[c] = modes[c].description;
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates an executor for running the virtual users of the specified LoadTest
+     *
+     * @return a new executor that must be shut down after the run, or null if the shared SoapUI thread pool should
+     *         be used
+     */
+
+    public ExecutorService createExecutor(String loadTestName) {
+        switch (this) {
+            case VIRTUAL_THREADS:
+                ExecutorService executor = createVirtualThreadExecutor(loadTestName);
+                if (executor != null) {
+                    return executor;
+                }
+
+                log.warn("Virtual threads are not supported by this Java version, using dedicated threads for LoadTest ["
+                        + loadTestName + "]");
+                return Executors.newCachedThreadPool(new LoadTestThreadFactory(loadTestName));
+            case DEDICATED_THREADS:
+                return Executors.newCachedThreadPool(new LoadTestThreadFactory(loadTestName));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Virtual threads require Java 21, so they are created reflectively to keep running on older versions
+     */
+
+    private static ExecutorService createVirtualThreadExecutor(String loadTestName) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Method nameMethod = builderClass.getMethod("name", String.class, long.class);
+            Method factoryMethod = builderClass.getMethod("factory");
+
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = nameMethod.invoke(builder, loadTestName + " VirtualUser ", 0L);
+            ThreadFactory factory = (ThreadFactory) factoryMethod.invoke(builder);
+
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, new ContextClassLoaderThreadFactory(factory));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static ClassLoader getExtensionClassLoader() {
+        return SoapUI.getSoapUICore() == null ? null : SoapUI.getSoapUICore().getExtensionClassLoader();
+    }
+
+    private static class ContextClassLoaderThreadFactory implements ThreadFactory {
+        private final ThreadFactory factory;
+
+        public ContextClassLoaderThreadFactory(ThreadFactory factory) {
+            this.factory = factory;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = factory.newThread(r);
+            ClassLoader classLoader = getExtensionClassLoader();
+            if (classLoader != null) {
+                thread.setContextClassLoader(classLoader);
+            }
+
+            return thread;
+        }
+    }
+
+    private static class LoadTestThreadFactory implements ThreadFactory {
+        private final String loadTestName;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        public LoadTestThreadFactory(String loadTestName) {
+            this.loadTestName = loadTestName;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, loadTestName + " VirtualUser " + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+
+            ClassLoader classLoader = getExtensionClassLoader();
+            if (classLoader != null) {
+                thread.setContextClassLoader(classLoader);
+            }
+
+            return thread;
+        }
+    }
+}
@@ -86,6 +86,8 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
     public final static String LIMITTYPE_PROPERRY = WsdlLoadTest.class.getName() + "@limittype";
     public final static String SAMPLEINTERVAL_PROPERRY = WsdlLoadTest.class.getName() + "@sample-interval";
     public static final String MAXASSERTIONERRORS_PROPERTY = WsdlLoadTest.class.getName() + "@max-assertion-errors";
+    public final static String WARM_UP_CONNECTIONS_SETTING = WsdlLoadTest.class.getSimpleName() + "@"
+            + "warm-up-connections";
     public final static String SETUP_SCRIPT_PROPERTY = WsdlTestCase.class.getName() + "@setupScript";
     public final static String TEARDOWN_SCRIPT_PROPERTY = WsdlTestCase.class.getName() + "@tearDownScript";
 
@@ -253,6 +255,27 @@ public class WsdlLoadTest extends AbstractWsdlModelItem<LoadTestConfig> implemen
         getConfig().setCancelExcessiveThreads(value);
     }
 
+    public LoadTestThreadMode getThreadMode() {
+        return LoadTestThreadMode.fromDescription(getSettings().getString(LoadTestThreadMode.THREAD_MODE_SETTING,
+                LoadTestThreadMode.SHARED_POOL.name()));
+    }
+
+    public void setThreadMode(LoadTestThreadMode threadMode) {
+        getSettings().setString(LoadTestThreadMode.THREAD_MODE_SETTING, threadMode.name());
+    }
+
+    /**
+     * @return if connections to the endpoints of the TestCase are opened before the threads are started
+     */
+
+    public boolean getWarmUpConnections() {
+        return getSettings().getBoolean(WARM_UP_CONNECTIONS_SETTING);
+    }
+
+    public void setWarmUpConnections(boolean warmUpConnections) {
+        getSettings().setBoolean(WARM_UP_CONNECTIONS_SETTING, warmUpConnections);
+    }
+
     public boolean getLogStatisticsOnThreadChange() {
         return getConfig().getLogStatisticsOnThreadChange();
     }
@@ -18,12 +18,24 @@ package com.eviware.soapui.impl.wsdl.loadtest;
 
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.config.LoadTestConfig;
+import com.eviware.soapui.config.BreakPointConfig;
 import com.eviware.soapui.config.LoadTestLimitTypesConfig;
+import com.eviware.soapui.config.ReportTemplateConfig;
 import com.eviware.soapui.config.SecurityTestConfig;
 import com.eviware.soapui.config.TestCaseConfig;
+import com.eviware.soapui.impl.support.AbstractHttpRequest;
+import com.eviware.soapui.impl.support.http.HttpRequestTestStep;
+import com.eviware.soapui.impl.wsdl.MutableTestPropertyHolder;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLogMessageEntry;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.ArrivalRateLoadStrategy;
+import com.eviware.soapui.impl.wsdl.loadtest.strategy.LoadStrategy;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpClientRequestTransport;
+import com.eviware.soapui.impl.wsdl.support.http.HttpClientSupport;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCaseRunner;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlTestStep;
+import com.eviware.soapui.model.TestPropertyHolder;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.settings.Settings;
 import com.eviware.soapui.model.support.TestRunListenerAdapter;
 import com.eviware.soapui.model.testsuite.LoadTestRunListener;
@@ -31,11 +43,13 @@ import com.eviware.soapui.model.testsuite.LoadTestRunner;
 import com.eviware.soapui.model.testsuite.TestCaseRunContext;
 import com.eviware.soapui.model.testsuite.TestCaseRunner;
 import com.eviware.soapui.model.testsuite.TestRunContext;
+import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.model.testsuite.TestRunnable;
 import com.eviware.soapui.model.testsuite.TestStep;
 import com.eviware.soapui.model.testsuite.TestStepResult;
 import com.eviware.soapui.settings.HttpSettings;
 import com.eviware.soapui.settings.WsdlSettings;
+import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.types.StringToObjectMap;
 import com.eviware.x.dialogs.Worker;
@@ -49,8 +63,10 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * TestRunner for load-tests.
@@ -77,6 +93,9 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
     private TestCaseStarter testCaseStarter;
     private boolean stopped;
     private TestCaseConfig blueprintConfig;
+    private WsdlTestCase blueprintTestCase;
+    private final List<WsdlTestCase> idleTestCases = new ArrayList<WsdlTestCase>();
+    private ExecutorService executor;
 
     public WsdlLoadTestRunner(WsdlLoadTest test) {
         this.loadTest = test;
@@ -96,6 +115,7 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         threadsWaitingToStart = 0;
         startedCount = 0;
         context = new WsdlLoadTestContext(this);
+        executor = loadTest.getThreadMode().createExecutor(loadTest.getName());
 
         try {
             loadTest.runSetupScript(context, this);
@@ -160,10 +180,27 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         }).start();
     }
 
-    private InternalTestCaseRunner startTestCase(WsdlTestCase testCase) {
+    /**
+     * Starts a virtual user for the specified testcase; runs under the same lock as stop(), which shuts down the
+     * executor, so no virtual users are started once the LoadTest is stopping
+     *
+     * @return the runner of the virtual user, or null if it was not started
+     */
+
+    private synchronized InternalTestCaseRunner startTestCase(WsdlTestCase testCase) {
+        if (stopped || status != Status.RUNNING) {
+            releaseTestCase(testCase);
+            return null;
+        }
+
         InternalTestCaseRunner testCaseRunner = new InternalTestCaseRunner(testCase, threadCount++);
 
-        SoapUI.getThreadPool().submit(testCaseRunner);
+        if (executor != null) {
+            executor.submit(testCaseRunner);
+        } else {
+            SoapUI.getThreadPool().submit(testCaseRunner);
+        }
+
         runners.add(testCaseRunner);
         return testCaseRunner;
     }
@@ -321,9 +358,17 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
             }
         }
 
+        releaseIdleTestCases();
+
+        if (executor != null) {
+            // lets running virtual users finish their current testcase
+            executor.shutdown();
+            executor = null;
+        }
+
         context.clear();
         stopped = true;
-        blueprintConfig = null;
+        releaseBlueprint();
     }
 
     public boolean hasStopped() {
@@ -393,6 +438,10 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                 testCases.add(createTestCase());
             }
 
+            if (loadTest.getWarmUpConnections() && !canceled) {
+                warmUpConnections(monitor);
+            }
+
             startTime = System.currentTimeMillis();
 
             if (canceled) {
@@ -425,16 +474,63 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                 }
 
                 // could have been canceled..
-                if (!testCases.isEmpty()) {
-                    startTestCase(testCases.remove(0));
+                boolean started = false;
+                synchronized (WsdlLoadTestRunner.this) {
+                    if (!testCases.isEmpty()) {
+                        started = startTestCase(testCases.remove(0)) != null;
+                        threadsWaitingToStart--;
+                    }
+                }
+
+                if (started) {
                     monitor.setProgress(1, "Started thread " + (++cnt));
-                    threadsWaitingToStart--;
                 }
             }
 
             return null;
         }
 
+        /**
+         * Opens and validates pooled connections to the endpoints of the TestCase, one for each thread, so that the
+         * statistics are not skewed by connects and TLS handshakes; connections after the first to an endpoint
+         * resume its TLS session. Connections are opened with the keystore of the request steps, so requests with
+         * client certificates reuse them as well.
+         */
+
+        private void warmUpConnections(XProgressMonitor monitor) {
+            Set<WarmUpEndpoint> endpoints = new LinkedHashSet<WarmUpEndpoint>();
+            for (TestStep testStep : loadTest.getTestCase().getTestStepList()) {
+                if (testStep instanceof HttpRequestTestStep && !testStep.isDisabled()) {
+                    AbstractHttpRequest<?> httpRequest = ((HttpRequestTestStep) testStep).getHttpRequest();
+                    String endpoint = PropertyExpander.expandProperties(context, httpRequest.getEndpoint());
+                    if (StringUtils.hasContent(endpoint) && endpoint.toLowerCase().startsWith("http")) {
+                        String sslConfig = HttpClientRequestTransport.getSslConfig(httpRequest, context);
+                        endpoints.add(new WarmUpEndpoint(endpoint, sslConfig));
+                    }
+                }
+            }
+
+            for (WarmUpEndpoint warmUpEndpoint : endpoints) {
+                if (canceled) {
+                    break;
+                }
+
+                String endpoint = warmUpEndpoint.endpoint;
+                monitor.setProgress(1, "Warming up connections to " + endpoint);
+                try {
+                    int opened = HttpClientSupport.warmUpConnections(endpoint, warmUpEndpoint.sslConfig,
+                            loadTest.getThreadCount());
+                    loadTest.getLoadTestLog().addEntry(
+                            new LoadTestLogMessageEntry("Opened " + opened + " connections to " + endpoint));
+                } catch (InterruptedException e) {
+                    break;
+                } catch (Exception e) {
+                    loadTest.getLoadTestLog().addEntry(
+                            new LoadTestLogMessageEntry("Failed to warm up connections to " + endpoint + "; " + e));
+                }
+            }
+        }
+
         public boolean onCancel() {
             cancel("Stopped from UI during start-up");
             stop();
@@ -486,6 +582,20 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                             runner.getRunContext().setProperty(TestCaseRunContext.TOTAL_RUN_COUNT, startedCount++);
                         }
 
+                        // wait for the scheduled arrival before the runner starts so it is not part of its time taken
+                        LoadStrategy loadStrategy = loadTest.getLoadStrategy();
+                        if (loadStrategy instanceof ArrivalRateLoadStrategy) {
+                            long intendedStartTime = ((ArrivalRateLoadStrategy) loadStrategy).awaitNextArrival(
+                                    WsdlLoadTestRunner.this);
+                            if (canceled || !isRunning()) {
+                                break;
+                            }
+
+                            if (intendedStartTime >= 0) {
+                                runner.getRunContext().setProperty(TestRunContext.INTENDED_START_TIME, intendedStartTime);
+                            }
+                        }
+
                         runner.run();
                     } catch (Throwable e) {
                         System.err.println("Error running testcase: " + e);
@@ -500,8 +610,7 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
                 }
             } finally {
                 finishRunner(this);
-                testCase.release();
-                testCase.removeTestRunListener(testRunListener);
+                recycleTestCase(testCase);
             }
         }
 
@@ -585,31 +694,82 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         }
     }
 
+    /**
+     * Keeps the testcase of a finished or cancelled virtual user for reuse by a later one, which then gets it
+     * reset to the blueprint instead of building a new copy
+     */
+
+    private synchronized void recycleTestCase(WsdlTestCase testCase) {
+        if (status == Status.RUNNING && idleTestCases.size() < loadTest.getThreadCount()) {
+            idleTestCases.add(testCase);
+        } else {
+            releaseTestCase(testCase);
+        }
+    }
+
+    private synchronized void releaseIdleTestCases() {
+        for (WsdlTestCase testCase : idleTestCases) {
+            releaseTestCase(testCase);
+        }
+
+        idleTestCases.clear();
+    }
+
+    private void releaseTestCase(WsdlTestCase testCase) {
+        testCase.release();
+        testCase.removeTestRunListener(testRunListener);
+    }
+
+    private synchronized void releaseBlueprint() {
+        if (blueprintTestCase != null) {
+            blueprintTestCase.release();
+            blueprintTestCase = null;
+        }
+
+        blueprintConfig = null;
+    }
+
     /**
      * Creates a copy of the underlying WsdlTestCase with all LoadTests removed
-     * and configured for LoadTesting
+     * and configured for LoadTesting, reusing the testcase of a finished virtual
+     * user if available
      */
 
-    private synchronized WsdlTestCase createTestCase() {
-        WsdlTestCase testCase = loadTest.getTestCase();
-        TestCaseConfig config = null;
+    synchronized WsdlTestCase createTestCase() {
+        while (!idleTestCases.isEmpty()) {
+            WsdlTestCase testCase = idleTestCases.remove(idleTestCases.size() - 1);
+            if (resetTestCase(testCase)) {
+                return testCase;
+            }
+
+            releaseTestCase(testCase);
+        }
+
+        // clone entire testCase
+        WsdlTestCase tc = loadTest.getTestCase().getTestSuite().buildTestCase(
+                (TestCaseConfig) getBlueprintConfig().copy(), true);
+        tc.afterLoad();
+        tc.addTestRunListener(testRunListener);
+        configureTestCase(tc);
+        return tc;
+    }
 
+    private TestCaseConfig getBlueprintConfig() {
         if (blueprintConfig == null) {
             try {
-                blueprintConfig = TestCaseConfig.Factory.parse(testCase.getConfig().xmlText());
+                blueprintConfig = TestCaseConfig.Factory.parse(loadTest.getTestCase().getConfig().xmlText());
                 blueprintConfig.setLoadTestArray(new LoadTestConfig[0]);
                 blueprintConfig.setSecurityTestArray(new SecurityTestConfig[0]);
+                stripBlueprint(blueprintConfig);
             } catch (XmlException e) {
                 e.printStackTrace();
             }
         }
 
-        config = (TestCaseConfig) blueprintConfig.copy();
+        return blueprintConfig;
+    }
 
-        // clone entire testCase
-        WsdlTestCase tc = testCase.getTestSuite().buildTestCase(config, true);
-        tc.afterLoad();
-        tc.addTestRunListener(testRunListener);
+    private void configureTestCase(WsdlTestCase tc) {
         Settings settings = tc.getSettings();
         settings.setBoolean(HttpSettings.INCLUDE_REQUEST_IN_TIME_TAKEN,
                 loadTest.getSettings().getBoolean(HttpSettings.INCLUDE_REQUEST_IN_TIME_TAKEN));
@@ -625,7 +785,91 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         // asserting..
         tc.setDiscardOkResults(false);
         tc.setMaxResults(0);
-        return tc;
+    }
+
+    /**
+     * Resets a reused testcase to the state of a fresh copy of the blueprint. Properties added by the previous
+     * virtual user are removed and missing ones are added back, after which the testcase and every step are
+     * rebound to a new copy of the blueprint config, restoring property values, request contents, transfers
+     * and scripts changed during its runs.
+     *
+     * @return false if the steps of the testcase no longer match the blueprint, in which case it can't be reset
+     */
+
+    synchronized boolean resetTestCase(WsdlTestCase testCase) {
+        if (blueprintTestCase == null) {
+            // only used as reference for the properties and steps, it is never run
+            blueprintTestCase = loadTest.getTestCase().getTestSuite().buildTestCase(getBlueprintConfig(), true);
+        }
+
+        if (testCase.getTestStepCount() != blueprintTestCase.getTestStepCount()) {
+            return false;
+        }
+
+        for (int c = 0; c < testCase.getTestStepCount(); c++) {
+            WsdlTestStep testStep = testCase.getTestStepAt(c);
+            WsdlTestStep blueprintStep = blueprintTestCase.getTestStepAt(c);
+            if (testStep.getClass() != blueprintStep.getClass() || !testStep.getName().equals(blueprintStep.getName())) {
+                return false;
+            }
+        }
+
+        alignProperties(blueprintTestCase, testCase);
+        for (int c = 0; c < testCase.getTestStepCount(); c++) {
+            WsdlTestStep testStep = testCase.getTestStepAt(c);
+            if (testStep instanceof MutableTestPropertyHolder) {
+                alignProperties(blueprintTestCase.getTestStepAt(c), (MutableTestPropertyHolder) testStep);
+            }
+        }
+
+        testCase.resetConfigOnMove((TestCaseConfig) getBlueprintConfig().copy());
+        configureTestCase(testCase);
+        return true;
+    }
+
+    /**
+     * Gives the target the same properties in the same order as the source, so that they line up with the
+     * properties of the config it is rebound to
+     */
+
+    private static void alignProperties(TestPropertyHolder source, MutableTestPropertyHolder target) {
+        for (String name : target.getPropertyNames()) {
+            if (!source.hasProperty(name)) {
+                target.removeProperty(name);
+            }
+        }
+
+        List<TestProperty> properties = source.getPropertyList();
+        for (int c = 0; c < properties.size(); c++) {
+            String name = properties.get(c).getName();
+            if (!target.hasProperty(name)) {
+                target.addProperty(name);
+            }
+
+            target.moveProperty(name, c);
+        }
+    }
+
+    /**
+     * Removes content that is never used while running, so that it isn't copied
+     * into every virtual user
+     */
+
+    private static void stripBlueprint(TestCaseConfig config) {
+        config.setReportTemplatesArray(new ReportTemplateConfig[0]);
+        config.setBreakPointsArray(new BreakPointConfig[0]);
+
+        if (config.isSetReportScript()) {
+            config.unsetReportScript();
+        }
+
+        if (config.isSetReportParameters()) {
+            config.unsetReportParameters();
+        }
+
+        if (config.isSetRequirements()) {
+            config.unsetRequirements();
+        }
     }
 
     public String getReason() {
@@ -670,6 +914,36 @@ public class WsdlLoadTestRunner implements LoadTestRunner {
         }
     }
 
+    /**
+     * An endpoint to warm up connections to, with the keystore of the requests sent to it
+     */
+
+    private static class WarmUpEndpoint {
+        private final String endpoint;
+        private final String sslConfig;
+
+        private WarmUpEndpoint(String endpoint, String sslConfig) {
+            this.endpoint = endpoint;
+            this.sslConfig = sslConfig;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof WarmUpEndpoint)) {
+                return false;
+            }
+
+            WarmUpEndpoint other = (WarmUpEndpoint) obj;
+            return endpoint.equals(other.endpoint)
+                    && (sslConfig == null ? other.sslConfig == null : sslConfig.equals(other.sslConfig));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * endpoint.hashCode() + (sslConfig == null ? 0 : sslConfig.hashCode());
+        }
+    }
+
     public boolean isRunning() {
         return status == Status.RUNNING;
     }
@@ -0,0 +1,140 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * HDR-style histogram of measured times used for calculating percentiles. Values are stored in log-linear buckets
+ * with a fixed relative precision, so recording never allocates and is safe to call from any number of threads.
+ */
+
+public final class LatencyHistogram {
+    /**
+     * Number of bits used for the linear sub-buckets; values above the first bucket use half of the 256 sub-buckets,
+     * which gives a relative precision of 1/128, better than 1%
+     */
+    private final static int SUB_BUCKET_BITS = 8;
+    private final static int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private final static int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    /**
+     * Highest value that can be tracked without clamping (about 24 days when recording milliseconds)
+     */
+    public final static long HIGHEST_TRACKABLE_VALUE = Integer.MAX_VALUE;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(indexFor(HIGHEST_TRACKABLE_VALUE) + 1);
+    }
+
+    public void recordValue(long value) {
+        recordValue(value, 1);
+    }
+
+    public void recordValue(long value, long count) {
+        if (count <= 0) {
+            return;
+        }
+
+        if (value < 0) {
+            value = 0;
+        } else if (value > HIGHEST_TRACKABLE_VALUE) {
+            value = HIGHEST_TRACKABLE_VALUE;
+        }
+
+        counts.addAndGet(indexFor(value), count);
+        totalCount.addAndGet(count);
+
+        long max = maxValue.get();
+        while (value > max && !maxValue.compareAndSet(max, value)) {
+            max = maxValue.get();
+        }
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the value below which the specified percentage of all recorded values fall
+     *
+     * @param percentile a percentile between 0 and 100
+     * @return the highest value equivalent to the bucket containing the percentile, or 0 if nothing has been recorded
+     */
+
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+
+        double requested = Math.min(Math.max(percentile, 0), 100);
+        long countAtPercentile = Math.max(1, (long) Math.ceil((requested / 100) * total));
+
+        long cumulative = 0;
+        int length = counts.length();
+        for (int c = 0; c < length; c++) {
+            cumulative += counts.get(c);
+            if (cumulative >= countAtPercentile) {
+                return Math.min(highestEquivalentValue(c), maxValue.get());
+            }
+        }
+
+        return maxValue.get();
+    }
+
+    public void reset() {
+        for (int c = 0; c < counts.length(); c++) {
+            counts.set(c, 0);
+        }
+
+        totalCount.set(0);
+        maxValue.set(0);
+    }
+
+    static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF_COUNT + 1;
+        long subBucket = offset % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated multi-producer / single-consumer ring buffer for testcase samples. Load threads claim a slot, add
+ * their step samples directly into its arrays and publish it; the statistics thread merges published slots in
+ * order. No objects are created per sample and producers never contend on a lock.
+ * <p/>
+ * The consumer is woken as soon as something is published, so samples are merged without polling. If the buffer is
+ * full a producer waits at most the claim timeout for the consumer and then drops its sample instead of stalling the
+ * load thread; dropped samples are counted. Closing the buffer releases all waiting producers and consumers.
+ */
+
+final class LoadTestSamplesBuffer {
+    public final static int DEFAULT_CAPACITY = 1024;
+    public final static long DEFAULT_CLAIM_TIMEOUT = 1000;
+
+    private final int capacity;
+    private final int mask;
+    private final int stepCount;
+
+    private final long[] samples;
+    private final long[] sizes;
+    private final long[] sampleCounts;
+    private final long[] startTimes;
+    private final long[] timesTaken;
+    private final long[] startDelays;
+    private final boolean[] complete;
+
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final long claimTimeoutNanos;
+    private volatile long consumed;
+    private volatile boolean closed;
+    private volatile Thread waitingConsumer;
+
+    LoadTestSamplesBuffer(int stepCount) {
+        this(stepCount, DEFAULT_CAPACITY, DEFAULT_CLAIM_TIMEOUT);
+    }
+
+    LoadTestSamplesBuffer(int stepCount, int capacity) {
+        this(stepCount, capacity, DEFAULT_CLAIM_TIMEOUT);
+    }
+
+    /**
+     * @param claimTimeout the maximum number of milliseconds a producer waits for a free slot before dropping its
+     *                     sample
+     */
+
+    LoadTestSamplesBuffer(int stepCount, int capacity, long claimTimeout) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.stepCount = stepCount;
+        this.claimTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(claimTimeout);
+
+        samples = new long[capacity * stepCount];
+        sizes = new long[samples.length];
+        sampleCounts = new long[samples.length];
+        startTimes = new long[capacity];
+        timesTaken = new long[capacity];
+        startDelays = new long[capacity];
+        complete = new boolean[capacity];
+        published = new AtomicLongArray(capacity);
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Claims the next slot, waking the consumer and waiting at most the claim timeout if the buffer is full
+     *
+     * @return the sequence of the claimed slot, to be passed to {@link #add} and {@link #publish}, or -1 if the
+     *         buffer is closed or stayed full, in which case the sample must be dropped
+     */
+
+    long claim() {
+        long sequence;
+        long deadline = 0;
+
+        while (true) {
+            if (closed) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+
+            sequence = claimed.get();
+            if (sequence - consumed < capacity) {
+                // only take the sequence when its slot is free so a dropped sample never leaves a gap
+                if (claimed.compareAndSet(sequence, sequence + 1)) {
+                    break;
+                }
+                continue;
+            }
+
+            long now = System.nanoTime();
+            if (deadline == 0) {
+                deadline = now + claimTimeoutNanos;
+            } else if (now - deadline >= 0) {
+                dropped.incrementAndGet();
+                return -1;
+            }
+
+            wakeConsumer();
+            LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(100));
+        }
+
+        int offset = offset(sequence);
+        Arrays.fill(samples, offset, offset + stepCount, 0);
+        Arrays.fill(sizes, offset, offset + stepCount, 0);
+        Arrays.fill(sampleCounts, offset, offset + stepCount, 0);
+
+        return sequence;
+    }
+
+    void add(long sequence, int stepIndex, long timeTaken, long size) {
+        if (sequence < 0) {
+            return;
+        }
+
+        int index = offset(sequence) + stepIndex;
+        samples[index] += timeTaken;
+        sizes[index] += size;
+        sampleCounts[index]++;
+    }
+
+    void set(long sequence, int stepIndex, long sample, long size, long sampleCount) {
+        if (sequence < 0) {
+            return;
+        }
+
+        int index = offset(sequence) + stepIndex;
+        samples[index] = sample;
+        sizes[index] = size;
+        sampleCounts[index] = sampleCount;
+    }
+
+    void publish(long sequence, long startTime, long timeTaken, boolean isComplete) {
+        publish(sequence, startTime, timeTaken, isComplete, 0);
+    }
+
+    /**
+     * Publishes a claimed slot
+     *
+     * @param startDelay the time the testcase started later than scheduled, added to the total time
+     */
+
+    void publish(long sequence, long startTime, long timeTaken, boolean isComplete, long startDelay) {
+        if (sequence < 0) {
+            return;
+        }
+
+        int slot = (int) (sequence & mask);
+        startTimes[slot] = startTime;
+        timesTaken[slot] = timeTaken;
+        startDelays[slot] = startDelay;
+        complete[slot] = isComplete;
+
+        // volatile write makes the slot contents visible to the consumer
+        published.set(slot, sequence + 1);
+        wakeConsumer();
+    }
+
+    /**
+     * Waits until a slot is published, the buffer is closed or the timeout elapses; must only be called by the
+     * consumer thread
+     */
+
+    void awaitPublished(long timeout) {
+        waitingConsumer = Thread.currentThread();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            long remaining;
+            while (!closed && !hasPublished() && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+
+    /**
+     * Closes the buffer; waiting producers and consumers return immediately and later claims are dropped. Slots
+     * published before closing can still be drained.
+     */
+
+    void close() {
+        closed = true;
+        wakeConsumer();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private boolean hasPublished() {
+        long sequence = consumed;
+        return published.get((int) (sequence & mask)) == sequence + 1;
+    }
+
+    private void wakeConsumer() {
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Passes all published slots in sequence order to the specified consumer; must only be called by one thread at a
+     * time
+     *
+     * @return the number of slots consumed
+     */
+
+    int drain(SlotConsumer consumer) {
+        int count = 0;
+        long sequence = consumed;
+
+        while (published.get((int) (sequence & mask)) == sequence + 1) {
+            try {
+                consumer.consume(this, (int) (sequence & mask));
+            } finally {
+                sequence++;
+                consumed = sequence;
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    boolean isEmpty() {
+        return consumed == claimed.get();
+    }
+
+    long getSample(int slot, int stepIndex) {
+        return samples[slot * stepCount + stepIndex];
+    }
+
+    long getSize(int slot, int stepIndex) {
+        return sizes[slot * stepCount + stepIndex];
+    }
+
+    long getSampleCount(int slot, int stepIndex) {
+        return sampleCounts[slot * stepCount + stepIndex];
+    }
+
+    long getStartTime(int slot) {
+        return startTimes[slot];
+    }
+
+    long getTimeTaken(int slot) {
+        return timesTaken[slot];
+    }
+
+    long getStartDelay(int slot) {
+        return startDelays[slot];
+    }
+
+    boolean isComplete(int slot) {
+        return complete[slot];
+    }
+
+    private int offset(long sequence) {
+        return (int) (sequence & mask) * stepCount;
+    }
+
+    interface SlotConsumer {
+        void consume(LoadTestSamplesBuffer buffer, int slot);
+    }
+}
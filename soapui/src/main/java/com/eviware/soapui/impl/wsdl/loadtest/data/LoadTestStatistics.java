@@ -27,6 +27,7 @@ import com.eviware.soapui.model.testsuite.LoadTestRunner;
 import com.eviware.soapui.model.testsuite.TestCase;
 import com.eviware.soapui.model.testsuite.TestCaseRunContext;
 import com.eviware.soapui.model.testsuite.TestCaseRunner;
+import com.eviware.soapui.model.testsuite.TestRunContext;
 import com.eviware.soapui.model.testsuite.TestRunner;
 import com.eviware.soapui.model.testsuite.TestStep;
 import com.eviware.soapui.model.testsuite.TestStepResult;
@@ -37,12 +38,9 @@ import javax.swing.table.AbstractTableModel;
 import java.awt.Color;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.EmptyStackException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Model holding statistics.. should be refactored into interface for different
@@ -54,9 +52,14 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public final class LoadTestStatistics extends AbstractTableModel implements Runnable {
     public final static String NO_STATS_TESTCASE_CANCEL_REASON = "NO_STATS_TESTCASE_CANCEL_REASON";
     private final static Logger log = Logger.getLogger(LoadTestStatistics.class);
+    private final static LoadTestSamplesBuffer.SlotConsumer SAMPLES_DISCARDER = new LoadTestSamplesBuffer.SlotConsumer() {
+        public void consume(LoadTestSamplesBuffer buffer, int slot) {
+        }
+    };
 
     private final WsdlLoadTest loadTest;
     private long[][] data;
+    private LatencyHistogram[] histograms;
 
     private final static int MIN_COLUMN = 0;
     private final static int MAX_COLUMN = 1;
@@ -70,6 +73,10 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     private final static int SUM_COLUMN = 9;
     private final static int CURRENT_CNT_COLUMN = 10;
     private final static int RATIO_COLUMN = 11;
+    private final static int P50_COLUMN = 12;
+    private final static int P90_COLUMN = 13;
+    private final static int P99_COLUMN = 14;
+    private final static int P999_COLUMN = 15;
 
     public static final int TOTAL = -1;
 
@@ -83,11 +90,16 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private boolean changed;
     private long updateFrequency = DEFAULT_SAMPLE_INTERVAL;
-    private Queue<SamplesHolder> samplesStack = new ConcurrentLinkedQueue<SamplesHolder>();
-    private long currentThreadCountStartTime;
+    private volatile LoadTestSamplesBuffer samplesBuffer;
+    private final LoadTestSamplesBuffer.SlotConsumer samplesMerger = new LoadTestSamplesBuffer.SlotConsumer() {
+        public void consume(LoadTestSamplesBuffer buffer, int slot) {
+            addSamples(buffer, slot);
+        }
+    };
+    private volatile long currentThreadCountStartTime;
     private long totalAverageSum;
     private boolean resetStatistics;
-    private boolean running;
+    private volatile boolean running;
     private boolean adding;
 
     public LoadTestStatistics(WsdlLoadTest loadTest) {
@@ -113,6 +125,12 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private void init() {
         data = new long[getRowCount()][11];
+        replaceSamplesBuffer();
+
+        histograms = new LatencyHistogram[getRowCount()];
+        for (int c = 0; c < histograms.length; c++) {
+            histograms[c] = new LatencyHistogram();
+        }
     }
 
     public StatisticsHistory getHistory() {
@@ -128,7 +146,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
     }
 
     public int getColumnCount() {
-        return 12;
+        return 16;
     }
 
     public String getColumnName(int columnIndex) {
@@ -157,6 +175,14 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return Statistic.ERRORS.getName();
             case 11:
                 return Statistic.ERRORRATIO.getName();
+            case 12:
+                return Statistic.P50.getName();
+            case 13:
+                return Statistic.P90.getName();
+            case 14:
+                return Statistic.P99.getName();
+            case 15:
+                return Statistic.P999.getName();
         }
         return null;
     }
@@ -189,14 +215,37 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
             case AVERAGE:
                 return data[stepIndex][statistic.getIndex()] / 100;
             case ERRORRATIO:
+                // the same value as shown in the table
                 return data[stepIndex][Statistic.COUNT.getIndex()] == 0 ? 0
-                        : (long) ((((float) data[stepIndex][Statistic.ERRORS.getIndex()] / (float) data[stepIndex][Statistic.COUNT
-                        .getIndex()]) + 0.5) * 100);
+                        : (long) (((float) data[stepIndex][Statistic.ERRORS.getIndex()] / (float) data[stepIndex][Statistic.COUNT
+                        .getIndex()]) * 100);
+            case P50:
+            case P90:
+            case P99:
+            case P999:
+                return getPercentile(stepIndex, statistic.getPercentile());
             default:
                 return data[stepIndex][statistic.getIndex()];
         }
     }
 
+    /**
+     * Returns the measured time below which the specified percentage of samples fall
+     *
+     * @param stepIndex  the index of the teststep or {@link #TOTAL}
+     * @param percentile a percentile between 0 and 100
+     */
+
+    public long getPercentile(int stepIndex, double percentile) {
+        LatencyHistogram[] histograms = this.histograms;
+        if (stepIndex == TOTAL) {
+            stepIndex = histograms.length - 1;
+        }
+
+        return stepIndex < 0 || stepIndex >= histograms.length ? 0 : histograms[stepIndex]
+                .getValueAtPercentile(percentile);
+    }
+
     public Object getValueAt(int rowIndex, int columnIndex) {
         WsdlTestCase testCase = loadTest.getTestCase();
 
@@ -218,6 +267,11 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 return data[rowIndex][Statistic.COUNT.getIndex()] == 0 ? 0
                         : (long) (((float) data[rowIndex][Statistic.ERRORS.getIndex()] / (float) data[rowIndex][Statistic.COUNT
                         .getIndex()]) * 100);
+            case 12:
+            case 13:
+            case 14:
+            case 15:
+                return new Long(getPercentile(rowIndex, Statistic.forIndex(columnIndex).getPercentile()));
             default: {
                 return data == null || rowIndex >= data.length ? new Long(0) : new Long(data[rowIndex][columnIndex - 2]);
             }
@@ -230,30 +284,71 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
             return;
         }
 
-        samplesStack.add(new SamplesHolder(samples, sizes, sampleCounts, startTime, timeTaken, complete));
+        LoadTestSamplesBuffer buffer = samplesBuffer;
+        if (samples.length != buffer.getStepCount() || sizes.length != buffer.getStepCount()) {
+            throw new RuntimeException("Unexpected number of samples: " + samples.length + ", exptected "
+                    + buffer.getStepCount());
+        }
+
+        long sequence = buffer.claim();
+        for (int c = 0; c < samples.length; c++) {
+            buffer.set(sequence, c, samples[c], sizes[c], sampleCounts[c]);
+
+            // only the sums are known here, so each step is recorded with its average
+            if (sampleCounts[c] > 0 && complete != loadTest.getUpdateStatisticsPerTestStep()
+                    && startTime >= currentThreadCountStartTime) {
+                histograms[c].recordValue(samples[c] / sampleCounts[c], sampleCounts[c]);
+            }
+        }
+
+        buffer.publish(sequence, startTime, timeTaken, complete);
     }
 
     public void run() {
         Thread.currentThread().setName(loadTest.getName() + " LoadTestStatistics");
 
-        while (running || !samplesStack.isEmpty()) {
+        while (running) {
             try {
-                while (!samplesStack.isEmpty()) {
-                    SamplesHolder holder = samplesStack.poll();
-                    if (holder != null) {
-                        addSamples(holder);
-                    }
-                }
-
-                Thread.sleep(200);
-            } catch (EmptyStackException e) {
+                samplesBuffer.awaitPublished(1000);
+                mergeSamples();
             } catch (Exception e) {
                 SoapUI.logError(e);
             }
         }
+
+        // merge samples published before the buffer was closed
+        mergeSamples();
+    }
+
+    /**
+     * Replaces the samples buffer with an empty one and closes the old one so producers still waiting for it give up
+     */
+
+    private void replaceSamplesBuffer() {
+        LoadTestSamplesBuffer oldBuffer = samplesBuffer;
+        samplesBuffer = new LoadTestSamplesBuffer(getStepCount());
+        if (oldBuffer != null) {
+            oldBuffer.close();
+        }
     }
 
-    private synchronized void addSamples(SamplesHolder holder) {
+    /**
+     * Merges all published samples into the statistics table, holding the lock once per batch instead of once per
+     * sample
+     */
+
+    private synchronized void mergeSamples() {
+        LoadTestSamplesBuffer buffer = samplesBuffer;
+        if (buffer.getStepCount() != data.length - 1) {
+            // samples for a different set of steps can not be merged, discard them to free the slots
+            buffer.drain(SAMPLES_DISCARDER);
+            return;
+        }
+
+        buffer.drain(samplesMerger);
+    }
+
+    private void addSamples(LoadTestSamplesBuffer buffer, int slot) {
         if (adding) {
             throw new RuntimeException("Already adding!");
         }
@@ -261,20 +356,17 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         adding = true;
 
         int totalIndex = data.length - 1;
-        if (holder.samples.length != totalIndex || holder.sizes.length != totalIndex) {
-            adding = false;
-            throw new RuntimeException("Unexpected number of samples: " + holder.samples.length + ", exptected "
-                    + (totalIndex));
-        }
+        long startTime = buffer.getStartTime(slot);
+        boolean complete = buffer.isComplete(slot);
 
         // discard "old" results
-        if (holder.startTime < currentThreadCountStartTime) {
+        if (startTime < currentThreadCountStartTime) {
             adding = false;
             return;
         }
 
         // first check that this is not a
-        long timePassed = (holder.startTime + holder.timeTaken) - currentThreadCountStartTime;
+        long timePassed = (startTime + buffer.getTimeTaken(slot)) - currentThreadCountStartTime;
 
         if (resetStatistics) {
             for (int c = 0; c < data.length; c++) {
@@ -298,16 +390,17 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
         long threadCount = loadTest.getThreadCount();
 
-        for (int c = 0; c < holder.samples.length; c++) {
-            if (holder.sampleCounts[c] > 0) {
+        for (int c = 0; c < totalIndex; c++) {
+            long sampleCount = buffer.getSampleCount(slot, c);
+            if (sampleCount > 0) {
                 // only update when appropriate
-                if (holder.complete != loadTest.getUpdateStatisticsPerTestStep()) {
-                    long sampleAvg = holder.samples[c] / holder.sampleCounts[c];
+                if (complete != loadTest.getUpdateStatisticsPerTestStep()) {
+                    long sampleAvg = buffer.getSample(slot, c) / sampleCount;
 
                     data[c][LAST_COLUMN] = sampleAvg;
-                    data[c][CNT_COLUMN] += holder.sampleCounts[c];
-                    data[c][CURRENT_CNT_COLUMN] += holder.sampleCounts[c];
-                    data[c][SUM_COLUMN] += holder.samples[c];
+                    data[c][CNT_COLUMN] += sampleCount;
+                    data[c][CURRENT_CNT_COLUMN] += sampleCount;
+                    data[c][SUM_COLUMN] += buffer.getSample(slot, c);
 
                     if (sampleAvg > 0 && (sampleAvg < data[c][MIN_COLUMN] || data[c][MIN_COLUMN] == 0)) {
                         data[c][MIN_COLUMN] = sampleAvg;
@@ -320,7 +413,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                     float average = (float) data[c][SUM_COLUMN] / (float) data[c][CURRENT_CNT_COLUMN];
 
                     data[c][AVG_COLUMN] = (long) (average * 100);
-                    data[c][BYTES_COLUMN] += holder.sizes[c];
+                    data[c][BYTES_COLUMN] += buffer.getSize(slot, c);
 
                     if (timePassed > 0) {
                         if (loadTest.getCalculateTPSOnTimePassed()) {
@@ -335,12 +428,12 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                     }
                 }
 
-                totalMin += data[c][MIN_COLUMN] * holder.sampleCounts[c];
-                totalMax += data[c][MAX_COLUMN] * holder.sampleCounts[c];
-                totalBytes += data[c][BYTES_COLUMN] * holder.sampleCounts[c];
-                totalAvg += data[c][AVG_COLUMN] * holder.sampleCounts[c];
-                totalSum += data[c][SUM_COLUMN] * holder.sampleCounts[c];
-                totalLast += data[c][LAST_COLUMN] * holder.sampleCounts[c];
+                totalMin += data[c][MIN_COLUMN] * sampleCount;
+                totalMax += data[c][MAX_COLUMN] * sampleCount;
+                totalBytes += data[c][BYTES_COLUMN] * sampleCount;
+                totalAvg += data[c][AVG_COLUMN] * sampleCount;
+                totalSum += data[c][SUM_COLUMN] * sampleCount;
+                totalLast += data[c][LAST_COLUMN] * sampleCount;
             } else {
                 totalMin += data[c][MIN_COLUMN];
                 totalMax += data[c][MAX_COLUMN];
@@ -348,11 +441,16 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
             }
         }
 
-        if (holder.complete) {
+        if (complete) {
+            // correct for coordinated omission when testcases were scheduled to start earlier; only the TOTAL last,
+            // average and percentiles are corrected, step rows and the TOTAL min/max/sum are the measured step times
+            totalLast += buffer.getStartDelay(slot);
+
             data[totalIndex][CNT_COLUMN]++;
             data[totalIndex][CURRENT_CNT_COLUMN]++;
 
             totalAverageSum += totalLast * 100;
+            histograms[totalIndex].recordValue(totalLast);
             data[totalIndex][AVG_COLUMN] = (long) ((float) totalAverageSum / (float) data[totalIndex][CURRENT_CNT_COLUMN]);
             data[totalIndex][BYTES_COLUMN] = totalBytes;
 
@@ -392,13 +490,13 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
             Thread.currentThread().setName(loadTest.getName() + " LoadTestStatistics Updater");
 
             // check all these for catching threading issues
-            while (running || changed || !samplesStack.isEmpty()) {
+            while (running || changed || !samplesBuffer.isEmpty()) {
                 if (changed) {
                     fireTableDataChanged();
                     changed = false;
                 }
 
-                if (!running && samplesStack.isEmpty()) {
+                if (!running && samplesBuffer.isEmpty()) {
                     break;
                 }
 
@@ -413,6 +511,13 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private void stop() {
         running = false;
+
+        LoadTestSamplesBuffer buffer = samplesBuffer;
+        buffer.close();
+        if (buffer.getDroppedCount() > 0) {
+            log.warn("Dropped " + buffer.getDroppedCount() + " samples in LoadTest [" + loadTest.getName()
+                    + "] since statistics could not keep up");
+        }
     }
 
     /**
@@ -423,7 +528,7 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
     private class InternalTestRunListener extends LoadTestRunListenerAdapter {
         public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
-            samplesStack.clear();
+            replaceSamplesBuffer();
 
             running = true;
             SoapUI.getThreadPool().submit(updater);
@@ -444,17 +549,21 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                     return;
                 }
 
-                long[] samples = new long[testCase.getTestStepCount()];
-                long[] sizes = new long[samples.length];
-                long[] sampleCounts = new long[samples.length];
+                LoadTestSamplesBuffer buffer = samplesBuffer;
+                if (!running || buffer.getStepCount() != testCase.getTestStepCount()) {
+                    return;
+                }
 
                 int index = testCase.getIndexOfTestStep(testStepResult.getTestStep());
-                sampleCounts[index]++;
+                if (index < 0) {
+                    return;
+                }
 
-                samples[index] += testStepResult.getTimeTaken();
-                sizes[index] += testStepResult.getSize();
+                recordTimeTaken(index, testRunner.getStartTime(), testStepResult);
 
-                pushSamples(samples, sizes, sampleCounts, testRunner.getStartTime(), testRunner.getTimeTaken(), false);
+                long sequence = buffer.claim();
+                buffer.add(sequence, index, testStepResult.getTimeTaken(), testStepResult.getSize());
+                buffer.publish(sequence, testRunner.getStartTime(), testRunner.getTimeTaken(), false);
             }
         }
 
@@ -468,10 +577,12 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
             List<TestStepResult> results = testRunner.getResults();
             TestCase testCase = testRunner.getTestCase();
 
-            long[] samples = new long[testCase.getTestStepCount()];
-            long[] sizes = new long[samples.length];
-            long[] sampleCounts = new long[samples.length];
+            LoadTestSamplesBuffer buffer = samplesBuffer;
+            if (!running || buffer.getStepCount() == 0 || buffer.getStepCount() != testCase.getTestStepCount()) {
+                return;
+            }
 
+            long sequence = buffer.claim();
             for (int c = 0; c < results.size(); c++) {
                 TestStepResult testStepResult = results.get(c);
                 if (testStepResult == null) {
@@ -481,14 +592,21 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
 
                 int index = testCase.getIndexOfTestStep(testStepResult.getTestStep());
                 if (index >= 0) {
-                    sampleCounts[index]++;
+                    if (!loadTest.getUpdateStatisticsPerTestStep()) {
+                        recordTimeTaken(index, testRunner.getStartTime(), testStepResult);
+                    }
 
-                    samples[index] += testStepResult.getTimeTaken();
-                    sizes[index] += testStepResult.getSize();
+                    buffer.add(sequence, index, testStepResult.getTimeTaken(), testStepResult.getSize());
                 }
             }
 
-            pushSamples(samples, sizes, sampleCounts, testRunner.getStartTime(), testRunner.getTimeTaken(), true);
+            long startDelay = 0;
+            Object intendedStartTime = runContext.getProperty(TestRunContext.INTENDED_START_TIME);
+            if (intendedStartTime instanceof Long) {
+                startDelay = Math.max(0, testRunner.getStartTime() - (Long) intendedStartTime);
+            }
+
+            buffer.publish(sequence, testRunner.getStartTime(), testRunner.getTimeTaken(), true, startDelay);
         }
 
         @Override
@@ -497,6 +615,18 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         }
     }
 
+    /**
+     * Records the time of a single teststep execution in the histogram of its step. The merged samples only hold
+     * the sum of all executions of a step in a testcase run, so the histograms are fed here by the load threads.
+     */
+
+    private void recordTimeTaken(int stepIndex, long startTime, TestStepResult testStepResult) {
+        LatencyHistogram[] histograms = this.histograms;
+        if (startTime >= currentThreadCountStartTime && stepIndex < histograms.length - 1) {
+            histograms[stepIndex].recordValue(testStepResult.getTimeTaken());
+        }
+    }
+
     public int getStepCount() {
         return loadTest.getTestCase().getTestStepCount();
     }
@@ -545,6 +675,11 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 if (loadTest.getResetStatisticsOnThreadCountChange()) {
                     resetStatistics = true;
                     currentThreadCountStartTime = System.currentTimeMillis();
+
+                    // reset right away, the load threads record times of new runs from now on
+                    for (LatencyHistogram histogram : histograms) {
+                        histogram.reset();
+                    }
                 }
             } else if (evt.getPropertyName().equals(TestStep.NAME_PROPERTY)
                     || evt.getPropertyName().equals(TestStep.DISABLED_PROPERTY)) {
@@ -598,6 +733,12 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                     case 7:
                         values.add(String.valueOf((float) data[c][columnIndex - 2] / 100));
                         break;
+                    case 12:
+                    case 13:
+                    case 14:
+                    case 15:
+                        values.add(String.valueOf(getPercentile(c, Statistic.forIndex(columnIndex).getPercentile())));
+                        break;
                     default:
                         values.add(String.valueOf(data[c][columnIndex - 2]));
                 }
@@ -623,15 +764,25 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
                 "the number of bytes per second returned by this teststep"), ERRORS(ERR_COLUMN, "err",
                 "the total number of assertion errors for this teststep"), SUM(SUM_COLUMN, "sum", "internal sum"), CURRENT_CNT(
                 CURRENT_CNT_COLUMN, "ccnt", "internal cnt"), ERRORRATIO(RATIO_COLUMN, "rat",
-                "the ratio between exections and failures");
+                "the ratio between exections and failures"), P50(P50_COLUMN, "p50", 50,
+                "the median measured teststep time"), P90(P90_COLUMN, "p90", 90,
+                "the teststep time below which 90% of samples fall"), P99(P99_COLUMN, "p99", 99,
+                "the teststep time below which 99% of samples fall"), P999(P999_COLUMN, "p99.9", 99.9,
+                "the teststep time below which 99.9% of samples fall");
 
         private final String description;
         private final String name;
         private final int index;
+        private final double percentile;
 
         Statistic(int index, String name, String description) {
+            this(index, name, 0, description);
+        }
+
+        Statistic(int index, String name, double percentile, String description) {
             this.index = index;
             this.name = name;
+            this.percentile = percentile;
             this.description = description;
 
             statisticIndexMap.put(index, this);
@@ -645,6 +796,18 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
             return index;
         }
 
+        /**
+         * @return the percentile calculated by this statistic, or 0 if it is not a percentile
+         */
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public boolean isPercentile() {
+            return percentile > 0;
+        }
+
         public String getName() {
             return name;
         }
@@ -654,39 +817,8 @@ public final class LoadTestStatistics extends AbstractTableModel implements Runn
         }
     }
 
-    /**
-     * Holds all sample values for a testcase run
-     *
-     * @author ole.matzura
-     */
-
-    private static final class SamplesHolder {
-        private final long[] samples;
-        private final long[] sizes;
-        private final long[] sampleCounts;
-
-        private final long startTime;
-        private final long timeTaken;
-        private final boolean complete;
-
-        public SamplesHolder(long[] samples, long[] sizes, long[] sampleCounts, long startTime, long timeTaken,
-                             boolean complete) {
-            this.samples = samples;
-            this.sizes = sizes;
-            this.startTime = startTime;
-            this.timeTaken = timeTaken;
-            this.sampleCounts = sampleCounts;
-            this.complete = complete;
-        }
-    }
-
     public synchronized void finish() {
-        // push leftover samples
-        while (!samplesStack.isEmpty()) {
-            SamplesHolder holder = samplesStack.poll();
-            if (holder != null) {
-                addSamples(holder);
-            }
-        }
+        // merge leftover samples
+        mergeSamples();
     }
 }
@@ -40,7 +40,15 @@ import java.util.Map;
  */
 
 public class StatisticsHistory {
+    /**
+     * The statistics shown in the history of a teststep after the threadcount, in the order of the statistics table
+     */
+    private final static Statistic[] TEST_STEP_HISTORY_STATISTICS = {Statistic.MININMUM, Statistic.MAXIMUM,
+            Statistic.AVERAGE, Statistic.LAST, Statistic.COUNT, Statistic.TPS, Statistic.BYTES, Statistic.BPS,
+            Statistic.ERRORS, Statistic.ERRORRATIO, Statistic.P50, Statistic.P90, Statistic.P99, Statistic.P999};
+
     private final LoadTestStatistics statistics;
+    // rows of each snapshot are teststeps and the total, columns are indexed by Statistic.getIndex()
     private List<long[][]> data = new ArrayList<long[][]>();
     private List<Long> threadCounts = new ArrayList<Long>();
     private Map<Integer, TestStepStatisticsHistory> testStepStatisticHistories = new HashMap<Integer, TestStepStatisticsHistory>();
@@ -132,18 +140,13 @@ public class StatisticsHistory {
         if (statistics.getStatistic(LoadTestStatistics.TOTAL, Statistic.COUNT) == 0) {
             reset();
         } else {
-            int columnCount = statistics.getColumnCount();
             int rowCount = statistics.getRowCount();
 
-            long[][] values = new long[rowCount][columnCount - 2];
+            long[][] values = new long[rowCount][statistics.getColumnCount()];
 
             for (int c = 0; c < rowCount; c++) {
-                for (int i = 2; i < columnCount; i++) {
-                    try {
-                        values[c][i - 2] = Long.parseLong(statistics.getValueAt(c, i).toString());
-                    } catch (NumberFormatException ex) {
-                        values[c][i - 2] = (long) Float.parseFloat(statistics.getValueAt(c, i).toString());
-                    }
+                for (Statistic statistic : TEST_STEP_HISTORY_STATISTICS) {
+                    values[c][statistic.getIndex()] = statistics.getStatistic(c, statistic);
                 }
             }
 
@@ -182,7 +185,7 @@ public class StatisticsHistory {
         }
 
         public int getColumnCount() {
-            return statistics.getColumnCount() - 1;
+            return TEST_STEP_HISTORY_STATISTICS.length + 1;
         }
 
         public Object getValueAt(int rowIndex, int columnIndex) {
@@ -192,7 +195,7 @@ public class StatisticsHistory {
 
             // tolerance..
             if (rowIndex < data.size()) {
-                return data.get(rowIndex)[testStepIndex][columnIndex - 1];
+                return data.get(rowIndex)[testStepIndex][TEST_STEP_HISTORY_STATISTICS[columnIndex - 1].getIndex()];
             } else {
                 return new Long(0);
             }
@@ -203,7 +206,7 @@ public class StatisticsHistory {
         }
 
         public String getColumnName(int column) {
-            return column == 0 ? "ThreadCount" : Statistic.forIndex(column - 1).getName();
+            return column == 0 ? "ThreadCount" : TEST_STEP_HISTORY_STATISTICS[column - 1].getName();
         }
 
         public void release() {
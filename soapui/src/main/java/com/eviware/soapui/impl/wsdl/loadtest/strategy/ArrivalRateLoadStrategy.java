@@ -0,0 +1,254 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.model.testsuite.LoadTestRunContext;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.model.testsuite.TestRunContext;
+import com.eviware.soapui.support.DocumentListenerAdapter;
+import com.eviware.soapui.support.UISupport;
+import com.eviware.soapui.support.swing.ComponentBag;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationBuilder;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationReader;
+import com.jgoodies.forms.builder.ButtonBarBuilder;
+import org.apache.xmlbeans.XmlObject;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.text.Document;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-model LoadStrategy that starts testcases at a target arrival rate, independent of how fast the target
+ * responds. The threadcount of the LoadTest is used as the maximum number of concurrently running testcases; when
+ * all threads are busy, testcases start late and the time between the intended and the actual start is added to the
+ * TOTAL row's last and average time and percentiles in the statistics, which corrects for coordinated omission. The
+ * rows of the individual steps always show the measured step times.
+ * <p/>
+ * The load threads wait for the next arrival with {@link #awaitNextArrival(LoadTestRunner)} before they start the
+ * testcase runner, so the wait is not part of the time taken or the timeout of the testcase.
+ */
+
+public class ArrivalRateLoadStrategy extends AbstractLoadStrategy {
+    public static final String STRATEGY_TYPE = "Arrival Rate";
+    private static final String START_RATE_ELEMENT = "startRate";
+    private static final String TARGET_RATE_ELEMENT = "targetRate";
+    private static final String RAMP_UP_ELEMENT = "rampUp";
+    private static final float DEFAULT_START_RATE = 1;
+    private static final float DEFAULT_TARGET_RATE = 10;
+    private static final int DEFAULT_RAMP_UP = 60;
+    private static final long MAX_SLEEP_INTERVAL = 100;
+
+    private float startRate = DEFAULT_START_RATE;
+    private float targetRate = DEFAULT_TARGET_RATE;
+    private int rampUp = DEFAULT_RAMP_UP;
+
+    private final AtomicLong nextArrival = new AtomicLong();
+    private volatile long scheduleStartTime;
+
+    private JPanel configPanel;
+    private JTextField startRateField;
+    private JTextField targetRateField;
+    private JTextField rampUpField;
+    private ComponentBag stateDependantComponents = new ComponentBag();
+
+    public ArrivalRateLoadStrategy(XmlObject config, WsdlLoadTest loadTest) {
+        super(STRATEGY_TYPE, loadTest);
+
+        if (config != null) {
+            XmlObjectConfigurationReader reader = new XmlObjectConfigurationReader(config);
+            startRate = reader.readFloat(START_RATE_ELEMENT, DEFAULT_START_RATE);
+            targetRate = reader.readFloat(TARGET_RATE_ELEMENT, DEFAULT_TARGET_RATE);
+            rampUp = reader.readInt(RAMP_UP_ELEMENT, DEFAULT_RAMP_UP);
+        }
+    }
+
+    public XmlObject getConfig() {
+        XmlObjectConfigurationBuilder builder = new XmlObjectConfigurationBuilder();
+        builder.add(START_RATE_ELEMENT, startRate);
+        builder.add(TARGET_RATE_ELEMENT, targetRate);
+        builder.add(RAMP_UP_ELEMENT, rampUp);
+        return builder.finish();
+    }
+
+    public void beforeLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        super.beforeLoadTest(loadTestRunner, context);
+
+        nextArrival.set(0);
+        scheduleStartTime = System.currentTimeMillis();
+        stateDependantComponents.setEnabled(false);
+    }
+
+    public void afterLoadTest(LoadTestRunner loadTestRunner, LoadTestRunContext context) {
+        stateDependantComponents.setEnabled(true);
+    }
+
+    /**
+     * Waits until the next scheduled arrival or until the LoadTest stops
+     *
+     * @return the time the testcase was intended to start, to be set as the
+     *         {@link TestRunContext#INTENDED_START_TIME} of the testcase run, or -1 if no arrivals are scheduled
+     */
+
+    public long awaitNextArrival(LoadTestRunner loadTestRunner) {
+        if (targetRate <= 0) {
+            return -1;
+        }
+
+        long intendedStartTime = scheduleStartTime + getArrivalOffset(nextArrival.getAndIncrement());
+
+        long delay = intendedStartTime - System.currentTimeMillis();
+        while (delay > 0 && loadTestRunner.isRunning()) {
+            try {
+                Thread.sleep(Math.min(delay, MAX_SLEEP_INTERVAL));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            delay = intendedStartTime - System.currentTimeMillis();
+        }
+
+        return intendedStartTime;
+    }
+
+    /**
+     * Calculates when the specified arrival should happen relative to the start of the LoadTest, with the rate
+     * increasing linearly from the start rate to the target rate during the ramp-up period
+     *
+     * @param arrival the zero-based index of the arrival
+     * @return the offset in milliseconds
+     */
+
+    public long getArrivalOffset(long arrival) {
+        double r0 = Math.max(0, startRate);
+        double r1 = targetRate;
+        double ramp = rampUp > 0 ? rampUp : 0;
+
+        double rampArrivals = (r0 + r1) * ramp / 2;
+        double seconds;
+
+        if (arrival < rampArrivals) {
+            double a = (r1 - r0) / (2 * ramp);
+            if (Math.abs(a) < 1e-9) {
+                seconds = arrival / r0;
+            } else {
+                seconds = (-r0 + Math.sqrt(r0 * r0 + 4 * a * arrival)) / (2 * a);
+            }
+        } else {
+            seconds = ramp + (arrival - rampArrivals) / r1;
+        }
+
+        return (long) (seconds * 1000);
+    }
+
+    public JComponent getConfigurationPanel() {
+        if (configPanel == null) {
+            ButtonBarBuilder builder = new ButtonBarBuilder();
+
+            startRateField = createField(String.valueOf(startRate),
+                    "Sets the number of testcases started per second at the beginning of the ramp-up");
+            targetRateField = createField(String.valueOf(targetRate),
+                    "Sets the number of testcases started per second after the ramp-up");
+            rampUpField = createField(String.valueOf(rampUp), "Sets the ramp-up period in seconds");
+
+            builder.addFixed(new JLabel("Start Rate"));
+            builder.addRelatedGap();
+            builder.addFixed(startRateField);
+            builder.addRelatedGap();
+
+            builder.addFixed(new JLabel("Target Rate"));
+            builder.addRelatedGap();
+            builder.addFixed(targetRateField);
+            builder.addRelatedGap();
+
+            builder.addFixed(new JLabel("Ramp-Up"));
+            builder.addRelatedGap();
+            builder.addFixed(rampUpField);
+
+            configPanel = builder.getPanel();
+
+            stateDependantComponents.add(startRateField);
+            stateDependantComponents.add(targetRateField);
+            stateDependantComponents.add(rampUpField);
+        }
+
+        return configPanel;
+    }
+
+    private JTextField createField(String value, String toolTip) {
+        JTextField field = new JTextField(4);
+        UISupport.setPreferredHeight(field, 18);
+        field.setHorizontalAlignment(JTextField.RIGHT);
+        field.setText(value);
+        field.setToolTipText(toolTip);
+        field.getDocument().addDocumentListener(new ConfigDocumentListener());
+        return field;
+    }
+
+    private final class ConfigDocumentListener extends DocumentListenerAdapter {
+        public void update(Document document) {
+            try {
+                if (document == startRateField.getDocument()) {
+                    startRate = Float.parseFloat(startRateField.getText().replace(',', '.'));
+                }
+                if (document == targetRateField.getDocument()) {
+                    targetRate = Float.parseFloat(targetRateField.getText().replace(',', '.'));
+                }
+                if (document == rampUpField.getDocument()) {
+                    rampUp = Integer.parseInt(rampUpField.getText());
+                }
+
+                notifyConfigurationChanged();
+            } catch (NumberFormatException e) {
+            }
+        }
+    }
+
+    public float getStartRate() {
+        return startRate;
+    }
+
+    public float getTargetRate() {
+        return targetRate;
+    }
+
+    public int getRampUp() {
+        return rampUp;
+    }
+
+    /**
+     * Factory for ArrivalRateLoadStrategy class
+     */
+
+    public static class Factory implements LoadStrategyFactory {
+        public String getType() {
+            return STRATEGY_TYPE;
+        }
+
+        public LoadStrategy build(XmlObject config, WsdlLoadTest loadTest) {
+            return new ArrivalRateLoadStrategy(config, loadTest);
+        }
+
+        public LoadStrategy create(WsdlLoadTest loadTest) {
+            return new ArrivalRateLoadStrategy(null, loadTest);
+        }
+    }
+}
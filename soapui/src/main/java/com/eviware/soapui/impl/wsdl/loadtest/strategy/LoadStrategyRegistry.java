@@ -36,6 +36,7 @@ public class LoadStrategyRegistry {
         addFactory(new BurstLoadStrategy.Factory());
         addFactory(new VarianceLoadStrategy.Factory());
         addFactory(new ThreadCountChangeLoadStrategy.Factory());
+        addFactory(new ArrivalRateLoadStrategy.Factory());
     }
 
     public void addFactory(LoadStrategyFactory factory) {
@@ -30,11 +30,11 @@ import com.eviware.soapui.model.mock.MockResult;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.support.AbstractMockDispatcher;
 import com.eviware.soapui.model.support.ModelSupport;
+import com.eviware.soapui.monitor.PropertySupport;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.editor.inspectors.attachments.ContentTypeHandler;
 import com.eviware.soapui.support.types.StringToStringMap;
-import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.log4j.Logger;
 import org.xml.sax.InputSource;
 
@@ -57,6 +57,7 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
 
     private WsdlMockService mockService;
     private WsdlMockRunContext mockContext;
+    private final WsdlMockOperationIndex operationIndex;
 
     private final Map<String, StringToStringMap> wsdlCache = new HashMap<String, StringToStringMap>();
     private final static Logger log = Logger.getLogger(WsdlMockDispatcher.class);
@@ -65,6 +66,8 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
     public WsdlMockDispatcher(WsdlMockService mockService, WsdlMockRunContext mockContext) {
         this.mockService = mockService;
         this.mockContext = mockContext;
+        operationIndex = new WsdlMockOperationIndex(mockService);
+        PropertySupport.applySystemProperties(getResultLog(), "soapui.mock.results", mockService);
         initWsdlCache();
     }
 
@@ -127,6 +130,7 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
             }
         } finally {
             mockService.fireOnMockResult(result);
+            completeMockResult(result);
         }
     }
 
@@ -189,10 +193,7 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
                 }
             } else {
                 try {
-                    operation = SoapUtils.findOperationForRequest(soapVersion, soapAction,
-                            mockRequest.getRequestXmlObject(), mockService.getMockedOperations(),
-                            mockService.isRequireSoapVersion(), mockService.isRequireSoapAction(),
-                            mockRequest.getRequestAttachments());
+                    operation = operationIndex.findOperationForRequest(mockRequest);
                 } catch (Exception e) {
                     if (mockService.isDispatchResponseMessages()) {
                         try {
@@ -213,7 +214,7 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
             }
 
             if (operation != null) {
-                WsdlMockOperation mockOperation = mockService.getMockOperation(operation);
+                WsdlMockOperation mockOperation = operationIndex.getMockOperation(operation);
                 if (mockOperation != null) {
                     long startTime = System.nanoTime();
                     result = mockOperation.dispatchRequest(mockRequest);
@@ -232,7 +233,7 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
             }
 
             throw new DispatchException("Missing operation for soapAction [" + soapAction + "] and body element ["
-                    + XmlUtils.getQName(mockRequest.getContentElement()) + "] with SOAP Version ["
+                    + mockRequest.getContentElementQName() + "] with SOAP Version ["
                     + mockRequest.getSoapVersion() + "]");
         } catch (Exception e) {
             if (e instanceof DispatchException) {
@@ -280,6 +281,7 @@ public class WsdlMockDispatcher extends AbstractMockDispatcher {
     public void release() {
         clearResults();
         mockContext.clear();
+        operationIndex.release();
     }
 
     public void printWsdl(HttpServletResponse response) throws IOException {
@@ -0,0 +1,337 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.mock;
+
+import com.eviware.soapui.impl.wsdl.WsdlInterface;
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapUtils;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
+import com.eviware.soapui.impl.wsdl.support.wsdl.WsdlUtils;
+import com.eviware.soapui.model.mock.MockOperation;
+import com.eviware.soapui.model.support.MockServiceListenerAdapter;
+import org.apache.log4j.Logger;
+
+import javax.wsdl.BindingOperation;
+import javax.wsdl.Part;
+import javax.xml.namespace.QName;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the operations mocked by a WsdlMockService on SOAP Version, SOAPAction and request body element, so that
+ * dispatching a request does not have to evaluate the binding of every mocked operation.
+ * <p/>
+ * Document style operations without attachment parts are matched by their key alone; rpc style operations,
+ * operations with attachments and operations sharing a key are resolved by
+ * {@link SoapUtils#findOperationForRequest} on the matching operations only. The index is rebuilt on the next
+ * request after mock operations are added or removed, or when the mocked operations or their interfaces change.
+ */
+
+public class WsdlMockOperationIndex {
+    private final static Logger log = Logger.getLogger(WsdlMockOperationIndex.class);
+
+    private final WsdlMockService mockService;
+    private final InternalMockServiceListener mockServiceListener = new InternalMockServiceListener();
+    private final InternalPropertyChangeListener propertyChangeListener = new InternalPropertyChangeListener();
+
+    private final Set<WsdlMockOperation> listenedMockOperations = new HashSet<WsdlMockOperation>();
+    private final Set<WsdlOperation> listenedOperations = new HashSet<WsdlOperation>();
+    private final Set<WsdlInterface> listenedInterfaces = new HashSet<WsdlInterface>();
+
+    private volatile Index index;
+    private boolean released;
+
+    public WsdlMockOperationIndex(WsdlMockService mockService) {
+        this.mockService = mockService;
+        mockService.addMockServiceListener(mockServiceListener);
+    }
+
+    /**
+     * Finds the operation for the specified request, with the same result as
+     * {@link SoapUtils#findOperationForRequest} on all mocked operations. Operations matched on their key alone are
+     * found without creating the XmlObject of the request.
+     *
+     * @throws DispatchException if no operation matches the request
+     */
+
+    public WsdlOperation findOperationForRequest(WsdlMockRequest mockRequest) throws Exception {
+        SoapVersion soapVersion = mockRequest.getSoapVersion();
+        String soapAction = mockRequest.getSoapAction();
+
+        QName contentQName = mockRequest.getContentElementQName();
+        Index index = getIndex();
+        if (contentQName == null || !index.isComplete()) {
+            return SoapUtils.findOperationForRequest(soapVersion, soapAction, mockRequest.getRequestXmlObject(),
+                    mockService.getMockedOperations(), index.requireSoapVersion, index.requireSoapAction,
+                    mockRequest.getRequestAttachments());
+        }
+
+        Key key = index.createKey(soapVersion, soapAction, contentQName);
+
+        List<Entry> entries = index.entries.get(key);
+        if (entries != null && entries.size() == 1 && entries.get(0).matchesOnKey) {
+            return entries.get(0).operation;
+        }
+
+        List<WsdlOperation> candidates = new ArrayList<WsdlOperation>();
+        if (entries != null) {
+            for (Entry entry : entries) {
+                candidates.add(entry.operation);
+            }
+        }
+
+        // fails with the same message as a scan of all operations if there are no candidates
+        return SoapUtils.findOperationForRequest(soapVersion, soapAction, mockRequest.getRequestXmlObject(),
+                candidates, index.requireSoapVersion, index.requireSoapAction, mockRequest.getRequestAttachments());
+    }
+
+    /**
+     * Returns the mock operation for the specified operation, without iterating the mock operations
+     */
+
+    public WsdlMockOperation getMockOperation(WsdlOperation operation) {
+        WsdlMockOperation mockOperation = getIndex().mockOperations.get(operation);
+        return mockOperation == null ? mockService.getMockOperation(operation) : mockOperation;
+    }
+
+    public synchronized void invalidate() {
+        index = null;
+    }
+
+    public synchronized void release() {
+        released = true;
+        index = null;
+
+        mockService.removeMockServiceListener(mockServiceListener);
+        removePropertyChangeListeners();
+    }
+
+    private Index getIndex() {
+        Index current = index;
+        boolean requireSoapVersion = mockService.isRequireSoapVersion();
+        boolean requireSoapAction = mockService.isRequireSoapAction();
+
+        if (current == null || current.requireSoapVersion != requireSoapVersion
+                || current.requireSoapAction != requireSoapAction) {
+            current = buildIndex(requireSoapVersion, requireSoapAction);
+        }
+
+        return current;
+    }
+
+    private synchronized Index buildIndex(boolean requireSoapVersion, boolean requireSoapAction) {
+        if (index != null && index.requireSoapVersion == requireSoapVersion
+                && index.requireSoapAction == requireSoapAction) {
+            return index;
+        }
+
+        removePropertyChangeListeners();
+
+        Index newIndex = new Index(requireSoapVersion, requireSoapAction);
+        for (int c = 0; c < mockService.getMockOperationCount(); c++) {
+            WsdlMockOperation mockOperation = mockService.getMockOperationAt(c);
+            addPropertyChangeListener(mockOperation);
+
+            WsdlOperation operation = mockOperation.getOperation();
+            if (operation == null) {
+                continue;
+            }
+
+            addPropertyChangeListener(operation);
+            addPropertyChangeListener(operation.getInterface());
+
+            if (!newIndex.mockOperations.containsKey(operation)) {
+                newIndex.mockOperations.put(operation, mockOperation);
+            }
+
+            try {
+                QName qname = operation.getRequestBodyElementQName();
+
+                // can never match a request body
+                if (qname == null) {
+                    continue;
+                }
+
+                Key key = newIndex.createKey(operation.getInterface().getSoapVersion(), operation.getAction(), qname);
+                List<Entry> entries = newIndex.entries.get(key);
+                if (entries == null) {
+                    entries = new ArrayList<Entry>(1);
+                    newIndex.entries.put(key, entries);
+                }
+
+                entries.add(new Entry(operation, matchesOnKey(operation)));
+            } catch (Exception e) {
+                log.warn("Failed to index operation [" + operation.getName() + "] for dispatching: " + e);
+                newIndex.unindexedOperations.add(operation);
+            }
+        }
+
+        // a release during a dispatch should not leave any listeners behind
+        if (released) {
+            removePropertyChangeListeners();
+        } else {
+            index = newIndex;
+        }
+
+        return newIndex;
+    }
+
+    /**
+     * Checks if a request for the specified operation is fully matched by its body element; document style
+     * operations can only fail the check in SoapUtils on missing attachment parts
+     */
+
+    private static boolean matchesOnKey(WsdlOperation operation) {
+        if (!WsdlOperation.STYLE_DOCUMENT.equals(operation.getStyle())) {
+            return false;
+        }
+
+        BindingOperation bindingOperation = operation.getBindingOperation();
+        @SuppressWarnings("unchecked")
+        List<Part> parts = bindingOperation.getOperation().getInput().getMessage().getOrderedParts(null);
+        for (Part part : parts) {
+            if (WsdlUtils.isAttachmentInputPart(part, bindingOperation)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void addPropertyChangeListener(WsdlMockOperation mockOperation) {
+        if (listenedMockOperations.add(mockOperation)) {
+            mockOperation.addPropertyChangeListener(propertyChangeListener);
+        }
+    }
+
+    private void addPropertyChangeListener(WsdlOperation operation) {
+        if (listenedOperations.add(operation)) {
+            operation.addPropertyChangeListener(propertyChangeListener);
+        }
+    }
+
+    private void addPropertyChangeListener(WsdlInterface iface) {
+        if (listenedInterfaces.add(iface)) {
+            iface.addPropertyChangeListener(propertyChangeListener);
+        }
+    }
+
+    private void removePropertyChangeListeners() {
+        for (WsdlMockOperation mockOperation : listenedMockOperations) {
+            mockOperation.removePropertyChangeListener(propertyChangeListener);
+        }
+
+        for (WsdlOperation operation : listenedOperations) {
+            operation.removePropertyChangeListener(propertyChangeListener);
+        }
+
+        for (WsdlInterface iface : listenedInterfaces) {
+            iface.removePropertyChangeListener(propertyChangeListener);
+        }
+
+        listenedMockOperations.clear();
+        listenedOperations.clear();
+        listenedInterfaces.clear();
+    }
+
+    private static class Index {
+        private final boolean requireSoapVersion;
+        private final boolean requireSoapAction;
+        private final Map<Key, List<Entry>> entries = new HashMap<Key, List<Entry>>();
+        private final Map<WsdlOperation, WsdlMockOperation> mockOperations = new IdentityHashMap<WsdlOperation, WsdlMockOperation>();
+        private final List<WsdlOperation> unindexedOperations = new ArrayList<WsdlOperation>();
+
+        private Index(boolean requireSoapVersion, boolean requireSoapAction) {
+            this.requireSoapVersion = requireSoapVersion;
+            this.requireSoapAction = requireSoapAction;
+        }
+
+        private Key createKey(SoapVersion soapVersion, String soapAction, QName qname) {
+            return new Key(requireSoapVersion ? soapVersion : null, requireSoapAction ? soapAction : null, qname);
+        }
+
+        private boolean isComplete() {
+            return unindexedOperations.isEmpty();
+        }
+    }
+
+    private static class Entry {
+        private final WsdlOperation operation;
+        private final boolean matchesOnKey;
+
+        private Entry(WsdlOperation operation, boolean matchesOnKey) {
+            this.operation = operation;
+            this.matchesOnKey = matchesOnKey;
+        }
+    }
+
+    private static class Key {
+        private final SoapVersion soapVersion;
+        private final String soapAction;
+        private final QName qname;
+
+        private Key(SoapVersion soapVersion, String soapAction, QName qname) {
+            this.soapVersion = soapVersion;
+            this.soapAction = soapAction;
+            this.qname = qname;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return soapVersion == other.soapVersion && qname.equals(other.qname)
+                    && (soapAction == null ? other.soapAction == null : soapAction.equals(other.soapAction));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = qname.hashCode();
+            result = 31 * result + (soapVersion == null ? 0 : System.identityHashCode(soapVersion));
+            result = 31 * result + (soapAction == null ? 0 : soapAction.hashCode());
+            return result;
+        }
+    }
+
+    private class InternalMockServiceListener extends MockServiceListenerAdapter {
+        @Override
+        public void mockOperationAdded(MockOperation operation) {
+            invalidate();
+        }
+
+        @Override
+        public void mockOperationRemoved(MockOperation operation) {
+            invalidate();
+        }
+    }
+
+    private class InternalPropertyChangeListener implements PropertyChangeListener {
+        public void propertyChange(PropertyChangeEvent evt) {
+            invalidate();
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.eviware.soapui.impl.wsdl.mock;
 
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.impl.support.AbstractMockRequest;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapEnvelopeInfo;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapUtils;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
 import com.eviware.soapui.impl.wsdl.support.wss.IncomingWss;
@@ -29,6 +30,7 @@ import org.w3c.dom.Document;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.xml.namespace.QName;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.util.Vector;
@@ -43,6 +45,8 @@ public class WsdlMockRequest extends AbstractMockRequest {
     private SoapVersion soapVersion;
     private String soapAction;
     private Vector<Object> wssResult;
+    private SoapEnvelopeInfo envelopeInfo;
+    private String envelopeInfoContent;
 
     public WsdlMockRequest(HttpServletRequest request, HttpServletResponse response, WsdlMockRunContext context)
             throws Exception {
@@ -70,7 +74,7 @@ public class WsdlMockRequest extends AbstractMockRequest {
         setRequestXmlObject(null);
 
         try {
-            soapVersion = SoapUtils.deduceSoapVersion(getRequest().getContentType(), getRequestXmlObject());
+            soapVersion = deduceSoapVersion(getRequest().getContentType());
         } catch (XmlException e) {
             SoapUI.logError(e);
         }
@@ -81,10 +85,50 @@ public class WsdlMockRequest extends AbstractMockRequest {
     }
 
 
+    @Override
+    public void discardContent() {
+        super.discardContent();
+        envelopeInfo = null;
+        envelopeInfoContent = null;
+    }
+
     public XmlObject getContentElement() throws XmlException {
         return SoapUtils.getContentElement(getRequestXmlObject(), soapVersion);
     }
 
+    /**
+     * Returns the name of the first element in the SOAP Body, read without parsing the whole request if possible
+     *
+     * @return the name of the content element, or null if the Body is empty
+     */
+
+    public QName getContentElementQName() throws XmlException {
+        SoapEnvelopeInfo envelope = getEnvelopeInfo();
+        if (envelope != null && envelope.getSoapVersion() == soapVersion && envelope.isBodyFound()) {
+            return envelope.getContentElementName();
+        }
+
+        XmlObject contentElement = getContentElement();
+        return contentElement == null ? null : XmlUtils.getQName(contentElement.getDomNode());
+    }
+
+    /**
+     * Returns the start of the request envelope as read by a pull parser, so that the request can be dispatched
+     * before (or without) the full XmlObject is created by {@link #getRequestXmlObject()}
+     *
+     * @return the envelope info, or null if the request content is not xml
+     */
+
+    public SoapEnvelopeInfo getEnvelopeInfo() {
+        String content = getRequestContent();
+        if (content != envelopeInfoContent) {
+            envelopeInfo = SoapEnvelopeInfo.read(content);
+            envelopeInfoContent = content;
+        }
+
+        return envelopeInfo;
+    }
+
     public String getSoapAction() {
         return soapAction;
     }
@@ -129,7 +173,7 @@ public class WsdlMockRequest extends AbstractMockRequest {
 
     private void initSoapVersion(String contentType) {
         try {
-            soapVersion = SoapUtils.deduceSoapVersion(contentType, getRequestXmlObject());
+            soapVersion = deduceSoapVersion(contentType);
         } catch (Exception e) {
             // ignore non xml requests
         }
@@ -139,5 +183,13 @@ public class WsdlMockRequest extends AbstractMockRequest {
         }
     }
 
+    private SoapVersion deduceSoapVersion(String contentType) throws XmlException {
+        SoapEnvelopeInfo envelope = getEnvelopeInfo();
+        if (envelope == null) {
+            return SoapUtils.deduceSoapVersion(contentType, getRequestXmlObject());
+        }
 
+        SoapVersion envelopeVersion = envelope.getSoapVersion();
+        return envelopeVersion != null ? envelopeVersion : SoapUtils.deduceSoapVersion(contentType, (XmlObject) null);
+    }
 }
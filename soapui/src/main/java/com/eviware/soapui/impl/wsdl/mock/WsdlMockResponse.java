@@ -325,6 +325,12 @@ public class WsdlMockResponse extends AbstractMockResponse<MockResponseConfig> i
         notifyPropertyChanged(MTOM_NABLED_PROPERTY, old, mtomEnabled);
     }
 
+    @Override
+    protected boolean requiresSpecificsContext() {
+        return getWsaConfig().isWsaEnabled() || StringUtils.hasContent(getOutgoingWss())
+                || StringUtils.hasContent(getMockOperation().getMockService().getOutgoingWss());
+    }
+
     protected String executeSpecifics(MockRequest request, String responseContent, WsdlMockRunContext context) throws IOException, WSSecurityException {
         if (this.getWsaConfig().isWsaEnabled()) {
             WsdlOperation operation = getMockOperation().getOperation();
@@ -24,10 +24,15 @@ import com.eviware.soapui.impl.wsdl.WsdlInterface;
 import com.eviware.soapui.impl.wsdl.WsdlOperation;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestRunContext;
 import com.eviware.soapui.model.mock.MockDispatcher;
+import com.eviware.soapui.model.mock.MockOperation;
 import com.eviware.soapui.model.mock.MockResult;
 import com.eviware.soapui.model.mock.MockRunListener;
 import com.eviware.soapui.model.mock.MockRunner;
 import com.eviware.soapui.model.mock.MockService;
+import com.eviware.soapui.model.support.AbstractMockDispatcher;
+import com.eviware.soapui.model.support.MockResultLog;
+import com.eviware.soapui.model.support.MockServiceListenerAdapter;
+import org.apache.log4j.Logger;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -44,9 +49,12 @@ import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public class WsdlMockRunner implements MockRunner {
+    private final static Logger log = Logger.getLogger(WsdlMockRunner.class);
+
     private final WsdlMockRunContext mockContext;
     private boolean running;
     private MockDispatcher dispatcher;
+    private final InternalMockServiceListener mockServiceListener = new InternalMockServiceListener();
 
     public WsdlMockRunner(MockService mockService, WsdlTestRunContext context) throws Exception {
         Set<WsdlInterface> interfaces = new HashSet<WsdlInterface>();
@@ -69,6 +77,7 @@ public class WsdlMockRunner implements MockRunner {
 
         mockContext = new WsdlMockRunContext(mockService, context);
         dispatcher = mockService.createDispatcher(mockContext);
+        mockService.addMockServiceListener(mockServiceListener);
 
         start();
     }
@@ -104,14 +113,35 @@ public class WsdlMockRunner implements MockRunner {
         } catch (Exception e) {
             SoapUI.logError(e);
         }
+
+        MockResultLog resultLog = getResultLog();
+        if (resultLog != null && resultLog.getTotalResultCount() > 0) {
+            log.info("MockService [" + getMockService().getName() + "] stopped; " + resultLog);
+        }
     }
 
     public void release() {
+        getMockService().removeMockServiceListener(mockServiceListener);
         mockContext.clear();
+
+        if (dispatcher instanceof WsdlMockDispatcher) {
+            ((WsdlMockDispatcher) dispatcher).release();
+        }
+
         dispatcher = null;
 
     }
 
+    /**
+     * Returns the log of the results handled by this runner with the statistics per mock operation, or null if the
+     * dispatcher of the mock service does not keep one
+     */
+
+    public MockResultLog getResultLog() {
+        return dispatcher instanceof AbstractMockDispatcher ? ((AbstractMockDispatcher) dispatcher).getResultLog()
+                : null;
+    }
+
     @Override
     public int getMockResultCount() {
         return dispatcher.getMockResultCount();
@@ -223,4 +253,14 @@ public class WsdlMockRunner implements MockRunner {
     public void setMaxResults(long maxNumberOfResults) {
         dispatcher.setMaxResults(maxNumberOfResults);
     }
+
+    private class InternalMockServiceListener extends MockServiceListenerAdapter {
+        @Override
+        public void mockOperationRemoved(MockOperation operation) {
+            MockResultLog resultLog = getResultLog();
+            if (resultLog != null) {
+                resultLog.removeOperationStatistics(operation);
+            }
+        }
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.panels.loadtest;
+
+import com.eviware.soapui.impl.wsdl.support.http.ConnectionPoolStatistics;
+import com.eviware.soapui.impl.wsdl.support.http.HttpClientSupport;
+import com.eviware.soapui.support.swing.JTableFactory;
+import org.jdesktop.swingx.JXTable;
+
+import javax.swing.BorderFactory;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.awt.BorderLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Table showing the state of the HTTP connection pool for each endpoint, refreshed every second while a LoadTest is
+ * running. Can be started and stopped from any thread, the table is always updated on the event dispatch thread.
+ */
+
+public class JConnectionPoolTable extends JPanel {
+    private final ConnectionPoolTableModel tableModel;
+    private final Timer refreshTimer;
+
+    public JConnectionPoolTable() {
+        super(new BorderLayout());
+
+        tableModel = new ConnectionPoolTableModel();
+        JXTable table = JTableFactory.getInstance().makeJXTable(tableModel);
+        table.setColumnControlVisible(true);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.getColumnModel().getColumn(0).setPreferredWidth(250);
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder(3, 3, 3, 3));
+        add(scrollPane, BorderLayout.CENTER);
+
+        refreshTimer = new Timer(1000, new ActionListener() {
+            public void actionPerformed(ActionEvent e) {
+                tableModel.refresh();
+            }
+        });
+    }
+
+    public void start() {
+        tableModel.refresh();
+        refreshTimer.start();
+    }
+
+    public void stop() {
+        refreshTimer.stop();
+        tableModel.refresh();
+    }
+
+    public void release() {
+        refreshTimer.stop();
+    }
+
+    private static class ConnectionPoolTableModel extends AbstractTableModel {
+        private final static String[] COLUMN_NAMES = {"Endpoint", "Leased", "Available", "Pending", "Max",
+                "Requests", "Avg Wait", "Max Wait"};
+
+        private List<ConnectionPoolStatistics> statistics = new ArrayList<ConnectionPoolStatistics>();
+
+        public void refresh() {
+            final List<ConnectionPoolStatistics> result = new ArrayList<ConnectionPoolStatistics>(
+                    HttpClientSupport.getConnectionPoolRouteStatistics());
+            result.add(HttpClientSupport.getConnectionPoolStatistics());
+
+            if (SwingUtilities.isEventDispatchThread()) {
+                setStatistics(result);
+            } else {
+                SwingUtilities.invokeLater(new Runnable() {
+                    public void run() {
+                        setStatistics(result);
+                    }
+                });
+            }
+        }
+
+        private void setStatistics(List<ConnectionPoolStatistics> statistics) {
+            this.statistics = statistics;
+            fireTableDataChanged();
+        }
+
+        public int getRowCount() {
+            return statistics.size();
+        }
+
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnIndex == 0 ? String.class : Long.class;
+        }
+
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            ConnectionPoolStatistics row = statistics.get(rowIndex);
+            switch (columnIndex) {
+                case 0:
+                    return row.getName();
+                case 1:
+                    return (long) row.getLeased();
+                case 2:
+                    return (long) row.getAvailable();
+                case 3:
+                    return (long) row.getPending();
+                case 4:
+                    return (long) row.getMax();
+                case 5:
+                    return row.getWaitCount();
+                case 6:
+                    return row.getAverageWaitTime();
+                case 7:
+                    return row.getMaxWaitTime();
+            }
+
+            return null;
+        }
+    }
+}
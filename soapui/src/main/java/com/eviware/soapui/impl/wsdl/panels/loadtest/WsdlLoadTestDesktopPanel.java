@@ -33,6 +33,7 @@ import com.eviware.soapui.impl.wsdl.panels.support.MockLoadTestRunContext;
 import com.eviware.soapui.impl.wsdl.panels.support.MockLoadTestRunner;
 import com.eviware.soapui.impl.wsdl.panels.teststeps.support.AbstractGroovyEditorModel;
 import com.eviware.soapui.impl.wsdl.support.HelpUrls;
+import com.eviware.soapui.impl.wsdl.support.http.HttpClientSupport;
 import com.eviware.soapui.model.ModelItem;
 import com.eviware.soapui.model.support.LoadTestRunListenerAdapter;
 import com.eviware.soapui.model.testsuite.LoadTestRunContext;
@@ -121,6 +122,7 @@ public class WsdlLoadTestDesktopPanel extends KeySensitiveModelItemDesktopPanel<
     protected JButton exportButton;
     private JLoadTestAssertionsTable assertionsTable;
     private JStatisticsTable statisticsTable;
+    private JConnectionPoolTable connectionPoolTable;
     private GroovyEditorComponent tearDownGroovyEditor;
     private GroovyEditorComponent setupGroovyEditor;
     private JInspectorPanel inspectorPanel;
@@ -159,6 +161,8 @@ public class WsdlLoadTestDesktopPanel extends KeySensitiveModelItemDesktopPanel<
                 "The current LoadTest execution log", true));
         inspectorPanel.addInspector(new JComponentInspector<JComponent>(buildAssertions(), "LoadTest Assertions",
                 "The assertions for this LoadTest", true));
+        inspectorPanel.addInspector(new JComponentInspector<JComponent>(buildConnectionPool(), "Connection Pool",
+                "The HTTP connections for each endpoint", true));
         inspectorPanel.addInspector(new GroovyEditorInspector(buildSetupScriptPanel(), "Setup Script",
                 "Script to run before tunning a TestCase"));
         inspectorPanel.addInspector(new GroovyEditorInspector(buildTearDownScriptPanel(), "TearDown Script",
@@ -185,6 +189,11 @@ public class WsdlLoadTestDesktopPanel extends KeySensitiveModelItemDesktopPanel<
         return loadTestLogTable;
     }
 
+    protected JComponent buildConnectionPool() {
+        connectionPoolTable = new JConnectionPoolTable();
+        return connectionPoolTable;
+    }
+
     protected JComponent buildAssertions() {
         assertionsTable = new JLoadTestAssertionsTable(getModelItem());
         return assertionsTable;
@@ -353,6 +362,9 @@ public class WsdlLoadTestDesktopPanel extends KeySensitiveModelItemDesktopPanel<
         SoapUI.getDesktop().removeDesktopListener(desktopListener);
 
         statisticsTable.release();
+        if (connectionPoolTable != null) {
+            connectionPoolTable.release();
+        }
         inspectorPanel.release();
 
         setupGroovyEditor.release();
@@ -494,6 +506,11 @@ public class WsdlLoadTestDesktopPanel extends KeySensitiveModelItemDesktopPanel<
             threadsSpinner.setEnabled(getModelItem().getLoadStrategy().allowThreadCountChangeDuringRun());
 
             new Thread(new ProgressBarUpdater(), getModelItem().getName() + " ProgressBarUpdater").start();
+
+            if (connectionPoolTable != null) {
+                HttpClientSupport.resetConnectionPoolStatistics();
+                connectionPoolTable.start();
+            }
         }
 
         public void afterLoadTest(LoadTestRunner testRunner, LoadTestRunContext context) {
@@ -508,6 +525,10 @@ public class WsdlLoadTestDesktopPanel extends KeySensitiveModelItemDesktopPanel<
             runner = null;
             loadTestIsRunning = false;
 
+            if (connectionPoolTable != null) {
+                connectionPoolTable.stop();
+            }
+
             if (progressBar.isIndeterminate()) {
                 progressBar.setIndeterminate(false);
                 progressBar.setValue(0);
@@ -47,6 +47,7 @@ public class JdbcRequestTestStepPanelBuilder extends EmptyPanelBuilder<JdbcReque
         table.addProperty("Max Rows", "maxRows", true);
         table.addProperty("Query Timeout", "queryTimeout", true);
         table.addProperty("Fetch Size", "fetchSize", true);
+        table.addProperty("Max Response Rows", "maxResponseRows", true);
         table.addProperty("Discard Response", "discardResponse", JPropertiesTable.BOOLEAN_OPTIONS);
         return table;
     }
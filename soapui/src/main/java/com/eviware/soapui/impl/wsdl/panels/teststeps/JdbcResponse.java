@@ -16,8 +16,12 @@
 
 package com.eviware.soapui.impl.wsdl.panels.teststeps;
 
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.impl.wsdl.teststeps.JdbcRequestTestStep;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.support.AbstractResponse;
-import com.eviware.soapui.support.xml.XmlUtils;
+import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.jdbc.JdbcResultXmlWriter;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerConfigurationException;
@@ -36,7 +40,22 @@ public class JdbcResponse extends AbstractResponse<JdbcRequest> {
         super(request);
         this.rawSql = rawSql;
 
-        responseContent = XmlUtils.createJdbcXmlResultEx(statement, request.getTestStep().isConvertColumnNamesToUpperCase());
+        JdbcRequestTestStep testStep = request.getTestStep();
+        responseContent = new JdbcResultXmlWriter(testStep.isConvertColumnNamesToUpperCase(),
+                getMaxResponseRows(testStep)).write(statement);
+    }
+
+    private static int getMaxResponseRows(JdbcRequestTestStep testStep) {
+        try {
+            if (!StringUtils.isNullOrEmpty(testStep.getMaxResponseRows())) {
+                String maxResponseRows = PropertyExpander.expandProperties(testStep, testStep.getMaxResponseRows());
+                return Integer.parseInt(maxResponseRows.trim());
+            }
+        } catch (NumberFormatException e) {
+            SoapUI.logError(e, "Problem setting maxResponseRows");
+        }
+
+        return -1;
     }
 
     public String getContentAsString() {
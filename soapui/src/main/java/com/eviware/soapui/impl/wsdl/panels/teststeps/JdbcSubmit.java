@@ -28,6 +28,7 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.support.SoapUIException;
 import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.jdbc.JdbcConnectionPool;
 import com.eviware.soapui.support.jdbc.JdbcUtils;
 
 import java.sql.Connection;
@@ -49,6 +50,7 @@ public class JdbcSubmit implements Submit, Runnable {
     protected ResultSet resultSet;
     protected PreparedStatement statement;
     private Connection connection;
+    private JdbcConnectionPool.PooledConnection pooledConnection;
     private long timeTaken;
     private final JdbcRequest request;
     private JdbcResponse response;
@@ -153,6 +155,8 @@ public class JdbcSubmit implements Submit, Runnable {
             SoapUI.logError(e);
             error = e;
         } finally {
+            closeConnection();
+
             if (error != null) {
                 status = Status.ERROR;
             }
@@ -187,8 +191,15 @@ public class JdbcSubmit implements Submit, Runnable {
 
     private void getDatabaseConnection() throws SQLException, SoapUIException {
         JdbcRequestTestStep testStep = request.getTestStep();
-        connection = JdbcUtils.initConnection(context, testStep.getDriver(), testStep.getConnectionString(),
-                testStep.getPassword());
+        JdbcConnectionPool pool = testStep.getTestCase().getTestSuite().getProject().getJdbcConnectionPool();
+        if (pool.isEnabled()) {
+            pooledConnection = JdbcUtils.getPooledConnection(pool, context, testStep.getDriver(),
+                    testStep.getConnectionString(), testStep.getPassword());
+            connection = pooledConnection.getConnection();
+        } else {
+            connection = JdbcUtils.initConnection(context, testStep.getDriver(), testStep.getConnectionString(),
+                    testStep.getPassword());
+        }
         // IMPORTANT: setting as readOnly raises an exception in calling stored
         // procedures!
         // connection.setReadOnly( true );
@@ -231,7 +242,8 @@ public class JdbcSubmit implements Submit, Runnable {
         } else {
             rawSql = PropertyExpander.expandProperties(context, testStep.getQuery());
         }
-        NamedParameterStatement p = new NamedParameterStatement(connection, rawSql);
+        NamedParameterStatement p = pooledConnection != null ? new NamedParameterStatement(pooledConnection, rawSql)
+                : new NamedParameterStatement(connection, rawSql);
         for (TestProperty testProperty : props) {
             String value = PropertyExpander.expandProperties(context, testProperty.getValue());
             if (!testProperty.getName().equals(WsdlTestStepWithProperties.RESPONSE_AS_XML)) {
@@ -278,7 +290,43 @@ public class JdbcSubmit implements Submit, Runnable {
             response.setTimeTaken(timeTaken);
         } catch (Exception e) {
             SoapUI.logError(e);
-        } finally {
+        }
+        return null;
+    }
+
+    /**
+     * Gives a pooled connection back to the pool, keeping its cached statement, or closes the connection and
+     * statement if pooling is disabled
+     */
+
+    private void closeConnection() {
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+        } catch (Exception e) {
+        }
+
+        if (pooledConnection != null) {
+            try {
+                if (statement != null && !pooledConnection.isCached(statement)) {
+                    statement.close();
+                }
+            } catch (Exception e) {
+            }
+
+            // the connection itself failed, see SQLState class 08 (connection exception)
+            if (error instanceof SQLException && ((SQLException) error).getSQLState() != null
+                    && ((SQLException) error).getSQLState().startsWith("08")) {
+                pooledConnection.invalidate();
+            } else {
+                pooledConnection.release();
+            }
+
+            // the statement may be used by the next borrower of the connection
+            statement = null;
+            pooledConnection = null;
+        } else {
             try {
                 if (connection != null) {
                     connection.close();
@@ -286,12 +334,8 @@ public class JdbcSubmit implements Submit, Runnable {
                 if (statement != null) {
                     statement.close();
                 }
-                if (resultSet != null) {
-                    resultSet.close();
-                }
             } catch (Exception e) {
             }
         }
-        return null;
     }
 }
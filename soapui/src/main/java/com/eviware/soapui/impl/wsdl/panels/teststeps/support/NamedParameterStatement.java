@@ -16,6 +16,8 @@
 
 package com.eviware.soapui.impl.wsdl.panels.teststeps.support;
 
+import com.eviware.soapui.support.jdbc.JdbcConnectionPool;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -53,6 +55,20 @@ public class NamedParameterStatement {
         statement = connection.prepareStatement(parsedQuery);
     }
 
+    /**
+     * Creates a NamedParameterStatement with a statement from the statement cache of a pooled connection, see
+     * {@link JdbcConnectionPool.PooledConnection#prepareStatement(String)}.
+     *
+     * @param connection the pooled database connection
+     * @param query      the parameterized query
+     * @throws SQLException if the statement could not be created
+     */
+    public NamedParameterStatement(JdbcConnectionPool.PooledConnection connection, String query) throws SQLException {
+        indexMap = new HashMap();
+        String parsedQuery = parse(query, indexMap);
+        statement = connection.prepareStatement(parsedQuery);
+    }
+
     /**
      * Parses a query with named parameters. The parameter-index mappings are put
      * into the map, and the parsed query is returned. DO NOT CALL FROM CLIENT
@@ -36,9 +36,11 @@ import com.eviware.soapui.impl.wsdl.submit.filters.WsdlPackagingRequestFilter;
 import com.eviware.soapui.impl.wsdl.submit.filters.WsrmRequestFilter;
 import com.eviware.soapui.impl.wsdl.submit.filters.WssAuthenticationRequestFilter;
 import com.eviware.soapui.impl.wsdl.submit.filters.WssRequestFilter;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.AsyncHttpClientRequestTransport;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpClientRequestTransport;
 import com.eviware.soapui.impl.wsdl.submit.transports.jms.HermesJmsRequestTransport;
 import com.eviware.soapui.model.iface.SubmitContext;
+import com.eviware.soapui.settings.HttpSettings;
 import com.eviware.soapui.support.factory.SoapUIFactoryRegistryListener;
 
 import java.util.ArrayList;
@@ -58,6 +60,13 @@ public class RequestTransportRegistry {
     public static final String HTTPS = "https";
     public static final String JMS = "jms";
 
+    /**
+     * Keys of the non-blocking HTTP transports, used for http and https endpoints when the asynchronous transport is
+     * enabled in the HTTP settings
+     */
+    public static final String ASYNC_HTTP = "async-http";
+    public static final String ASYNC_HTTP2 = "async-http2";
+
     private static Map<String, RequestTransport> transports = new HashMap<String, RequestTransport>();
     private static Map<String, List<RequestFilter>> addedCustomRequestFilters = new HashMap<String, List<RequestFilter>>();
 
@@ -70,42 +79,54 @@ public class RequestTransportRegistry {
         List<RequestFilterFactory> filterFactories = SoapUI.getFactoryRegistry()
                 .getFactories(RequestFilterFactory.class);
 
-        httpTransport.addRequestFilter(new EndpointRequestFilter());
-        httpTransport.addRequestFilter(new HttpSettingsRequestFilter());
-        httpTransport.addRequestFilter(new RestRequestFilter());
-        httpTransport.addRequestFilter(new SoapHeadersRequestFilter());
-        httpTransport.addRequestFilter(new HttpAuthenticationRequestFilter());
-        httpTransport.addRequestFilter(new WssAuthenticationRequestFilter());
-        httpTransport.addRequestFilter(new PropertyExpansionRequestFilter());
-        httpTransport.addRequestFilter(new RemoveEmptyContentRequestFilter());
-        httpTransport.addRequestFilter(new StripWhitespacesRequestFilter());
-        httpTransport.addRequestFilter(new EndpointStrategyRequestFilter());
-        httpTransport.addRequestFilter(new WsaRequestFilter());
-        httpTransport.addRequestFilter(new WsrmRequestFilter());
-        httpTransport.addRequestFilter(new WssRequestFilter());
-        httpTransport.addRequestFilter(new OAuth2RequestFilter());
-        httpTransport.addRequestFilter(new GlobalHttpHeadersRequestFilter());
-
-        addListenerRequestFilters(httpTransport);
+        List<RequestFilter> httpFilters = new ArrayList<RequestFilter>();
+        httpFilters.add(new EndpointRequestFilter());
+        httpFilters.add(new HttpSettingsRequestFilter());
+        httpFilters.add(new RestRequestFilter());
+        httpFilters.add(new SoapHeadersRequestFilter());
+        httpFilters.add(new HttpAuthenticationRequestFilter());
+        httpFilters.add(new WssAuthenticationRequestFilter());
+        httpFilters.add(new PropertyExpansionRequestFilter());
+        httpFilters.add(new RemoveEmptyContentRequestFilter());
+        httpFilters.add(new StripWhitespacesRequestFilter());
+        httpFilters.add(new EndpointStrategyRequestFilter());
+        httpFilters.add(new WsaRequestFilter());
+        httpFilters.add(new WsrmRequestFilter());
+        httpFilters.add(new WssRequestFilter());
+        httpFilters.add(new OAuth2RequestFilter());
+        httpFilters.add(new GlobalHttpHeadersRequestFilter());
+
+        httpFilters.addAll(SoapUI.getListenerRegistry().getListeners(RequestFilter.class));
 
         for (RequestFilterFactory factory : filterFactories) {
             String protocol = factory.getProtocol();
             if (protocol.equals(HTTP) || protocol.equals(HTTPS)) {
                 RequestFilter requestFilter = factory.createRequestFilter();
-                httpTransport.addRequestFilter(requestFilter);
+                httpFilters.add(requestFilter);
 
                 addToCustomRequestFilters(protocol, requestFilter);
             }
         }
 
         wsdlPackagingRequestFilter = new WsdlPackagingRequestFilter();
-        httpTransport.addRequestFilter(wsdlPackagingRequestFilter);
-        httpTransport.addRequestFilter(new HttpCompressionRequestFilter());
-        httpTransport.addRequestFilter(new HttpPackagingResponseFilter());
-        httpTransport.addRequestFilter(new PostPackagingRequestFilter());
+        httpFilters.add(wsdlPackagingRequestFilter);
+        httpFilters.add(new HttpCompressionRequestFilter());
+        httpFilters.add(new HttpPackagingResponseFilter());
+        httpFilters.add(new PostPackagingRequestFilter());
+
+        // the asynchronous transports share the filters of the http transport and fall back to it
+        AsyncHttpClientRequestTransport asyncHttpTransport = new AsyncHttpClientRequestTransport(false, httpTransport);
+        AsyncHttpClientRequestTransport asyncHttp2Transport = new AsyncHttpClientRequestTransport(true, httpTransport);
+        for (RequestFilter filter : httpFilters) {
+            httpTransport.addRequestFilter(filter);
+            asyncHttpTransport.addRequestFilter(filter);
+            asyncHttp2Transport.addRequestFilter(filter);
+        }
 
         transports.put(HTTP, httpTransport);
         transports.put(HTTPS, httpTransport);
+        transports.put(ASYNC_HTTP, asyncHttpTransport);
+        transports.put(ASYNC_HTTP2, asyncHttp2Transport);
 
         jmsTransport.addRequestFilter(new WssAuthenticationRequestFilter());
         jmsTransport.addRequestFilter(new PropertyExpansionRequestFilter());
@@ -142,8 +163,9 @@ public class RequestTransportRegistry {
                     String protocol = requestFilterFactory.getProtocol();
 
                     if (protocol.startsWith(HTTP)) {
-                        RequestTransport transport = transports.get(HTTP);
-                        transport.insertRequestFilter(filter, wsdlPackagingRequestFilter);
+                        for (String key : new String[]{HTTP, ASYNC_HTTP, ASYNC_HTTP2}) {
+                            transports.get(key).insertRequestFilter(filter, wsdlPackagingRequestFilter);
+                        }
                     } else {
                         RequestTransport transport = transports.get(protocol);
                         if (transport != null) {
@@ -221,6 +243,11 @@ public class RequestTransportRegistry {
 
         String protocol = endpoint.substring(0, ix).toLowerCase();
 
+        if ((protocol.equals(HTTP) || protocol.equals(HTTPS))
+                && SoapUI.getSettings().getBoolean(HttpSettings.ASYNC_HTTP_TRANSPORT)) {
+            protocol = SoapUI.getSettings().getBoolean(HttpSettings.ASYNC_HTTP2) ? ASYNC_HTTP2 : ASYNC_HTTP;
+        }
+
         RequestTransport transport = transports.get(protocol);
 
         if (transport == null) {
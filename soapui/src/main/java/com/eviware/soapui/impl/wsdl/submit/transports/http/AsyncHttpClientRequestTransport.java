@@ -0,0 +1,387 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.config.CredentialsConfig.AuthType;
+import com.eviware.soapui.impl.support.AbstractHttpRequestInterface;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
+import com.eviware.soapui.impl.wsdl.support.http.AsyncHttpClientSupport;
+import com.eviware.soapui.impl.wsdl.support.http.ProxyUtils;
+import com.eviware.soapui.model.iface.Request;
+import com.eviware.soapui.model.iface.Response;
+import com.eviware.soapui.model.iface.SubmitContext;
+import com.eviware.soapui.settings.HttpSettings;
+import com.eviware.soapui.support.StringUtils;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.RequestChannel;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.Cancellable;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.params.CoreProtocolPNames;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * HTTP transport that sends requests with the HttpClient 5 client, see {@link AsyncHttpClientSupport}, mainly to
+ * allow HTTP/2. Requests are created by the same RequestFilters as for the {@link HttpClientRequestTransport} and
+ * the response is handed back as an HttpClient 4 response, so responses, redirects and SoapUIMetrics work the same;
+ * only the exchange itself is different.
+ * <p/>
+ * The thread submitting a request waits for the whole response, as the test step and load test runners expect, so
+ * a load test still needs one thread per concurrent request.
+ * <p/>
+ * The exchange does not use the HttpClient 4 context of the request, so requests that need it - HTTP sessions,
+ * proxies, NTLM/Kerberos or challenged authentication, bind addresses and client certificates - are sent by the
+ * standard transport instead, see {@link #getUnsupportedFeature(SubmitContext, AbstractHttpRequestInterface)}.
+ */
+
+public class AsyncHttpClientRequestTransport extends HttpClientRequestTransport {
+    private final static Logger log = Logger.getLogger(AsyncHttpClientRequestTransport.class);
+
+    private final boolean http2;
+    private final HttpClientRequestTransport standardTransport;
+
+    /**
+     * @param http2             if requests should be sent with HTTP/2 instead of HTTP/1.1
+     * @param standardTransport the transport sending the requests this transport does not support
+     */
+
+    public AsyncHttpClientRequestTransport(boolean http2, HttpClientRequestTransport standardTransport) {
+        this.http2 = http2;
+        this.standardTransport = standardTransport;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    @Override
+    public Response sendRequest(SubmitContext submitContext, Request request) throws Exception {
+        String feature = getUnsupportedFeature(submitContext, (AbstractHttpRequestInterface<?>) request);
+        if (feature != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Sending [" + request.getName() + "] with the standard transport, it uses " + feature);
+            }
+
+            return standardTransport.sendRequest(submitContext, request);
+        }
+
+        return super.sendRequest(submitContext, request);
+    }
+
+    /**
+     * Returns the feature of the specified request that needs the HttpClient 4 context of the standard transport,
+     * or null if the request can be sent by this transport
+     */
+
+    static String getUnsupportedFeature(SubmitContext submitContext, AbstractHttpRequestInterface<?> httpRequest) {
+        // only set when the test case maintains the HTTP session
+        if (submitContext.getProperty(SubmitContext.HTTP_STATE_PROPERTY) != null) {
+            return "an HTTP session";
+        }
+
+        if (ProxyUtils.isProxyEnabled()) {
+            return "a proxy";
+        }
+
+        String authType = httpRequest.getAuthType();
+        if (AuthType.NTLM.toString().equals(authType) || AuthType.SPNEGO_KERBEROS.toString().equals(authType)) {
+            return authType + " authentication";
+        }
+
+        if (AuthType.GLOBAL_HTTP_SETTINGS.toString().equals(authType)
+                && !StringUtils.isNullOrEmpty(httpRequest.getUsername())
+                && !SoapUI.getSettings().getBoolean(HttpSettings.AUTHENTICATE_PREEMPTIVELY)) {
+            return "challenged authentication";
+        }
+
+        String localAddress = getBindAddress(httpRequest);
+        if (localAddress != null && localAddress.trim().length() > 0) {
+            return "a bind address";
+        }
+
+        if (getSslConfig(httpRequest, submitContext) != null) {
+            return "a client certificate";
+        }
+
+        return null;
+    }
+
+    @Override
+    protected org.apache.http.HttpResponse submitRequest(ExtendedHttpMethod httpMethod, HttpContext httpContext)
+            throws IOException {
+        httpMethod.afterWriteRequest();
+        SoapUIMetrics metrics = httpMethod.getMetrics();
+        if (metrics != null) {
+            metrics.getConnectTimer().start();
+        }
+
+        SimpleHttpRequest request = createRequest(httpMethod, http2);
+        final Future<SimpleHttpResponse> future = AsyncHttpClientSupport.getHttpClient(http2).execute(
+                new MetricsRequestProducer(SimpleRequestProducer.create(request), metrics),
+                new MetricsResponseConsumer(SimpleResponseConsumer.create(), httpMethod), null);
+
+        // makes abortRequest cancel the exchange
+        if (httpMethod instanceof HttpRequestBase) {
+            ((HttpRequestBase) httpMethod).setCancellable(new Cancellable() {
+                public boolean cancel() {
+                    return future.cancel(true);
+                }
+            });
+        }
+
+        SimpleHttpResponse response;
+        try {
+            response = future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Request interrupted");
+        } catch (CancellationException e) {
+            throw new IOException("Request aborted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IOException(e.getCause());
+        }
+
+        org.apache.http.HttpResponse httpResponse = createHttpResponse(response);
+        httpMethod.setHttpResponse(httpResponse);
+        return httpResponse;
+    }
+
+    /**
+     * Copies the filtered HttpClient 4 request; headers that HttpClient 5 sets itself or that are not allowed in
+     * HTTP/2 are left out
+     */
+
+    static SimpleHttpRequest createRequest(ExtendedHttpMethod httpMethod, boolean http2) throws IOException {
+        SimpleHttpRequest request = SimpleHttpRequest.create(httpMethod.getMethod(), httpMethod.getURI());
+
+        for (Header header : httpMethod.getAllHeaders()) {
+            if (!isExcludedHeader(header.getName(), http2)) {
+                request.addHeader(header.getName(), header.getValue());
+            }
+        }
+
+        HttpEntity entity = httpMethod.getRequestEntity();
+        if (entity != null) {
+            if (entity.getContentType() != null && !request.containsHeader("Content-Type")) {
+                request.addHeader("Content-Type", entity.getContentType().getValue());
+            }
+
+            if (entity.getContentEncoding() != null && !request.containsHeader("Content-Encoding")) {
+                request.addHeader("Content-Encoding", entity.getContentEncoding().getValue());
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            entity.writeTo(out);
+            request.setBody(out.toByteArray(), null);
+        }
+
+        RequestConfig.Builder config = RequestConfig.custom();
+        int timeout = HttpConnectionParams.getSoTimeout(httpMethod.getParams());
+        if (timeout > 0) {
+            config.setResponseTimeout(Timeout.ofMilliseconds(timeout));
+        }
+
+        config.setExpectContinueEnabled(httpMethod.getParams().getBooleanParameter(
+                CoreProtocolPNames.USE_EXPECT_CONTINUE, false));
+        request.setConfig(config.build());
+
+        return request;
+    }
+
+    private static boolean isExcludedHeader(String name, boolean http2) {
+        if (name.equalsIgnoreCase("Content-Length") || name.equalsIgnoreCase("Transfer-Encoding")) {
+            return true;
+        }
+
+        return http2 && (name.equalsIgnoreCase("Host") || name.equalsIgnoreCase("Connection")
+                || name.equalsIgnoreCase("Keep-Alive") || name.equalsIgnoreCase("Proxy-Connection")
+                || name.equalsIgnoreCase("Upgrade"));
+    }
+
+    static org.apache.http.HttpResponse createHttpResponse(SimpleHttpResponse response) {
+        org.apache.hc.core5.http.ProtocolVersion version = response.getVersion();
+        ProtocolVersion protocolVersion = version == null ? new ProtocolVersion("HTTP", 1, 1) : new ProtocolVersion(
+                version.getProtocol(), version.getMajor(), version.getMinor());
+
+        // HTTP/2 has no reason phrases
+        String reasonPhrase = response.getReasonPhrase();
+        if (reasonPhrase == null) {
+            reasonPhrase = EnglishReasonPhraseCatalog.INSTANCE.getReason(response.getCode(), Locale.ENGLISH);
+        }
+
+        BasicHttpResponse httpResponse = new BasicHttpResponse(new BasicStatusLine(protocolVersion,
+                response.getCode(), reasonPhrase));
+
+        for (org.apache.hc.core5.http.Header header : response.getHeaders()) {
+            httpResponse.addHeader(header.getName(), header.getValue());
+        }
+
+        byte[] body = response.getBodyBytes();
+        if (body != null) {
+            ByteArrayEntity entity = new ByteArrayEntity(body);
+            org.apache.hc.core5.http.Header contentType = response.getFirstHeader("Content-Type");
+            if (contentType != null) {
+                entity.setContentType(contentType.getValue());
+            }
+
+            org.apache.hc.core5.http.Header contentEncoding = response.getFirstHeader("Content-Encoding");
+            if (contentEncoding != null) {
+                entity.setContentEncoding(contentEncoding.getValue());
+            }
+
+            httpResponse.setEntity(entity);
+        }
+
+        return httpResponse;
+    }
+
+    /**
+     * Stops the connect timer and starts the time to first byte when a connection (or HTTP/2 stream) is ready for
+     * the request
+     */
+
+    private static class MetricsRequestProducer implements AsyncRequestProducer {
+        private final AsyncRequestProducer producer;
+        private final SoapUIMetrics metrics;
+
+        private MetricsRequestProducer(AsyncRequestProducer producer, SoapUIMetrics metrics) {
+            this.producer = producer;
+            this.metrics = metrics;
+        }
+
+        public void sendRequest(RequestChannel channel, org.apache.hc.core5.http.protocol.HttpContext context)
+                throws HttpException, IOException {
+            if (metrics != null) {
+                metrics.getConnectTimer().stop();
+                metrics.getTimeToFirstByteTimer().start();
+            }
+
+            producer.sendRequest(channel, context);
+        }
+
+        public boolean isRepeatable() {
+            return producer.isRepeatable();
+        }
+
+        public void failed(Exception cause) {
+            producer.failed(cause);
+        }
+
+        public int available() {
+            return producer.available();
+        }
+
+        public void produce(DataStreamChannel channel) throws IOException {
+            producer.produce(channel);
+        }
+
+        public void releaseResources() {
+            producer.releaseResources();
+        }
+    }
+
+    /**
+     * Stops the time to first byte and starts the read timer when the response head arrives, the read timer is
+     * stopped by the transport once the whole response has been read
+     */
+
+    private static class MetricsResponseConsumer implements AsyncResponseConsumer<SimpleHttpResponse> {
+        private final AsyncResponseConsumer<SimpleHttpResponse> consumer;
+        private final ExtendedHttpMethod httpMethod;
+
+        private MetricsResponseConsumer(AsyncResponseConsumer<SimpleHttpResponse> consumer,
+                                        ExtendedHttpMethod httpMethod) {
+            this.consumer = consumer;
+            this.httpMethod = httpMethod;
+        }
+
+        public void consumeResponse(org.apache.hc.core5.http.HttpResponse response, EntityDetails entityDetails,
+                                    org.apache.hc.core5.http.protocol.HttpContext context,
+                                    FutureCallback<SimpleHttpResponse> resultCallback) throws HttpException, IOException {
+            SoapUIMetrics metrics = httpMethod.getMetrics();
+            if (metrics != null) {
+                metrics.getTimeToFirstByteTimer().stop();
+                metrics.getReadTimer().start();
+            }
+
+            httpMethod.afterReadResponse(HttpCoreContext.adapt(context).getSSLSession());
+            consumer.consumeResponse(response, entityDetails, context, resultCallback);
+        }
+
+        public void informationResponse(org.apache.hc.core5.http.HttpResponse response,
+                                        org.apache.hc.core5.http.protocol.HttpContext context) throws HttpException, IOException {
+            consumer.informationResponse(response, context);
+        }
+
+        public void failed(Exception cause) {
+            consumer.failed(cause);
+        }
+
+        public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+            consumer.updateCapacity(capacityChannel);
+        }
+
+        public void consume(ByteBuffer src) throws IOException {
+            consumer.consume(src);
+        }
+
+        public void streamEnd(List<? extends org.apache.hc.core5.http.Header> trailers) throws HttpException, IOException {
+            consumer.streamEnd(trailers);
+        }
+
+        public void releaseResources() {
+            consumer.releaseResources();
+        }
+    }
+}
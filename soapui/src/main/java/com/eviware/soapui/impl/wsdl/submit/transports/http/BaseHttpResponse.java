@@ -34,8 +34,12 @@ import com.eviware.soapui.support.types.StringToStringMap;
 import com.eviware.soapui.support.types.StringToStringsMap;
 import org.apache.http.Header;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.net.URL;
 import java.util.List;
@@ -55,8 +59,10 @@ public abstract class BaseHttpResponse implements HttpResponse {
     private String version;
     private StringToStringMap properties;
     private byte[] rawRequestData;
-    private byte[] rawResponseData;
-    private byte[] rawResponseBody;
+    private byte[] rawResponseHeaders;
+    private boolean rawResponseIncludesBody;
+    private SoftReference<byte[]> rawResponseData;
+    private SpooledResponseBody responseBody;
     private int requestContentPos = -1;
     private String xmlContent;
     private Attachment[] attachments = new Attachment[0];
@@ -82,7 +88,7 @@ public abstract class BaseHttpResponse implements HttpResponse {
             Settings settings = httpRequest.getSettings();
 
             try {
-                rawResponseBody = httpMethod.getResponseBody();
+                responseBody = httpMethod.getSpooledResponseBody();
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -154,7 +160,7 @@ public abstract class BaseHttpResponse implements HttpResponse {
         } catch (ClassCastException cce) {
             attachments = new Attachment[1];
             try {
-                attachments[0] = downloader.createAttachment(rawResponseData, url, httpRequest.get());
+                attachments[0] = downloader.createAttachment(getRawResponseData(), url, httpRequest.get());
             } catch (IOException e) {
                 SoapUI.log.error(e);
             }
@@ -211,12 +217,13 @@ public abstract class BaseHttpResponse implements HttpResponse {
                 }
             }
 
-            if (!httpMethod.isFailed() && httpMethod.hasHttpResponse() && httpMethod.getResponseBody() != null) {
+            // the body is appended on demand by getRawResponseData instead of being copied here
+            if (!httpMethod.isFailed() && httpMethod.hasHttpResponse() && responseBody != null) {
                 rawResponse.write("\r\n".getBytes());
-                rawResponse.write(httpMethod.getResponseBody());
+                rawResponseIncludesBody = true;
             }
 
-            rawResponseData = rawResponse.toByteArray();
+            rawResponseHeaders = rawResponse.toByteArray();
             rawRequestData = rawRequest.toByteArray();
         } catch (Exception e) {
             e.printStackTrace();
@@ -339,12 +346,84 @@ public abstract class BaseHttpResponse implements HttpResponse {
         return rawRequestData;
     }
 
+    /**
+     * Returns the raw response headers followed by the body, when it is included in the raw data. The body is copied
+     * into the returned array, which is kept softly for further calls; use {@link #getRawResponseDataAsStream()} to
+     * read large responses without the copy.
+     */
+
     public byte[] getRawResponseData() {
-        return rawResponseData;
+        if (rawResponseHeaders == null || !rawResponseIncludesBody) {
+            return rawResponseHeaders;
+        }
+
+        byte[] data = rawResponseData == null ? null : rawResponseData.get();
+        if (data == null) {
+            try {
+                byte[] body = responseBody.toByteArray();
+                data = new byte[rawResponseHeaders.length + body.length];
+                System.arraycopy(rawResponseHeaders, 0, data, 0, rawResponseHeaders.length);
+                System.arraycopy(body, 0, data, rawResponseHeaders.length, body.length);
+                rawResponseData = new SoftReference<byte[]>(data);
+            } catch (IOException e) {
+                SoapUI.logError(e);
+                return rawResponseHeaders;
+            }
+        }
+
+        return data;
+    }
+
+    /**
+     * Returns a stream over the same data as {@link #getRawResponseData()} that reads the body as it goes instead of
+     * copying it, or null if there are no raw response headers
+     */
+
+    public InputStream getRawResponseDataAsStream() throws IOException {
+        if (rawResponseHeaders == null) {
+            return null;
+        }
+
+        InputStream headers = new ByteArrayInputStream(rawResponseHeaders);
+        if (!rawResponseIncludesBody || responseBody == null) {
+            return headers;
+        }
+
+        return new SequenceInputStream(headers, responseBody.getInputStream());
     }
 
     public byte[] getRawResponseBody() {
-        return rawResponseBody;
+        try {
+            return responseBody == null ? null : responseBody.toByteArray();
+        } catch (IOException e) {
+            SoapUI.logError(e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns a stream over the response body that does not require the body to be held in memory, or null if there
+     * is no body.
+     */
+
+    public InputStream getRawResponseBodyAsStream() throws IOException {
+        return responseBody == null ? null : responseBody.getInputStream();
+    }
+
+    protected SpooledResponseBody getSpooledResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * Deletes the spool file of the response body unless this is still the current response of its request; called
+     * when the result holding the response is discarded. The raw response body can not be read afterwards.
+     */
+
+    public void discard() {
+        AbstractHttpRequestInterface<?> request = getRequest();
+        if (responseBody != null && (request == null || request.getResponse() != this)) {
+            responseBody.release();
+        }
     }
 
     public String getMethod() {
@@ -47,6 +47,7 @@ import com.eviware.soapui.model.iface.Request;
 import com.eviware.soapui.model.iface.Response;
 import com.eviware.soapui.model.iface.SubmitContext;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 import com.eviware.soapui.model.settings.Settings;
 import com.eviware.soapui.model.support.ModelSupport;
 import com.eviware.soapui.settings.HttpSettings;
@@ -145,6 +146,39 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
         }
     }
 
+    /**
+     * Returns the keystore of the specified request as expected by the SoapUISSLSocketFactory in the
+     * SoapUIHttpRoute.SOAPUI_SSL_CONFIG parameter, or null if the request has no valid keystore
+     */
+
+    public static String getSslConfig(AbstractHttpRequestInterface<?> httpRequest, PropertyExpansionContext context) {
+        WsdlProject project = (WsdlProject) ModelSupport.getModelItemProject(httpRequest);
+        WssCrypto crypto = null;
+        if (project != null && project.getWssContainer() != null) {
+            crypto = project.getWssContainer().getCryptoByName(
+                    PropertyExpander.expandProperties(context, httpRequest.getSslKeystore()));
+        }
+
+        if (crypto != null && WssCrypto.STATUS_OK.equals(crypto.getStatus())) {
+            return crypto.getSource() + " " + crypto.getPassword();
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the local address the specified request should be sent from, or null if none is configured
+     */
+
+    public static String getBindAddress(AbstractHttpRequestInterface<?> httpRequest) {
+        String localAddress = System.getProperty("soapui.bind.address", httpRequest.getBindAddress());
+        if (localAddress == null || localAddress.trim().length() == 0) {
+            localAddress = SoapUI.getSettings().getString(HttpSettings.BIND_ADDRESS, null);
+        }
+
+        return localAddress;
+    }
+
     public Response sendRequest(SubmitContext submitContext, Request request) throws Exception {
         AbstractHttpRequestInterface<?> httpRequest = (AbstractHttpRequestInterface<?>) request;
 
@@ -159,10 +193,7 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
             createdContext = true;
         }
 
-        String localAddress = System.getProperty("soapui.bind.address", httpRequest.getBindAddress());
-        if (localAddress == null || localAddress.trim().length() == 0) {
-            localAddress = SoapUI.getSettings().getString(HttpSettings.BIND_ADDRESS, null);
-        }
+        String localAddress = getBindAddress(httpRequest);
 
         org.apache.http.HttpResponse httpResponse;
         if (localAddress != null && localAddress.trim().length() > 0) {
@@ -200,16 +231,9 @@ public class HttpClientRequestTransport implements BaseHttpRequestTransport {
             }
 
             // do request
-            WsdlProject project = (WsdlProject) ModelSupport.getModelItemProject(httpRequest);
-            WssCrypto crypto = null;
-            if (project != null && project.getWssContainer() != null) {
-                crypto = project.getWssContainer().getCryptoByName(
-                        PropertyExpander.expandProperties(submitContext, httpRequest.getSslKeystore()));
-            }
-
-            if (crypto != null && WssCrypto.STATUS_OK.equals(crypto.getStatus())) {
-                httpMethod.getParams().setParameter(SoapUIHttpRoute.SOAPUI_SSL_CONFIG,
-                        crypto.getSource() + " " + crypto.getPassword());
+            String sslConfig = getSslConfig(httpRequest, submitContext);
+            if (sslConfig != null) {
+                httpMethod.getParams().setParameter(SoapUIHttpRoute.SOAPUI_SSL_CONFIG, sslConfig);
             }
 
             // dump file?
@@ -50,8 +50,10 @@ public class HttpMethodSupport {
     private long startTime;
     private long maxSize;
     private long responseReadTime;
+    private long spoolThreshold;
 
     private byte[] responseBody;
+    private SpooledResponseBody spooledResponseBody;
 
     private SSLInfo sslInfo;
     private String dumpFile;
@@ -63,6 +65,7 @@ public class HttpMethodSupport {
 
     public HttpMethodSupport() {
         decompress = !SoapUI.getSettings().getBoolean(HttpSettings.DISABLE_RESPONSE_DECOMPRESSION);
+        spoolThreshold = SoapUI.getSettings().getLong(HttpSettings.RESPONSE_SPOOL_THRESHOLD, 0);
         metrics = new SoapUIMetrics(new HttpTransportMetricsImpl(), new HttpTransportMetricsImpl());
     }
 
@@ -96,6 +99,14 @@ public class HttpMethodSupport {
         this.maxSize = maxSize;
     }
 
+    public long getSpoolThreshold() {
+        return spoolThreshold;
+    }
+
+    public void setSpoolThreshold(long spoolThreshold) {
+        this.spoolThreshold = spoolThreshold;
+    }
+
     public void afterWriteRequest() {
         if (startTime == 0) {
             startTime = System.nanoTime();
@@ -142,6 +153,9 @@ public class HttpMethodSupport {
     }
 
     public byte[] getDecompressedResponseBody() throws IOException {
+        byte[] responseBody = this.responseBody == null && spooledResponseBody != null ? spooledResponseBody
+                .toByteArray() : this.responseBody;
+
         if (hasHttpResponse()) {
             String compressionAlg = HttpClientSupport.getResponseCompressionType(httpResponse);
             if (compressionAlg != null) {
@@ -212,7 +226,7 @@ public class HttpMethodSupport {
     }
 
     public boolean hasResponse() {
-        return responseBody != null;
+        return responseBody != null || spooledResponseBody != null;
     }
 
     public org.apache.http.HttpResponse getHttpResponse() {
@@ -227,11 +241,107 @@ public class HttpMethodSupport {
         return httpResponse != null;
     }
 
+    /**
+     * Returns the response body, reading it from the wire on the first call. If a spool threshold has been set the
+     * body is read once into a {@link SpooledResponseBody} and larger bodies are kept in a temporary file.
+     *
+     * @return the body, or null if there is no response entity
+     */
+
+    public SpooledResponseBody getSpooledResponseBody() throws IOException {
+        if (spooledResponseBody == null) {
+            if (spoolThreshold > 0) {
+                readSpooledResponseBody();
+            } else {
+                byte[] body = getResponseBody();
+                if (body != null) {
+                    spooledResponseBody = SpooledResponseBody.wrap(body);
+                }
+            }
+        }
+
+        return spooledResponseBody;
+    }
+
+    private void readSpooledResponseBody() throws IOException {
+        if (!hasHttpResponse() || httpResponse.getEntity() == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        HttpEntity entity = httpResponse.getEntity();
+        SpooledResponseBody body = new SpooledResponseBody(spoolThreshold);
+
+        InputStream instream = entity.getContent();
+        try {
+            if (instream != null) {
+                body.readFrom(instream, entity.getContentLength(), maxSize);
+            }
+        } finally {
+            if (instream != null) {
+                instream.close();
+            }
+        }
+
+        responseReadTime = System.nanoTime() - now;
+        if (metrics != null) {
+            metrics.setContentLength(body.getLength());
+        }
+
+        if (StringUtils.hasContent(dumpFile)) {
+            InputStream in = body.getInputStream();
+            try {
+                FileOutputStream out = new FileOutputStream(dumpFile);
+                try {
+                    Tools.writeAll(out, in);
+                } finally {
+                    out.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                in.close();
+            }
+        }
+
+        if (decompress && !body.isTruncated() && body.getLength() > 0) {
+            String compressionAlg = HttpClientSupport.getResponseCompressionType(httpResponse);
+            if (compressionAlg != null) {
+                SpooledResponseBody decompressed = new SpooledResponseBody(spoolThreshold);
+                try {
+                    InputStream in = CompressionSupport.decompress(compressionAlg, body.getInputStream());
+                    try {
+                        decompressed.readFrom(in, -1, 0);
+                    } finally {
+                        in.close();
+                    }
+                } catch (Exception e) {
+                    decompressed.release();
+                    IOException ioe = new IOException("Decompression of response failed");
+                    ioe.initCause(e);
+                    throw ioe;
+                } finally {
+                    body.release();
+                }
+
+                body = decompressed;
+            }
+        }
+
+        spooledResponseBody = body;
+    }
+
     public byte[] getResponseBody() throws IOException {
         if (responseBody != null) {
             return responseBody;
         }
 
+        if (spoolThreshold > 0) {
+            // spooled bodies are materialized on request only, callers that can should use getSpooledResponseBody
+            SpooledResponseBody body = getSpooledResponseBody();
+            return body == null ? null : body.toByteArray();
+        }
+
         if (hasHttpResponse() && httpResponse.getEntity() != null) {
             long now = System.nanoTime();
             HttpEntity bufferedEntity = new BufferedHttpEntity(httpResponse.getEntity());
@@ -25,6 +25,11 @@ import com.eviware.soapui.settings.WsdlSettings;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.xml.XmlUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 
 /**
@@ -35,9 +40,12 @@ import java.io.UnsupportedEncodingException;
 
 public class SinglePartHttpResponse extends BaseHttpResponse {
     private String responseContent;
+    private boolean responseContentDecoded;
     private String requestContent;
     private boolean prettyPrint;
     private long responseSize;
+    private int contentOffset;
+    private String charset;
 
     public SinglePartHttpResponse(AbstractHttpRequestInterface<?> httpRequest, ExtendedHttpMethod httpMethod,
                                   String requestContent, PropertyExpansionContext context) {
@@ -48,20 +56,15 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
         }
 
         try {
-            byte[] responseBody = httpMethod.getResponseBody();
-            int contentOffset = 0;
-            if (responseBody == null) {
-                responseBody = new byte[0];
-            }
-
-            responseSize = responseBody.length;
+            SpooledResponseBody responseBody = getSpooledResponseBody();
+            responseSize = responseBody == null ? 0 : responseBody.getLength();
 
             String contentType = httpMethod.getResponseContentType();
-            String charset = httpMethod.getResponseCharSet();
+            charset = httpMethod.getResponseCharSet();
 
-            if (contentType != null && contentType.toLowerCase().endsWith("xml")) {
-                if (responseSize > 3 && responseBody[0] == (byte) 239 && responseBody[1] == (byte) 187
-                        && responseBody[2] == (byte) 191) {
+            if (contentType != null && contentType.toLowerCase().endsWith("xml") && responseSize > 3) {
+                byte[] bom = responseBody.getPrefix(3);
+                if (bom[0] == (byte) 239 && bom[1] == (byte) 187 && bom[2] == (byte) 191) {
                     charset = "UTF-8";
                     contentOffset = 3;
                 }
@@ -73,22 +76,90 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
 
             charset = StringUtils.unquote(charset);
 
+            // the content is decoded on first access so that responses nobody looks at are never turned into strings
+            prettyPrint = httpRequest.getSettings().getBoolean(WsdlSettings.PRETTY_PRINT_RESPONSE_MESSAGES);
+        } catch (Exception e) {
+            SoapUI.logError(e);
+        }
+    }
+
+    private void decodeResponseContent() {
+        if (responseContentDecoded) {
+            return;
+        }
+
+        responseContentDecoded = true;
+        if (responseSize == 0) {
+            return;
+        }
+
+        try {
+            if (getSpooledResponseBody().isSpooled()) {
+                // decode spooled bodies from the file instead of reading them into a byte array first
+                responseContent = readResponseContent();
+                return;
+            }
+
+            byte[] responseBody = getSpooledResponseBody().toByteArray();
             try {
-                responseContent = responseBody.length == 0 ? null : charset == null ? new String(responseBody,
-                        contentOffset, (int) (responseSize - contentOffset)) : new String(responseBody, contentOffset,
+                responseContent = charset == null ? new String(responseBody, contentOffset,
+                        (int) (responseSize - contentOffset)) : new String(responseBody, contentOffset,
                         (int) (responseSize - contentOffset), charset);
             } catch (UnsupportedEncodingException e) {
                 SoapUI.getErrorLog().warn(e.toString());
                 responseContent = new String(responseBody, contentOffset, (int) (responseSize - contentOffset));
             }
-
-            prettyPrint = httpRequest.getSettings().getBoolean(WsdlSettings.PRETTY_PRINT_RESPONSE_MESSAGES);
-        } catch (Exception e) {
+        } catch (IOException e) {
             SoapUI.logError(e);
         }
     }
 
+    private String readResponseContent() throws IOException {
+        Reader reader = openResponseContentReader();
+        try {
+            StringBuilder content = new StringBuilder((int) Math.min(responseSize, Integer.MAX_VALUE - 8));
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                content.append(buffer, 0, read);
+            }
+
+            return content.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private Reader openResponseContentReader() throws IOException {
+        InputStream in = getRawResponseBodyAsStream();
+        try {
+            long skip = contentOffset;
+            while (skip > 0) {
+                long skipped = in.skip(skip);
+                if (skipped <= 0) {
+                    break;
+                }
+                skip -= skipped;
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+
+        try {
+            return charset == null ? new InputStreamReader(in) : new InputStreamReader(in, charset);
+        } catch (UnsupportedEncodingException e) {
+            SoapUI.getErrorLog().warn(e.toString());
+            return new InputStreamReader(in);
+        }
+    }
+
+    /**
+     * Returns the response content, decoding the whole response body into a String on the first call
+     */
+
     public String getContentAsString() {
+        decodeResponseContent();
         if (prettyPrint) {
             responseContent = XmlUtils.prettyPrintXml(responseContent);
             prettyPrint = false;
@@ -97,7 +168,26 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
         return responseContent;
     }
 
+    /**
+     * Returns a reader over the same content as {@link #getContentAsString()}. Content that has not been decoded yet
+     * is decoded from the response body while it is read, without creating a String of the whole response; content
+     * that has been decoded, changed or is pretty printed is read from that String.
+     * <p/>
+     * Assertions and property transfers still work on the String returned by getContentAsString, since they get the
+     * content as a String from the MessageExchange or TestProperty they are given.
+     */
+
+    public Reader getContentAsReader() throws IOException {
+        if (responseContentDecoded || prettyPrint || responseSize == 0) {
+            String content = getContentAsString();
+            return new StringReader(content == null ? "" : content);
+        }
+
+        return openResponseContentReader();
+    }
+
     protected String getResponseContent() {
+        decodeResponseContent();
         return responseContent;
     }
 
@@ -110,6 +200,7 @@ public class SinglePartHttpResponse extends BaseHttpResponse {
     }
 
     public void setResponseContent(String responseContent) {
+        decodeResponseContent();
         String oldContent = this.responseContent;
         this.responseContent = responseContent;
 
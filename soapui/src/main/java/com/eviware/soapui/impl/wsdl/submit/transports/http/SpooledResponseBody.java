@@ -0,0 +1,314 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Body of an HTTP response that is read from the wire exactly once. Bodies up to the spool threshold are kept in a
+ * single exactly-sized buffer, larger bodies are written to a temporary file and read back through
+ * {@link #getInputStream()} by the views and assertions that need them.
+ * <p/>
+ * Spool files are deleted when the body is released, which happens when its response is discarded. Files of bodies
+ * that were garbage collected without being released are deleted the next time a body is spooled, and all remaining
+ * files are deleted when the JVM exits.
+ */
+
+public class SpooledResponseBody {
+    private final static int READ_BUFFER_SIZE = 8192;
+
+    private final static ReferenceQueue<SpooledResponseBody> collectedBodies = new ReferenceQueue<SpooledResponseBody>();
+    private final static Set<SpoolFile> spoolFiles = Collections
+            .newSetFromMap(new ConcurrentHashMap<SpoolFile, Boolean>());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            public void run() {
+                for (SpoolFile spoolFile : spoolFiles.toArray(new SpoolFile[0])) {
+                    spoolFile.delete();
+                }
+            }
+        }, "SpooledResponseBody cleanup"));
+    }
+
+    private final long spoolThreshold;
+
+    private byte[] buffer = new byte[0];
+    private int count;
+    private SpoolFile file;
+    private long length;
+    private boolean truncated;
+
+    /**
+     * @param spoolThreshold size in bytes above which the body is spooled to a temporary file, 0 keeps all bodies in
+     *                       memory
+     */
+
+    public SpooledResponseBody(long spoolThreshold) {
+        this.spoolThreshold = spoolThreshold;
+    }
+
+    public static SpooledResponseBody wrap(byte[] data) {
+        SpooledResponseBody body = new SpooledResponseBody(0);
+        body.buffer = data;
+        body.count = data.length;
+        body.length = data.length;
+        return body;
+    }
+
+    /**
+     * Reads the specified stream until its end or until maxSize bytes have been read
+     *
+     * @param in             the stream to read, is not closed
+     * @param expectedLength the announced length of the content, or -1 if unknown
+     * @param maxSize        maximum number of bytes to read, 0 for no limit
+     */
+
+    public void readFrom(InputStream in, long expectedLength, long maxSize) throws IOException {
+        release();
+        buffer = new byte[initialCapacity(expectedLength, maxSize)];
+        count = 0;
+        length = 0;
+        truncated = false;
+
+        byte[] chunk = null;
+        OutputStream out = null;
+
+        try {
+            while (true) {
+                int limit = READ_BUFFER_SIZE;
+                if (maxSize > 0) {
+                    long remaining = maxSize - length;
+                    if (remaining <= 0) {
+                        truncated = in.read() != -1;
+                        break;
+                    }
+
+                    limit = (int) Math.min(limit, remaining);
+                }
+
+                int read;
+                if (out == null && count < buffer.length) {
+                    read = in.read(buffer, count, Math.min(limit, buffer.length - count));
+                    if (read == -1) {
+                        break;
+                    }
+
+                    count += read;
+                } else {
+                    if (chunk == null) {
+                        chunk = new byte[READ_BUFFER_SIZE];
+                    }
+
+                    read = in.read(chunk, 0, limit);
+                    if (read == -1) {
+                        break;
+                    }
+
+                    if (out == null && spoolThreshold > 0 && count + read > spoolThreshold) {
+                        out = createSpoolFile();
+                        out.write(buffer, 0, count);
+                        buffer = null;
+                        count = 0;
+                    }
+
+                    if (out != null) {
+                        out.write(chunk, 0, read);
+                    } else {
+                        ensureCapacity(count + read);
+                        System.arraycopy(chunk, 0, buffer, count, read);
+                        count += read;
+                    }
+                }
+
+                length += read;
+            }
+        } finally {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return true if reading stopped at the maximum size before the end of the stream
+     */
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public boolean isSpooled() {
+        return file != null;
+    }
+
+    public InputStream getInputStream() throws IOException {
+        if (file != null) {
+            return new BufferedInputStream(new FileInputStream(file.file));
+        }
+
+        return new ByteArrayInputStream(buffer, 0, count);
+    }
+
+    /**
+     * Returns up to the specified number of bytes from the start of the body without materializing the rest of it
+     */
+
+    public byte[] getPrefix(int size) throws IOException {
+        int prefixLength = (int) Math.min(size, length);
+        if (file == null) {
+            return Arrays.copyOf(buffer, prefixLength);
+        }
+
+        byte[] prefix = new byte[prefixLength];
+        DataInputStream in = new DataInputStream(new FileInputStream(file.file));
+        try {
+            in.readFully(prefix);
+        } finally {
+            in.close();
+        }
+
+        return prefix;
+    }
+
+    /**
+     * Returns the body as a byte array. Bodies held in memory are returned without copying, spooled bodies are read
+     * into a new array on every call.
+     */
+
+    public byte[] toByteArray() throws IOException {
+        if (file == null) {
+            if (buffer.length != count) {
+                buffer = Arrays.copyOf(buffer, count);
+            }
+
+            return buffer;
+        }
+
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Response body of " + length + " bytes is too large to be held in memory");
+        }
+
+        byte[] data = new byte[(int) length];
+        DataInputStream in = new DataInputStream(new FileInputStream(file.file));
+        try {
+            in.readFully(data);
+        } finally {
+            in.close();
+        }
+
+        return data;
+    }
+
+    /**
+     * Deletes the spool file, if any. The body can not be read after it has been released.
+     */
+
+    public void release() {
+        if (file != null) {
+            file.delete();
+            file = null;
+            buffer = new byte[0];
+            count = 0;
+        }
+    }
+
+    private int initialCapacity(long expectedLength, long maxSize) {
+        long capacity = expectedLength < 0 ? READ_BUFFER_SIZE : expectedLength;
+        if (maxSize > 0) {
+            capacity = Math.min(capacity, maxSize);
+        }
+        if (spoolThreshold > 0) {
+            capacity = Math.min(capacity, spoolThreshold);
+        }
+
+        return (int) Math.min(capacity, Integer.MAX_VALUE - 8);
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > buffer.length) {
+            long capacity = Math.max(minCapacity, Math.max(buffer.length * 2L, READ_BUFFER_SIZE));
+            if (spoolThreshold > 0) {
+                capacity = Math.min(capacity, spoolThreshold);
+            }
+
+            buffer = Arrays.copyOf(buffer, (int) Math.min(Math.max(capacity, minCapacity), Integer.MAX_VALUE - 8));
+        }
+    }
+
+    private OutputStream createSpoolFile() throws IOException {
+        deleteCollectedSpoolFiles();
+
+        file = new SpoolFile(this, File.createTempFile("soapui-response", ".tmp"));
+        return new BufferedOutputStream(new FileOutputStream(file.file));
+    }
+
+    private static void deleteCollectedSpoolFiles() {
+        Reference<? extends SpooledResponseBody> reference;
+        while ((reference = collectedBodies.poll()) != null) {
+            ((SpoolFile) reference).delete();
+        }
+    }
+
+    static int getSpoolFileCount() {
+        return spoolFiles.size();
+    }
+
+    /**
+     * Spool file of a body, enqueued when the body is garbage collected so that the file can be deleted even if the
+     * body was never released
+     */
+
+    private static class SpoolFile extends PhantomReference<SpooledResponseBody> {
+        private final File file;
+
+        private SpoolFile(SpooledResponseBody body, File file) {
+            super(body, collectedBodies);
+            this.file = file;
+            spoolFiles.add(this);
+        }
+
+        private void delete() {
+            spoolFiles.remove(this);
+            clear();
+
+            if (file.exists() && !file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+}
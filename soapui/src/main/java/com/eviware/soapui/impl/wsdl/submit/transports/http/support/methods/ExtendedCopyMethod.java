@@ -3,6 +3,7 @@ package com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedHttpMethod;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpMethodSupport;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.SSLInfo;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.SpooledResponseBody;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
 import org.apache.commons.httpclient.util.EncodingUtil;
 import org.apache.http.Header;
@@ -131,6 +132,10 @@ public class ExtendedCopyMethod extends HttpCopyMethod implements ExtendedHttpMe
         return httpMethodSupport.getResponseBody();
     }
 
+    public SpooledResponseBody getSpooledResponseBody() throws IOException {
+        return httpMethodSupport.getSpooledResponseBody();
+    }
+
     @Override
     public String getResponseBodyAsString() throws IOException {
         byte[] rawdata = getResponseBody();
@@ -19,6 +19,7 @@ package com.eviware.soapui.impl.wsdl.submit.transports.http.support.methods;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedEntityEnclosingHttpMethod;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpMethodSupport;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.SSLInfo;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.SpooledResponseBody;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
 import org.apache.commons.httpclient.util.EncodingUtil;
 import org.apache.http.Header;
@@ -112,6 +113,10 @@ public final class ExtendedGenericMethod extends HttpPost implements ExtendedEnt
         return httpMethodSupport.getResponseBody();
     }
 
+    public SpooledResponseBody getSpooledResponseBody() throws IOException {
+        return httpMethodSupport.getSpooledResponseBody();
+    }
+
     public SSLInfo getSSLInfo() {
         return httpMethodSupport.getSSLInfo();
     }
@@ -20,6 +20,7 @@ import com.eviware.soapui.impl.rest.RestRequestInterface;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.ExtendedHttpMethod;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpMethodSupport;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.SSLInfo;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.SpooledResponseBody;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
 import org.apache.commons.httpclient.util.EncodingUtil;
 import org.apache.http.Header;
@@ -154,6 +155,10 @@ public final class ExtendedGetMethod extends HttpGet implements ExtendedHttpMeth
         return httpMethodSupport.getResponseBody();
     }
 
+    public SpooledResponseBody getSpooledResponseBody() throws IOException {
+        return httpMethodSupport.getSpooledResponseBody();
+    }
+
     public String getResponseBodyAsString() throws IOException {
         byte[] rawdata = getResponseBody();
         if (rawdata != null) {
@@ -21,6 +21,7 @@ import org.apache.http.HttpResponse;
 import org.apache.http.HttpVersion;
 import org.apache.http.client.protocol.ResponseContentEncoding;
 import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.message.BasicHttpResponse;
 import org.apache.http.message.BasicStatusLine;
 import org.apache.http.protocol.BasicHttpContext;
@@ -90,6 +91,20 @@ public class CompressionSupport {
         return IOUtils.toByteArray(response.getEntity().getContent());
     }
 
+    /**
+     * Returns a stream that decompresses the specified content while it is read
+     */
+
+    public static InputStream decompress(String alg, InputStream content) throws Exception {
+        HttpResponse response = new BasicHttpResponse(new BasicStatusLine(new HttpVersion(1, 0), 0, null));
+        InputStreamEntity entity = new InputStreamEntity(content, -1);
+        entity.setContentEncoding(alg);
+        response.setEntity(entity);
+        HttpContext httpContext = new BasicHttpContext();
+        new ResponseContentEncoding().process(response, httpContext);
+        return response.getEntity().getContent();
+    }
+
     // createCompressionInputStream can be used in the future if
     // PipedInputStreams are used
     // for sending compressed data instead of creating compressed byte array
@@ -0,0 +1,183 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.model.settings.Settings;
+import com.eviware.soapui.model.settings.SettingsListener;
+import com.eviware.soapui.settings.HttpSettings;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
+import org.apache.hc.client5.http.ssl.TrustAllStrategy;
+import org.apache.hc.core5.concurrent.DefaultThreadFactory;
+import org.apache.hc.core5.http.nio.ssl.TlsStrategy;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.log4j.Logger;
+
+/**
+ * Non-blocking HttpClient 5 clients used by the AsyncHttpClientRequestTransport. Requests are written and read by a
+ * few I/O reactor threads instead of by the thread sending them; the HTTP/1.1 client keeps a pool of persistent
+ * connections and the HTTP/2 client multiplexes all requests to a host over a single connection (h2c with prior
+ * knowledge for http endpoints, negotiated with ALPN for https endpoints).
+ * <p/>
+ * The HTTP/1.1 pool limits follow the MAX_TOTAL_CONNECTIONS and MAX_CONNECTIONS_PER_HOST http settings, also when
+ * they are changed after the client was created. The clients are closed by {@link SoapUI#shutdown()}.
+ * <p/>
+ * Like the SoapUISSLSocketFactory all server certificates and host names are accepted.
+ */
+
+public class AsyncHttpClientSupport {
+    private final static Logger log = Logger.getLogger(AsyncHttpClientSupport.class);
+
+    private static CloseableHttpAsyncClient http1Client;
+    private static CloseableHttpAsyncClient http2Client;
+    private static PoolingAsyncClientConnectionManager http1ConnectionManager;
+    private static SettingsListener settingsListener;
+
+    /**
+     * Returns the started client for the specified protocol version, creating it on first use
+     */
+
+    public static synchronized CloseableHttpAsyncClient getHttpClient(boolean http2) {
+        if (http2) {
+            if (http2Client == null) {
+                http2Client = createHttp2Client();
+            }
+
+            return http2Client;
+        } else {
+            if (http1Client == null) {
+                http1Client = createHttp1Client();
+            }
+
+            return http1Client;
+        }
+    }
+
+    /**
+     * Closes the created clients, aborting requests in progress; the next request creates new clients
+     */
+
+    public static synchronized void shutdown() {
+        if (http1Client != null) {
+            http1Client.close(CloseMode.IMMEDIATE);
+            http1Client = null;
+            http1ConnectionManager = null;
+        }
+
+        if (http2Client != null) {
+            http2Client.close(CloseMode.IMMEDIATE);
+            http2Client = null;
+        }
+    }
+
+    private static CloseableHttpAsyncClient createHttp1Client() {
+        Settings settings = SoapUI.getSettings();
+
+        http1ConnectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setTlsStrategy(createTlsStrategy())
+                .setMaxConnTotal((int) settings.getLong(HttpSettings.MAX_TOTAL_CONNECTIONS, 2000))
+                .setMaxConnPerRoute((int) settings.getLong(HttpSettings.MAX_CONNECTIONS_PER_HOST, 500))
+                .build();
+
+        if (settingsListener == null) {
+            settingsListener = new PoolSettingsListener();
+            settings.addSettingsListener(settingsListener);
+        }
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1)
+                .setConnectionManager(http1ConnectionManager)
+                .setIOReactorConfig(createIOReactorConfig())
+                .setThreadFactory(new DefaultThreadFactory("SoapUI-AsyncHttp", true))
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .disableCookieManagement()
+                .disableAuthCaching()
+                .build();
+
+        client.start();
+        log.info("Started asynchronous HTTP/1.1 client");
+        return client;
+    }
+
+    private static CloseableHttpAsyncClient createHttp2Client() {
+        CloseableHttpAsyncClient client = HttpAsyncClients.customHttp2()
+                .setTlsStrategy(createTlsStrategy())
+                .setIOReactorConfig(createIOReactorConfig())
+                .setThreadFactory(new DefaultThreadFactory("SoapUI-AsyncHttp2", true))
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .disableCookieManagement()
+                .disableAuthCaching()
+                .build();
+
+        client.start();
+        log.info("Started asynchronous HTTP/2 client");
+        return client;
+    }
+
+    private static IOReactorConfig createIOReactorConfig() {
+        return IOReactorConfig.custom()
+                .setIoThreadCount(Runtime.getRuntime().availableProcessors())
+                .setTcpNoDelay(true)
+                .build();
+    }
+
+    private static TlsStrategy createTlsStrategy() {
+        try {
+            return ClientTlsStrategyBuilder.create()
+                    .setSslContext(SSLContexts.custom().loadTrustMaterial(TrustAllStrategy.INSTANCE).build())
+                    .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+                    .build();
+        } catch (Exception e) {
+            SoapUI.logError(e, "Failed to create SSL context for asynchronous HTTP client");
+            return ClientTlsStrategyBuilder.create().build();
+        }
+    }
+
+    private static synchronized void updatePoolLimits() {
+        if (http1ConnectionManager != null) {
+            Settings settings = SoapUI.getSettings();
+            http1ConnectionManager.setMaxTotal((int) settings.getLong(HttpSettings.MAX_TOTAL_CONNECTIONS, 2000));
+            http1ConnectionManager.setDefaultMaxPerRoute((int) settings.getLong(
+                    HttpSettings.MAX_CONNECTIONS_PER_HOST, 500));
+        }
+    }
+
+    private static class PoolSettingsListener implements SettingsListener {
+        @Override
+        public void settingChanged(String name, String newValue, String oldValue) {
+            if (name.equals(HttpSettings.MAX_TOTAL_CONNECTIONS) || name.equals(HttpSettings.MAX_CONNECTIONS_PER_HOST)) {
+                log.info("Updating asynchronous HTTP client pool limits");
+                updatePoolLimits();
+            }
+        }
+
+        @Override
+        public void settingsReloaded() {
+            updatePoolLimits();
+        }
+    }
+}
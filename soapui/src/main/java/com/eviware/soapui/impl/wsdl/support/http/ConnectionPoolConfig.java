@@ -0,0 +1,268 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per endpoint configuration of the HTTP connection pool, read from a string of entries separated by ';' where each
+ * entry is a host, optionally with a port, followed by name=value options:
+ * <p/>
+ * <pre>
+ * * validate=2000; api.example.com:443 max=50 ttl=60000 warmup=10
+ * </pre>
+ * <p/>
+ * max is the maximum number of connections to the endpoint, ttl the time in milliseconds a connection may be kept
+ * open, validate the time in milliseconds a pooled connection may be idle before it is checked for being closed by
+ * the server before it is reused, and warmup the number of connections that are opened in the background when the
+ * endpoint is first used. The host * matches all endpoints; options of an entry for a host override those of *, and
+ * options of an entry for a host and port override both.
+ */
+
+public class ConnectionPoolConfig {
+    private final static Logger log = Logger.getLogger(ConnectionPoolConfig.class);
+
+    public final static String ANY_HOST = "*";
+
+    private final List<RouteConfig> entries;
+
+    private ConnectionPoolConfig(List<RouteConfig> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Parses the specified configuration, invalid entries and options are logged and ignored
+     */
+
+    public static ConnectionPoolConfig parse(String config) {
+        List<RouteConfig> entries = new ArrayList<RouteConfig>();
+        if (config != null) {
+            for (String entry : config.split(";")) {
+                String[] tokens = entry.trim().split("\\s+");
+                if (tokens[0].length() == 0) {
+                    continue;
+                }
+
+                RouteConfig routeConfig = parseHost(tokens[0]);
+                if (routeConfig == null) {
+                    log.warn("Ignoring connection pool entry [" + entry.trim() + "] with invalid host");
+                    continue;
+                }
+
+                for (int c = 1; c < tokens.length; c++) {
+                    if (!routeConfig.setOption(tokens[c])) {
+                        log.warn("Ignoring invalid connection pool option [" + tokens[c] + "] for [" + tokens[0] + "]");
+                    }
+                }
+
+                entries.add(routeConfig);
+            }
+        }
+
+        return new ConnectionPoolConfig(entries);
+    }
+
+    private static RouteConfig parseHost(String hostAndPort) {
+        int ix = hostAndPort.lastIndexOf(':');
+        if (ix == -1 || hostAndPort.endsWith("]")) {
+            return new RouteConfig(hostAndPort, -1);
+        }
+
+        try {
+            return new RouteConfig(hostAndPort.substring(0, ix), Integer.parseInt(hostAndPort.substring(ix + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public List<RouteConfig> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Returns the merged options of all entries matching the target of the specified route
+     */
+
+    public RouteConfig getRouteConfig(HttpRoute route) {
+        HttpHost target = route.getTargetHost();
+        int port = target.getPort();
+        if (port < 0) {
+            port = route.isSecure() ? 443 : 80;
+        }
+
+        return getRouteConfig(target.getHostName(), port);
+    }
+
+    public RouteConfig getRouteConfig(String host, int port) {
+        RouteConfig result = new RouteConfig(host, port);
+
+        // least specific first so that more specific entries override
+        for (RouteConfig entry : entries) {
+            if (entry.host.equals(ANY_HOST)) {
+                result.merge(entry);
+            }
+        }
+
+        for (RouteConfig entry : entries) {
+            if (entry.port == -1 && entry.host.equalsIgnoreCase(host)) {
+                result.merge(entry);
+            }
+        }
+
+        for (RouteConfig entry : entries) {
+            if (entry.port == port && entry.host.equalsIgnoreCase(host)) {
+                result.merge(entry);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Options for a single host or host and port, options that are not set are -1
+     */
+
+    public static class RouteConfig {
+        private final String host;
+        private final int port;
+        private int maxConnections = -1;
+        private long timeToLive = -1;
+        private long validateAfterInactivity = -1;
+        private int warmUpConnections = -1;
+
+        private RouteConfig(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        private boolean setOption(String option) {
+            int ix = option.indexOf('=');
+            if (ix == -1) {
+                return false;
+            }
+
+            String name = option.substring(0, ix);
+            long value;
+            try {
+                value = Long.parseLong(option.substring(ix + 1));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+
+            if (value < 0) {
+                return false;
+            }
+
+            if (name.equals("max") && value > 0) {
+                maxConnections = (int) Math.min(value, Integer.MAX_VALUE);
+            } else if (name.equals("ttl")) {
+                timeToLive = value;
+            } else if (name.equals("validate")) {
+                validateAfterInactivity = value;
+            } else if (name.equals("warmup")) {
+                warmUpConnections = (int) Math.min(value, Integer.MAX_VALUE);
+            } else {
+                return false;
+            }
+
+            return true;
+        }
+
+        private void merge(RouteConfig other) {
+            if (other.maxConnections != -1) {
+                maxConnections = other.maxConnections;
+            }
+            if (other.timeToLive != -1) {
+                timeToLive = other.timeToLive;
+            }
+            if (other.validateAfterInactivity != -1) {
+                validateAfterInactivity = other.validateAfterInactivity;
+            }
+            if (other.warmUpConnections != -1) {
+                warmUpConnections = other.warmUpConnections;
+            }
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        /**
+         * @return the port, or -1 for all ports of the host
+         */
+
+        public int getPort() {
+            return port;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        /**
+         * @return the time to live in milliseconds, 0 or -1 for no limit
+         */
+
+        public long getTimeToLive() {
+            return timeToLive;
+        }
+
+        /**
+         * @return the idle time in milliseconds after which a connection is validated, -1 to always validate
+         */
+
+        public long getValidateAfterInactivity() {
+            return validateAfterInactivity;
+        }
+
+        public int getWarmUpConnections() {
+            return warmUpConnections;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder(host);
+            if (port != -1) {
+                buf.append(':').append(port);
+            }
+            if (maxConnections != -1) {
+                buf.append(" max=").append(maxConnections);
+            }
+            if (timeToLive != -1) {
+                buf.append(" ttl=").append(timeToLive);
+            }
+            if (validateAfterInactivity != -1) {
+                buf.append(" validate=").append(validateAfterInactivity);
+            }
+            if (warmUpConnections != -1) {
+                buf.append(" warmup=").append(warmUpConnections);
+            }
+
+            return buf.toString();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+/**
+ * Snapshot of the state of the HTTP connection pool, either for a single route or for all routes
+ */
+
+public class ConnectionPoolStatistics {
+    private final String name;
+    private final int leased;
+    private final int available;
+    private final int pending;
+    private final int max;
+    private final long waitCount;
+    private final long totalWaitTime;
+    private final long maxWaitTime;
+
+    public ConnectionPoolStatistics(String name, int leased, int available, int pending, int max, long waitCount,
+                                    long totalWaitTime, long maxWaitTime) {
+        this.name = name;
+        this.leased = leased;
+        this.available = available;
+        this.pending = pending;
+        this.max = max;
+        this.waitCount = waitCount;
+        this.totalWaitTime = totalWaitTime;
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    /**
+     * @return the route, or "total" for statistics of all routes
+     */
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of connections currently used by requests
+     */
+
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return the number of idle connections that can be reused
+     */
+
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * @return the number of requests currently waiting for a connection
+     */
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return the number of connections that have been requested from the pool
+     */
+
+    public long getWaitCount() {
+        return waitCount;
+    }
+
+    /**
+     * @return the total time in milliseconds requests have waited for a connection
+     */
+
+    public long getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    public long getAverageWaitTime() {
+        return waitCount == 0 ? 0 : totalWaitTime / waitCount;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": leased=" + leased + ", available=" + available + ", pending=" + pending + ", max=" + max
+                + ", avgWait=" + getAverageWaitTime() + "ms, maxWait=" + maxWaitTime + "ms";
+    }
+}
@@ -26,24 +26,33 @@ import com.eviware.soapui.model.settings.Settings;
 import com.eviware.soapui.model.settings.SettingsListener;
 import com.eviware.soapui.settings.HttpSettings;
 import com.eviware.soapui.settings.SSLSettings;
+import com.eviware.soapui.support.StringUtils;
 import org.apache.commons.ssl.KeyMaterial;
 import org.apache.http.Header;
 import org.apache.http.HttpClientConnection;
 import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.CookieStore;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.protocol.ClientContext;
+import org.apache.http.client.utils.URIUtils;
 import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.scheme.PlainSocketFactory;
 import org.apache.http.conn.scheme.Scheme;
 import org.apache.http.conn.scheme.SchemeRegistry;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.impl.client.RequestWrapper;
+import org.apache.http.params.BasicHttpParams;
 import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.DefaultedHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
 import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.protocol.HttpProcessor;
@@ -53,12 +62,14 @@ import org.apache.log4j.Logger;
 import java.io.File;
 import java.io.IOException;
 import java.net.ProxySelector;
+import java.net.URI;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.util.List;
 
 /**
  * HttpClient related tools
@@ -207,9 +218,15 @@ public class HttpClientSupport {
             connectionManager.setMaxTotal((int) settings.getLong(HttpSettings.MAX_TOTAL_CONNECTIONS, 2000));
             connectionManager
                     .setDefaultMaxPerRoute((int) settings.getLong(HttpSettings.MAX_CONNECTIONS_PER_HOST, 500));
+            connectionManager.setPoolConfig(ConnectionPoolConfig.parse(settings.getString(
+                    HttpSettings.CONNECTION_POOL_ENDPOINTS, null)));
 
             httpClient = new SoapUIHttpClient(connectionManager);
 
+            // pooled connections are validated by the connection manager
+            HttpConnectionParams.setStaleCheckingEnabled(httpClient.getParams(), false);
+            connectionManager.setWarmUpParams(httpClient.getParams());
+
             // this interceptor needs to be last one added and executed.
             httpClient.addRequestInterceptor(new HeaderRequestInterceptor(), httpClient.getRequestInterceptorCount());
 
@@ -224,6 +241,10 @@ public class HttpClientSupport {
             return registry;
         }
 
+        public SoapUIMultiThreadedHttpConnectionManager getConnectionManager() {
+            return connectionManager;
+        }
+
         public HttpResponse execute(ExtendedHttpMethod method, HttpContext httpContext) throws ClientProtocolException,
                 IOException {
             method.afterWriteRequest();
@@ -263,6 +284,9 @@ public class HttpClientSupport {
                 } else if (name.equals(HttpSettings.MAX_TOTAL_CONNECTIONS)) {
                     log.info("Updating max total connections host to " + newValue);
                     connectionManager.setMaxTotal(Integer.parseInt(newValue));
+                } else if (name.equals(HttpSettings.CONNECTION_POOL_ENDPOINTS)) {
+                    log.info("Updating connection pool endpoints to " + newValue);
+                    connectionManager.setPoolConfig(ConnectionPoolConfig.parse(newValue));
                 }
             }
 
@@ -314,6 +338,58 @@ public class HttpClientSupport {
         return helper.getHttpClient();
     }
 
+    /**
+     * Returns the statistics of the connection pool for all endpoints together
+     */
+
+    public static ConnectionPoolStatistics getConnectionPoolStatistics() {
+        return helper.getConnectionManager().getTotalStatistics();
+    }
+
+    public static List<ConnectionPoolStatistics> getConnectionPoolRouteStatistics() {
+        return helper.getConnectionManager().getRouteStatistics();
+    }
+
+    /**
+     * Opens connections to the specified endpoint until the pool has the specified number of connections for it,
+     * limited by the maximum number of connections to the endpoint. Connections are opened with the same route as
+     * requests to the endpoint, so connections through a proxy are not opened, and with the client certificate of
+     * the specified keystore configuration, see {@link SoapUIHttpRoute#SOAPUI_SSL_CONFIG}.
+     *
+     * @param sslConfig the keystore configuration of the requests to the endpoint, may be null
+     * @return the number of opened connections
+     */
+
+    public static int warmUpConnections(String endpoint, String sslConfig, int count) throws IOException,
+            InterruptedException {
+        URI uri = URI.create(endpoint);
+        HttpHost target = URIUtils.extractHost(uri);
+        if (target == null) {
+            throw new IOException("Invalid endpoint [" + endpoint + "]");
+        }
+
+        try {
+            HttpRoute route = getHttpClient().getRoutePlanner().determineRoute(target, new HttpGet(uri),
+                    createEmptyContext());
+            HttpParams params = new DefaultedHttpParams(new BasicHttpParams(), getHttpClient().getParams());
+            if (StringUtils.hasContent(sslConfig)) {
+                params.setParameter(SoapUIHttpRoute.SOAPUI_SSL_CONFIG, sslConfig);
+            }
+
+            return helper.getConnectionManager().warmUp(route, count, params);
+        } catch (HttpException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Resets the wait times of the connection pool statistics, for example when starting a LoadTest
+     */
+
+    public static void resetConnectionPoolStatistics() {
+        helper.getConnectionManager().resetStatistics();
+    }
+
     public static void setProxySelector(ProxySelector proxySelector) {
         getHttpClient().setRoutePlanner(new OverridableProxySelectorRoutePlanner(helper.getRegistry(), proxySelector));
     }
@@ -28,6 +28,7 @@ import org.apache.http.conn.ConnectionPoolTimeoutException;
 import org.apache.http.conn.HttpHostConnectException;
 import org.apache.http.conn.ManagedClientConnection;
 import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.params.ConnPerRoute;
 import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.scheme.Scheme;
 import org.apache.http.conn.scheme.SchemeRegistry;
@@ -38,13 +39,19 @@ import org.apache.http.impl.conn.DefaultClientConnection;
 import org.apache.http.impl.conn.DefaultClientConnectionOperator;
 import org.apache.http.impl.conn.tsccm.BasicPoolEntry;
 import org.apache.http.impl.conn.tsccm.BasicPooledConnAdapter;
+import org.apache.http.impl.conn.tsccm.ConnPoolByRoute;
 import org.apache.http.impl.conn.tsccm.PoolEntryRequest;
+import org.apache.http.impl.conn.tsccm.RouteSpecificPool;
 import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.impl.conn.tsccm.WaitingThreadAborter;
 import org.apache.http.io.HttpTransportMetrics;
+import org.apache.http.params.HttpConnectionParams;
 import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.protocol.HttpContext;
 import org.apache.log4j.Logger;
 
+import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
@@ -52,11 +59,26 @@ import java.net.ConnectException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages a set of HttpConnections for various HostConfigurations. Modified to
  * keep different pools for different keystores.
+ * <p/>
+ * The maximum number of connections, time to live, validation after inactivity and warm-up of connections can be
+ * configured per endpoint with a {@link ConnectionPoolConfig}, and the state of the pool and the time spent waiting
+ * for connections is available as {@link ConnectionPoolStatistics}.
  */
 public class SoapUIMultiThreadedHttpConnectionManager extends ThreadSafeClientConnManager {
 
@@ -65,16 +87,185 @@ public class SoapUIMultiThreadedHttpConnectionManager extends ThreadSafeClientCo
      */
     private static final Logger log = Logger.getLogger(SoapUIMultiThreadedHttpConnectionManager.class);
 
+    /**
+     * State used to lease connections for a warm-up, the pool always opens a new connection for it
+     */
+    private static final Object WARM_UP_STATE = new Object();
+
+    /**
+     * Maximum number of connections opened at the same time by a warm-up
+     */
+    public static final int MAX_WARM_UP_THREADS = 8;
+
     /**
      * Connection eviction policy
      */
     IdleConnectionMonitorThread idleConnectionHandler = new IdleConnectionMonitorThread(this);
 
+    private volatile ConnectionPoolConfig poolConfig = ConnectionPoolConfig.parse(null);
+    private volatile HttpParams warmUpParams;
+
     public SoapUIMultiThreadedHttpConnectionManager(SchemeRegistry registry) {
         super(registry);
         idleConnectionHandler.start();
     }
 
+    @Override
+    protected ConnPoolByRoute createConnectionPool(long connTTL, TimeUnit connTTLTimeUnit) {
+        return new SoapUIConnPoolByRoute(connOperator, new ConfiguredConnPerRoute(connPerRoute), 20, connTTL,
+                connTTLTimeUnit);
+    }
+
+    public ConnectionPoolConfig getPoolConfig() {
+        return poolConfig;
+    }
+
+    /**
+     * Sets the per endpoint configuration; limits apply to new requests, time to live to new connections
+     */
+
+    public void setPoolConfig(ConnectionPoolConfig poolConfig) {
+        this.poolConfig = poolConfig;
+    }
+
+    /**
+     * Sets the parameters used for opening connections when warming up the pool, connections are not warmed up
+     * until these are set
+     */
+
+    public void setWarmUpParams(HttpParams warmUpParams) {
+        this.warmUpParams = warmUpParams;
+    }
+
+    /**
+     * Returns the statistics of all routes together
+     */
+
+    public ConnectionPoolStatistics getTotalStatistics() {
+        return ((SoapUIConnPoolByRoute) pool).getTotalStatistics();
+    }
+
+    /**
+     * Returns the statistics of each route that has connections or that has been waited for
+     */
+
+    public List<ConnectionPoolStatistics> getRouteStatistics() {
+        return ((SoapUIConnPoolByRoute) pool).getRouteStatistics();
+    }
+
+    /**
+     * Resets the wait times, the number of connections is not affected
+     */
+
+    public void resetStatistics() {
+        ((SoapUIConnPoolByRoute) pool).resetStatistics();
+    }
+
+    /**
+     * Opens connections to the specified route until the pool has the specified number of connections for it,
+     * limited by the maximum number of connections for the route and by the free capacity of the pool. Proxied
+     * routes are not warmed up since the connections would need to be tunnelled. The TLS handshake of secure
+     * connections is done right away; the first connection is opened on its own and the others are then opened by
+     * up to MAX_WARM_UP_THREADS threads, so that they resume the TLS session of the first.
+     * <p/>
+     * Each connection is returned to the pool as soon as it is open, so requests sent while the route is being
+     * warmed up do not have to wait for the warm-up to finish. A connection that authenticated with a client
+     * certificate gets the principal of the certificate as state, like connections used by HttpClient, so that it
+     * is reused by requests with the same certificate.
+     *
+     * @param params the parameters to open connections with, including the SoapUIHttpRoute.SOAPUI_SSL_CONFIG of the
+     *               requests to the route
+     * @return the number of opened connections
+     */
+
+    public int warmUp(final HttpRoute route, int count, final HttpParams params) throws IOException,
+            InterruptedException {
+        if (route.getProxyHost() != null) {
+            return 0;
+        }
+
+        int missing = Math.min(count, getMaxForRoute(route)) - getConnectionsInPool(route);
+        if (missing <= 0 || !openWarmUpConnection(route, params)) {
+            return 0;
+        }
+
+        final AtomicInteger remaining = new AtomicInteger(missing - 1);
+        final AtomicInteger opened = new AtomicInteger(1);
+        int threads = Math.min(remaining.get(), MAX_WARM_UP_THREADS);
+        if (threads == 0) {
+            return 1;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int c = 0; c < threads; c++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        while (remaining.getAndDecrement() > 0 && openWarmUpConnection(route, params)) {
+                            opened.incrementAndGet();
+                        }
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    remaining.set(0);
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+
+                    throw new IOException(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return opened.get();
+    }
+
+    /**
+     * Opens a new connection to the route and returns it to the pool
+     *
+     * @return false if the pool has no room for another connection
+     */
+
+    private boolean openWarmUpConnection(HttpRoute route, HttpParams params) throws IOException,
+            InterruptedException {
+        if (getConnectionsInPool() >= getMaxTotal()) {
+            return false;
+        }
+
+        ManagedClientConnection connection = requestConnection(route, WARM_UP_STATE).getConnection(
+                HttpConnectionParams.getConnectionTimeout(params), TimeUnit.MILLISECONDS);
+        try {
+            connection.open(route, new BasicHttpContext(), params);
+
+            // getting the session completes the handshake
+            SSLSession sslSession = connection.getSSLSession();
+            if (sslSession != null) {
+                if (!sslSession.isValid()) {
+                    throw new IOException("TLS handshake with " + route.getTargetHost() + " failed");
+                }
+
+                // the user token HttpClient gives connections, see DefaultUserTokenHandler
+                connection.setState(sslSession.getLocalPrincipal());
+            }
+
+            connection.markReusable();
+        } finally {
+            releaseConnection(connection, -1, TimeUnit.MILLISECONDS);
+        }
+
+        return true;
+    }
+
     /**
      * Hook for creating the connection operator. It is called by the
      * constructor. Derived classes can override this method to change the
@@ -149,6 +340,7 @@ public class SoapUIMultiThreadedHttpConnectionManager extends ThreadSafeClientCo
                 BasicPoolEntry entry = poolRequest.getPoolEntry(timeout, tunit);
                 SoapUIBasicPooledConnAdapter connAdapter = new SoapUIBasicPooledConnAdapter(
                         SoapUIMultiThreadedHttpConnectionManager.this, entry);
+                validateConnection(route, entry, connAdapter);
                 return connAdapter;
             }
         };
@@ -202,6 +394,52 @@ public class SoapUIMultiThreadedHttpConnectionManager extends ThreadSafeClientCo
         }
     }
 
+    /**
+     * Closes a reused connection that has been idle for longer than the validateAfterInactivity of its route and that
+     * has been closed by the server, so that it is reopened instead of failing the request. Replaces the stale check
+     * HttpClient does before every request.
+     */
+
+    private void validateConnection(HttpRoute route, BasicPoolEntry entry, SoapUIBasicPooledConnAdapter connAdapter) {
+        if (entry.getUpdated() == 0 || !connAdapter.isOpen()) {
+            return;
+        }
+
+        long validateAfterInactivity = poolConfig.getRouteConfig(route).getValidateAfterInactivity();
+        if (System.currentTimeMillis() - entry.getUpdated() >= validateAfterInactivity && connAdapter.isStale()) {
+            log.debug("Closing stale connection to " + route);
+            try {
+                connAdapter.close();
+            } catch (IOException e) {
+                log.debug("Failed to close stale connection", e);
+            }
+        }
+    }
+
+    private void warmUpInBackground(final HttpRoute route, final int count) {
+        final HttpParams params = warmUpParams;
+        if (params == null || route.getProxyHost() != null) {
+            return;
+        }
+
+        Thread thread = new Thread("Connection warm-up for " + route) {
+            @Override
+            public void run() {
+                try {
+                    int opened = warmUp(route, count, params);
+                    log.info("Opened " + opened + " connections to " + route);
+                } catch (InterruptedException e) {
+                    // shutting down
+                } catch (Exception e) {
+                    log.warn("Failed to warm up connections to " + route + ": " + e);
+                }
+            }
+        };
+
+        thread.setDaemon(true);
+        thread.start();
+    }
+
     @Override
     public void shutdown() {
         super.shutdown(); //To change body of generated methods, choose Tools | Templates.
@@ -302,6 +540,183 @@ public class SoapUIMultiThreadedHttpConnectionManager extends ThreadSafeClientCo
         }
     }
 
+    /**
+     * Uses the maximum number of connections from the ConnectionPoolConfig for routes that have one
+     */
+
+    private class ConfiguredConnPerRoute implements ConnPerRoute {
+        private final ConnPerRoute defaults;
+
+        private ConfiguredConnPerRoute(ConnPerRoute defaults) {
+            this.defaults = defaults;
+        }
+
+        public int getMaxForRoute(HttpRoute route) {
+            int max = poolConfig.getRouteConfig(route).getMaxConnections();
+            return max > 0 ? max : defaults.getMaxForRoute(route);
+        }
+    }
+
+    /**
+     * Connection pool that applies the time to live of the ConnectionPoolConfig, warms up new routes and keeps track
+     * of the time spent waiting for connections
+     */
+
+    private class SoapUIConnPoolByRoute extends ConnPoolByRoute {
+        private final ConcurrentMap<HttpRoute, WaitStatistics> waitStatistics = new ConcurrentHashMap<HttpRoute, WaitStatistics>();
+
+        private SoapUIConnPoolByRoute(ClientConnectionOperator operator, ConnPerRoute connPerRoute, int maxTotal,
+                                      long connTTL, TimeUnit connTTLTimeUnit) {
+            super(operator, connPerRoute, maxTotal, connTTL, connTTLTimeUnit);
+        }
+
+        @Override
+        protected RouteSpecificPool newRouteSpecificPool(HttpRoute route) {
+            int warmUpConnections = poolConfig.getRouteConfig(route).getWarmUpConnections();
+            if (warmUpConnections > 0) {
+                warmUpInBackground(route, warmUpConnections);
+            }
+
+            return new SoapUIRouteSpecificPool(route, connPerRoute);
+        }
+
+        /**
+         * Never hands out a free connection for a warm-up, so that the pool opens a new one
+         */
+
+        @Override
+        protected BasicPoolEntry getFreeEntry(RouteSpecificPool rospl, Object state) {
+            return state == WARM_UP_STATE ? null : super.getFreeEntry(rospl, state);
+        }
+
+        @Override
+        protected BasicPoolEntry getEntryBlocking(HttpRoute route, Object state, long timeout, TimeUnit tunit,
+                                                  WaitingThreadAborter aborter) throws ConnectionPoolTimeoutException, InterruptedException {
+            long start = System.nanoTime();
+            try {
+                return super.getEntryBlocking(route, state, timeout, tunit, aborter);
+            } finally {
+                getWaitStatistics(route).add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+
+        @Override
+        protected BasicPoolEntry createEntry(RouteSpecificPool rospl, ClientConnectionOperator op) {
+            long timeToLive = poolConfig.getRouteConfig(rospl.getRoute()).getTimeToLive();
+            if (timeToLive < 0) {
+                return super.createEntry(rospl, op);
+            }
+
+            BasicPoolEntry entry = new BasicPoolEntry(op, rospl.getRoute(), timeToLive, TimeUnit.MILLISECONDS);
+            getLock().lock();
+            try {
+                rospl.createdEntry(entry);
+                numConnections++;
+                leasedConnections.add(entry);
+            } finally {
+                getLock().unlock();
+            }
+
+            return entry;
+        }
+
+        private WaitStatistics getWaitStatistics(HttpRoute route) {
+            WaitStatistics statistics = waitStatistics.get(route);
+            if (statistics == null) {
+                statistics = new WaitStatistics();
+                WaitStatistics existing = waitStatistics.putIfAbsent(route, statistics);
+                if (existing != null) {
+                    statistics = existing;
+                }
+            }
+
+            return statistics;
+        }
+
+        private ConnectionPoolStatistics getTotalStatistics() {
+            long waitCount = 0;
+            long totalWaitTime = 0;
+            long maxWaitTime = 0;
+            for (WaitStatistics statistics : waitStatistics.values()) {
+                waitCount += statistics.count.get();
+                totalWaitTime += statistics.totalTime.get();
+                maxWaitTime = Math.max(maxWaitTime, statistics.maxTime.get());
+            }
+
+            getLock().lock();
+            try {
+                return new ConnectionPoolStatistics("total", leasedConnections.size(), freeConnections.size(),
+                        waitingThreads.size(), maxTotalConnections, waitCount, totalWaitTime, maxWaitTime);
+            } finally {
+                getLock().unlock();
+            }
+        }
+
+        private List<ConnectionPoolStatistics> getRouteStatistics() {
+            List<ConnectionPoolStatistics> result = new ArrayList<ConnectionPoolStatistics>();
+            List<HttpRoute> routes = new ArrayList<HttpRoute>(waitStatistics.keySet());
+
+            getLock().lock();
+            try {
+                for (HttpRoute route : routeToPool.keySet()) {
+                    if (!routes.contains(route)) {
+                        routes.add(route);
+                    }
+                }
+
+                for (HttpRoute route : routes) {
+                    SoapUIRouteSpecificPool routePool = (SoapUIRouteSpecificPool) routeToPool.get(route);
+                    int available = routePool == null ? 0 : routePool.getFreeEntryCount();
+                    int leased = routePool == null ? 0 : routePool.getEntryCount() - available;
+                    int pending = routePool == null ? 0 : routePool.getWaitingThreadCount();
+
+                    WaitStatistics statistics = getWaitStatistics(route);
+                    result.add(new ConnectionPoolStatistics(route.toString(), leased, available, pending,
+                            connPerRoute.getMaxForRoute(route), statistics.count.get(), statistics.totalTime.get(),
+                            statistics.maxTime.get()));
+                }
+            } finally {
+                getLock().unlock();
+            }
+
+            return result;
+        }
+
+        private void resetStatistics() {
+            waitStatistics.clear();
+        }
+    }
+
+    private static class SoapUIRouteSpecificPool extends RouteSpecificPool {
+        private SoapUIRouteSpecificPool(HttpRoute route, ConnPerRoute connPerRoute) {
+            super(route, connPerRoute);
+        }
+
+        private int getFreeEntryCount() {
+            return freeEntries.size();
+        }
+
+        private int getWaitingThreadCount() {
+            return waitingThreads.size();
+        }
+    }
+
+    private static class WaitStatistics {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicLong maxTime = new AtomicLong();
+
+        private void add(long time) {
+            count.incrementAndGet();
+            totalTime.addAndGet(time);
+
+            long max = maxTime.get();
+            while (time > max && !maxTime.compareAndSet(max, time)) {
+                max = maxTime.get();
+            }
+        }
+    }
+
     private class SoapUIDefaultClientConnection extends DefaultClientConnection {
 
         public SoapUIDefaultClientConnection() {
@@ -46,6 +46,12 @@ import java.security.cert.X509Certificate;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * SSLSocketFactory that trusts all servers, optionally with a client certificate. All sockets of a factory share the
+ * client session cache of its SSLContext, so new connections to a host resume an earlier TLS session, for example
+ * one opened when warming up connections for a LoadTest.
+ */
+
 public class SoapUISSLSocketFactory extends SSLSocketFactory {
     // a cache of factories for custom certificates/Keystores at the project level - never cleared
     private static final Map<String, SSLSocketFactory> factoryMap = new ConcurrentHashMap<String, SSLSocketFactory>();
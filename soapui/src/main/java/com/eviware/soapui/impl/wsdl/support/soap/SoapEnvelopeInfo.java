@@ -0,0 +1,190 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.soap;
+
+import org.apache.log4j.Logger;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+
+/**
+ * The start of a SOAP message read with a pull parser, up to the first element inside the Body. Gives the SOAP
+ * Version and the body content element needed for dispatching a message without parsing all of it; the rest of the
+ * message is not read and not checked for well-formedness.
+ */
+
+public class SoapEnvelopeInfo {
+    private final static Logger log = Logger.getLogger(SoapEnvelopeInfo.class);
+    private final static XMLInputFactory inputFactory = createInputFactory();
+
+    private final QName rootElementName;
+    private final SoapVersion soapVersion;
+    private boolean bodyFound;
+    private QName contentElementName;
+
+    private SoapEnvelopeInfo(QName rootElementName) {
+        this.rootElementName = rootElementName;
+
+        if (SoapVersion.Soap11.getEnvelopeQName().equals(rootElementName)) {
+            soapVersion = SoapVersion.Soap11;
+        } else if (SoapVersion.Soap12.getEnvelopeQName().equals(rootElementName)) {
+            soapVersion = SoapVersion.Soap12;
+        } else {
+            soapVersion = null;
+        }
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    /**
+     * Reads the start of the specified message
+     *
+     * @return the read info, or null if the content does not start with a well-formed root element
+     */
+
+    public static SoapEnvelopeInfo read(String content) {
+        if (content == null) {
+            return null;
+        }
+
+        SoapEnvelopeInfo info = null;
+        XMLStreamReader reader = null;
+        try {
+            reader = inputFactory.createXMLStreamReader(new StringReader(content));
+            if (!nextElement(reader)) {
+                return null;
+            }
+
+            info = new SoapEnvelopeInfo(reader.getName());
+            if (info.soapVersion != null) {
+                info.readBody(reader);
+            }
+        } catch (XMLStreamException e) {
+            // not xml or the envelope is malformed, the message has to be parsed for details
+            log.debug("Failed to read SOAP envelope: " + e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // ignore
+                }
+            }
+        }
+
+        return info;
+    }
+
+    private void readBody(XMLStreamReader reader) throws XMLStreamException {
+        QName bodyQName = soapVersion.getBodyQName();
+
+        // move through the children of the envelope, skipping the header
+        while (nextChildElement(reader)) {
+            if (bodyQName.equals(reader.getName())) {
+                if (nextChildElement(reader)) {
+                    contentElementName = reader.getName();
+                }
+
+                bodyFound = true;
+                return;
+            }
+
+            skipElement(reader);
+        }
+    }
+
+    /**
+     * Moves to the next start element, returns false if the document ends first
+     */
+
+    private static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Moves to the next child start element of the current element, returns false if the current element ends first
+     */
+
+    private static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    public QName getRootElementName() {
+        return rootElementName;
+    }
+
+    /**
+     * @return the version of the SOAP Envelope, or null if the root element is not a SOAP Envelope
+     */
+
+    public SoapVersion getSoapVersion() {
+        return soapVersion;
+    }
+
+    /**
+     * @return if the Body of the SOAP Envelope was found and read up to its first element
+     */
+
+    public boolean isBodyFound() {
+        return bodyFound;
+    }
+
+    /**
+     * @return the name of the first element in the Body, or null if the Body is empty or was not found
+     */
+
+    public QName getContentElementName() {
+        return contentElementName;
+    }
+}
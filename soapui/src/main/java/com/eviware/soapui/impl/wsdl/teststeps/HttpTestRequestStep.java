@@ -219,8 +219,12 @@ public class HttpTestRequestStep extends WsdlTestStepWithProperties implements H
             if (event.getNewValue() instanceof SinglePartHttpResponse) {
                 SinglePartHttpResponse response = (SinglePartHttpResponse) event.getNewValue();
                 firePropertyValueChanged("Response", String.valueOf(response), null);
-                String XMLCOntent = response.getContentAsXml();
-                firePropertyValueChanged("ResponseAsXml", String.valueOf(XMLCOntent), null);
+
+                // the XML view is created on demand, so only create it if the event is received
+                if (hasTestPropertyListeners()) {
+                    String XMLCOntent = response.getContentAsXml();
+                    firePropertyValueChanged("ResponseAsXml", String.valueOf(XMLCOntent), null);
+                }
             }
 
             if (event.getPropertyName().equals("domain")) {
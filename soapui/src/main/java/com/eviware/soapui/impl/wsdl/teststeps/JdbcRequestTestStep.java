@@ -82,6 +82,8 @@ public class JdbcRequestTestStep extends WsdlTestStepWithProperties implements A
     protected static final String PASS_FIELD = "Password";
     public static final String PASS_TEMPLATE = "PASS_VALUE";
     public static final String QUERY_FIELD = "SQL Query";
+    public final static String MAX_RESPONSE_ROWS_SETTING = JdbcRequestTestStep.class.getSimpleName() + "@"
+            + "max-response-rows";
     protected static final String STOREDPROCEDURE_FIELD = "Stored Procedure";
     protected static final String DATA_CONNECTION_FIELD = "Connection";
 
@@ -670,6 +672,21 @@ public class JdbcRequestTestStep extends WsdlTestStepWithProperties implements A
         notifyPropertyChanged("fetchSize", old, fetchSize);
     }
 
+    /**
+     * @return the maximum number of rows of each ResultSet that are included in the response, rows after these are
+     *         only counted; empty to include all rows
+     */
+
+    public String getMaxResponseRows() {
+        return getSettings().getString(MAX_RESPONSE_ROWS_SETTING, "");
+    }
+
+    public void setMaxResponseRows(String maxResponseRows) {
+        String old = getMaxResponseRows();
+        getSettings().setString(MAX_RESPONSE_ROWS_SETTING, maxResponseRows);
+        notifyPropertyChanged("maxResponseRows", old, maxResponseRows);
+    }
+
     public void setResponse(JdbcResponse response, SubmitContext context) {
         JdbcResponse oldResponse = jdbcRequest.getResponse();
         jdbcRequest.setResponse(response);
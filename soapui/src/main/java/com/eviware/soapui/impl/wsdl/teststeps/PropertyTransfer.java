@@ -31,6 +31,7 @@ import com.eviware.soapui.model.testsuite.TestCase;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.model.testsuite.TestStep;
 import com.eviware.soapui.support.JsonPathFacade;
+import com.eviware.soapui.support.ParsedContentCache;
 import com.eviware.soapui.support.PropertyChangeNotifier;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.resolver.ChooseAnotherPropertySourceResolver;
@@ -346,7 +347,7 @@ public class PropertyTransfer implements PropertyChangeNotifier {
         } else if (getSourcePathLanguage() == PathLanguage.JSONPATH) {
             return new JsonPathFacade(sourceValue).readObjectValue(getSourcePath());
         } else {
-            XmlObject sourceXml = XmlUtils.createXmlObject(sourceValue);
+            XmlObject sourceXml = ParsedContentCache.getXmlObject(sourceValue);
             XmlCursor sourceCursor = sourceXml.newCursor();
 
             try {
@@ -476,8 +477,8 @@ public class PropertyTransfer implements PropertyChangeNotifier {
             if (isResponseProperty(sourceProperty)) {
                 sourcePropertyValue = removeExpansions(sourceProperty.getValue());
             }
-            XmlObject sourceXmlObject = sourcePropertyValue == null ? null : XmlUtils
-                    .createXmlObject(sourcePropertyValue);
+            XmlObject sourceXmlObject = sourcePropertyValue == null ? null : ParsedContentCache
+                    .getXmlObject(sourcePropertyValue);
             sourceXml = sourceXmlObject == null ? null : sourceXmlObject.newCursor();
         } catch (XmlException e) {
             throw new Exception("Error parsing source property [" + e.getMessage() + "]");
@@ -16,6 +16,7 @@
 
 package com.eviware.soapui.impl.wsdl.teststeps;
 
+import com.eviware.soapui.impl.wsdl.submit.transports.http.BaseHttpResponse;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.HttpResponse;
 import com.eviware.soapui.impl.wsdl.support.assertions.AssertedXPathsContainer;
 import com.eviware.soapui.impl.wsdl.teststeps.actions.ShowMessageExchangeAction;
@@ -168,6 +169,10 @@ public class RestRequestStepResult extends WsdlTestStepResult implements Respons
     public void discard() {
         super.discard();
 
+        if (response instanceof BaseHttpResponse) {
+            ((BaseHttpResponse) response).discard();
+        }
+
         requestContent = null;
         response = null;
         properties = null;
@@ -428,9 +428,13 @@ public class RestTestRequestStep extends WsdlTestStepWithProperties implements R
             if (event.getNewValue() instanceof SinglePartHttpResponse) {
                 SinglePartHttpResponse response = (SinglePartHttpResponse) event.getNewValue();
                 firePropertyValueChanged("Response", String.valueOf(response), null);
-                String XMLContent = response.getContentAsXml();
-                // FIXME The value should not be hard coded
-                firePropertyValueChanged("ResponseAsXml", null, XMLContent);
+
+                // the XML view is created on demand, so only create it if the event is received
+                if (hasTestPropertyListeners()) {
+                    String XMLContent = response.getContentAsXml();
+                    // FIXME The value should not be hard coded
+                    firePropertyValueChanged("ResponseAsXml", null, XMLContent);
+                }
             }
 
             if (event.getPropertyName().equals("domain")) {
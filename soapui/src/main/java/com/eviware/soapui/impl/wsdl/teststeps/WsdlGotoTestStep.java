@@ -36,9 +36,9 @@ import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.model.testsuite.TestStep;
 import com.eviware.soapui.model.testsuite.TestStepResult;
 import com.eviware.soapui.model.testsuite.TestStepResult.TestStepStatus;
+import com.eviware.soapui.support.ParsedContentCache;
 import com.eviware.soapui.support.StringUtils;
 import com.eviware.soapui.support.UISupport;
-import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.log4j.Logger;
 import org.apache.xmlbeans.XmlBoolean;
 import org.apache.xmlbeans.XmlObject;
@@ -235,9 +235,7 @@ public class WsdlGotoTestStep extends WsdlTestStepWithProperties implements XPat
 
             if (getType().equals(GotoConditionTypeConfig.XPATH.toString())) {
                 TestRequest testRequest = previousStep.getTestRequest();
-                // XmlObject xmlObject = XmlObject.Factory.parse(
-                // testRequest.getResponse().getContentAsXml() );
-                XmlObject xmlObject = XmlUtils.createXmlObject(testRequest.getResponse().getContentAsXml());
+                XmlObject xmlObject = ParsedContentCache.getXmlObject(testRequest.getResponse().getContentAsXml());
 
                 String expression = PropertyExpander.expandProperties(context, getExpression());
                 XmlObject[] selectPath = xmlObject.selectPath(expression);
@@ -18,6 +18,7 @@ package com.eviware.soapui.impl.wsdl.teststeps;
 
 import com.eviware.soapui.impl.wsdl.WsdlOperation;
 import com.eviware.soapui.impl.wsdl.submit.WsdlMessageExchange;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.BaseHttpResponse;
 import com.eviware.soapui.impl.wsdl.submit.transports.http.WsdlResponse;
 import com.eviware.soapui.impl.wsdl.support.assertions.AssertedXPathsContainer;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
@@ -173,6 +174,10 @@ public class WsdlTestRequestStepResult extends WsdlTestStepResult implements Res
     public void discard() {
         super.discard();
 
+        if (response instanceof BaseHttpResponse) {
+            ((BaseHttpResponse) response).discard();
+        }
+
         softRequestContent = null;
         softResponse = null;
         properties = null;
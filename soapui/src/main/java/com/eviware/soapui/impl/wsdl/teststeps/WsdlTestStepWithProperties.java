@@ -188,6 +188,15 @@ abstract public class WsdlTestStepWithProperties extends WsdlTestStep {
         listeners.remove(listener);
     }
 
+    /**
+     * @return if any listeners are registered; values that are expensive to create, like the XML view of a
+     *         response, only need to be created for change events if someone receives them
+     */
+
+    protected boolean hasTestPropertyListeners() {
+        return !listeners.isEmpty();
+    }
+
     protected void firePropertyAdded(String name) {
         TestPropertyListener[] array = listeners.toArray(new TestPropertyListener[listeners.size()]);
         for (TestPropertyListener listener : array) {
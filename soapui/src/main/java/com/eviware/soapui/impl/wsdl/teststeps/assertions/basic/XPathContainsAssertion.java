@@ -32,6 +32,7 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpander;
 import com.eviware.soapui.model.testsuite.Assertable;
 import com.eviware.soapui.model.testsuite.AssertionError;
 import com.eviware.soapui.model.testsuite.AssertionException;
+import com.eviware.soapui.support.ParsedContentCache;
 import com.eviware.soapui.support.Tools;
 import com.eviware.soapui.support.UISupport;
 import com.eviware.soapui.support.types.StringList;
@@ -82,8 +83,7 @@ public class XPathContainsAssertion extends AbstractXmlContainsAssertion {
                 options.setLoadStripComments();
             }
 
-            // XmlObject xml = XmlObject.Factory.parse( response, options );
-            XmlObject xml = XmlUtils.createXmlObject(response, options);
+            XmlObject xml = ParsedContentCache.getXmlObject(response, ignoreComments);
             String expandedPath = PropertyExpander.expandProperties(context, path);
             XmlObject[] items = xml.selectPath(expandedPath);
             AssertedXPathsContainer assertedXPathsContainer = (AssertedXPathsContainer) context
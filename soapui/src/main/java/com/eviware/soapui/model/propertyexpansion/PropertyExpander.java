@@ -145,7 +145,7 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
         return expand(context, content, false);
     }
 
-    public String expand(PropertyExpansionContext context, String content, boolean entitize) {
+    public String expand(final PropertyExpansionContext context, final String content, final boolean entitize) {
         SoapUIClassLoaderState clState = SoapUIExtensionClassLoader.ensure();
 
         try {
@@ -154,93 +154,118 @@ public class PropertyExpander implements SoapUIFactoryRegistryListener {
                 return content;
             }
 
-            int ix = content.indexOf("${");
-            if (ix == -1) {
+            if (content.indexOf("${") == -1) {
                 return content;
             }
 
-            StringBuffer buf = new StringBuffer();
-            int lastIx = 0;
-            while (ix != -1) {
-                if (ix > lastIx && content.charAt(ix - 1) == '$') {
-                    buf.append(content.substring(lastIx, ix - 1));
-                    lastIx = ix;
-                    ix = content.indexOf("${", lastIx + 1);
-                    continue;
-                }
+            final boolean globalOverrideEnabled = SoapUI.getSettings().getBoolean(GlobalPropertySettings.ENABLE_OVERRIDE);
 
-                if (ix > lastIx) {
-                    buf.append(content.substring(lastIx, ix));
-                }
+            // most content is expanded over and over again (requests in loadtests, mock responses) so it is
+            // only scanned once and the resulting template reused
+            PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate(content);
+            if (template != null) {
+                return template.expand(new PropertyExpansionTemplate.ValueResolver() {
+                    public String resolveValue(String propertyName) {
+                        return resolvePropertyValue(context, content, propertyName, entitize, globalOverrideEnabled);
+                    }
+                });
+            }
 
-                int ix2 = content.indexOf('}', ix + 2);
-                if (ix2 == -1) {
-                    break;
-                }
+            return expandNested(context, content, entitize, globalOverrideEnabled);
+        } finally {
+            clState.restore();
+        }
+    }
 
-                // check for nesting
-                int ix3 = content.lastIndexOf("${", ix2);
-                if (ix3 != ix) {
-                    // buf.append( content.substring( ix, ix3 ));
-                    content = content.substring(0, ix3) + expand(context, content.substring(ix3, ix2 + 1))
-                            + content.substring(ix2 + 1);
+    private String expandNested(PropertyExpansionContext context, String content, boolean entitize,
+                                boolean globalOverrideEnabled) {
+        int ix = content.indexOf("${");
+        StringBuilder buf = new StringBuilder(content.length());
+        int lastIx = 0;
+        while (ix != -1) {
+            if (ix > lastIx && content.charAt(ix - 1) == '$') {
+                buf.append(content, lastIx, ix - 1);
+                lastIx = ix;
+                ix = content.indexOf("${", lastIx + 1);
+                continue;
+            }
 
-                    lastIx = ix;
-                    continue;
-                }
+            if (ix > lastIx) {
+                buf.append(content, lastIx, ix);
+            }
 
-                String propertyName = content.substring(ix + 2, ix2);
-                String propertyValue = null;
+            int ix2 = content.indexOf('}', ix + 2);
+            if (ix2 == -1) {
+                break;
+            }
 
-                if (StringUtils.hasContent(propertyName)) {
-                    boolean globalOverrideEnabled = SoapUI.getSettings().getBoolean(GlobalPropertySettings.ENABLE_OVERRIDE);
+            // check for nesting
+            int ix3 = content.lastIndexOf("${", ix2);
+            if (ix3 != ix) {
+                // buf.append( content.substring( ix, ix3 ));
+                content = content.substring(0, ix3) + expand(context, content.substring(ix3, ix2 + 1))
+                        + content.substring(ix2 + 1);
 
-                    for (int c = 0; c < propertyResolvers.size() && propertyValue == null; c++) {
-                        propertyValue = propertyResolvers.get(c).resolveProperty(context, propertyName,
-                                globalOverrideEnabled);
-                    }
-                }
+                lastIx = ix;
+                continue;
+            }
 
-                // found a value?
-                if (propertyValue != null) {
-                    if (!content.equals(propertyValue)) {
-                        propertyValue = expand(context, propertyValue);
-                    }
+            String propertyValue = resolvePropertyValue(context, content, content.substring(ix + 2, ix2), entitize,
+                    globalOverrideEnabled);
+            if (propertyValue != null) {
+                buf.append(propertyValue);
+            }
 
-                    if (entitize) {
-                        propertyValue = XmlUtils.entitize(propertyValue);
-                    }
+            lastIx = ix2 + 1;
+            ix = content.indexOf("${", lastIx);
+        }
 
-                    TestCase testCase = ModelSupport.getModelItemTestCase(context.getModelItem());
-                    if (debuggingMode && testCase != null) {
-                        StringToStringMap props = debuggingExpandedProperties.get(testCase.getId());
-                        if (props == null) {
-                            props = new StringToStringMap();
-                        }
-                        props.put(propertyName, propertyValue);
-                        debuggingExpandedProperties.put(testCase.getId(), props);
-                    }
-                    buf.append(propertyValue);
-                } else {
-                    // if( log.isEnabledFor( Priority.WARN ))
-                    // log.warn( "Missing property value for [" + propertyName + "]"
-                    // );
+        if (lastIx < content.length()) {
+            buf.append(content, lastIx, content.length());
+        }
 
-                    // buf.append( "${" ).append( propertyName ).append( '}' );
-                }
+        return buf.toString();
+    }
+
+    /**
+     * Resolves a single property expansion found in the specified content
+     *
+     * @return the (expanded) value or null if no resolver could resolve the property
+     */
+
+    private String resolvePropertyValue(PropertyExpansionContext context, String content, String propertyName,
+                                        boolean entitize, boolean globalOverrideEnabled) {
+        String propertyValue = null;
 
-                lastIx = ix2 + 1;
-                ix = content.indexOf("${", lastIx);
+        if (StringUtils.hasContent(propertyName)) {
+            for (int c = 0; c < propertyResolvers.size() && propertyValue == null; c++) {
+                propertyValue = propertyResolvers.get(c).resolveProperty(context, propertyName,
+                        globalOverrideEnabled);
             }
+        }
 
-            if (lastIx < content.length()) {
-                buf.append(content.substring(lastIx));
+        // found a value?
+        if (propertyValue != null) {
+            if (!content.equals(propertyValue)) {
+                propertyValue = expand(context, propertyValue);
             }
 
-            return buf.toString();
-        } finally {
-            clState.restore();
+            if (entitize) {
+                propertyValue = XmlUtils.entitize(propertyValue);
+            }
+
+            TestCase testCase = ModelSupport.getModelItemTestCase(context.getModelItem());
+            if (debuggingMode && testCase != null) {
+                StringToStringMap props = debuggingExpandedProperties.get(testCase.getId());
+                if (props == null) {
+                    props = new StringToStringMap();
+                }
+                props.put(propertyName, propertyValue);
+                debuggingExpandedProperties.put(testCase.getId(), props);
+            }
         }
+
+        return propertyValue;
     }
 
     public String expand(ModelItem contextModelItem, String content) {
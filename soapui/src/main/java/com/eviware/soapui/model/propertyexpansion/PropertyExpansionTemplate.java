@@ -0,0 +1,214 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.model.propertyexpansion;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Content containing property expansions that has been split into literal and expansion segments once, so that
+ * expanding it again only needs to resolve the expansions and append everything to a single builder.
+ * <p/>
+ * Templates are cached by content once the same content is expanded a second time, so one-off content (like
+ * responses or script results) is never kept; content larger than {@link #MAX_CACHED_CONTENT_LENGTH} is not cached at
+ * all. Content with nested expansions (like ${#Project#${#TestCase#name}}) can not be pre-compiled since the inner
+ * expansion decides what the outer one is, it is expanded by {@link PropertyExpander} directly.
+ */
+
+public class PropertyExpansionTemplate {
+    public final static int MAX_CACHED_TEMPLATES = 256;
+    public final static int MAX_CACHED_CONTENT_LENGTH = 64 * 1024;
+
+    private final static PropertyExpansionTemplate NOT_COMPILABLE = new PropertyExpansionTemplate("", new int[0],
+            new int[0], new String[0]);
+
+    private final static ConcurrentMap<String, PropertyExpansionTemplate> templates = new ConcurrentHashMap<String, PropertyExpansionTemplate>();
+
+    // hashes of content expanded once, so that the content itself is not kept until it is seen again
+    private final static ConcurrentMap<Integer, Boolean> expandedOnce = new ConcurrentHashMap<Integer, Boolean>();
+
+    private final String content;
+    private final int[] starts;
+    private final int[] ends;
+    private final String[] propertyNames;
+
+    private PropertyExpansionTemplate(String content, int[] starts, int[] ends, String[] propertyNames) {
+        this.content = content;
+        this.starts = starts;
+        this.ends = ends;
+        this.propertyNames = propertyNames;
+    }
+
+    /**
+     * Resolves the value of a single expansion
+     */
+
+    public interface ValueResolver {
+        /**
+         * @return the value to insert, or null if the expansion should be removed
+         */
+
+        String resolveValue(String propertyName);
+    }
+
+    /**
+     * Returns the cached template for the specified content, compiling it if necessary
+     *
+     * @return the template, or null if the content can not be pre-compiled
+     */
+
+    public static PropertyExpansionTemplate getTemplate(String content) {
+        if (content == null) {
+            return null;
+        }
+
+        PropertyExpansionTemplate template = templates.get(content);
+        if (template == null) {
+            template = compile(content);
+            if (template == null) {
+                template = NOT_COMPILABLE;
+            }
+
+            if (content.length() <= MAX_CACHED_CONTENT_LENGTH) {
+                if (expandedOnce.remove(content.hashCode()) != null) {
+                    cacheTemplate(content, template);
+                } else {
+                    if (expandedOnce.size() >= MAX_CACHED_TEMPLATES * 4) {
+                        expandedOnce.clear();
+                    }
+
+                    expandedOnce.put(content.hashCode(), Boolean.TRUE);
+                }
+            }
+        }
+
+        return template == NOT_COMPILABLE ? null : template;
+    }
+
+    private static void cacheTemplate(String content, PropertyExpansionTemplate template) {
+        // evict an arbitrary template when full, frequently expanded content is cached again on its next use
+        Iterator<String> iterator = templates.keySet().iterator();
+        while (templates.size() >= MAX_CACHED_TEMPLATES && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+        templates.put(content, template);
+    }
+
+    public static void clearCache() {
+        templates.clear();
+        expandedOnce.clear();
+    }
+
+    static int getCacheSize() {
+        return templates.size();
+    }
+
+    /**
+     * Splits the content into segments the same way {@link PropertyExpander} scans it; escaped expansions ($${..})
+     * stay literal and an unterminated expansion ends the scan.
+     *
+     * @return the template, or null if the content contains nested expansions
+     */
+
+    static PropertyExpansionTemplate compile(String content) {
+        List<int[]> ranges = new ArrayList<int[]>();
+        List<String> names = new ArrayList<String>();
+
+        int ix = content.indexOf("${");
+        int lastIx = 0;
+        while (ix != -1) {
+            if (ix > lastIx && content.charAt(ix - 1) == '$') {
+                addLiteral(ranges, names, lastIx, ix - 1);
+                lastIx = ix;
+                ix = content.indexOf("${", lastIx + 1);
+                continue;
+            }
+
+            addLiteral(ranges, names, lastIx, ix);
+
+            int ix2 = content.indexOf('}', ix + 2);
+            if (ix2 == -1) {
+                break;
+            }
+
+            if (content.lastIndexOf("${", ix2) != ix) {
+                return null;
+            }
+
+            ranges.add(new int[]{ix, ix2 + 1});
+            names.add(content.substring(ix + 2, ix2));
+
+            lastIx = ix2 + 1;
+            ix = content.indexOf("${", lastIx);
+        }
+
+        addLiteral(ranges, names, lastIx, content.length());
+
+        int[] starts = new int[ranges.size()];
+        int[] ends = new int[ranges.size()];
+        for (int c = 0; c < ranges.size(); c++) {
+            starts[c] = ranges.get(c)[0];
+            ends[c] = ranges.get(c)[1];
+        }
+
+        return new PropertyExpansionTemplate(content, starts, ends, names.toArray(new String[names.size()]));
+    }
+
+    private static void addLiteral(List<int[]> ranges, List<String> names, int start, int end) {
+        if (end > start) {
+            ranges.add(new int[]{start, end});
+            names.add(null);
+        }
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public int getSegmentCount() {
+        return starts.length;
+    }
+
+    /**
+     * @return the name of the property expanded by the specified segment, or null if the segment is literal content
+     */
+
+    public String getPropertyName(int segment) {
+        return propertyNames[segment];
+    }
+
+    public String expand(ValueResolver resolver) {
+        StringBuilder buf = new StringBuilder(content.length());
+        for (int c = 0; c < starts.length; c++) {
+            if (propertyNames[c] == null) {
+                buf.append(content, starts[c], ends[c]);
+            } else {
+                String value = resolver.resolveValue(propertyNames[c]);
+                if (value != null) {
+                    buf.append(value);
+                }
+            }
+        }
+
+        return buf.toString();
+    }
+}
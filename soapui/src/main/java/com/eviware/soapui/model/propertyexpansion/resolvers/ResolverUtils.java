@@ -24,6 +24,7 @@ import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
 import com.eviware.soapui.model.propertyexpansion.PropertyExpansionUtils;
 import com.eviware.soapui.model.testsuite.TestProperty;
 import com.eviware.soapui.support.JsonPathFacade;
+import com.eviware.soapui.support.ParsedContentCache;
 import com.eviware.soapui.support.xml.XmlUtils;
 import org.apache.xmlbeans.XmlObject;
 import org.w3c.dom.Node;
@@ -88,7 +89,7 @@ public class ResolverUtils {
             if (pathExpression.startsWith("$")) {
                 return new JsonPathFacade(value).readStringValue(pathExpression);
             } else {
-                XmlObject xmlObject = XmlUtils.createXmlObject(value);
+                XmlObject xmlObject = ParsedContentCache.getXmlObject(value);
                 String ns = pathExpression.trim().startsWith("declare namespace") ? "" : XmlUtils.declareXPathNamespaces(xmlObject);
                 Node domNode = XmlUtils.selectFirstDomNode(xmlObject, ns + pathExpression);
                 return domNode == null ? null : XmlUtils.getValueForMatch(domNode, false);
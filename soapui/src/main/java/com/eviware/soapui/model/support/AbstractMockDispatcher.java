@@ -16,23 +16,19 @@
 
 package com.eviware.soapui.model.support;
 
+import com.eviware.soapui.impl.support.BaseMockResult;
 import com.eviware.soapui.impl.wsdl.mock.DispatchException;
-import com.eviware.soapui.impl.wsdl.mock.WsdlMockResult;
 import com.eviware.soapui.model.mock.MockDispatcher;
 import com.eviware.soapui.model.mock.MockResult;
-import org.apache.commons.collections.list.TreeList;
+import com.eviware.soapui.monitor.DelayedMockResponse;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Collections;
-import java.util.List;
 
 public abstract class AbstractMockDispatcher implements MockDispatcher {
 
-    private final List<WsdlMockResult> mockResults = Collections.synchronizedList(new TreeList());
-    private long maxResults = 100;
-    private int removed = 0;
-    private boolean logEnabled = true;
+    private final MockResultLog resultLog = new MockResultLog(100);
+    private volatile long maxResults = 100;
 
 
     public MockResult dispatchGetRequest(HttpServletRequest request, HttpServletResponse response)
@@ -121,45 +117,71 @@ public abstract class AbstractMockDispatcher implements MockDispatcher {
         throw new DispatchException("Unsupported HTTP Method: " + method);
     }
 
-    public synchronized void addMockResult(WsdlMockResult mockResult) {
-        if (maxResults > 0 && logEnabled) {
-            mockResults.add(mockResult);
+    /**
+     * Adds the result to the log, or once its response has been written if the response is delayed by the mock
+     * engine; the time taken then includes the delay
+     */
+
+    public void addMockResult(final MockResult mockResult) {
+        final long startTime = System.nanoTime();
+        boolean delayed = DelayedMockResponse.runWhenComplete(mockResult.getMockRequest(), new Runnable() {
+            public void run() {
+                if (mockResult instanceof BaseMockResult) {
+                    BaseMockResult<?, ?> result = (BaseMockResult<?, ?>) mockResult;
+                    result.setTimeTaken(result.getTimeTaken() + (System.nanoTime() - startTime) / 1000000);
+                }
+
+                resultLog.addResult(mockResult);
+            }
+        });
+
+        if (!delayed) {
+            resultLog.addResult(mockResult);
         }
+    }
+
+    /**
+     * Called when the result has been handled by scripts and listeners, drops its content if the log keeps headers
+     * only
+     */
 
-        while (mockResults.size() > maxResults) {
-            mockResults.remove(0);
-            removed++;
+    protected void completeMockResult(Object mockResult) {
+        if (resultLog.isHeadersOnly() && mockResult instanceof BaseMockResult) {
+            ((BaseMockResult<?, ?>) mockResult).discardContent();
         }
     }
 
     public MockResult getMockResultAt(int index) {
-        return index <= removed ? null : mockResults.get(index - removed);
+        return resultLog.getResultAt(index);
     }
 
     public int getMockResultCount() {
-        return mockResults.size() + removed;
+        return (int) Math.min(resultLog.getResultCount(), Integer.MAX_VALUE);
     }
 
-    public synchronized void clearResults() {
-        mockResults.clear();
+    public void clearResults() {
+        resultLog.clear();
     }
 
     public long getMaxResults() {
         return maxResults;
     }
 
-    public synchronized void setMaxResults(long maxNumberOfResults) {
+    public void setMaxResults(long maxNumberOfResults) {
         this.maxResults = maxNumberOfResults;
-
-        while (mockResults.size() > maxNumberOfResults) {
-            mockResults.remove(0);
-            removed++;
-        }
+        resultLog.setCapacity(maxNumberOfResults);
     }
 
     public void setLogEnabled(boolean logEnabled) {
-        this.logEnabled = logEnabled;
+        resultLog.setEnabled(logEnabled);
     }
 
+    /**
+     * Returns the log of handled results, with the sampling settings and the statistics per mock operation
+     */
+
+    public MockResultLog getResultLog() {
+        return resultLog;
+    }
 
 }
@@ -0,0 +1,383 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.model.support;
+
+import com.eviware.soapui.impl.wsdl.loadtest.data.LatencyHistogram;
+import com.eviware.soapui.model.mock.MockOperation;
+import com.eviware.soapui.model.mock.MockResponse;
+import com.eviware.soapui.model.mock.MockResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded log of the results handled by a MockDispatcher. Results are kept in a ring buffer indexed by the order in
+ * which they were logged, so adding a result never blocks; results older than the capacity of the log (or logged
+ * before it was cleared) are no longer available.
+ * <p/>
+ * Every result is counted in the statistics of its mock operation, but only sampled results are kept: with a sample
+ * rate of N only every N:th result is kept, errorsOnly keeps only results without a response or with an HTTP status
+ * of 400 or above, and headersOnly drops the request and response content of results once they have been handled.
+ * These can be set with soapui.mock.results.XX system properties (sampleRate, errorsOnly and headersOnly).
+ */
+
+public class MockResultLog {
+    /**
+     * Largest number of results that can be kept, larger capacities are reduced to this
+     */
+    public final static int MAX_CAPACITY = 1 << 20;
+
+    private volatile Buffer buffer;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong sampleSequence = new AtomicLong();
+    private volatile long clearedSequence;
+
+    private volatile boolean enabled = true;
+    private volatile int sampleRate = 1;
+    private volatile boolean errorsOnly;
+    private volatile boolean headersOnly;
+
+    private final ConcurrentMap<MockOperation, OperationStatistics> statistics = new ConcurrentHashMap<MockOperation, OperationStatistics>();
+    private final AtomicLong resultCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+
+    public MockResultLog(long capacity) {
+        buffer = new Buffer(capacity);
+    }
+
+    /**
+     * Counts the specified result and keeps it if it is sampled
+     *
+     * @return if the result was kept in the log
+     */
+
+    public boolean addResult(MockResult result) {
+        boolean error = isError(result);
+        resultCount.incrementAndGet();
+        if (error) {
+            errorCount.incrementAndGet();
+        }
+
+        MockOperation mockOperation = result.getMockOperation();
+        if (mockOperation != null) {
+            getOperationStatistics(mockOperation).addResult(result.getTimeTaken(), error);
+        }
+
+        if (!enabled || (errorsOnly && !error)) {
+            return false;
+        }
+
+        int rate = sampleRate;
+        if (rate > 1 && sampleSequence.getAndIncrement() % rate != 0) {
+            return false;
+        }
+
+        Buffer current = buffer;
+        if (current.capacity == 0) {
+            return false;
+        }
+
+        long index = sequence.getAndIncrement();
+        current.set(index, result);
+        return true;
+    }
+
+    /**
+     * Returns the result with the specified index, the first result logged has index 0
+     *
+     * @return the result, or null if it is no longer kept
+     */
+
+    public MockResult getResultAt(long index) {
+        if (index < clearedSequence || index >= sequence.get()) {
+            return null;
+        }
+
+        return buffer.get(index);
+    }
+
+    /**
+     * @return the number of results that have been kept, including those no longer available
+     */
+
+    public long getResultCount() {
+        return sequence.get();
+    }
+
+    /**
+     * Returns the results that are still available, oldest first
+     */
+
+    public List<MockResult> getResults() {
+        long end = sequence.get();
+        long start = Math.max(clearedSequence, end - buffer.capacity);
+
+        List<MockResult> results = new ArrayList<MockResult>();
+        for (long c = start; c < end; c++) {
+            MockResult result = buffer.get(c);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Removes all kept results, the statistics are not reset
+     */
+
+    public synchronized void clear() {
+        long end = sequence.get();
+        clearedSequence = end;
+        buffer = new Buffer(buffer.capacity);
+    }
+
+    public synchronized void resetStatistics() {
+        statistics.clear();
+        resultCount.set(0);
+        errorCount.set(0);
+    }
+
+    public int getCapacity() {
+        return buffer.capacity;
+    }
+
+    /**
+     * Changes the number of kept results, keeping the most recent ones; results added while the capacity changes
+     * may be lost
+     */
+
+    public synchronized void setCapacity(long capacity) {
+        Buffer current = buffer;
+        Buffer newBuffer = new Buffer(capacity);
+        if (newBuffer.capacity == current.capacity) {
+            return;
+        }
+
+        long end = sequence.get();
+        long start = Math.max(clearedSequence, end - Math.min(current.capacity, newBuffer.capacity));
+        for (long c = start; c < end; c++) {
+            MockResult result = current.get(c);
+            if (result != null) {
+                newBuffer.set(c, result);
+            }
+        }
+
+        buffer = newBuffer;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Keeps only every N:th result, 1 or less keeps all
+     */
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public boolean isErrorsOnly() {
+        return errorsOnly;
+    }
+
+    public void setErrorsOnly(boolean errorsOnly) {
+        this.errorsOnly = errorsOnly;
+    }
+
+    public boolean isHeadersOnly() {
+        return headersOnly;
+    }
+
+    public void setHeadersOnly(boolean headersOnly) {
+        this.headersOnly = headersOnly;
+    }
+
+    /**
+     * @return the number of results counted since the statistics were reset, sampled or not
+     */
+
+    public long getTotalResultCount() {
+        return resultCount.get();
+    }
+
+    public long getTotalErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * @return the statistics of the specified mock operation, created if no results have been counted for it
+     */
+
+    public OperationStatistics getOperationStatistics(MockOperation mockOperation) {
+        OperationStatistics operationStatistics = statistics.get(mockOperation);
+        if (operationStatistics == null) {
+            operationStatistics = new OperationStatistics(mockOperation);
+            OperationStatistics existing = statistics.putIfAbsent(mockOperation, operationStatistics);
+            if (existing != null) {
+                operationStatistics = existing;
+            }
+        }
+
+        return operationStatistics;
+    }
+
+    public List<OperationStatistics> getOperationStatistics() {
+        return new ArrayList<OperationStatistics>(statistics.values());
+    }
+
+    /**
+     * Drops the statistics of the specified mock operation, called when it is removed from its mock service
+     */
+
+    public void removeOperationStatistics(MockOperation mockOperation) {
+        statistics.remove(mockOperation);
+    }
+
+    public static boolean isError(MockResult result) {
+        MockResponse mockResponse = result.getMockResponse();
+        return mockResponse == null || mockResponse.getResponseHttpStatus() >= 400;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        buf.append("results=").append(resultCount.get()).append(", errors=").append(errorCount.get());
+        buf.append(", kept=").append(sequence.get());
+
+        for (OperationStatistics operationStatistics : statistics.values()) {
+            buf.append("\n  ").append(operationStatistics);
+        }
+
+        return buf.toString();
+    }
+
+    /**
+     * Counters and a histogram of the time taken for the results of a single mock operation
+     */
+
+    public static class OperationStatistics {
+        private final MockOperation mockOperation;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errorCount = new AtomicLong();
+        private final AtomicLong totalTimeTaken = new AtomicLong();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private OperationStatistics(MockOperation mockOperation) {
+            this.mockOperation = mockOperation;
+        }
+
+        private void addResult(long timeTaken, boolean error) {
+            count.incrementAndGet();
+            if (error) {
+                errorCount.incrementAndGet();
+            }
+
+            totalTimeTaken.addAndGet(timeTaken);
+            histogram.recordValue(timeTaken);
+        }
+
+        public MockOperation getMockOperation() {
+            return mockOperation;
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getErrorCount() {
+            return errorCount.get();
+        }
+
+        public long getAverageTimeTaken() {
+            long c = count.get();
+            return c == 0 ? 0 : totalTimeTaken.get() / c;
+        }
+
+        public long getMaxTimeTaken() {
+            return histogram.getMaxValue();
+        }
+
+        /**
+         * @param percentile a percentile between 0 and 100
+         */
+
+        public long getTimeTakenAtPercentile(double percentile) {
+            return histogram.getValueAtPercentile(percentile);
+        }
+
+        @Override
+        public String toString() {
+            return mockOperation.getName() + ": count=" + getCount() + ", errors=" + getErrorCount() + ", avg="
+                    + getAverageTimeTaken() + "ms, 50%=" + getTimeTakenAtPercentile(50) + "ms, 95%="
+                    + getTimeTakenAtPercentile(95) + "ms, 99%=" + getTimeTakenAtPercentile(99) + "ms, max="
+                    + getMaxTimeTaken() + "ms";
+        }
+    }
+
+    /**
+     * Fixed size ring of results, each slot remembers the index of its result so that a result overwritten by a newer
+     * one is not returned for an old index
+     */
+
+    private static class Buffer {
+        private final int capacity;
+        private final AtomicReferenceArray<Entry> entries;
+
+        private Buffer(long capacity) {
+            this.capacity = (int) Math.max(0, Math.min(capacity, MAX_CAPACITY));
+            entries = new AtomicReferenceArray<Entry>(this.capacity);
+        }
+
+        private void set(long index, MockResult result) {
+            entries.set((int) (index % capacity), new Entry(index, result));
+        }
+
+        private MockResult get(long index) {
+            if (capacity == 0) {
+                return null;
+            }
+
+            Entry entry = entries.get((int) (index % capacity));
+            return entry == null || entry.index != index ? null : entry.result;
+        }
+    }
+
+    private static class Entry {
+        private final long index;
+        private final MockResult result;
+
+        private Entry(long index, MockResult result) {
+            this.index = index;
+            this.result = result;
+        }
+    }
+}
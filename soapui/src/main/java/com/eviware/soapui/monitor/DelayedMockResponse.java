@@ -0,0 +1,201 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.model.mock.MockRequest;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response of a mock request that is sent after the response delay of its MockResponse has passed, without holding
+ * a thread of the mock engine while waiting. Once a delay has been added, the content is buffered while the request
+ * is dispatched and written to the actual response by the JettyMockEngine when the delay has passed; headers and
+ * status are set on the actual response directly. Responses without a delay are written through unbuffered.
+ */
+
+public class DelayedMockResponse extends HttpServletResponseWrapper {
+    public final static String REQUEST_ATTRIBUTE = DelayedMockResponse.class.getName();
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private CharArrayWriter charBuffer;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private long delay;
+    private final List<Runnable> completionTasks = new ArrayList<Runnable>();
+
+    public DelayedMockResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Delays the response of the specified request without blocking if it is sent by the mock engine as a
+     * DelayedMockResponse and no content has been written yet
+     *
+     * @return true if the delay has been added to the response, false if the caller has to wait itself
+     */
+
+    public static boolean addDelay(MockRequest request, long delay) {
+        DelayedMockResponse response = getDelayedMockResponse(request);
+        if (response != null && (response.isDelayed() || (response.outputStream == null && response.writer == null))) {
+            response.delay += delay;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Runs the specified task once the delayed response of the specified request has been written
+     *
+     * @return true if the task has been scheduled, false if the response is not delayed
+     */
+
+    public static boolean runWhenComplete(MockRequest request, Runnable task) {
+        DelayedMockResponse response = getDelayedMockResponse(request);
+        if (response != null && response.isDelayed()) {
+            response.completionTasks.add(task);
+            return true;
+        }
+
+        return false;
+    }
+
+    private static DelayedMockResponse getDelayedMockResponse(MockRequest request) {
+        HttpServletRequest httpRequest = request == null ? null : request.getHttpRequest();
+        Object response = httpRequest == null ? null : httpRequest.getAttribute(REQUEST_ATTRIBUTE);
+        return response instanceof DelayedMockResponse ? (DelayedMockResponse) response : null;
+    }
+
+    public boolean isDelayed() {
+        return delay > 0;
+    }
+
+    public long getDelay() {
+        return delay;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (!isDelayed()) {
+            outputStream = super.getOutputStream();
+            return outputStream;
+        }
+
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    buffer.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    buffer.write(b, off, len);
+                }
+            };
+        }
+
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (!isDelayed()) {
+            writer = super.getWriter();
+            return writer;
+        }
+
+        if (outputStream != null) {
+            throw new IllegalStateException("getOutputStream() has already been called");
+        }
+
+        if (writer == null) {
+            charBuffer = new CharArrayWriter();
+            writer = new PrintWriter(charBuffer);
+        }
+
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (!isDelayed()) {
+            super.flushBuffer();
+        } else if (writer != null) {
+            // nothing is sent before the delay has passed
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (!isDelayed()) {
+            super.resetBuffer();
+            return;
+        }
+
+        buffer.reset();
+        if (charBuffer != null) {
+            writer.flush();
+            charBuffer.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        resetBuffer();
+    }
+
+    /**
+     * Writes the buffered content to the actual response and runs the tasks waiting for the response
+     */
+
+    public void complete() throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (isDelayed()) {
+            if (charBuffer != null) {
+                writer.flush();
+                if (charBuffer.size() > 0) {
+                    charBuffer.writeTo(response.getWriter());
+                }
+            } else if (buffer.size() > 0) {
+                buffer.writeTo(response.getOutputStream());
+            }
+        }
+
+        response.flushBuffer();
+
+        for (Runnable task : completionTasks) {
+            task.run();
+        }
+        completionTasks.clear();
+    }
+}
@@ -45,6 +45,8 @@ import org.mortbay.jetty.handler.AbstractHandler;
 import org.mortbay.jetty.handler.RequestLogHandler;
 import org.mortbay.jetty.nio.SelectChannelConnector;
 import org.mortbay.jetty.security.SslSocketConnector;
+import org.mortbay.util.ajax.Continuation;
+import org.mortbay.util.ajax.ContinuationSupport;
 
 import javax.servlet.ServletException;
 import javax.servlet.ServletInputStream;
@@ -69,6 +71,10 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Core Mock-Engine hosting a Jetty web server
+ * <p/>
+ * Connectors can be tuned with soapui.mock.connector.XX system properties (like acceptors, acceptQueueSize and
+ * maxIdleTime), or for a single port with soapui.mock.connector.[port].XX; the number of acceptors is also the number
+ * of selectors of the select channel connector. Requests are handled by a {@link MockEngineThreadPool}.
  *
  * @author ole.matzura
  */
@@ -77,6 +83,7 @@ public class JettyMockEngine implements MockEngine {
     public final static Logger log = Logger.getLogger(JettyMockEngine.class);
 
     private Server server;
+    private MockEngineThreadPool threadPool;
     private Map<Integer, Map<String, List<MockRunner>>> runners = new HashMap<Integer, Map<String, List<MockRunner>>>();
     private Map<Integer, SoapUIConnector> connectors = new HashMap<Integer, SoapUIConnector>();
     private List<MockRunner> mockRunners = new CopyOnWriteArrayList<MockRunner>();
@@ -101,7 +108,7 @@ public class JettyMockEngine implements MockEngine {
 
     public synchronized void startMockService(MockRunner runner) throws Exception {
         if (server == null) {
-            initServer();
+            initServer(runner.getMockContext().getMockService());
         }
 
         synchronized (server) {
@@ -109,7 +116,7 @@ public class JettyMockEngine implements MockEngine {
             int port = mockService.getPort();
 
             if (SoapUI.getSettings().getBoolean(SSLSettings.ENABLE_MOCK_SSL) && !addedSslConnector) {
-                updateSslConnectorSettings();
+                updateSslConnectorSettings(mockService);
                 server.addConnector(sslConnector);
                 addedSslConnector = true;
             } else {
@@ -122,7 +129,8 @@ public class JettyMockEngine implements MockEngine {
 
             if (!runners.containsKey(port)) {
                 SoapUIConnector connector = new SoapUIConnector();
-                PropertySupport.applySystemProperties(connector, "soapui.mock.connector", runner.getMockContext().getMockService());
+                PropertySupport.applySystemProperties(connector, "soapui.mock.connector", mockService);
+                PropertySupport.applySystemProperties(connector, "soapui.mock.connector." + port, mockService);
 
                 connector.setPort(port);
                 if (sslConnector != null) {
@@ -171,9 +179,19 @@ public class JettyMockEngine implements MockEngine {
         }
     }
 
-    private void initServer() throws Exception {
+    private void initServer(MockService mockService) throws Exception {
+        threadPool = new MockEngineThreadPool();
+        long maxThreads = SoapUI.getSettings().getLong(HttpSettings.MOCK_MAX_THREADS,
+                MockEngineThreadPool.DEFAULT_MAX_THREADS);
+        if (maxThreads > 0) {
+            threadPool.setMaxThreads((int) maxThreads);
+        }
+        threadPool.setMaxQueued((int) Math.max(0, SoapUI.getSettings().getLong(HttpSettings.MOCK_MAX_QUEUED,
+                MockEngineThreadPool.DEFAULT_MAX_QUEUED)));
+        PropertySupport.applySystemProperties(threadPool, "soapui.mock.threadpool", mockService);
+
         server = new Server();
-        server.setThreadPool(new SoapUIJettyThreadPool());
+        server.setThreadPool(threadPool);
         server.setHandler(new ServerHandler());
 
         RequestLogHandler logHandler = new RequestLogHandler();
@@ -184,7 +202,7 @@ public class JettyMockEngine implements MockEngine {
         sslConnector.setMaxIdleTime(30000);
     }
 
-    private void updateSslConnectorSettings() {
+    private void updateSslConnectorSettings(MockService mockService) {
         sslConnector.setKeystore(SoapUI.getSettings().getString(SSLSettings.MOCK_KEYSTORE, null));
         sslConnector.setPassword(SoapUI.getSettings().getString(SSLSettings.MOCK_PASSWORD, null));
         sslConnector.setKeyPassword(SoapUI.getSettings().getString(SSLSettings.MOCK_KEYSTORE_PASSWORD, null));
@@ -196,6 +214,8 @@ public class JettyMockEngine implements MockEngine {
 
         sslConnector.setPort((int) SoapUI.getSettings().getLong(SSLSettings.MOCK_PORT, 443));
         sslConnector.setNeedClientAuth(SoapUI.getSettings().getBoolean(SSLSettings.CLIENT_AUTHENTICATION));
+
+        PropertySupport.applySystemProperties(sslConnector, "soapui.mock.connector." + sslConnector.getPort(), mockService);
     }
 
     public void stopMockService(MockRunner runner) {
@@ -236,6 +256,11 @@ public class JettyMockEngine implements MockEngine {
 
                 if (addedSslConnector) {
                     log.debug("Removing SSL connector.");
+                    try {
+                        sslConnector.stop();
+                    } catch (Exception e) {
+                        SoapUI.logError(e);
+                    }
                     server.removeConnector(sslConnector);
                     addedSslConnector = false;
                 }
@@ -244,7 +269,7 @@ public class JettyMockEngine implements MockEngine {
                 runners.remove(port);
                 if (runners.isEmpty()) {
                     try {
-                        log.info("No more connectors.. stopping server");
+                        log.info("No more connectors.. stopping server, thread pool " + threadPool);
                         server.stop();
                     } catch (Exception e) {
                         SoapUI.logError(e);
@@ -564,8 +589,24 @@ public class JettyMockEngine implements MockEngine {
     }
 
     private class ServerHandler extends AbstractHandler {
-        public void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch)
+        public void handle(String target, HttpServletRequest request, HttpServletResponse httpResponse, int dispatch)
                 throws IOException, ServletException {
+            DelayedMockResponse delayedResponse = (DelayedMockResponse) request.getAttribute(DelayedMockResponse.REQUEST_ATTRIBUTE);
+
+            // retried after the response delay has passed
+            if (delayedResponse != null) {
+                request.removeAttribute(DelayedMockResponse.REQUEST_ATTRIBUTE);
+                delayedResponse.complete();
+                return;
+            }
+
+            HttpServletResponse response = httpResponse;
+            if (SoapUI.getSettings().getBoolean(HttpSettings.ASYNC_MOCK_RESPONSE_DELAYS)) {
+                delayedResponse = new DelayedMockResponse(httpResponse);
+                request.setAttribute(DelayedMockResponse.REQUEST_ATTRIBUTE, delayedResponse);
+                response = delayedResponse;
+            }
+
             // find mockService
             Map<String, List<MockRunner>> map = runners.get(request.getLocalPort());
 
@@ -633,7 +674,19 @@ public class JettyMockEngine implements MockEngine {
                 printMockServiceList(response);
             }
 
-            response.flushBuffer();
+            if (delayedResponse != null && delayedResponse.getDelay() > 0) {
+                // releases the thread and retries the request after the delay on the select channel connector,
+                // waits on other connectors
+                Continuation continuation = ContinuationSupport.getContinuation(request, delayedResponse);
+                continuation.suspend(delayedResponse.getDelay());
+            }
+
+            if (delayedResponse != null) {
+                request.removeAttribute(DelayedMockResponse.REQUEST_ATTRIBUTE);
+                delayedResponse.complete();
+            } else {
+                httpResponse.flushBuffer();
+            }
         }
 
         private void printMockServiceList(HttpServletResponse response) throws IOException {
@@ -654,6 +707,14 @@ public class JettyMockEngine implements MockEngine {
         }
     }
 
+    /**
+     * @return the thread pool of the engine, or null if no MockService has been started yet
+     */
+
+    public MockEngineThreadPool getThreadPool() {
+        return threadPool;
+    }
+
     public MockRunner[] getMockRunners() {
         return mockRunners.toArray(new MockRunner[mockRunners.size()]);
     }
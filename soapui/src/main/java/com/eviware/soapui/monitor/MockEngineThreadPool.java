@@ -0,0 +1,306 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.SoapUIThreadCreator;
+import org.mortbay.component.AbstractLifeCycle;
+import org.mortbay.io.nio.SelectChannelEndPoint;
+import org.mortbay.thread.ThreadPool;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded thread pool of the JettyMockEngine, so that mock traffic does not compete with load tests and other users
+ * of the global SoapUI thread pool. Threads are started up to maxThreads before requests are queued.
+ * <p/>
+ * Once maxQueued requests are waiting, dispatches from the select channel connector are rejected and retried by the
+ * connector on its next select. The socket based connectors (like the SSL connector) close the connection when a
+ * dispatch is rejected, so their dispatches wait up to dispatchTimeout milliseconds for room in the queue first.
+ * <p/>
+ * The pool is sized with the MockEngine HTTP settings, which can be overridden with soapui.mock.threadpool.XX
+ * system properties (maxThreads, maxQueued, idleTimeout and dispatchTimeout), and keeps track of its queue depth
+ * and rejections.
+ * <p/>
+ * The pool is started and stopped together with the Jetty server; stopping it shuts its daemon threads down and
+ * the next start creates new ones.
+ */
+
+public class MockEngineThreadPool extends AbstractLifeCycle implements ThreadPool {
+    public final static int DEFAULT_MAX_THREADS = 200;
+    public final static int DEFAULT_MAX_QUEUED = 5000;
+    public final static int DEFAULT_IDLE_TIMEOUT = 60000;
+    public final static int DEFAULT_DISPATCH_TIMEOUT = 5000;
+    public final static int STOP_TIMEOUT = 5000;
+
+    private int maxThreads = DEFAULT_MAX_THREADS;
+    private int maxQueued = DEFAULT_MAX_QUEUED;
+    private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private int dispatchTimeout = DEFAULT_DISPATCH_TIMEOUT;
+
+    private volatile ThreadPoolExecutor executor;
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicInteger largestQueueSize = new AtomicInteger();
+    private final Object joinLock = new Object();
+
+    public boolean dispatch(Runnable job) {
+        ThreadPoolExecutor executor = getExecutor();
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            if (!waitForQueue(executor, job)) {
+                if (rejectedCount.incrementAndGet() == 1) {
+                    JettyMockEngine.log.warn("MockEngine thread pool is exhausted, rejecting requests; " + this);
+                }
+
+                return false;
+            }
+        }
+
+        int queueSize = executor.getQueue().size();
+        int largest = largestQueueSize.get();
+        while (queueSize > largest && !largestQueueSize.compareAndSet(largest, queueSize)) {
+            largest = largestQueueSize.get();
+        }
+
+        return true;
+    }
+
+    /**
+     * Queues a rejected job of a connector that can not retry it, waiting at most the dispatch timeout for room
+     */
+
+    private boolean waitForQueue(ThreadPoolExecutor executor, Runnable job) {
+        if (dispatchTimeout <= 0 || isRetriedByConnector(job) || executor.isShutdown() || maxQueued <= 0) {
+            return false;
+        }
+
+        try {
+            // all threads are running when the queue is full, so queueing directly is safe
+            return executor.getQueue().offer(job, dispatchTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the connector that dispatched the job dispatches it again when it is rejected
+     */
+
+    boolean isRetriedByConnector(Runnable job) {
+        return job instanceof SelectChannelEndPoint;
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor result = executor;
+        if (result == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = createExecutor();
+                }
+
+                result = executor;
+            }
+        }
+
+        return result;
+    }
+
+    private ThreadPoolExecutor createExecutor() {
+        BlockingQueue<Runnable> queue = maxQueued > 0 ? new LinkedBlockingQueue<Runnable>(maxQueued)
+                : new SynchronousQueue<Runnable>();
+
+        // core threads time out, so the pool grows to maxThreads before queueing and shrinks when idle
+        ThreadPoolExecutor result = new ThreadPoolExecutor(maxThreads, maxThreads,
+                idleTimeout > 0 ? idleTimeout : DEFAULT_IDLE_TIMEOUT, TimeUnit.MILLISECONDS, queue,
+                new MockEngineThreadFactory());
+        result.allowCoreThreadTimeOut(idleTimeout > 0);
+        return result;
+    }
+
+    /**
+     * Shuts the threads down, giving running requests up to STOP_TIMEOUT milliseconds to complete before they are
+     * interrupted
+     */
+
+    @Override
+    protected void doStop() throws Exception {
+        ThreadPoolExecutor executor;
+        synchronized (this) {
+            executor = this.executor;
+            this.executor = null;
+        }
+
+        try {
+            if (executor != null) {
+                executor.shutdown();
+                if (!executor.awaitTermination(STOP_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    JettyMockEngine.log.warn("MockEngine thread pool did not stop in time, interrupting "
+                            + executor.getActiveCount() + " running requests");
+                    executor.shutdownNow();
+                }
+            }
+        } finally {
+            synchronized (joinLock) {
+                joinLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until the pool has been stopped
+     */
+
+    public void join() throws InterruptedException {
+        synchronized (joinLock) {
+            while (isRunning()) {
+                joinLock.wait();
+            }
+        }
+
+        while (isStopping()) {
+            Thread.sleep(100);
+        }
+    }
+
+    public int getThreads() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getPoolSize();
+    }
+
+    public int getIdleThreads() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getPoolSize() - executor.getActiveCount();
+    }
+
+    public boolean isLowOnThreads() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor != null && executor.getPoolSize() >= maxThreads && !executor.getQueue().isEmpty();
+    }
+
+    public int getActiveThreads() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    public int getLargestQueueSize() {
+        return largestQueueSize.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getCompletedCount() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getCompletedTaskCount();
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public void setMaxThreads(int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be at least 1");
+        }
+
+        this.maxThreads = maxThreads;
+
+        ThreadPoolExecutor executor = this.executor;
+        if (executor != null) {
+            if (maxThreads > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(maxThreads);
+                executor.setCorePoolSize(maxThreads);
+            } else {
+                executor.setCorePoolSize(maxThreads);
+                executor.setMaximumPoolSize(maxThreads);
+            }
+        }
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * Sets the number of requests that can wait for a thread, 0 rejects requests when all threads are busy. Only
+     * applies before the first request has been dispatched.
+     */
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds after which idle threads are stopped, 0 keeps them. Only applies before the
+     * first request has been dispatched.
+     */
+
+    public void setIdleTimeout(int idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public int getDispatchTimeout() {
+        return dispatchTimeout;
+    }
+
+    /**
+     * Sets the time in milliseconds a dispatch from a connector that can not retry rejected dispatches waits for
+     * room in the queue, 0 rejects immediately
+     */
+
+    public void setDispatchTimeout(int dispatchTimeout) {
+        this.dispatchTimeout = dispatchTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return "threads: " + getThreads() + "/" + maxThreads + ", active: " + getActiveThreads() + ", queued: "
+                + getQueueSize() + " (largest " + getLargestQueueSize() + ", max " + maxQueued + "), completed: "
+                + getCompletedCount() + ", rejected: " + getRejectedCount();
+    }
+
+    private static class MockEngineThreadFactory implements ThreadFactory {
+        private final SoapUIThreadCreator threadCreator = new SoapUIThreadCreator();
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        public Thread newThread(Runnable r) {
+            Thread thread = threadCreator.newThread(r);
+            thread.setName("MockEngine-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
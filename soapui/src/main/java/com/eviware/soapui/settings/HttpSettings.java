@@ -91,6 +91,10 @@ public interface HttpSettings {
     @Setting(name = "Max response size", description = "Maximum size to read from response (0 = no limit)")
     public final static String MAX_RESPONSE_SIZE = HttpSettings.class.getSimpleName() + "@" + "max_response_size";
 
+    @Setting(name = "Response spool threshold", description = "Responses larger than this are spooled to a temporary file instead of being held in memory (0 = never)")
+    public final static String RESPONSE_SPOOL_THRESHOLD = HttpSettings.class.getSimpleName() + "@"
+            + "response_spool_threshold";
+
     @Setting(name = "Max Connections Per Host", description = "Maximum number of Connections Per Host")
     public static final String MAX_CONNECTIONS_PER_HOST = HttpSettings.class.getSimpleName() + "@"
             + "max_connections_per_host";
@@ -99,12 +103,32 @@ public interface HttpSettings {
     public static final String MAX_TOTAL_CONNECTIONS = HttpSettings.class.getSimpleName() + "@"
             + "max_total_connections";
 
+    @Setting(name = "Connection Pool Endpoints", description = "Per endpoint connection pool settings, for example: * validate=2000; host:443 max=50 ttl=60000 warmup=10")
+    public static final String CONNECTION_POOL_ENDPOINTS = HttpSettings.class.getSimpleName() + "@"
+            + "connection_pool_endpoints";
+
+    @Setting(name = "Asynchronous Transport", description = "Sends HTTP requests with the HttpClient 5 client, except requests using sessions, proxies, NTLM/Kerberos, bind addresses or client certificates", type = SettingType.BOOLEAN)
+    public static final String ASYNC_HTTP_TRANSPORT = HttpSettings.class.getSimpleName() + "@" + "async_http_transport";
+
+    @Setting(name = "Asynchronous HTTP/2", description = "Uses HTTP/2 for the asynchronous transport, h2c for http endpoints", type = SettingType.BOOLEAN)
+    public static final String ASYNC_HTTP2 = HttpSettings.class.getSimpleName() + "@" + "async_http2";
+
     @Setting(name = "Leave MockEngine", description = "Leave MockEngine running when stopping MockServices", type = SettingType.BOOLEAN)
     public static final String LEAVE_MOCKENGINE = HttpSettings.class.getSimpleName() + "@" + "leave_mockengine";
 
     @Setting(name = "Enable Mock HTTP Log", description = "Logs wire content of all mock requests", type = SettingType.BOOLEAN)
     public static final String ENABLE_MOCK_WIRE_LOG = HttpSettings.class.getSimpleName() + "@" + "enable_mock_wire_log";
 
+    @Setting(name = "Asynchronous Mock Delays", description = "Delays mock responses without holding a MockEngine thread", type = SettingType.BOOLEAN)
+    public static final String ASYNC_MOCK_RESPONSE_DELAYS = HttpSettings.class.getSimpleName() + "@"
+            + "async_mock_response_delays";
+
+    @Setting(name = "MockEngine Max Threads", description = "Maximum number of threads handling mock requests", type = SettingType.INT)
+    public static final String MOCK_MAX_THREADS = HttpSettings.class.getSimpleName() + "@" + "mock_max_threads";
+
+    @Setting(name = "MockEngine Max Queued", description = "Maximum number of mock requests waiting for a thread (0 = no queue)", type = SettingType.INT)
+    public static final String MOCK_MAX_QUEUED = HttpSettings.class.getSimpleName() + "@" + "mock_max_queued";
+
     @Setting(name = "Start REST MockService", description = "Start REST MockService after creation", type = SettingType.BOOLEAN)
     public static final String START_MOCK_SERVICE = HttpSettings.class.getSimpleName() + "@" + "start_mock_service";
 }
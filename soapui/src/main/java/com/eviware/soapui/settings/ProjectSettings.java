@@ -36,4 +36,23 @@ public interface ProjectSettings {
     @Setting(name = "Hermes Config", description = "hermes", type = SettingType.FOLDER)
     public final static String HERMES_CONFIG = ProjectSettings.class.getSimpleName() + "@" + "hermesConfig";
 
+    @Setting(name = "JDBC Pool Max Connections", description = "maximum number of pooled JDBC connections for each connection string, 0 to not pool connections", type = SettingType.INT)
+    public final static String JDBC_POOL_MAX_CONNECTIONS = ProjectSettings.class.getSimpleName() + "@"
+            + "jdbcPoolMaxConnections";
+
+    @Setting(name = "JDBC Pool Max Wait", description = "time in milliseconds to wait for a pooled JDBC connection", type = SettingType.INT)
+    public final static String JDBC_POOL_MAX_WAIT = ProjectSettings.class.getSimpleName() + "@" + "jdbcPoolMaxWait";
+
+    @Setting(name = "JDBC Pool Validate After", description = "idle time in milliseconds after which a pooled JDBC connection is validated before it is reused, -1 to never validate", type = SettingType.INT)
+    public final static String JDBC_POOL_VALIDATE_AFTER_INACTIVITY = ProjectSettings.class.getSimpleName() + "@"
+            + "jdbcPoolValidateAfterInactivity";
+
+    @Setting(name = "JDBC Pool Idle Timeout", description = "idle time in milliseconds after which a pooled JDBC connection is closed", type = SettingType.INT)
+    public final static String JDBC_POOL_IDLE_TIMEOUT = ProjectSettings.class.getSimpleName() + "@"
+            + "jdbcPoolIdleTimeout";
+
+    @Setting(name = "JDBC Pool Statement Cache", description = "number of prepared statements cached for each pooled JDBC connection", type = SettingType.INT)
+    public final static String JDBC_POOL_STATEMENT_CACHE_SIZE = ProjectSettings.class.getSimpleName() + "@"
+            + "jdbcPoolStatementCacheSize";
+
 }
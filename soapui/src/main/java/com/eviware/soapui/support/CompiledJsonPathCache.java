@@ -0,0 +1,118 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support;
+
+import com.jayway.jsonpath.JsonPath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of compiled JsonPath expressions, shared by all assertions, property transfers and property
+ * expansions so that the same expression is only compiled once no matter how often a test step runs.
+ * <p/>
+ * Cached paths are shared between threads and must only be used for reading; a path that is modified, as done by
+ * {@link JsonPathFacade#writeValue(String, Object)}, must be compiled separately. The maximum number of cached
+ * paths can be set with the soapui.jsonpath.cache.size system property, 0 disables the cache.
+ */
+
+public class CompiledJsonPathCache {
+    public final static int DEFAULT_MAX_SIZE = 256;
+
+    private static CompiledJsonPathCache instance;
+
+    private final int maxSize;
+    private final Map<String, JsonPath> paths;
+    private long hits;
+    private long misses;
+
+    public CompiledJsonPathCache(final int maxSize) {
+        this.maxSize = maxSize;
+        paths = new LinkedHashMap<String, JsonPath>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static synchronized CompiledJsonPathCache getInstance() {
+        if (instance == null) {
+            int maxSize = DEFAULT_MAX_SIZE;
+            try {
+                if (System.getProperty("soapui.jsonpath.cache.size") != null) {
+                    maxSize = Integer.parseInt(System.getProperty("soapui.jsonpath.cache.size"));
+                }
+            } catch (NumberFormatException e) {
+                // use the default
+            }
+
+            instance = new CompiledJsonPathCache(maxSize);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Returns the compiled path for the specified expression, compiling it only if it is not already cached
+     *
+     * @throws com.jayway.jsonpath.InvalidPathException if the expression is not a valid JsonPath
+     */
+
+    public JsonPath compile(String expression) {
+        if (maxSize <= 0) {
+            return JsonPath.compile(expression);
+        }
+
+        synchronized (this) {
+            JsonPath path = paths.get(expression);
+            if (path != null) {
+                hits++;
+                return path;
+            }
+            misses++;
+        }
+
+        // compile outside the lock, an expression compiled twice by concurrent threads is harmless
+        JsonPath path = JsonPath.compile(expression);
+        synchronized (this) {
+            paths.put(expression, path);
+        }
+
+        return path;
+    }
+
+    public synchronized void clear() {
+        paths.clear();
+    }
+
+    public synchronized int getSize() {
+        return paths.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
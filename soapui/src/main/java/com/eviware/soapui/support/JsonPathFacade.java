@@ -24,26 +24,31 @@ import com.jayway.jsonpath.internal.filter.PathTokenFilter;
 import net.sf.json.JSON;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
-import net.sf.json.groovy.JsonSlurper;
 
 import java.lang.reflect.Field;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-import static com.eviware.soapui.support.JsonUtil.isValidJson;
+/**
+ * Reads and writes values in a JSON document with JsonPath expressions. The document is parsed once through the
+ * {@link ParsedContentCache} and expressions used for reading are compiled once through the
+ * {@link CompiledJsonPathCache}; writes work on a private copy of the parsed document.
+ */
 
 public class JsonPathFacade {
+    private final static Configuration READ_CONFIGURATION = Configuration.builder()
+            .jsonProvider(new PlainJavaJsonProvider()).build();
 
     private String currentJson;
     private Object jsonObject;
 
     public JsonPathFacade(String targetJson) {
-        if (!isValidJson(targetJson)) {
+        jsonObject = ParsedContentCache.getJson(targetJson);
+        if (jsonObject == null) {
             throw new IllegalArgumentException("Invalid JSON: " + targetJson);
         }
         this.currentJson = targetJson;
-        jsonObject = new JsonSlurper().parseText(targetJson);
     }
 
     public String readStringValue(String jsonPathExpression) {
@@ -54,21 +59,18 @@ public class JsonPathFacade {
     public void writeValue(String jsonPathExpression, Object value) {
         PlainJavaJsonProvider provider = new PlainJavaJsonProvider();
         Configuration configuration = Configuration.builder().jsonProvider(provider).build();
-        jsonObject = provider.parse(currentJson);
+        Object mutableJson = provider.toMutableValue((JSON) jsonObject);
+
+        // the path tokens are modified below, so a shared compiled path can not be used
         JsonPath path = JsonPath.compile(jsonPathExpression);
         LinkedList<PathToken> pathTokens = getPathTokensFrom(path);
         PathToken endToken = pathTokens.removeLast();
         int index = pathTokens.size();
         JsonWriteDecorator writeDecorator = new JsonWriteDecorator(provider, index, endToken, value);
         pathTokens.addLast(writeDecorator);
-        path.read(jsonObject, configuration);
-        jsonObject = MutableValue.FROM_MUTABLE_VALUE.apply(jsonObject);
-        currentJson = buildJsonStringFrom(jsonObject);
-    }
-
-    private String buildJsonStringFrom(Object sourceObject) {
-        Object json = makeJSONObject(sourceObject);
-        return json instanceof JSON ? ((JSON) json).toString(3) : json.toString();
+        path.read(mutableJson, configuration);
+        jsonObject = makeJSONObject(MutableValue.FROM_MUTABLE_VALUE.apply(mutableJson));
+        currentJson = ((JSON) jsonObject).toString(3);
     }
 
     private Object makeJSONObject(Object sourceObject) {
@@ -136,10 +138,8 @@ public class JsonPathFacade {
     }
 
     public <T> T readObjectValue(String jsonPathExpression) {
-        PlainJavaJsonProvider provider = new PlainJavaJsonProvider();
-        Configuration configuration = Configuration.builder().jsonProvider(provider).build();
-        JsonPath jsonPath = JsonPath.compile(jsonPathExpression);
-        return jsonPath.read(jsonObject, configuration);
+        JsonPath jsonPath = CompiledJsonPathCache.getInstance().compile(jsonPathExpression);
+        return jsonPath.read(jsonObject, READ_CONFIGURATION);
     }
 
     private class JsonWriteDecorator extends PathToken {
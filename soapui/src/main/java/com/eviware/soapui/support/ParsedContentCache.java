@@ -0,0 +1,230 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support;
+
+import com.eviware.soapui.support.xml.XmlUtils;
+import net.sf.json.JSON;
+import net.sf.json.JSONNull;
+import net.sf.json.groovy.JsonSlurper;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of parsed message content used by assertions, property transfers and property expansions, so that a
+ * response with several XPath/XQuery/JsonPath assertions is parsed once instead of once per assertion.
+ * <p/>
+ * Every thread has its own small cache, so load test threads neither contend on a lock nor share parsed documents;
+ * a document is only ever returned to the thread that parsed it. Entries are keyed on the content itself and only
+ * weakly reference it; once a response is replaced or its content changes the old entry no longer matches and is
+ * dropped. Returned objects are reused by later lookups in the same thread and must not be modified, callers that
+ * need to change a document must parse their own copy.
+ */
+
+public class ParsedContentCache {
+    private final static int MAX_ENTRIES = 4;
+
+    private final static ThreadLocal<ParsedContentCache> xmlCache = new CacheThreadLocal();
+    private final static ThreadLocal<ParsedContentCache> strippedXmlCache = new CacheThreadLocal();
+    private final static ThreadLocal<ParsedContentCache> jsonCache = new CacheThreadLocal();
+
+    private final static AtomicInteger generation = new AtomicInteger();
+    private final static LongAdder totalHits = new LongAdder();
+    private final static LongAdder totalMisses = new LongAdder();
+
+    private final int maxEntries;
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private int entriesGeneration = generation.get();
+    private long hits;
+    private long misses;
+
+    ParsedContentCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public static XmlObject getXmlObject(String content) throws XmlException {
+        return getXmlObject(content, false);
+    }
+
+    /**
+     * Returns the parsed XmlObject for the specified content, parsing it only if it is not already cached
+     *
+     * @param content       the xml to parse
+     * @param stripComments if comments should be stripped when loading
+     */
+
+    public static XmlObject getXmlObject(String content, boolean stripComments) throws XmlException {
+        ParsedContentCache cache = (stripComments ? strippedXmlCache : xmlCache).get();
+        XmlObject xmlObject = (XmlObject) cache.get(content);
+        if (xmlObject == null) {
+            XmlOptions options = new XmlOptions();
+            if (stripComments) {
+                options.setLoadStripComments();
+            }
+
+            xmlObject = XmlUtils.createXmlObject(content, options);
+            cache.put(content, xmlObject);
+        }
+
+        return xmlObject;
+    }
+
+    /**
+     * Returns the parsed JSON for the specified content, parsing it only if it is not already cached
+     *
+     * @return the parsed json or null if the content is not valid JSON
+     */
+
+    public static JSON getJson(String content) {
+        if (content == null) {
+            return null;
+        }
+
+        ParsedContentCache cache = jsonCache.get();
+        JSON json = (JSON) cache.get(content);
+        if (json == null) {
+            try {
+                json = new JsonSlurper().parseText(content);
+            } catch (Exception e) {
+                return null;
+            }
+
+            if (json == null || json instanceof JSONNull) {
+                return null;
+            }
+
+            cache.put(content, json);
+        }
+
+        return json;
+    }
+
+    /**
+     * Clears the caches of all threads; the caches of other threads are cleared on their next lookup
+     */
+
+    public static void clear() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return the number of lookups in all threads that returned already parsed content
+     */
+
+    public static long getTotalHits() {
+        return totalHits.sum();
+    }
+
+    /**
+     * @return the number of lookups in all threads that required the content to be parsed
+     */
+
+    public static long getTotalMisses() {
+        return totalMisses.sum();
+    }
+
+    Object get(String content) {
+        if (content == null) {
+            return null;
+        }
+
+        if (entriesGeneration != generation.get()) {
+            entriesGeneration = generation.get();
+            entries.clear();
+        }
+
+        Iterator<Entry> iterator = entries.iterator();
+        for (int c = 0; iterator.hasNext(); c++) {
+            Entry entry = iterator.next();
+            String key = entry.content.get();
+            if (key == null) {
+                iterator.remove();
+                c--;
+            } else if (entry.matches(key, content)) {
+                // keep the most recently used entries first
+                if (c > 0) {
+                    iterator.remove();
+                    entries.add(0, entry);
+                }
+
+                hits++;
+                totalHits.increment();
+                return entry.parsed;
+            }
+        }
+
+        misses++;
+        totalMisses.increment();
+        return null;
+    }
+
+    void put(String content, Object parsed) {
+        if (content == null || parsed == null) {
+            return;
+        }
+
+        entries.add(0, new Entry(content, parsed));
+        while (entries.size() > maxEntries) {
+            entries.remove(entries.size() - 1);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    private static class CacheThreadLocal extends ThreadLocal<ParsedContentCache> {
+        @Override
+        protected ParsedContentCache initialValue() {
+            return new ParsedContentCache(MAX_ENTRIES);
+        }
+    }
+
+    private static class Entry {
+        private final WeakReference<String> content;
+        private final int length;
+        private final int hash;
+        private final Object parsed;
+
+        private Entry(String content, Object parsed) {
+            this.content = new WeakReference<String>(content);
+            this.length = content.length();
+            this.hash = content.hashCode();
+            this.parsed = parsed;
+        }
+
+        private boolean matches(String key, String content) {
+            return key == content
+                    || (length == content.length() && hash == content.hashCode() && key.equals(content));
+        }
+    }
+}
@@ -59,14 +59,21 @@ public class PlainJavaJsonProvider extends AbstractJsonProvider {
     @Override
     public Object parse(Reader jsonReader) throws InvalidJsonException {
         try {
-            JSON jsonRoot = jsonSlurper.parse(jsonReader);
-            Object converted = convertToPlainJavaImplementation(jsonRoot);
-            return MutableValue.TO_MUTABLE_VALUE.apply(converted);
+            return toMutableValue(jsonSlurper.parse(jsonReader));
         } catch (Exception e) {
             throw new InvalidJsonException(e);
         }
     }
 
+    /**
+     * Creates a writable copy of already parsed JSON, the same as parsing its text would return
+     */
+
+    Object toMutableValue(JSON jsonRoot) {
+        Object converted = convertToPlainJavaImplementation(jsonRoot);
+        return MutableValue.TO_MUTABLE_VALUE.apply(converted);
+    }
+
     @Override
     public Object parse(InputStream jsonStream) throws InvalidJsonException {
         return parse(new BufferedReader(new InputStreamReader(jsonStream)));
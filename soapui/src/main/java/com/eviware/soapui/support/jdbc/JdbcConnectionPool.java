@@ -0,0 +1,624 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.jdbc;
+
+import com.eviware.soapui.model.settings.Settings;
+import com.eviware.soapui.settings.ProjectSettings;
+import com.eviware.soapui.support.SoapUIException;
+import org.apache.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Pool of JDBC connections, one pool per driver and expanded connection string, so that JDBC TestSteps do not
+ * connect and authenticate for every execution. Idle connections are validated before they are reused if they have
+ * been idle for longer than the configured time and are closed once they have been idle for longer than the idle
+ * timeout; each pooled connection caches its prepared statements.
+ * <p/>
+ * A pool is owned by a project, see {@link com.eviware.soapui.impl.wsdl.WsdlProject#getJdbcConnectionPool()}, and
+ * is configured with the JDBC_POOL settings in {@link ProjectSettings}. Pooling is off until the maximum number of
+ * connections is set, since a pooled connection keeps session state such as temporary tables and session variables
+ * between TestSteps; transactions, auto-commit, read-only, isolation level, catalog and warnings are reset when a
+ * connection is given back.
+ */
+
+public class JdbcConnectionPool {
+    private final static Logger log = Logger.getLogger(JdbcConnectionPool.class);
+
+    public final static int DEFAULT_MAX_CONNECTIONS = 0;
+    public final static long DEFAULT_MAX_WAIT = 30000;
+    public final static long DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+    public final static long DEFAULT_IDLE_TIMEOUT = 60000;
+    public final static int DEFAULT_STATEMENT_CACHE_SIZE = 20;
+
+    private final static int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final Map<String, KeyedPool> pools = new HashMap<String, KeyedPool>();
+    private volatile int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private volatile long maxWait = DEFAULT_MAX_WAIT;
+    private volatile long validateAfterInactivity = DEFAULT_VALIDATE_AFTER_INACTIVITY;
+    private volatile long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private volatile int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+    private Timer evictionTimer;
+    private boolean closed;
+
+    /**
+     * Creates a pool with the default configuration
+     */
+
+    public JdbcConnectionPool() {
+    }
+
+    public JdbcConnectionPool(int maxConnections, long maxWait, long validateAfterInactivity, long idleTimeout,
+                              int statementCacheSize) {
+        configure(maxConnections, maxWait, validateAfterInactivity, idleTimeout, statementCacheSize);
+    }
+
+    /**
+     * Reads the configuration from the JDBC_POOL settings in {@link ProjectSettings}
+     */
+
+    public void configure(Settings settings) {
+        configure((int) settings.getLong(ProjectSettings.JDBC_POOL_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS),
+                settings.getLong(ProjectSettings.JDBC_POOL_MAX_WAIT, DEFAULT_MAX_WAIT),
+                settings.getLong(ProjectSettings.JDBC_POOL_VALIDATE_AFTER_INACTIVITY, DEFAULT_VALIDATE_AFTER_INACTIVITY),
+                settings.getLong(ProjectSettings.JDBC_POOL_IDLE_TIMEOUT, DEFAULT_IDLE_TIMEOUT),
+                (int) settings.getLong(ProjectSettings.JDBC_POOL_STATEMENT_CACHE_SIZE, DEFAULT_STATEMENT_CACHE_SIZE));
+    }
+
+    /**
+     * Changes the configuration, connections that are already open are kept
+     *
+     * @param maxConnections          the maximum number of connections for each driver and connection string, 0 to
+     *                                not pool connections
+     * @param maxWait                 the time in milliseconds to wait for a connection when all are in use
+     * @param validateAfterInactivity the time in milliseconds a connection may be idle before it is validated when
+     *                                it is reused, -1 to never validate
+     * @param idleTimeout             the time in milliseconds a connection may be idle before it is closed, 0 to keep
+     *                                idle connections open
+     * @param statementCacheSize      the number of prepared statements cached by each connection
+     */
+
+    public synchronized void configure(int maxConnections, long maxWait, long validateAfterInactivity,
+                                       long idleTimeout, int statementCacheSize) {
+        this.maxConnections = Math.max(0, maxConnections);
+        this.maxWait = Math.max(0, maxWait);
+        this.validateAfterInactivity = validateAfterInactivity;
+        this.idleTimeout = Math.max(0, idleTimeout);
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+
+        if (evictionTimer != null) {
+            evictionTimer.cancel();
+            evictionTimer = null;
+        }
+
+        // threads waiting for a connection may now be allowed to open one
+        for (KeyedPool pool : pools.values()) {
+            pool.wakeUp();
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxConnections > 0;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    public long getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Borrows a connection for the specified key, reusing an idle connection if there is one and creating a new one
+     * with the factory otherwise. The connection must be given back with {@link PooledConnection#release()} or
+     * {@link PooledConnection#invalidate()}.
+     *
+     * @param key  identifies the database and credentials, connections are only shared between equal keys
+     * @param name the name used in statistics and messages, should not contain passwords
+     */
+
+    public PooledConnection getConnection(String key, String name, ConnectionFactory factory) throws SQLException,
+            SoapUIException {
+        KeyedPool pool;
+        synchronized (this) {
+            if (closed) {
+                throw new SQLException("JDBC connection pool has been closed");
+            }
+
+            pool = pools.get(key);
+            if (pool == null) {
+                pool = new KeyedPool(name);
+                pools.put(key, pool);
+            }
+
+            startEvictionTimer();
+        }
+
+        long start = System.currentTimeMillis();
+        PooledConnection connection = pool.acquire(start);
+        while (connection != null && !isValid(connection)) {
+            pool.discard(connection);
+            connection = pool.acquire(start);
+        }
+
+        if (connection == null) {
+            Connection newConnection;
+            try {
+                newConnection = factory.createConnection();
+            } catch (SQLException e) {
+                pool.cancelCreate();
+                throw e;
+            } catch (SoapUIException e) {
+                pool.cancelCreate();
+                throw e;
+            } catch (RuntimeException e) {
+                pool.cancelCreate();
+                throw e;
+            }
+
+            try {
+                connection = new PooledConnection(pool, newConnection);
+            } catch (SQLException e) {
+                pool.cancelCreate();
+                closeConnection(newConnection, pool.name);
+                throw e;
+            }
+
+            pool.recordCreated();
+        }
+
+        pool.recordBorrow(start);
+        return connection;
+    }
+
+    private boolean isValid(PooledConnection connection) {
+        long validate = validateAfterInactivity;
+        if (validate < 0 || System.currentTimeMillis() - connection.lastUsed < validate) {
+            return true;
+        }
+
+        try {
+            return connection.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            log.debug("Failed to validate pooled connection to " + connection.pool.name + "; " + e);
+            return false;
+        } catch (AbstractMethodError e) {
+            // pre-JDBC 4 driver
+            return true;
+        }
+    }
+
+    private static void closeConnection(Connection connection, String name) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close pooled connection to " + name + "; " + e);
+        }
+    }
+
+    private void startEvictionTimer() {
+        if (evictionTimer == null && idleTimeout > 0) {
+            long period = Math.max(1000, idleTimeout / 2);
+            evictionTimer = new Timer("JDBC connection pool eviction", true);
+            evictionTimer.schedule(new TimerTask() {
+                public void run() {
+                    evictIdleConnections();
+                }
+            }, period, period);
+        }
+    }
+
+    /**
+     * Closes connections that have been idle for longer than the idle timeout
+     */
+
+    public void evictIdleConnections() {
+        long timeout = idleTimeout;
+        if (timeout <= 0) {
+            return;
+        }
+
+        for (KeyedPool pool : getPools()) {
+            for (PooledConnection connection : pool.removeIdle(System.currentTimeMillis() - timeout)) {
+                connection.close();
+            }
+        }
+    }
+
+    public List<JdbcConnectionPoolStatistics> getStatistics() {
+        List<JdbcConnectionPoolStatistics> result = new ArrayList<JdbcConnectionPoolStatistics>();
+        for (KeyedPool pool : getPools()) {
+            result.add(pool.getStatistics());
+        }
+
+        return result;
+    }
+
+    public void resetStatistics() {
+        for (KeyedPool pool : getPools()) {
+            pool.resetStatistics();
+        }
+    }
+
+    /**
+     * Closes all idle connections, connections that are in use are closed when they are given back
+     */
+
+    public void close() {
+        List<KeyedPool> closedPools;
+        synchronized (this) {
+            closed = true;
+            if (evictionTimer != null) {
+                evictionTimer.cancel();
+                evictionTimer = null;
+            }
+
+            closedPools = new ArrayList<KeyedPool>(pools.values());
+            pools.clear();
+        }
+
+        for (KeyedPool pool : closedPools) {
+            for (PooledConnection connection : pool.close()) {
+                connection.close();
+            }
+        }
+    }
+
+    private synchronized List<KeyedPool> getPools() {
+        return new ArrayList<KeyedPool>(pools.values());
+    }
+
+    /**
+     * Opens a new connection when the pool has no idle connection
+     */
+
+    public interface ConnectionFactory {
+        public Connection createConnection() throws SQLException, SoapUIException;
+    }
+
+    /**
+     * Connections for a single key
+     */
+
+    private class KeyedPool {
+        private final String name;
+        private final LinkedList<PooledConnection> idle = new LinkedList<PooledConnection>();
+        private int size;
+        private int pending;
+        private boolean closed;
+        private long created;
+        private long borrowCount;
+        private long totalWaitTime;
+        private long maxWaitTime;
+        private long statementCacheHits;
+        private long statementCacheMisses;
+
+        private KeyedPool(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Returns the most recently used idle connection, or null if a new connection should be created, waiting
+         * while the pool is full
+         */
+
+        private synchronized PooledConnection acquire(long start) throws SQLException {
+            pending++;
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("JDBC connection pool has been closed");
+                    }
+
+                    if (!idle.isEmpty()) {
+                        return idle.removeFirst();
+                    }
+
+                    if (size < maxConnections) {
+                        size++;
+                        return null;
+                    }
+
+                    long remaining = start + maxWait - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out waiting for a pooled connection to " + name + ", all "
+                                + size + " connections are in use");
+                    }
+
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a pooled connection to " + name);
+                    }
+                }
+            } finally {
+                pending--;
+            }
+        }
+
+        private synchronized void cancelCreate() {
+            size--;
+            notifyAll();
+        }
+
+        private synchronized void wakeUp() {
+            notifyAll();
+        }
+
+        private synchronized void recordCreated() {
+            created++;
+        }
+
+        private synchronized void recordBorrow(long start) {
+            long waitTime = System.currentTimeMillis() - start;
+            borrowCount++;
+            totalWaitTime += waitTime;
+            maxWaitTime = Math.max(maxWaitTime, waitTime);
+        }
+
+        private synchronized void recordStatement(boolean hit) {
+            if (hit) {
+                statementCacheHits++;
+            } else {
+                statementCacheMisses++;
+            }
+        }
+
+        private void release(PooledConnection connection) {
+            synchronized (this) {
+                if (!closed && size <= maxConnections) {
+                    connection.lastUsed = System.currentTimeMillis();
+                    idle.addFirst(connection);
+                    notifyAll();
+                    return;
+                }
+
+                size--;
+                notifyAll();
+            }
+
+            connection.close();
+        }
+
+        private void discard(PooledConnection connection) {
+            synchronized (this) {
+                size--;
+                notifyAll();
+            }
+
+            connection.close();
+        }
+
+        private synchronized List<PooledConnection> removeIdle(long idleSince) {
+            List<PooledConnection> result = new ArrayList<PooledConnection>();
+            for (Iterator<PooledConnection> iterator = idle.iterator(); iterator.hasNext(); ) {
+                PooledConnection connection = iterator.next();
+                if (connection.lastUsed < idleSince) {
+                    iterator.remove();
+                    result.add(connection);
+                    size--;
+                }
+            }
+
+            return result;
+        }
+
+        private synchronized List<PooledConnection> close() {
+            closed = true;
+            List<PooledConnection> result = new ArrayList<PooledConnection>(idle);
+            size -= idle.size();
+            idle.clear();
+            notifyAll();
+            return result;
+        }
+
+        private synchronized JdbcConnectionPoolStatistics getStatistics() {
+            return new JdbcConnectionPoolStatistics(name, size - idle.size(), idle.size(), pending, maxConnections,
+                    created, borrowCount, totalWaitTime, maxWaitTime, statementCacheHits, statementCacheMisses);
+        }
+
+        private synchronized void resetStatistics() {
+            created = 0;
+            borrowCount = 0;
+            totalWaitTime = 0;
+            maxWaitTime = 0;
+            statementCacheHits = 0;
+            statementCacheMisses = 0;
+        }
+    }
+
+    /**
+     * A connection borrowed from the pool, together with its cache of prepared statements
+     */
+
+    public class PooledConnection {
+        private final KeyedPool pool;
+        private final Connection connection;
+        private final LinkedHashMap<String, PreparedStatement> statements;
+        private final boolean autoCommit;
+        private final boolean readOnly;
+        private final int transactionIsolation;
+        private final String catalog;
+        private long lastUsed;
+        private boolean closed;
+
+        private PooledConnection(KeyedPool pool, Connection connection) throws SQLException {
+            this.pool = pool;
+            this.connection = connection;
+            this.lastUsed = System.currentTimeMillis();
+            this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true);
+
+            autoCommit = connection.getAutoCommit();
+            readOnly = connection.isReadOnly();
+            transactionIsolation = connection.getTransactionIsolation();
+            catalog = connection.getCatalog();
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Returns a cached prepared statement for the specified SQL, with its parameters, query timeout, max rows
+         * and fetch size reset, or prepares a new one. Cached statements are closed with the connection and when
+         * they are evicted from the cache, so callers must not close them.
+         */
+
+        public PreparedStatement prepareStatement(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement != null) {
+                try {
+                    statement.clearParameters();
+                    statement.clearWarnings();
+                    statement.setQueryTimeout(0);
+                    statement.setMaxRows(0);
+                    statement.setFetchSize(0);
+                    pool.recordStatement(true);
+                    return statement;
+                } catch (SQLException e) {
+                    statements.remove(sql);
+                    closeStatement(statement);
+                }
+            }
+
+            statement = connection.prepareStatement(sql);
+            pool.recordStatement(false);
+
+            int cacheSize = statementCacheSize;
+            if (cacheSize > 0) {
+                statements.put(sql, statement);
+                while (statements.size() > cacheSize) {
+                    Iterator<PreparedStatement> iterator = statements.values().iterator();
+                    closeStatement(iterator.next());
+                    iterator.remove();
+                }
+            }
+
+            return statement;
+        }
+
+        /**
+         * @return if the statement will be closed by the pool
+         */
+
+        public boolean isCached(PreparedStatement statement) {
+            return statements.containsValue(statement);
+        }
+
+        /**
+         * Gives the connection back to the pool for reuse, the connection is closed instead if its state can not be
+         * reset
+         */
+
+        public void release() {
+            try {
+                resetState();
+            } catch (SQLException e) {
+                log.debug("Failed to reset pooled connection to " + pool.name + "; " + e);
+                invalidate();
+                return;
+            }
+
+            pool.release(this);
+        }
+
+        /**
+         * Rolls back an open transaction and restores the settings the connection was opened with, so that the next
+         * TestStep gets it in the same state as a new connection
+         */
+
+        private void resetState() throws SQLException {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+
+            if (connection.getAutoCommit() != autoCommit) {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            if (connection.isReadOnly() != readOnly) {
+                connection.setReadOnly(readOnly);
+            }
+
+            if (connection.getTransactionIsolation() != transactionIsolation) {
+                connection.setTransactionIsolation(transactionIsolation);
+            }
+
+            if (catalog != null && !catalog.equals(connection.getCatalog())) {
+                connection.setCatalog(catalog);
+            }
+
+            connection.clearWarnings();
+        }
+
+        /**
+         * Closes the connection instead of giving it back, for example after it has failed
+         */
+
+        public void invalidate() {
+            pool.discard(this);
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            for (PreparedStatement statement : statements.values()) {
+                closeStatement(statement);
+            }
+            statements.clear();
+
+            closeConnection(connection, pool.name);
+        }
+
+        private void closeStatement(PreparedStatement statement) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close cached statement; " + e);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.jdbc;
+
+/**
+ * Snapshot of the state of the pooled JDBC connections for a single driver and connection string
+ */
+
+public class JdbcConnectionPoolStatistics {
+    private final String name;
+    private final int active;
+    private final int idle;
+    private final int pending;
+    private final int max;
+    private final long created;
+    private final long borrowCount;
+    private final long totalWaitTime;
+    private final long maxWaitTime;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    public JdbcConnectionPoolStatistics(String name, int active, int idle, int pending, int max, long created,
+                                        long borrowCount, long totalWaitTime, long maxWaitTime, long statementCacheHits,
+                                        long statementCacheMisses) {
+        this.name = name;
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+        this.max = max;
+        this.created = created;
+        this.borrowCount = borrowCount;
+        this.totalWaitTime = totalWaitTime;
+        this.maxWaitTime = maxWaitTime;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    /**
+     * @return the driver and connection string, with the password masked
+     */
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of connections currently used by TestSteps
+     */
+
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * @return the number of open connections that can be reused
+     */
+
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * @return the number of TestSteps currently waiting for a connection
+     */
+
+    public int getPending() {
+        return pending;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return the number of connections that have been opened
+     */
+
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * @return the number of times a connection has been borrowed, including newly opened connections
+     */
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getAverageWaitTime() {
+        return borrowCount == 0 ? 0 : totalWaitTime / borrowCount;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": active=" + active + ", idle=" + idle + ", pending=" + pending + ", max=" + max + ", created="
+                + created + ", borrowed=" + borrowCount + ", avgWait=" + getAverageWaitTime() + "ms, maxWait="
+                + maxWaitTime + "ms, statementCacheHits=" + statementCacheHits + "/"
+                + (statementCacheHits + statementCacheMisses);
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.jdbc;
+
+import com.eviware.soapui.support.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Writes the results of an executed statement as XML, one row at a time, without building a DOM first:
+ * <p/>
+ * <pre>
+ * &lt;Results>
+ *     &lt;ResultSet fetchSize="0">
+ *         &lt;Row rowNumber="1">
+ *             &lt;TABLE.COLUMN>value&lt;/TABLE.COLUMN>
+ *         &lt;/Row>
+ *     &lt;/ResultSet>
+ * &lt;/Results>
+ * </pre>
+ * <p/>
+ * The element names of the columns are created once for each ResultSet. If a row limit is set, rows after the
+ * limit are read but not written and the ResultSet element gets rowCount and truncated attributes, so that the
+ * size of the XML is bounded for queries that return large results.
+ */
+
+public class JdbcResultXmlWriter {
+    private final static Logger log = Logger.getLogger(JdbcResultXmlWriter.class);
+    private final static String TABLE_COLUMN_DELIMITER = ".";
+    // XMLSerializer was configured with setIndent(3), but the setIndenting(true) that followed reset it to 4
+    private final static String INDENT = "    ";
+
+    private final boolean uppercase;
+    private final int maxRows;
+
+    /**
+     * @param uppercase if table and column names should be upper cased
+     * @param maxRows   the maximum number of rows to write for each ResultSet, -1 for all rows
+     */
+
+    public JdbcResultXmlWriter(boolean uppercase, int maxRows) {
+        this.uppercase = uppercase;
+        this.maxRows = maxRows;
+    }
+
+    public String write(Statement statement) throws SQLException {
+        StringWriter out = new StringWriter();
+        try {
+            write(statement, out);
+        } catch (IOException e) {
+            // not thrown by StringWriter
+            throw new SQLException(e);
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Writes the current and all following results of the specified statement
+     */
+
+    public void write(Statement statement, Writer out) throws SQLException, IOException {
+        if (statement == null) {
+            out.write("<Results/>\n");
+            return;
+        }
+
+        out.write("<Results>\n");
+        ResultSet resultSet = statement.getResultSet();
+        if (resultSet != null) {
+            try {
+                resultSet.setFetchSize(statement.getFetchSize());
+                writeResultSet(resultSet, out);
+            } finally {
+                resultSet.close();
+            }
+
+            while (statement.getMoreResults()) {
+                ResultSet moreResults = statement.getResultSet();
+                try {
+                    writeResultSet(moreResults, out);
+                } finally {
+                    moreResults.close();
+                }
+            }
+        } else {
+            out.write(INDENT);
+            out.write("<UpdateCount>");
+            out.write(String.valueOf(statement.getUpdateCount()));
+            out.write("</UpdateCount>\n");
+        }
+        out.write("</Results>\n");
+    }
+
+    private void writeResultSet(ResultSet resultSet, Writer out) throws SQLException, IOException {
+        String fetchSize = String.valueOf(resultSet.getFetchSize());
+        String[] columnNames = null;
+        int rowCount = 0;
+
+        // with a row limit the rows are buffered until it is known if the ResultSet is truncated
+        Writer rows = maxRows >= 0 ? new StringWriter() : out;
+        while (resultSet.next()) {
+            rowCount++;
+            if (maxRows >= 0 && rowCount > maxRows) {
+                continue;
+            }
+
+            if (columnNames == null) {
+                columnNames = getColumnNames(resultSet.getMetaData());
+                if (rows == out) {
+                    writeResultSetStart(out, fetchSize, -1, false);
+                }
+            }
+
+            writeRow(resultSet, columnNames, rows);
+        }
+
+        if (rows != out) {
+            if (rowCount > maxRows) {
+                log.warn("ResultSet truncated to " + maxRows + " of " + rowCount + " rows by Max Response Rows");
+            }
+
+            writeResultSetStart(out, fetchSize, rowCount > maxRows ? rowCount : -1, columnNames == null);
+            out.write(rows.toString());
+        } else if (columnNames == null) {
+            writeResultSetStart(out, fetchSize, -1, true);
+        }
+
+        if (columnNames != null) {
+            out.write(INDENT);
+            out.write("</ResultSet>\n");
+        }
+    }
+
+    private void writeResultSetStart(Writer out, String fetchSize, int truncatedRowCount, boolean empty)
+            throws IOException {
+        out.write(INDENT);
+        out.write("<ResultSet fetchSize=\"");
+        out.write(fetchSize);
+        out.write('"');
+        if (truncatedRowCount >= 0) {
+            out.write(" rowCount=\"");
+            out.write(String.valueOf(truncatedRowCount));
+            out.write("\" truncated=\"true\"");
+        }
+        out.write(empty ? "/>\n" : ">\n");
+    }
+
+    private void writeRow(ResultSet resultSet, String[] columnNames, Writer out) throws SQLException, IOException {
+        out.write(INDENT);
+        out.write(INDENT);
+        out.write("<Row rowNumber=\"");
+        out.write(String.valueOf(resultSet.getRow()));
+        out.write("\">\n");
+
+        for (int i = 0; i < columnNames.length; i++) {
+            out.write(INDENT);
+            out.write(INDENT);
+            out.write(INDENT);
+            out.write('<');
+            out.write(columnNames[i]);
+
+            String value = resultSet.getString(i + 1);
+            if (StringUtils.hasContent(value)) {
+                out.write('>');
+                writeEscaped(value, out);
+                out.write("</");
+                out.write(columnNames[i]);
+                out.write(">\n");
+            } else {
+                out.write("/>\n");
+            }
+        }
+
+        out.write(INDENT);
+        out.write(INDENT);
+        out.write("</Row>\n");
+    }
+
+    private String[] getColumnNames(ResultSetMetaData metaData) throws SQLException {
+        String[] result = new String[metaData.getColumnCount()];
+        for (int i = 0; i < result.length; i++) {
+            String tableName = metaData.getTableName(i + 1);
+            String columnName = metaData.getColumnName(i + 1);
+            if (uppercase) {
+                tableName = tableName == null ? null : tableName.toUpperCase();
+                columnName = columnName.toUpperCase();
+            }
+
+            StringBuilder resultColumnName = new StringBuilder();
+            if (StringUtils.hasContent(tableName)) {
+                resultColumnName.append(tableName);
+                resultColumnName.append(TABLE_COLUMN_DELIMITER);
+            }
+            resultColumnName.append(columnName);
+            result[i] = StringUtils.createXmlName(resultColumnName.toString());
+        }
+
+        return result;
+    }
+
+    private static void writeEscaped(String value, Writer out) throws IOException {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement;
+            switch (value.charAt(i)) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '\r':
+                    replacement = "&#xd;";
+                    break;
+                default:
+                    continue;
+            }
+
+            out.write(value, start, i - start);
+            out.write(replacement);
+            start = i + 1;
+        }
+
+        out.write(value, start, value.length() - start);
+    }
+}
@@ -39,13 +39,43 @@ public class JdbcUtils {
         }
         String drvr = PropertyExpander.expandProperties(context, driver).trim();
         String connStr = PropertyExpander.expandProperties(context, connectionString).trim();
-        String pass = StringUtils.hasContent(password) ? PropertyExpander.expandProperties(context, password).trim()
-                : "";
-        String masskedPass = connStr.replace(PASS_TEMPLATE, "#####");
+        return openConnection(drvr, expandPassword(context, connStr, password), connStr.replace(PASS_TEMPLATE, "#####"));
+    }
+
+    /**
+     * Borrows a connection from the specified pool, which is keyed by the expanded driver and connection string;
+     * the connection must be given back with {@link JdbcConnectionPool.PooledConnection#release()}
+     */
+
+    public static JdbcConnectionPool.PooledConnection getPooledConnection(JdbcConnectionPool pool,
+            PropertyExpansionContext context, String driver, String connectionString, String password)
+            throws SQLException, SoapUIException {
+        if (JdbcUtils.missingConnSettings(driver, connectionString)) {
+            throw new SoapUIException("Some connections settings are missing");
+        }
+        final String drvr = PropertyExpander.expandProperties(context, driver).trim();
+        String connStr = PropertyExpander.expandProperties(context, connectionString).trim();
+        final String masskedConnStr = connStr.replace(PASS_TEMPLATE, "#####");
+        final String passConnStr = expandPassword(context, connStr, password);
+
+        return pool.getConnection(drvr + "|" + passConnStr, masskedConnStr, new JdbcConnectionPool.ConnectionFactory() {
+            public Connection createConnection() throws SQLException, SoapUIException {
+                return openConnection(drvr, passConnStr, masskedConnStr);
+            }
+        });
+    }
+
+    private static String expandPassword(PropertyExpansionContext context, String connStr, String password) {
         if (connStr.contains(PASS_TEMPLATE)) {
-            pass = Matcher.quoteReplacement(pass);
-            connStr = connStr.replaceFirst(PASS_TEMPLATE, pass);
+            String pass = StringUtils.hasContent(password) ? PropertyExpander.expandProperties(context, password)
+                    .trim() : "";
+            connStr = connStr.replaceFirst(PASS_TEMPLATE, Matcher.quoteReplacement(pass));
         }
+        return connStr;
+    }
+
+    private static Connection openConnection(String drvr, String connStr, String masskedPass) throws SQLException,
+            SoapUIException {
         try {
             GroovyUtils.registerJdbcDriver(drvr);
             DriverManager.getDriver(connStr);
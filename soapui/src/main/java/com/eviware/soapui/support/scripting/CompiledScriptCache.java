@@ -0,0 +1,143 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.scripting;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of compiled script classes, shared by all script engines so that the same script text is only
+ * compiled once no matter how many engines, pools or test steps run it. Entries are keyed by engine id, the
+ * classloader the script is resolved against and the script text itself.
+ * <p/>
+ * The maximum number of cached classes can be set with the soapui.scripting.cache.size system property, 0 disables
+ * the cache.
+ */
+
+public class CompiledScriptCache {
+    public final static int DEFAULT_MAX_SIZE = 256;
+
+    private static CompiledScriptCache instance;
+
+    private final int maxSize;
+    private final Map<Key, Class<?>> classes;
+    private long hits;
+    private long misses;
+
+    public CompiledScriptCache(final int maxSize) {
+        this.maxSize = maxSize;
+        classes = new LinkedHashMap<Key, Class<?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Class<?>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static synchronized CompiledScriptCache getInstance() {
+        if (instance == null) {
+            int maxSize = DEFAULT_MAX_SIZE;
+            try {
+                if (System.getProperty("soapui.scripting.cache.size") != null) {
+                    maxSize = Integer.parseInt(System.getProperty("soapui.scripting.cache.size"));
+                }
+            } catch (NumberFormatException e) {
+                // use the default
+            }
+
+            instance = new CompiledScriptCache(maxSize);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Returns the compiled class for the specified script, or null if it has not been compiled yet
+     */
+
+    public synchronized Class<?> get(String engineId, ClassLoader classLoader, String scriptText) {
+        if (maxSize <= 0 || scriptText == null) {
+            return null;
+        }
+
+        Class<?> scriptClass = classes.get(new Key(engineId, classLoader, scriptText));
+        if (scriptClass == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+
+        return scriptClass;
+    }
+
+    public synchronized void put(String engineId, ClassLoader classLoader, String scriptText, Class<?> scriptClass) {
+        if (maxSize > 0 && scriptText != null && scriptClass != null) {
+            classes.put(new Key(engineId, classLoader, scriptText), scriptClass);
+        }
+    }
+
+    public synchronized void clear() {
+        classes.clear();
+    }
+
+    public synchronized int getSize() {
+        return classes.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static class Key {
+        private final String engineId;
+        private final ClassLoader classLoader;
+        private final String scriptText;
+
+        private Key(String engineId, ClassLoader classLoader, String scriptText) {
+            this.engineId = engineId;
+            this.classLoader = classLoader;
+            this.scriptText = scriptText;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return classLoader == other.classLoader && scriptText.equals(other.scriptText)
+                    && (engineId == null ? other.engineId == null : engineId.equals(other.engineId));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = scriptText.hashCode();
+            result = 31 * result + System.identityHashCode(classLoader);
+            result = 31 * result + (engineId == null ? 0 : engineId.hashCode());
+            return result;
+        }
+    }
+}
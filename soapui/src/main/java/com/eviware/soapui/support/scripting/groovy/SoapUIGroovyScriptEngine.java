@@ -19,12 +19,14 @@ package com.eviware.soapui.support.scripting.groovy;
 import com.eviware.soapui.SoapUIExtensionClassLoader;
 import com.eviware.soapui.SoapUIExtensionClassLoader.SoapUIClassLoaderState;
 import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.scripting.CompiledScriptCache;
 import com.eviware.soapui.support.scripting.SoapUIScriptEngine;
 import groovy.lang.Binding;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyShell;
 import groovy.lang.Script;
 import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
 
 /**
  * A Groovy ScriptEngine
@@ -133,7 +135,17 @@ public class SoapUIGroovyScriptEngine implements SoapUIScriptEngine {
         if (script == null) {
             SoapUIClassLoaderState state = SoapUIExtensionClassLoader.ensure();
             try {
-                script = shell.parse(scriptText);
+                // scripts are resolved against the parent classloader, so classes compiled by another engine
+                // sharing that parent can be reused instead of compiling the same text again
+                CompiledScriptCache cache = CompiledScriptCache.getInstance();
+                Class<?> scriptClass = cache.get(GroovyScriptEngineFactory.ID, classLoader.getParent(), scriptText);
+                if (scriptClass != null) {
+                    script = InvokerHelper.createScript(scriptClass, binding);
+                } else {
+                    script = shell.parse(scriptText);
+                    cache.put(GroovyScriptEngineFactory.ID, classLoader.getParent(), scriptText, script.getClass());
+                }
+
                 script.setBinding(binding);
             } finally {
                 state.restore();
@@ -0,0 +1,415 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.xml;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pretty prints XML text by re-indenting it in a single pass over the characters, without parsing it into an
+ * XmlObject first. Instances hold no state between calls, so one printer can be used by any number of threads.
+ * <p/>
+ * Elements that only contain text are kept on one line, empty elements are written as &lt;element/>, the XML
+ * declaration and whitespace between elements are dropped and attributes are written with double quotes. Text,
+ * CDATA sections, entity references and namespace declarations are written as they are. Input that is found not to
+ * be well-formed is rejected so that the caller can fall back to a parser, see {@link XmlUtils#prettyPrintXml(String)}.
+ */
+
+public class XmlPrettyPrinter {
+    public final static int DEFAULT_INDENT = 3;
+
+    private final String indent;
+
+    public XmlPrettyPrinter() {
+        this(DEFAULT_INDENT);
+    }
+
+    public XmlPrettyPrinter(int indent) {
+        StringBuilder buf = new StringBuilder();
+        for (int c = 0; c < indent; c++) {
+            buf.append(' ');
+        }
+        this.indent = buf.toString();
+    }
+
+    /**
+     * @return the pretty printed XML, or null if the specified text is not a well-formed XML document
+     */
+
+    public String prettyPrint(String xml) {
+        if (xml == null) {
+            return null;
+        }
+
+        try {
+            return new Printer(xml).print();
+        } catch (NotWellFormedException e) {
+            return null;
+        }
+    }
+
+    private static class OpenElement {
+        private final String name;
+        private boolean mixed;
+
+        private OpenElement(String name, boolean mixed) {
+            this.name = name;
+            this.mixed = mixed;
+        }
+    }
+
+    private static class NotWellFormedException extends Exception {
+        private NotWellFormedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * State of a single pretty print
+     */
+
+    private class Printer {
+        private final String xml;
+        private final StringBuilder out;
+        private final List<OpenElement> elements = new ArrayList<OpenElement>();
+        private int pos;
+        private boolean rootClosed;
+
+        // the start tag of the current element is missing its closing '>'
+        private boolean startTagOpen;
+
+        // the current element has child elements, comments or processing instructions
+        private boolean hasChildren;
+
+        private int textStart = -1;
+        private int textEnd;
+        private boolean textIsWhitespace = true;
+
+        private Printer(String xml) {
+            this.xml = xml;
+            this.out = new StringBuilder(xml.length() + xml.length() / 4);
+        }
+
+        private String print() throws NotWellFormedException {
+            int length = xml.length();
+            while (pos < length) {
+                if (xml.charAt(pos) != '<') {
+                    readText();
+                } else if (xml.startsWith("<!--", pos)) {
+                    writeNode(readUntil("-->", pos + 4));
+                } else if (xml.startsWith("<![CDATA[", pos)) {
+                    if (elements.isEmpty()) {
+                        throw new NotWellFormedException();
+                    }
+                    int end = readUntil("]]>", pos + 9);
+                    addText(pos, end, false);
+                    pos = end;
+                } else if (xml.startsWith("<?", pos)) {
+                    int start = pos;
+                    int end = readUntil("?>", pos + 2);
+                    if (!(start == 0 && xml.startsWith("<?xml", start) && isWhitespaceOrEnd(start + 5))) {
+                        writeNode(end);
+                    }
+                    pos = end;
+                } else if (xml.startsWith("<!DOCTYPE", pos)) {
+                    if (!elements.isEmpty() || rootClosed) {
+                        throw new NotWellFormedException();
+                    }
+                    writeNode(readDoctype());
+                } else if (xml.startsWith("</", pos)) {
+                    readEndTag();
+                } else {
+                    readStartTag();
+                }
+            }
+
+            if (!rootClosed || !elements.isEmpty()) {
+                throw new NotWellFormedException();
+            }
+
+            return out.toString();
+        }
+
+        private boolean isWhitespaceOrEnd(int ix) {
+            return ix >= xml.length() || Character.isWhitespace(xml.charAt(ix));
+        }
+
+        private void readText() throws NotWellFormedException {
+            int start = pos;
+            boolean whitespace = true;
+            while (pos < xml.length() && xml.charAt(pos) != '<') {
+                if (whitespace && !Character.isWhitespace(xml.charAt(pos))) {
+                    whitespace = false;
+                }
+                pos++;
+            }
+
+            if (elements.isEmpty()) {
+                // only whitespace is allowed outside the root element
+                if (!whitespace) {
+                    throw new NotWellFormedException();
+                }
+                return;
+            }
+
+            addText(start, pos, whitespace);
+        }
+
+        private void addText(int start, int end, boolean whitespace) {
+            if (textStart == -1) {
+                textStart = start;
+            }
+            textEnd = end;
+            textIsWhitespace &= whitespace;
+        }
+
+        /**
+         * Writes text that belongs to the current element; whitespace between child elements is dropped
+         */
+
+        private void flushText(boolean beforeChild) {
+            if (textStart == -1) {
+                return;
+            }
+
+            boolean mixed = isMixed();
+            if (!textIsWhitespace || mixed || !(beforeChild || hasChildren)) {
+                closeStartTag();
+                if (hasChildren && !mixed) {
+                    newLine(elements.size());
+                }
+                out.append(xml, textStart, textEnd);
+
+                // the content of elements with both text and elements is not indented
+                if (!textIsWhitespace) {
+                    elements.get(elements.size() - 1).mixed = true;
+                }
+            }
+
+            textStart = -1;
+            textIsWhitespace = true;
+        }
+
+        private boolean isMixed() {
+            return !elements.isEmpty() && elements.get(elements.size() - 1).mixed;
+        }
+
+        private void closeStartTag() {
+            if (startTagOpen) {
+                out.append('>');
+                startTagOpen = false;
+            }
+        }
+
+        private void newLine(int depth) {
+            if (out.length() > 0) {
+                out.append('\n');
+            }
+            for (int c = 0; c < depth; c++) {
+                out.append(indent);
+            }
+        }
+
+        /**
+         * Writes a comment, processing instruction or doctype ending at the specified position on its own line
+         */
+
+        private void writeNode(int end) {
+            flushText(true);
+            closeStartTag();
+            if (!isMixed()) {
+                newLine(elements.size());
+            }
+            out.append(xml, pos, end);
+            hasChildren = !elements.isEmpty();
+            pos = end;
+        }
+
+        private int readUntil(String terminator, int from) throws NotWellFormedException {
+            int ix = xml.indexOf(terminator, from);
+            if (ix == -1) {
+                throw new NotWellFormedException();
+            }
+
+            return ix + terminator.length();
+        }
+
+        private int readDoctype() throws NotWellFormedException {
+            boolean inSubset = false;
+            char quote = 0;
+            for (int ix = pos + 9; ix < xml.length(); ix++) {
+                char c = xml.charAt(ix);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '[') {
+                    inSubset = true;
+                } else if (c == ']') {
+                    inSubset = false;
+                } else if (c == '>' && !inSubset) {
+                    return ix + 1;
+                }
+            }
+
+            throw new NotWellFormedException();
+        }
+
+        private String readName(int from) throws NotWellFormedException {
+            int ix = from;
+            while (ix < xml.length()) {
+                char c = xml.charAt(ix);
+                if (Character.isWhitespace(c) || c == '>' || c == '/' || c == '=') {
+                    break;
+                }
+                ix++;
+            }
+
+            if (ix == from) {
+                throw new NotWellFormedException();
+            }
+
+            return xml.substring(from, ix);
+        }
+
+        private int skipWhitespace(int ix) {
+            while (ix < xml.length() && Character.isWhitespace(xml.charAt(ix))) {
+                ix++;
+            }
+            return ix;
+        }
+
+        private void readStartTag() throws NotWellFormedException {
+            if (rootClosed) {
+                throw new NotWellFormedException();
+            }
+
+            String name = readName(pos + 1);
+            flushText(true);
+            closeStartTag();
+            if (!isMixed()) {
+                newLine(elements.size());
+            }
+            out.append('<').append(name);
+
+            int ix = pos + 1 + name.length();
+            while (true) {
+                int next = skipWhitespace(ix);
+                if (next >= xml.length()) {
+                    throw new NotWellFormedException();
+                }
+
+                char c = xml.charAt(next);
+                if (c == '>') {
+                    pos = next + 1;
+                    break;
+                } else if (c == '/') {
+                    if (next + 1 >= xml.length() || xml.charAt(next + 1) != '>') {
+                        throw new NotWellFormedException();
+                    }
+                    out.append("/>");
+                    pos = next + 2;
+                    hasChildren = true;
+                    if (elements.isEmpty()) {
+                        rootClosed = true;
+                    }
+                    return;
+                } else if (next == ix) {
+                    // attributes must be separated by whitespace
+                    throw new NotWellFormedException();
+                }
+
+                ix = readAttribute(next);
+            }
+
+            elements.add(new OpenElement(name, isMixed()));
+            startTagOpen = true;
+            hasChildren = false;
+        }
+
+        private int readAttribute(int from) throws NotWellFormedException {
+            String name = readName(from);
+            int ix = skipWhitespace(from + name.length());
+            if (ix >= xml.length() || xml.charAt(ix) != '=') {
+                throw new NotWellFormedException();
+            }
+
+            ix = skipWhitespace(ix + 1);
+            if (ix >= xml.length()) {
+                throw new NotWellFormedException();
+            }
+
+            char quote = xml.charAt(ix);
+            if (quote != '"' && quote != '\'') {
+                throw new NotWellFormedException();
+            }
+
+            int end = xml.indexOf(quote, ix + 1);
+            if (end == -1) {
+                throw new NotWellFormedException();
+            }
+
+            String value = xml.substring(ix + 1, end);
+            if (value.indexOf('<') != -1) {
+                throw new NotWellFormedException();
+            }
+
+            if (quote == '\'' && value.indexOf('"') != -1) {
+                out.append(' ').append(name).append("='").append(value).append('\'');
+            } else {
+                out.append(' ').append(name).append("=\"").append(value).append('"');
+            }
+
+            return end + 1;
+        }
+
+        private void readEndTag() throws NotWellFormedException {
+            String name = readName(pos + 2);
+            int ix = skipWhitespace(pos + 2 + name.length());
+            if (ix >= xml.length() || xml.charAt(ix) != '>') {
+                throw new NotWellFormedException();
+            }
+
+            if (elements.isEmpty() || !elements.get(elements.size() - 1).name.equals(name)) {
+                throw new NotWellFormedException();
+            }
+
+            boolean hadChildren = hasChildren;
+            flushText(false);
+            OpenElement element = elements.remove(elements.size() - 1);
+            if (startTagOpen) {
+                out.append("/>");
+                startTagOpen = false;
+            } else {
+                if (hadChildren && !element.mixed) {
+                    newLine(elements.size());
+                }
+                out.append("</").append(name).append('>');
+            }
+
+            if (elements.isEmpty()) {
+                rootClosed = true;
+            }
+
+            // the parent now has at least one child
+            hasChildren = true;
+            pos = ix + 1;
+        }
+    }
+}
@@ -21,13 +21,12 @@ import com.eviware.soapui.impl.wsdl.WsdlInterface;
 import com.eviware.soapui.impl.wsdl.support.Constants;
 import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
 import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.jdbc.JdbcResultXmlWriter;
 import com.eviware.soapui.support.types.StringToStringMap;
 import net.sf.saxon.expr.Token;
 import net.sf.saxon.expr.Tokenizer;
 import org.apache.log4j.Logger;
 import org.apache.xerces.util.SecurityManager;
-import org.apache.xml.serialize.OutputFormat;
-import org.apache.xml.serialize.XMLSerializer;
 import org.apache.xmlbeans.SchemaType;
 import org.apache.xmlbeans.XmlAnySimpleType;
 import org.apache.xmlbeans.XmlCursor;
@@ -58,7 +57,6 @@ import javax.xml.parsers.SAXParserFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
@@ -84,6 +82,7 @@ import java.util.StringTokenizer;
 public final class XmlUtils {
     private static DocumentBuilder documentBuilder;
     private final static Logger log = Logger.getLogger(XmlUtils.class);
+    private final static XmlPrettyPrinter prettyPrinter = new XmlPrettyPrinter();
 
     static synchronized public Document parse(InputStream in) {
         try {
@@ -573,7 +572,21 @@ public final class XmlUtils {
         return declareXPathNamespaces(XmlObject.Factory.parse(xmlString));
     }
 
-    public static synchronized String prettyPrintXml(String xml) {
+    /**
+     * Pretty prints the specified XML with an {@link XmlPrettyPrinter}, falling back to parsing and saving it with
+     * XmlBeans if it is not well-formed; text that is not XML is returned as it is
+     */
+
+    public static String prettyPrintXml(String xml) {
+        if (StringUtils.isNullOrEmpty(xml)) {
+            return xml;
+        }
+
+        String result = prettyPrinter.prettyPrint(xml);
+        if (result != null) {
+            return result;
+        }
+
         try {
             if (!XmlUtils.seemsToBeXml(xml)) {
                 return xml;
@@ -588,7 +601,7 @@ public final class XmlUtils {
         }
     }
 
-    public static synchronized String prettyPrintXml(XmlObject xml) {
+    public static String prettyPrintXml(XmlObject xml) {
         if (xml == null) {
             return null;
         }
@@ -1361,52 +1374,11 @@ public final class XmlUtils {
         return createJdbcXmlResultEx(statement, true);
     }
 
+    /**
+     * Creates the XML for the results of the statement, see {@link JdbcResultXmlWriter}
+     */
     public static String createJdbcXmlResultEx(Statement statement, boolean makeUpperCased) throws SQLException, ParserConfigurationException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        org.w3c.dom.Document xmlDocumentResult = builder.newDocument();
-        Element resultsElement = xmlDocumentResult.createElement("Results");
-        xmlDocumentResult.appendChild(resultsElement);
-
-        if (statement != null) {
-            try (ResultSet resultSet = statement.getResultSet()) {
-                if (resultSet != null) {
-                    resultSet.setFetchSize(statement.getFetchSize());
-                    xmlDocumentResult = addResultSetXmlPart(resultsElement, resultSet, xmlDocumentResult, makeUpperCased);
-                    while (statement.getMoreResults()) {
-                        try (ResultSet moreResults = statement.getResultSet()) {
-                            xmlDocumentResult = addResultSetXmlPart(resultsElement, moreResults, xmlDocumentResult, makeUpperCased);
-                        }
-                    }
-                } else {
-                    Element errorElement = xmlDocumentResult.createElement("UpdateCount");
-                    errorElement.appendChild(xmlDocumentResult.createTextNode(String.valueOf(statement.getUpdateCount())));
-                    resultsElement.appendChild(errorElement);
-                }
-            }
-        }
-
-        StringWriter out = new StringWriter();
-
-        OutputFormat outputFormat = new OutputFormat(xmlDocumentResult);
-        outputFormat.setOmitComments(true);
-        outputFormat.setOmitDocumentType(true);
-        outputFormat.setOmitXMLDeclaration(true);
-        // outputFormat.setLineSeparator( "\n" );
-        // add this line //
-        // outputFormat.setPreserveSpace( true );
-        outputFormat.setIndent(3);
-        outputFormat.setIndenting(true);
-
-        try {
-            XMLSerializer serializer = new XMLSerializer(new PrintWriter(out), outputFormat);
-            serializer.asDOMSerializer();
-            serializer.serialize(xmlDocumentResult);
-        } catch (IOException e) {
-            SoapUI.logError(e);
-        }
-
-        return out.toString();
+        return new JdbcResultXmlWriter(makeUpperCased, -1).write(statement);
     }
 
     public static Document addResultSetXmlPart(Element resultsElement, ResultSet rs, Document xmlDocumentResult, boolean uppercase)
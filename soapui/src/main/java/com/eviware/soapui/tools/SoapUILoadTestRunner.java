@@ -25,6 +25,8 @@ import com.eviware.soapui.impl.wsdl.loadtest.data.actions.ExportLoadTestLogActio
 import com.eviware.soapui.impl.wsdl.loadtest.data.actions.ExportStatisticsAction;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLog;
 import com.eviware.soapui.impl.wsdl.loadtest.log.LoadTestLogEntry;
+import com.eviware.soapui.impl.wsdl.support.http.ConnectionPoolStatistics;
+import com.eviware.soapui.impl.wsdl.support.http.HttpClientSupport;
 import com.eviware.soapui.model.project.ProjectFactoryRegistry;
 import com.eviware.soapui.model.testsuite.LoadTestRunContext;
 import com.eviware.soapui.model.testsuite.LoadTestRunListener;
@@ -39,6 +41,7 @@ import com.eviware.soapui.model.testsuite.TestSuite;
 import com.eviware.soapui.settings.UISettings;
 import com.eviware.soapui.support.SoapUIException;
 import com.eviware.soapui.support.StringUtils;
+import com.eviware.soapui.support.jdbc.JdbcConnectionPoolStatistics;
 import org.apache.commons.cli.CommandLine;
 
 import java.io.File;
@@ -367,18 +370,23 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
             }
 
             loadTest.addLoadTestRunListener(this);
+            HttpClientSupport.resetConnectionPoolStatistics();
+            loadTest.getTestCase().getTestSuite().getProject().getJdbcConnectionPool().resetStatistics();
             LoadTestRunner runner = loadTest.run();
 
             // wait for test to finish
             while (!runner.hasStopped()) {
                 if (runner.getStatus() == Status.RUNNING) {
+                    ConnectionPoolStatistics poolStatistics = HttpClientSupport.getConnectionPoolStatistics();
                     log.info("LoadTest [" + loadTest.getName() + "] progress: " + runner.getProgress() + ", "
-                            + runner.getRunningThreadCount());
+                            + runner.getRunningThreadCount() + ", connections leased/pending: "
+                            + poolStatistics.getLeased() + "/" + poolStatistics.getPending());
                 }
                 Thread.sleep(1000);
             }
 
             log.info("LoadTest [" + loadTest.getName() + "] finished with status " + runner.getStatus().toString());
+            logConnectionPoolStatistics(loadTest);
 
             if (printReport) {
                 log.info("Exporting log and statistics for LoadTest [" + loadTest.getName() + "]");
@@ -394,6 +402,18 @@ public class SoapUILoadTestRunner extends AbstractSoapUITestRunner implements Lo
         }
     }
 
+    private void logConnectionPoolStatistics(WsdlLoadTest loadTest) {
+        log.info("Connection pool " + HttpClientSupport.getConnectionPoolStatistics());
+        for (ConnectionPoolStatistics statistics : HttpClientSupport.getConnectionPoolRouteStatistics()) {
+            log.info("Connection pool " + statistics);
+        }
+
+        for (JdbcConnectionPoolStatistics statistics : loadTest.getTestCase().getTestSuite().getProject()
+                .getJdbcConnectionPool().getStatistics()) {
+            log.info("JDBC connection pool " + statistics);
+        }
+    }
+
     private void exportStatistics(WsdlLoadTest loadTest) throws IOException {
         ExportStatisticsAction exportStatisticsAction = new ExportStatisticsAction(loadTest.getStatisticsModel());
         String statisticsFileName = StringUtils.createFileName(loadTest.getName(), '_') + "-statistics.txt";
@@ -21,6 +21,8 @@ import com.eviware.soapui.analytics.Analytics;
 import com.eviware.soapui.analytics.AnalyticsHelper;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
 import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.support.http.ConnectionPoolStatistics;
+import com.eviware.soapui.impl.wsdl.support.http.HttpClientSupport;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlProjectRunner;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
 import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCaseRunner;
@@ -539,6 +541,13 @@ public class SoapUITestCaseRunner extends AbstractSoapUITestRunner {
         System.out.println("Total Request Assertions: " + testAssertionCount);
         System.out.println("Total Failed Assertions: " + assertions.size());
         System.out.println("Total Exported Results: " + exportCount);
+
+        ConnectionPoolStatistics poolStatistics = HttpClientSupport.getConnectionPoolStatistics();
+        System.out.println("Connection Pool Requests: " + poolStatistics.getWaitCount() + " (avg wait "
+                + poolStatistics.getAverageWaitTime() + "ms, max wait " + poolStatistics.getMaxWaitTime() + "ms)");
+        for (ConnectionPoolStatistics statistics : HttpClientSupport.getConnectionPoolRouteStatistics()) {
+            System.out.println("  " + statistics);
+        }
     }
 
     /**
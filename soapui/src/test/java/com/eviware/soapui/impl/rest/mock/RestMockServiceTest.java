@@ -176,6 +176,43 @@ public class RestMockServiceTest {
         assertThat(matchingAction, is(nullValue()));
     }
 
+    @Test
+    public void shouldMatchTemplateParameters() throws SoapUIException {
+        RestMockAction templateAction = restMockService.addEmptyMockAction(GET, PATH + "/{id}/details");
+
+        assertThat((RestMockAction) restMockService.findMatchingOperationWithExactPath(PATH + "/123/details", GET),
+                is(templateAction));
+        assertThat(restMockService.findMatchingOperationWithExactPath(PATH + "/123", GET), is(nullValue()));
+    }
+
+    @Test
+    public void shouldPreferLiteralPathOverTemplate() throws SoapUIException {
+        restMockService.addEmptyMockAction(GET, PATH + "/{id}");
+        RestMockAction literalAction = restMockService.addEmptyMockAction(GET, PATH + "/latest");
+
+        assertThat((RestMockAction) restMockService.findBestMatchedOperation(PATH + "/latest", GET), is(literalAction));
+    }
+
+    @Test
+    public void shouldFindOperationAfterResourcePathChange() throws SoapUIException {
+        RestMockAction restMockAction = restMockService.addEmptyMockAction(GET, PATH);
+
+        restMockAction.setResourcePath("/anotherPath");
+
+        assertThat(restMockService.findBestMatchedOperation(PATH, GET), is(nullValue()));
+        assertThat((RestMockAction) restMockService.findBestMatchedOperation("/anotherPath/123", GET),
+                is(restMockAction));
+    }
+
+    @Test
+    public void shouldNotFindRemovedOperation() throws SoapUIException {
+        RestMockAction restMockAction = restMockService.addEmptyMockAction(GET, PATH);
+
+        restMockService.removeMockOperation(restMockAction);
+
+        assertThat(restMockService.findBestMatchedOperation(PATH, GET), is(nullValue()));
+    }
+
     @Test
     public void shouldSetPort() {
         restMockService.setPort(1234);
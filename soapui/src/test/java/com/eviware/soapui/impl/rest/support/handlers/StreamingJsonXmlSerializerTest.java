@@ -0,0 +1,132 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.rest.support.handlers;
+
+import com.eviware.soapui.support.JsonUtil;
+import com.eviware.soapui.support.xml.XmlUtils;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class StreamingJsonXmlSerializerTest {
+    private final StreamingJsonXmlSerializer serializer = new StreamingJsonXmlSerializer("Response", "http://host/path");
+
+    @Test
+    public void writesMembersSortedByName() throws Exception {
+        assertThat(serializer.write("{ \"secondName\": \"Ek\", firstName: 'Kalle', \"age\": 42 }"),
+                is("<Response xmlns=\"http://host/path\">\n"
+                        + "   <age>42</age>\n"
+                        + "   <firstName>Kalle</firstName>\n"
+                        + "   <secondName>Ek</secondName>\n"
+                        + "</Response>"));
+    }
+
+    @Test
+    public void writesNestedArraysAndObjects() throws Exception {
+        assertThat(serializer.write("{\"items\":[{\"id\":1,\"tags\":[]},[true,null],\"\"],\"empty\":{}}"),
+                is("<Response xmlns=\"http://host/path\">\n"
+                        + "   <empty/>\n"
+                        + "   <items>\n"
+                        + "      <e>\n"
+                        + "         <id>1</id>\n"
+                        + "         <tags/>\n"
+                        + "      </e>\n"
+                        + "      <e>\n"
+                        + "         <e>true</e>\n"
+                        + "         <e null=\"true\"/>\n"
+                        + "      </e>\n"
+                        + "      <e/>\n"
+                        + "   </items>\n"
+                        + "</Response>"));
+    }
+
+    @Test
+    public void writesRootArraysAndEmptyObjectsWithoutNamespace() throws Exception {
+        assertThat(serializer.write("[1, 2]"), is("<Response>\n   <e>1</e>\n   <e>2</e>\n</Response>"));
+        assertThat(serializer.write("{}"), is("<Response/>"));
+    }
+
+    @Test
+    public void writesNumbersLikeJsonLib() throws Exception {
+        assertThat(serializer.write("{\"a\":1.50,\"b\":1e2,\"c\":-0,\"d\":12345678901234567890}"),
+                is("<Response xmlns=\"http://host/path\">\n"
+                        + "   <a>1.5</a>\n"
+                        + "   <b>100.0</b>\n"
+                        + "   <c>0</c>\n"
+                        + "   <d>12345678901234567890</d>\n"
+                        + "</Response>"));
+    }
+
+    @Test
+    public void escapesTextAndCreatesValidNames() throws Exception {
+        assertThat(serializer.write("{\"first name\":\"<a & b>\\r\\n\\u00e9\",\"1st\":\"x\"}"),
+                is("<Response xmlns=\"http://host/path\">\n"
+                        + "   <_1st>x</_1st>\n"
+                        + "   <firstName>&lt;a &amp; b&gt;&#x0D;\n\u00e9</firstName>\n"
+                        + "</Response>"));
+    }
+
+    @Test
+    public void writesSameXmlAsJsonXmlSerializer() throws Exception {
+        String[] inputs = {
+                "{\"a\":1,\"b\":-2.50,\"c\":1e2,\"d\":1.5E-3,\"e\":-0,\"f\":12345678901234567890,\"g\":0.1}",
+                "{\"text\":\"<a & b> \\\"quoted\\\" 'single' ]]>\",\"lines\":\"one\\r\\ntwo\\tthree\",\"u\":\"\\u00e9\\u20ac\"}",
+                "{\"empty\":\"\",\"nothing\":null,\"object\":{},\"array\":[],\"flags\":[true,false,null]}",
+                "[1, \"two\", null, {\"three\":3}, [4, []]]",
+                "[]",
+                "{}",
+                "{\"first name\":\"x\",\"1st\":\"y\",\"a-b\":1,\"a.b\":2,\"_c\":3,\"camelCase\":{\"nested name\":true}}",
+                "{\"items\":[{\"id\":1,\"tags\":[]},[true,null],\"\"],\"secondName\":\"Ek\",\"age\":42}"
+        };
+
+        for (String input : inputs) {
+            assertThat(input, serializer.write(input), is(serializeWithJsonXmlSerializer(input)));
+        }
+    }
+
+    @Test
+    public void rejectsJsonThatReliesOnJsonLibBehaviour() throws Exception {
+        assertThat(serializer.write("{\"a\":1,\"a\":2}"), is(nullValue()));
+        assertThat(serializer.write("{\"@id\":1}"), is(nullValue()));
+        assertThat(serializer.write("{\"a\":\"null\"}"), is(nullValue()));
+        assertThat(serializer.write("{\"a\":\"function(){}\"}"), is(nullValue()));
+        assertThat(serializer.write("{\"a\":1 /* comment */}"), is(nullValue()));
+        assertThat(serializer.write("{\"a\":010}"), is(nullValue()));
+        assertThat(serializer.write("{\"a\":\"\\u0001\"}"), is(nullValue()));
+        assertThat(serializer.write("while(1);{\"a\":1}"), is(nullValue()));
+    }
+
+    @Test
+    public void rejectsInvalidJson() throws Exception {
+        assertThat(serializer.write("{\"a\":1 2}"), is(nullValue()));
+        assertThat(serializer.write("{\"a\":[1}"), is(nullValue()));
+        assertThat(serializer.write("{\"a\":}"), is(nullValue()));
+        assertThat(serializer.write("{\"a\":1} trailing"), is(nullValue()));
+        assertThat(serializer.write("\"text\""), is(nullValue()));
+        assertThat(serializer.write("{\"a\":abc}"), is(nullValue()));
+    }
+
+    private static String serializeWithJsonXmlSerializer(String content) {
+        JsonXmlSerializer serializer = new JsonXmlSerializer();
+        serializer.setTypeHintsEnabled(false);
+        serializer.setRootName("Response");
+        serializer.setNamespace("", "http://host/path");
+        return XmlUtils.prettyPrintXml(serializer.write(new JsonUtil().parseTrimmedText(content)));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.support;
+
+import com.eviware.soapui.impl.wsdl.support.CompressionSupport;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+public class PreparedMockResponseTest {
+
+    @Test
+    public void encodesPreparedContent() throws Exception {
+        PreparedMockResponse prepared = new PreparedMockResponse("<a> </a>", "UTF-8", false, true, "<a/>\u00e5");
+
+        assertThat(prepared.getContent(), is("<a/>\u00e5"));
+        assertArrayEquals("<a/>\u00e5".getBytes("UTF-8"), prepared.getData());
+    }
+
+    @Test
+    public void matchesSameContentAndSettings() throws Exception {
+        PreparedMockResponse prepared = new PreparedMockResponse("<a/>", null, false, false, "<a/>");
+
+        assertThat(prepared.matches(new String("<a/>"), null, false, false), is(true));
+        assertThat(prepared.matches("<b/>", null, false, false), is(false));
+        assertThat(prepared.matches("<a/>", "UTF-8", false, false), is(false));
+        assertThat(prepared.matches("<a/>", null, true, false), is(false));
+        assertThat(prepared.matches("<a/>", null, false, true), is(false));
+    }
+
+    @Test
+    public void treatsMissingContentAsEmpty() throws Exception {
+        PreparedMockResponse prepared = new PreparedMockResponse(null, null, false, false, null);
+
+        assertThat(prepared.matches(null, null, false, false), is(true));
+        assertThat(prepared.getContent(), is(""));
+        assertThat(prepared.getData().length, is(0));
+    }
+
+    @Test
+    public void compressesDataOnce() throws Exception {
+        PreparedMockResponse prepared = new PreparedMockResponse("<a/>", null, false, false, "<a/>");
+
+        byte[] gzipData = prepared.getCompressedData(CompressionSupport.ALG_GZIP);
+
+        assertThat(prepared.getCompressedData(CompressionSupport.ALG_GZIP), is(sameInstance(gzipData)));
+        assertArrayEquals("<a/>".getBytes(), CompressionSupport.decompress(CompressionSupport.ALG_GZIP, gzipData));
+        assertArrayEquals("<a/>".getBytes(), CompressionSupport.decompress(CompressionSupport.ALG_DEFLATE,
+                prepared.getCompressedData(CompressionSupport.ALG_DEFLATE)));
+    }
+}
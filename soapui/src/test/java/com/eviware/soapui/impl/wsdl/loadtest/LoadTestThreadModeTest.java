@@ -0,0 +1,117 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class LoadTestThreadModeTest {
+
+    @Test
+    public void selectsModeByDescriptionOrName() {
+        assertThat(LoadTestThreadMode.fromDescription("Dedicated Threads"), is(LoadTestThreadMode.DEDICATED_THREADS));
+        assertThat(LoadTestThreadMode.fromDescription("VIRTUAL_THREADS"), is(LoadTestThreadMode.VIRTUAL_THREADS));
+        assertThat(LoadTestThreadMode.fromDescription("Shared Pool"), is(LoadTestThreadMode.SHARED_POOL));
+    }
+
+    @Test
+    public void defaultsToSharedPool() {
+        assertThat(LoadTestThreadMode.fromDescription(null), is(LoadTestThreadMode.SHARED_POOL));
+        assertThat(LoadTestThreadMode.fromDescription("Green Threads"), is(LoadTestThreadMode.SHARED_POOL));
+    }
+
+    @Test
+    public void listsDescriptionsOfAllModes() {
+        assertThat(LoadTestThreadMode.getDescriptions(), is(new String[]{"Shared Pool", "Dedicated Threads",
+                "Virtual Threads"}));
+    }
+
+    @Test
+    public void runsSharedPoolOnSoapUIThreadPool() {
+        assertThat(LoadTestThreadMode.SHARED_POOL.createExecutor("LoadTest"), is(nullValue()));
+    }
+
+    @Test
+    public void runsDedicatedThreadsOnNamedDaemonThreads() throws Exception {
+        ExecutorService executor = LoadTestThreadMode.DEDICATED_THREADS.createExecutor("LoadTest");
+        try {
+            Thread thread = getThread(executor);
+            assertThat(thread.getName(), is("LoadTest VirtualUser 0"));
+            assertThat(thread.isDaemon(), is(true));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void fallsBackToDedicatedThreadsWithoutVirtualThreads() throws Exception {
+        assumeTrue(!hasVirtualThreads());
+
+        ExecutorService executor = LoadTestThreadMode.VIRTUAL_THREADS.createExecutor("LoadTest");
+        try {
+            assertThat(executor, is(notNullValue()));
+            assertTrue(executor instanceof ThreadPoolExecutor);
+
+            Thread thread = getThread(executor);
+            assertThat(thread.getName(), is("LoadTest VirtualUser 0"));
+            assertThat(thread.isDaemon(), is(true));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void runsVirtualThreadsWhenSupported() throws Exception {
+        assumeTrue(hasVirtualThreads());
+
+        ExecutorService executor = LoadTestThreadMode.VIRTUAL_THREADS.createExecutor("LoadTest");
+        try {
+            Thread thread = getThread(executor);
+            assertThat(thread.getName(), is("LoadTest VirtualUser 0"));
+            assertThat((Boolean) Thread.class.getMethod("isVirtual").invoke(thread), is(true));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Thread getThread(ExecutorService executor) throws Exception {
+        return executor.submit(new Callable<Thread>() {
+            public Thread call() {
+                return Thread.currentThread();
+            }
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static boolean hasVirtualThreads() {
+        try {
+            Class.forName("java.lang.Thread$Builder");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.loadtest;
+
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.WsdlTestSuite;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.WsdlPropertiesTestStep;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.PropertiesStepFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class WsdlLoadTestRunnerTest {
+    private WsdlTestCase testCase;
+    private WsdlLoadTestRunner runner;
+
+    @Before
+    public void setUp() throws Exception {
+        WsdlTestSuite testSuite = new WsdlProject().addNewTestSuite("TestSuite");
+        testCase = testSuite.addNewTestCase("TestCase");
+        testCase.addProperty("first").setValue("1");
+        testCase.addProperty("second").setValue("2");
+
+        WsdlPropertiesTestStep propertiesStep = (WsdlPropertiesTestStep) testCase.addTestStep(
+                PropertiesStepFactory.PROPERTIES_TYPE, "Properties");
+        propertiesStep.addProperty("stepProperty").setValue("step");
+
+        runner = new WsdlLoadTestRunner(testCase.addNewLoadTest("LoadTest"));
+    }
+
+    @Test
+    public void resetsRecycledTestCaseToBlueprint() throws Exception {
+        WsdlTestCase virtualUser = runner.createTestCase();
+        assertThat(virtualUser, is(not(sameInstance(testCase))));
+
+        virtualUser.setPropertyValue("first", "changed");
+        virtualUser.removeProperty("second");
+        virtualUser.addProperty("added").setValue("added");
+        virtualUser.moveProperty("added", 0);
+
+        WsdlPropertiesTestStep propertiesStep = (WsdlPropertiesTestStep) virtualUser.getTestStepAt(0);
+        propertiesStep.setPropertyValue("stepProperty", "changed");
+        propertiesStep.addProperty("addedStepProperty").setValue("added");
+
+        assertTrue(runner.resetTestCase(virtualUser));
+
+        assertThat(virtualUser.getPropertyNames(), is(new String[]{"first", "second"}));
+        assertThat(virtualUser.getPropertyValue("first"), is("1"));
+        assertThat(virtualUser.getPropertyValue("second"), is("2"));
+        assertThat(virtualUser.hasProperty("added"), is(false));
+
+        propertiesStep = (WsdlPropertiesTestStep) virtualUser.getTestStepAt(0);
+        assertThat(propertiesStep.getPropertyNames(), is(new String[]{"stepProperty"}));
+        assertThat(propertiesStep.getPropertyValue("stepProperty"), is("step"));
+    }
+
+    @Test
+    public void doesNotResetTestCaseWithOtherSteps() throws Exception {
+        WsdlTestCase virtualUser = runner.createTestCase();
+        virtualUser.removeTestStep(virtualUser.getTestStepAt(0));
+
+        assertThat(runner.resetTestCase(virtualUser), is(false));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void returnsZeroWhenEmpty() {
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        for (int c = 1; c <= 100; c++) {
+            histogram.recordValue(c);
+        }
+
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(90, histogram.getValueAtPercentile(90));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void largeValuesStayWithinPrecision() {
+        for (int c = 1; c <= 10000; c++) {
+            histogram.recordValue(c * 10L);
+        }
+
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(String.valueOf(p99), Math.abs(p99 - 99000) <= 99000 / 100);
+    }
+
+    @Test
+    public void recordsWithCount() {
+        histogram.recordValue(10, 99);
+        histogram.recordValue(5000, 1);
+
+        assertEquals(10, histogram.getValueAtPercentile(99));
+        assertEquals(5000, histogram.getValueAtPercentile(99.9));
+    }
+
+    @Test
+    public void clampsOutOfRangeValues() {
+        histogram.recordValue(-5);
+        histogram.recordValue(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(LatencyHistogram.HIGHEST_TRACKABLE_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void bucketIndexesAreContiguous() {
+        for (long value = 0; value < 100000; value++) {
+            int index = LatencyHistogram.indexFor(value);
+            assertTrue(value <= LatencyHistogram.highestEquivalentValue(index));
+            assertTrue(index == 0 || value > LatencyHistogram.highestEquivalentValue(index - 1));
+        }
+    }
+
+    @Test
+    public void resetClearsAllValues() {
+        histogram.recordValue(100);
+        histogram.reset();
+
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+}
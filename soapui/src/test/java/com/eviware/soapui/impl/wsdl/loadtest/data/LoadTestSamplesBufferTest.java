@@ -0,0 +1,223 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoadTestSamplesBufferTest {
+
+    @Test
+    public void drainsPublishedSlotsInOrder() {
+        LoadTestSamplesBuffer buffer = new LoadTestSamplesBuffer(2, 4);
+
+        long first = buffer.claim();
+        buffer.add(first, 0, 10, 100);
+        buffer.add(first, 0, 20, 100);
+        buffer.publish(first, 1000, 30, true);
+
+        long second = buffer.claim();
+        buffer.add(second, 1, 5, 50);
+        buffer.publish(second, 2000, 5, false);
+
+        assertFalse(buffer.isEmpty());
+
+        final StringBuilder consumed = new StringBuilder();
+        int count = buffer.drain(new LoadTestSamplesBuffer.SlotConsumer() {
+            public void consume(LoadTestSamplesBuffer buffer, int slot) {
+                consumed.append(buffer.getSample(slot, 0)).append('/').append(buffer.getSampleCount(slot, 0))
+                        .append('/').append(buffer.getSize(slot, 1)).append('/').append(buffer.getStartTime(slot))
+                        .append('/').append(buffer.isComplete(slot)).append(' ');
+            }
+        });
+
+        assertEquals(2, count);
+        assertEquals("30/2/0/1000/true 0/0/50/2000/false ", consumed.toString());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void stopsAtUnpublishedSlot() {
+        LoadTestSamplesBuffer buffer = new LoadTestSamplesBuffer(1, 4);
+
+        long first = buffer.claim();
+        long second = buffer.claim();
+        buffer.publish(second, 0, 0, true);
+
+        assertEquals(0, buffer.drain(new CountingConsumer()));
+
+        buffer.publish(first, 0, 0, true);
+        assertEquals(2, buffer.drain(new CountingConsumer()));
+    }
+
+    @Test
+    public void reusesSlotsWithoutLeakingOldValues() {
+        LoadTestSamplesBuffer buffer = new LoadTestSamplesBuffer(1, 2);
+        CountingConsumer consumer = new CountingConsumer();
+
+        for (int c = 0; c < 10; c++) {
+            long sequence = buffer.claim();
+            buffer.add(sequence, 0, 1, 1);
+            buffer.publish(sequence, 0, 1, true);
+            buffer.drain(consumer);
+        }
+
+        assertEquals(10, consumer.total.get());
+    }
+
+    @Test
+    public void acceptsSamplesFromManyThreads() throws Exception {
+        final LoadTestSamplesBuffer buffer = new LoadTestSamplesBuffer(1, 16);
+        final int perThread = 5000;
+        Thread[] producers = new Thread[8];
+
+        for (int c = 0; c < producers.length; c++) {
+            producers[c] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        long sequence = buffer.claim();
+                        buffer.add(sequence, 0, 1, 1);
+                        buffer.publish(sequence, 0, 1, true);
+                    }
+                }
+            });
+            producers[c].start();
+        }
+
+        CountingConsumer consumer = new CountingConsumer();
+        long expected = (long) perThread * producers.length;
+        while (consumer.total.get() < expected) {
+            buffer.drain(consumer);
+        }
+
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertEquals(expected, consumer.total.get());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void dropsSampleWhenBufferStaysFull() {
+        LoadTestSamplesBuffer buffer = new LoadTestSamplesBuffer(1, 2, 50);
+        buffer.publish(buffer.claim(), 0, 0, true);
+        buffer.publish(buffer.claim(), 0, 0, true);
+
+        long sequence = buffer.claim();
+        assertEquals(-1, sequence);
+        assertEquals(1, buffer.getDroppedCount());
+
+        // a dropped sample is ignored and does not block later slots
+        buffer.add(sequence, 0, 1, 1);
+        buffer.publish(sequence, 0, 1, true);
+        assertEquals(2, buffer.drain(new CountingConsumer()));
+        assertTrue(buffer.isEmpty());
+
+        assertEquals(2, buffer.claim());
+    }
+
+    @Test
+    public void fullBufferWakesConsumer() throws Exception {
+        final LoadTestSamplesBuffer buffer = new LoadTestSamplesBuffer(1, 2, 60000);
+        final CountingConsumer consumer = new CountingConsumer();
+
+        Thread consumerThread = new Thread(new Runnable() {
+            public void run() {
+                while (consumer.total.get() < 10) {
+                    buffer.awaitPublished(60000);
+                    buffer.drain(consumer);
+                }
+            }
+        });
+        consumerThread.start();
+
+        for (int c = 0; c < 10; c++) {
+            buffer.publish(buffer.claim(), 0, 0, true);
+        }
+
+        consumerThread.join(10000);
+        assertFalse(consumerThread.isAlive());
+        assertEquals(10, consumer.total.get());
+        assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void closingReleasesWaitingProducer() throws Exception {
+        // as done when the statistics are reset and the buffer is replaced while a load thread is claiming
+        final LoadTestSamplesBuffer buffer = new LoadTestSamplesBuffer(1, 1, 60000);
+        buffer.publish(buffer.claim(), 0, 0, true);
+
+        final AtomicReference<Long> result = new AtomicReference<Long>();
+        Thread producer = new Thread(new Runnable() {
+            public void run() {
+                result.set(buffer.claim());
+            }
+        });
+        producer.start();
+
+        Thread.sleep(100);
+        assertTrue(producer.isAlive());
+
+        buffer.close();
+        producer.join(10000);
+        assertFalse(producer.isAlive());
+        assertEquals(Long.valueOf(-1), result.get());
+        assertEquals(1, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void closingWakesConsumerAndKeepsPublishedSlots() throws Exception {
+        // as done when the load test stops
+        final LoadTestSamplesBuffer buffer = new LoadTestSamplesBuffer(1, 4, 60000);
+        buffer.publish(buffer.claim(), 0, 0, true);
+        buffer.drain(new CountingConsumer());
+
+        Thread consumerThread = new Thread(new Runnable() {
+            public void run() {
+                buffer.awaitPublished(60000);
+            }
+        });
+        consumerThread.start();
+
+        Thread.sleep(100);
+        long sequence = buffer.claim();
+        buffer.close();
+        buffer.publish(sequence, 0, 0, true);
+
+        consumerThread.join(10000);
+        assertFalse(consumerThread.isAlive());
+        assertTrue(buffer.isClosed());
+        assertEquals(-1, buffer.claim());
+        assertEquals(1, buffer.drain(new CountingConsumer()));
+        assertTrue(buffer.isEmpty());
+    }
+
+    private static class CountingConsumer implements LoadTestSamplesBuffer.SlotConsumer {
+        private final AtomicLong total = new AtomicLong();
+
+        public void consume(LoadTestSamplesBuffer buffer, int slot) {
+            total.addAndGet(buffer.getSample(slot, 0) == 0 ? 1 : buffer.getSample(slot, 0));
+        }
+    }
+}
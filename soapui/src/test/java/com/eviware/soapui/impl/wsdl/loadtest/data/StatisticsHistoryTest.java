@@ -0,0 +1,51 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.loadtest.data;
+
+import com.eviware.soapui.impl.wsdl.WsdlProject;
+import com.eviware.soapui.impl.wsdl.loadtest.data.LoadTestStatistics.Statistic;
+import com.eviware.soapui.impl.wsdl.loadtest.data.StatisticsHistory.StatisticsHistoryModel;
+import com.eviware.soapui.impl.wsdl.testcase.WsdlTestCase;
+import com.eviware.soapui.impl.wsdl.teststeps.registry.DelayStepFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class StatisticsHistoryTest {
+    private LoadTestStatistics statistics;
+
+    @Before
+    public void setUp() throws Exception {
+        WsdlTestCase testCase = new WsdlProject().addNewTestSuite("TestSuite").addNewTestCase("TestCase");
+        testCase.addTestStep(DelayStepFactory.DELAY_TYPE, "Delay");
+        statistics = testCase.addNewLoadTest("LoadTest").getStatisticsModel();
+    }
+
+    @Test
+    public void namesTestStepHistoryColumnsLikeTheStatisticsTable() throws Exception {
+        StatisticsHistoryModel history = statistics.getHistory().getTestStepHistory(LoadTestStatistics.TOTAL);
+
+        assertEquals(statistics.getColumnCount() - 1, history.getColumnCount());
+        assertEquals("ThreadCount", history.getColumnName(0));
+        for (int c = 1; c < history.getColumnCount(); c++) {
+            assertEquals(statistics.getColumnName(c + 1), history.getColumnName(c));
+        }
+
+        assertEquals(Statistic.P50.getName(), history.getColumnName(11));
+        assertEquals(Statistic.P999.getName(), history.getColumnName(14));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.loadtest.strategy;
+
+import com.eviware.soapui.impl.wsdl.loadtest.WsdlLoadTest;
+import com.eviware.soapui.model.testsuite.LoadTestRunContext;
+import com.eviware.soapui.model.testsuite.LoadTestRunner;
+import com.eviware.soapui.support.xml.XmlObjectConfigurationBuilder;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ArrivalRateLoadStrategyTest {
+
+    @Test
+    public void schedulesConstantRateWithoutRampUp() {
+        ArrivalRateLoadStrategy strategy = createStrategy(20, 20, 0);
+
+        assertThat(strategy.getArrivalOffset(0), is(0L));
+        assertThat(strategy.getArrivalOffset(1), is(50L));
+        assertThat(strategy.getArrivalOffset(20), is(1000L));
+    }
+
+    @Test
+    public void schedulesLinearRampUp() {
+        ArrivalRateLoadStrategy strategy = createStrategy(0, 10, 10);
+
+        // 0.5 * t^2 arrivals during the ramp, i.e. 50 arrivals after 10 seconds
+        assertThat(strategy.getArrivalOffset(0), is(0L));
+        assertThat(strategy.getArrivalOffset(5), is(3162L));
+        assertThat(strategy.getArrivalOffset(50), is(10000L));
+        assertThat(strategy.getArrivalOffset(60), is(11000L));
+    }
+
+    @Test
+    public void schedulesRampDown() {
+        ArrivalRateLoadStrategy strategy = createStrategy(10, 0.5F, 10);
+
+        long previous = -1;
+        for (int c = 0; c < 100; c++) {
+            long offset = strategy.getArrivalOffset(c);
+            assertThat(offset > previous, is(true));
+            previous = offset;
+        }
+    }
+
+    @Test
+    public void waitsForNextArrival() {
+        ArrivalRateLoadStrategy strategy = createStrategy(20, 20, 0);
+        LoadTestRunner loadTestRunner = mock(LoadTestRunner.class);
+        when(loadTestRunner.isRunning()).thenReturn(true);
+        strategy.beforeLoadTest(loadTestRunner, mock(LoadTestRunContext.class));
+
+        long first = strategy.awaitNextArrival(loadTestRunner);
+        long second = strategy.awaitNextArrival(loadTestRunner);
+
+        assertThat(second - first, is(50L));
+        assertThat(System.currentTimeMillis() >= second, is(true));
+    }
+
+    @Test
+    public void stopsWaitingWhenLoadTestStops() {
+        ArrivalRateLoadStrategy strategy = createStrategy(1, 1, 0);
+        LoadTestRunner loadTestRunner = mock(LoadTestRunner.class);
+        strategy.beforeLoadTest(loadTestRunner, mock(LoadTestRunContext.class));
+
+        long first = strategy.awaitNextArrival(loadTestRunner);
+        long second = strategy.awaitNextArrival(loadTestRunner);
+
+        assertThat(second - first, is(1000L));
+        assertThat(System.currentTimeMillis() < second, is(true));
+    }
+
+    @Test
+    public void doesNotScheduleWithoutTargetRate() {
+        ArrivalRateLoadStrategy strategy = createStrategy(0, 0, 0);
+
+        assertThat(strategy.awaitNextArrival(mock(LoadTestRunner.class)), is(-1L));
+    }
+
+    @Test
+    public void readsDefaultsWithoutConfig() {
+        ArrivalRateLoadStrategy strategy = new ArrivalRateLoadStrategy(null, mock(WsdlLoadTest.class));
+
+        assertThat(strategy.getType(), is(ArrivalRateLoadStrategy.STRATEGY_TYPE));
+        assertThat(strategy.getTargetRate() > 0, is(true));
+    }
+
+    private ArrivalRateLoadStrategy createStrategy(float startRate, float targetRate, int rampUp) {
+        XmlObjectConfigurationBuilder builder = new XmlObjectConfigurationBuilder();
+        builder.add("startRate", startRate);
+        builder.add("targetRate", targetRate);
+        builder.add("rampUp", rampUp);
+
+        return new ArrivalRateLoadStrategy(builder.finish(), mock(WsdlLoadTest.class));
+    }
+}
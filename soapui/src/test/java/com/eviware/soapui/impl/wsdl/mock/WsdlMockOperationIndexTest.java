@@ -0,0 +1,164 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.mock;
+
+import com.eviware.soapui.impl.wsdl.WsdlInterface;
+import com.eviware.soapui.impl.wsdl.WsdlOperation;
+import com.eviware.soapui.impl.wsdl.support.soap.SoapVersion;
+import com.eviware.soapui.model.iface.Attachment;
+import com.eviware.soapui.model.mock.MockServiceListener;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.wsdl.BindingOperation;
+import javax.wsdl.Part;
+import javax.xml.namespace.QName;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WsdlMockOperationIndexTest {
+
+    private static final String NAMESPACE = "urn:soapui:test";
+
+    private WsdlMockService mockService;
+    private WsdlInterface iface;
+
+    @Before
+    public void setUp() {
+        mockService = mock(WsdlMockService.class);
+        iface = mock(WsdlInterface.class);
+        when(iface.getSoapVersion()).thenReturn(SoapVersion.Soap11);
+    }
+
+    @Test
+    public void findsOperationsByBodyElement() throws Exception {
+        WsdlOperation first = createOperation("first");
+        WsdlOperation second = createOperation("second");
+        setMockedOperations(first, second);
+
+        WsdlMockOperationIndex index = new WsdlMockOperationIndex(mockService);
+
+        assertThat(index.findOperationForRequest(createRequest("second")), is(second));
+        assertThat(index.findOperationForRequest(createRequest("first")), is(first));
+        assertThat(index.findOperationForRequest(createRequest("second")), is(second));
+
+        // the bindings are only evaluated when building the index
+        verify(first, times(1)).getRequestBodyElementQName();
+        verify(second, times(1)).getRequestBodyElementQName();
+    }
+
+    @Test
+    public void doesNotParseRequestsMatchedOnBodyElement() throws Exception {
+        setMockedOperations(createOperation("first"));
+        WsdlMockRequest request = createRequest("first");
+
+        new WsdlMockOperationIndex(mockService).findOperationForRequest(request);
+
+        verify(request, never()).getRequestXmlObject();
+    }
+
+    @Test
+    public void rebuildsIndexWhenOperationsAreAdded() throws Exception {
+        WsdlOperation first = createOperation("first");
+        setMockedOperations(first);
+
+        ArgumentCaptor<MockServiceListener> listener = ArgumentCaptor.forClass(MockServiceListener.class);
+        WsdlMockOperationIndex index = new WsdlMockOperationIndex(mockService);
+        verify(mockService).addMockServiceListener(listener.capture());
+
+        index.findOperationForRequest(createRequest("first"));
+
+        WsdlOperation second = createOperation("second");
+        WsdlMockOperation secondMockOperation = setMockedOperations(first, second)[1];
+        listener.getValue().mockOperationAdded(secondMockOperation);
+
+        assertThat(index.findOperationForRequest(createRequest("second")), is(second));
+        assertThat(index.getMockOperation(second), is(secondMockOperation));
+    }
+
+    @Test(expected = DispatchException.class)
+    public void failsForUnknownBodyElement() throws Exception {
+        setMockedOperations(createOperation("first"));
+
+        new WsdlMockOperationIndex(mockService).findOperationForRequest(createRequest("unknown"));
+    }
+
+    @Test
+    public void removesListenersWhenReleased() throws Exception {
+        setMockedOperations(createOperation("first"));
+
+        WsdlMockOperationIndex index = new WsdlMockOperationIndex(mockService);
+        index.findOperationForRequest(createRequest("first"));
+        index.release();
+
+        verify(mockService).removeMockServiceListener(any(MockServiceListener.class));
+        verify(iface).removePropertyChangeListener(any(PropertyChangeListener.class));
+    }
+
+    private WsdlOperation createOperation(String name) throws Exception {
+        WsdlOperation operation = mock(WsdlOperation.class);
+        when(operation.getName()).thenReturn(name);
+        when(operation.getAction()).thenReturn("");
+        when(operation.getInterface()).thenReturn(iface);
+        when(operation.getStyle()).thenReturn(WsdlOperation.STYLE_DOCUMENT);
+        when(operation.getRequestBodyElementQName()).thenReturn(new QName(NAMESPACE, name));
+
+        BindingOperation bindingOperation = mock(BindingOperation.class, RETURNS_DEEP_STUBS);
+        when(bindingOperation.getOperation().getInput().getMessage().getOrderedParts(null))
+                .thenReturn(new ArrayList<Part>());
+        when(operation.getBindingOperation()).thenReturn(bindingOperation);
+
+        return operation;
+    }
+
+    private WsdlMockOperation[] setMockedOperations(WsdlOperation... operations) {
+        WsdlMockOperation[] mockOperations = new WsdlMockOperation[operations.length];
+        when(mockService.getMockOperationCount()).thenReturn(operations.length);
+
+        for (int c = 0; c < operations.length; c++) {
+            mockOperations[c] = mock(WsdlMockOperation.class);
+            when(mockOperations[c].getOperation()).thenReturn(operations[c]);
+            when(mockService.getMockOperationAt(c)).thenReturn(mockOperations[c]);
+        }
+
+        return mockOperations;
+    }
+
+    private WsdlMockRequest createRequest(String bodyElement) throws Exception {
+        WsdlMockRequest request = mock(WsdlMockRequest.class);
+        when(request.getSoapVersion()).thenReturn(SoapVersion.Soap11);
+        when(request.getSoapAction()).thenReturn("");
+        when(request.getContentElementQName()).thenReturn(new QName(NAMESPACE, bodyElement));
+        when(request.getRequestXmlObject()).thenReturn(XmlObject.Factory.parse(
+                "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body><ns:"
+                        + bodyElement + " xmlns:ns=\"" + NAMESPACE + "\"/></soapenv:Body></soapenv:Envelope>"));
+        when(request.getRequestAttachments()).thenReturn(new Attachment[0]);
+        return request;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import com.eviware.soapui.config.CredentialsConfig.AuthType;
+import com.eviware.soapui.impl.support.AbstractHttpRequestInterface;
+import com.eviware.soapui.model.iface.Response;
+import com.eviware.soapui.model.iface.SubmitContext;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpVersion;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AsyncHttpClientRequestTransportTest {
+
+    @Test
+    public void copiesHeadersBodyAndTimeoutOfRequest() throws Exception {
+        ExtendedHttpMethod method = mockMethod(new StringEntity("<a/>", "text/xml", "UTF-8"),
+                new BasicHeader("SOAPAction", "\"urn:test\""), new BasicHeader("Content-Length", "4"),
+                new BasicHeader("Transfer-Encoding", "chunked"), new BasicHeader("Host", "localhost:8080"),
+                new BasicHeader("Connection", "Keep-Alive"));
+
+        SimpleHttpRequest request = AsyncHttpClientRequestTransport.createRequest(method, false);
+
+        assertThat(request.getMethod(), is("POST"));
+        assertThat(request.getUri(), is(URI.create("http://localhost:8080/service")));
+        assertThat(request.getFirstHeader("SOAPAction").getValue(), is("\"urn:test\""));
+        assertThat(request.getFirstHeader("Host").getValue(), is("localhost:8080"));
+        assertThat(request.getFirstHeader("Connection").getValue(), is("Keep-Alive"));
+        assertThat(request.containsHeader("Content-Length"), is(false));
+        assertThat(request.containsHeader("Transfer-Encoding"), is(false));
+        assertThat(request.getFirstHeader("Content-Type").getValue(), is("text/xml; charset=UTF-8"));
+        assertThat(new String(request.getBodyBytes(), "UTF-8"), is("<a/>"));
+        assertThat(request.getConfig().getResponseTimeout(), is(Timeout.ofMilliseconds(5000)));
+        assertThat(request.getConfig().isExpectContinueEnabled(), is(false));
+    }
+
+    @Test
+    public void leavesOutConnectionHeadersForHttp2() throws Exception {
+        ExtendedHttpMethod method = mockMethod(null, new BasicHeader("Accept", "*/*"),
+                new BasicHeader("Host", "localhost:8080"), new BasicHeader("Connection", "Keep-Alive"),
+                new BasicHeader("Keep-Alive", "timeout=5"), new BasicHeader("Proxy-Connection", "Keep-Alive"),
+                new BasicHeader("Upgrade", "h2c"));
+
+        SimpleHttpRequest request = AsyncHttpClientRequestTransport.createRequest(method, true);
+
+        assertThat(request.getHeaders().length, is(1));
+        assertThat(request.getFirstHeader("Accept").getValue(), is("*/*"));
+        assertThat(request.getBodyBytes(), is(nullValue()));
+    }
+
+    @Test
+    public void keepsContentTypeSetByFilters() throws Exception {
+        ExtendedHttpMethod method = mockMethod(new StringEntity("{}", "text/plain", "UTF-8"),
+                new BasicHeader("Content-Type", "application/json"));
+
+        SimpleHttpRequest request = AsyncHttpClientRequestTransport.createRequest(method, false);
+
+        assertThat(request.getHeaders("Content-Type").length, is(1));
+        assertThat(request.getFirstHeader("Content-Type").getValue(), is("application/json"));
+    }
+
+    @Test
+    public void copiesStatusHeadersAndBodyOfResponse() throws Exception {
+        SimpleHttpResponse response = new SimpleHttpResponse(404, "Nothing Here");
+        response.setVersion(HttpVersion.HTTP_1_0);
+        response.addHeader("Content-Type", "text/xml");
+        response.addHeader("Content-Encoding", "identity");
+        response.addHeader("X-Test", "1");
+        response.setBody("<fault/>", ContentType.TEXT_XML);
+
+        HttpResponse httpResponse = AsyncHttpClientRequestTransport.createHttpResponse(response);
+
+        assertThat(httpResponse.getStatusLine().toString(), is("HTTP/1.0 404 Nothing Here"));
+        assertThat(httpResponse.getFirstHeader("X-Test").getValue(), is("1"));
+        assertThat(httpResponse.getEntity(), is(notNullValue()));
+        assertThat(httpResponse.getEntity().getContentType().getValue(), is("text/xml"));
+        assertThat(httpResponse.getEntity().getContentEncoding().getValue(), is("identity"));
+        assertThat(EntityUtils.toString(httpResponse.getEntity()), is("<fault/>"));
+    }
+
+    @Test
+    public void defaultsVersionAndReasonPhraseOfResponse() throws Exception {
+        SimpleHttpResponse response = new SimpleHttpResponse(200);
+
+        HttpResponse httpResponse = AsyncHttpClientRequestTransport.createHttpResponse(response);
+
+        assertThat(httpResponse.getStatusLine().toString(), is("HTTP/1.1 200 OK"));
+        assertThat(httpResponse.getEntity(), is(nullValue()));
+
+        response.setVersion(HttpVersion.HTTP_2);
+        assertThat(AsyncHttpClientRequestTransport.createHttpResponse(response).getStatusLine().toString(),
+                is("HTTP/2.0 200 OK"));
+    }
+
+    @Test
+    public void sendsRequestsWithoutHttpClient4Features() throws Exception {
+        AbstractHttpRequestInterface<?> request = mockRequest(AuthType.PREEMPTIVE.toString(), null);
+
+        assertThat(AsyncHttpClientRequestTransport.getUnsupportedFeature(mock(SubmitContext.class), request),
+                is(nullValue()));
+    }
+
+    @Test
+    public void leavesRequestsWithHttpClient4FeaturesToStandardTransport() throws Exception {
+        SubmitContext sessionContext = mock(SubmitContext.class);
+        when(sessionContext.getProperty(SubmitContext.HTTP_STATE_PROPERTY)).thenReturn(new BasicHttpContext());
+
+        assertThat(AsyncHttpClientRequestTransport.getUnsupportedFeature(sessionContext,
+                mockRequest(AuthType.NO_AUTHORIZATION.toString(), null)), is("an HTTP session"));
+        assertThat(AsyncHttpClientRequestTransport.getUnsupportedFeature(mock(SubmitContext.class),
+                mockRequest(AuthType.NTLM.toString(), null)), is("NTLM authentication"));
+        assertThat(AsyncHttpClientRequestTransport.getUnsupportedFeature(mock(SubmitContext.class),
+                mockRequest(AuthType.SPNEGO_KERBEROS.toString(), null)), is(notNullValue()));
+        assertThat(AsyncHttpClientRequestTransport.getUnsupportedFeature(mock(SubmitContext.class),
+                mockRequest(AuthType.NO_AUTHORIZATION.toString(), "127.0.0.1")), is("a bind address"));
+    }
+
+    @Test
+    public void delegatesUnsupportedRequestsToStandardTransport() throws Exception {
+        HttpClientRequestTransport standardTransport = mock(HttpClientRequestTransport.class);
+        Response response = mock(Response.class);
+        SubmitContext submitContext = mock(SubmitContext.class);
+        AbstractHttpRequestInterface<?> request = mockRequest(AuthType.NTLM.toString(), null);
+        when(standardTransport.sendRequest(submitContext, request)).thenReturn(response);
+
+        AsyncHttpClientRequestTransport transport = new AsyncHttpClientRequestTransport(false, standardTransport);
+
+        assertThat(transport.sendRequest(submitContext, request), is(response));
+        verify(standardTransport).sendRequest(submitContext, request);
+    }
+
+    private static AbstractHttpRequestInterface<?> mockRequest(String authType, String bindAddress) {
+        AbstractHttpRequestInterface<?> request = mock(AbstractHttpRequestInterface.class);
+        when(request.getName()).thenReturn("Request 1");
+        when(request.getAuthType()).thenReturn(authType);
+        when(request.getBindAddress()).thenReturn(bindAddress);
+        return request;
+    }
+
+    private static ExtendedHttpMethod mockMethod(StringEntity entity, Header... headers) {
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setSoTimeout(params, 5000);
+
+        ExtendedHttpMethod method = mock(ExtendedHttpMethod.class);
+        when(method.getMethod()).thenReturn("POST");
+        when(method.getURI()).thenReturn(URI.create("http://localhost:8080/service"));
+        when(method.getAllHeaders()).thenReturn(headers);
+        when(method.getRequestEntity()).thenReturn(entity);
+        when(method.getParams()).thenReturn(params);
+        return method;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import com.eviware.soapui.impl.rest.RestRequest;
+import com.eviware.soapui.impl.wsdl.submit.transports.http.support.metrics.SoapUIMetrics;
+import com.eviware.soapui.model.propertyexpansion.PropertyExpansionContext;
+import com.eviware.soapui.settings.WsdlSettings;
+import org.apache.http.Header;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.io.HttpTransportMetrics;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.Reader;
+
+import static com.eviware.soapui.utils.ModelItemFactory.makeRestRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SinglePartHttpResponseTest {
+
+    private static final String CONTENT = "<a>\u00e4</a>";
+
+    private RestRequest restRequest;
+
+    @Before
+    public void setUp() throws Exception {
+        restRequest = makeRestRequest();
+        restRequest.getSettings().setBoolean(WsdlSettings.PRETTY_PRINT_RESPONSE_MESSAGES, false);
+    }
+
+    @Test
+    public void readsContentFromBodyWithoutByteOrderMark() throws Exception {
+        SinglePartHttpResponse response = createResponse();
+
+        assertThat(read(response.getContentAsReader()), is(CONTENT));
+        assertThat(response.getContentAsString(), is(CONTENT));
+        assertThat(read(response.getContentAsReader()), is(CONTENT));
+    }
+
+    @Test
+    public void readsChangedContent() throws Exception {
+        SinglePartHttpResponse response = createResponse();
+
+        response.setResponseContent("<b/>");
+
+        assertThat(read(response.getContentAsReader()), is("<b/>"));
+    }
+
+    @Test
+    public void streamsSameRawResponseDataAsArray() throws Exception {
+        SinglePartHttpResponse response = createResponse();
+
+        InputStream in = response.getRawResponseDataAsStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            byte[] buffer = new byte[16];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+
+        assertThat(out.toByteArray(), is(response.getRawResponseData()));
+        assertThat(new String(out.toByteArray(), "UTF-8").endsWith("\r\n\r\n\uFEFF" + CONTENT), is(true));
+    }
+
+    private SinglePartHttpResponse createResponse() throws Exception {
+        byte[] content = ("\uFEFF" + CONTENT).getBytes("UTF-8");
+
+        ExtendedHttpMethod httpMethod = mock(ExtendedHttpMethod.class);
+        when(httpMethod.getResponseContentType()).thenReturn("text/xml");
+        when(httpMethod.getResponseCharSet()).thenReturn("UTF-8");
+        when(httpMethod.getMethod()).thenReturn("GET");
+        when(httpMethod.getProtocolVersion()).thenReturn(new ProtocolVersion("http", 1, 1));
+        when(httpMethod.getMetrics()).thenReturn(new SoapUIMetrics(mock(HttpTransportMetrics.class),
+                mock(HttpTransportMetrics.class)));
+        when(httpMethod.getAllHeaders()).thenReturn(new Header[0]);
+        when(httpMethod.hasHttpResponse()).thenReturn(true);
+        when(httpMethod.getHttpResponse()).thenReturn(new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK"));
+        when(httpMethod.getAllResponseHeaders()).thenReturn(new Header[]{
+                new BasicHeader("Content-Type", "text/xml; charset=UTF-8")});
+        when(httpMethod.getSpooledResponseBody()).thenReturn(SpooledResponseBody.wrap(content));
+        when(httpMethod.getURI()).thenReturn(new java.net.URI("http://localhost/test"));
+        when(httpMethod.getURL()).thenReturn(new java.net.URL("http://localhost/test"));
+
+        return new SinglePartHttpResponse(restRequest, httpMethod, null, mock(PropertyExpansionContext.class));
+    }
+
+    private static String read(Reader reader) throws Exception {
+        StringBuilder content = new StringBuilder();
+        try {
+            char[] buffer = new char[4];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                content.append(buffer, 0, read);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return content.toString();
+    }
+}
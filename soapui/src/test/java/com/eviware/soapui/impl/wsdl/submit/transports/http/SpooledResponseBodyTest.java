@@ -0,0 +1,148 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.submit.transports.http;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SpooledResponseBodyTest {
+
+    @Test
+    public void keepsSmallBodiesInMemoryWithoutCopying() throws IOException {
+        byte[] content = createContent(1000);
+        SpooledResponseBody body = new SpooledResponseBody(4096);
+        body.readFrom(new ByteArrayInputStream(content), content.length, 0);
+
+        assertFalse(body.isSpooled());
+        assertFalse(body.isTruncated());
+        assertEquals(1000, body.getLength());
+        assertArrayEquals(content, body.toByteArray());
+        assertSame(body.toByteArray(), body.toByteArray());
+    }
+
+    @Test
+    public void readsBodiesOfUnknownLength() throws IOException {
+        byte[] content = createContent(50000);
+        SpooledResponseBody body = new SpooledResponseBody(0);
+        body.readFrom(new ByteArrayInputStream(content), -1, 0);
+
+        assertFalse(body.isSpooled());
+        assertArrayEquals(content, body.toByteArray());
+    }
+
+    @Test
+    public void spoolsLargeBodiesToFile() throws IOException {
+        byte[] content = createContent(100000);
+        SpooledResponseBody body = new SpooledResponseBody(10000);
+        body.readFrom(new ByteArrayInputStream(content), -1, 0);
+
+        assertTrue(body.isSpooled());
+        assertEquals(100000, body.getLength());
+        assertArrayEquals(content, body.toByteArray());
+        assertArrayEquals(Arrays.copyOf(content, 3), body.getPrefix(3));
+        assertArrayEquals(content, readAll(body.getInputStream()));
+
+        body.release();
+        assertFalse(body.isSpooled());
+    }
+
+    @Test
+    public void deletesSpoolFileOnReleaseAndReread() throws IOException {
+        byte[] content = createContent(100000);
+        int spoolFileCount = SpooledResponseBody.getSpoolFileCount();
+
+        SpooledResponseBody body = new SpooledResponseBody(10000);
+        body.readFrom(new ByteArrayInputStream(content), -1, 0);
+        assertEquals(spoolFileCount + 1, SpooledResponseBody.getSpoolFileCount());
+
+        body.readFrom(new ByteArrayInputStream(content), -1, 0);
+        assertEquals(spoolFileCount + 1, SpooledResponseBody.getSpoolFileCount());
+
+        body.release();
+        assertEquals(spoolFileCount, SpooledResponseBody.getSpoolFileCount());
+    }
+
+    @Test
+    public void deletesSpoolFilesOfCollectedBodies() throws Exception {
+        byte[] content = createContent(100000);
+        int spoolFileCount = SpooledResponseBody.getSpoolFileCount();
+
+        new SpooledResponseBody(10000).readFrom(new ByteArrayInputStream(content), -1, 0);
+
+        SpooledResponseBody body = new SpooledResponseBody(10000);
+        for (int c = 0; c < 50 && SpooledResponseBody.getSpoolFileCount() > spoolFileCount; c++) {
+            System.gc();
+            Thread.sleep(20);
+            body.readFrom(new ByteArrayInputStream(content), -1, 0);
+            body.release();
+        }
+
+        assertEquals(spoolFileCount, SpooledResponseBody.getSpoolFileCount());
+    }
+
+    @Test
+    public void stopsReadingAtMaxSize() throws IOException {
+        byte[] content = createContent(20000);
+        SpooledResponseBody body = new SpooledResponseBody(0);
+        body.readFrom(new ByteArrayInputStream(content), content.length, 5000);
+
+        assertTrue(body.isTruncated());
+        assertArrayEquals(Arrays.copyOf(content, 5000), body.toByteArray());
+    }
+
+    @Test
+    public void wrapsExistingArray() throws IOException {
+        byte[] content = createContent(10);
+        SpooledResponseBody body = SpooledResponseBody.wrap(content);
+
+        assertEquals(10, body.getLength());
+        assertSame(content, body.toByteArray());
+    }
+
+    private static byte[] createContent(int size) {
+        byte[] content = new byte[size];
+        for (int c = 0; c < size; c++) {
+            content[c] = (byte) (c % 251);
+        }
+        return content;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ConnectionPoolConfigTest {
+
+    @Test
+    public void returnsUnsetOptionsForEmptyConfig() {
+        ConnectionPoolConfig config = ConnectionPoolConfig.parse(null);
+
+        ConnectionPoolConfig.RouteConfig routeConfig = config.getRouteConfig("localhost", 8080);
+        assertThat(config.isEmpty(), is(true));
+        assertThat(routeConfig.getMaxConnections(), is(-1));
+        assertThat(routeConfig.getTimeToLive(), is(-1L));
+        assertThat(routeConfig.getValidateAfterInactivity(), is(-1L));
+        assertThat(routeConfig.getWarmUpConnections(), is(-1));
+    }
+
+    @Test
+    public void moreSpecificEntriesOverrideLessSpecific() {
+        ConnectionPoolConfig config = ConnectionPoolConfig.parse(
+                "host:8080 max=5; * validate=2000 max=100; host ttl=60000 max=10");
+
+        ConnectionPoolConfig.RouteConfig routeConfig = config.getRouteConfig("host", 8080);
+        assertThat(routeConfig.getMaxConnections(), is(5));
+        assertThat(routeConfig.getTimeToLive(), is(60000L));
+        assertThat(routeConfig.getValidateAfterInactivity(), is(2000L));
+
+        assertThat(config.getRouteConfig("host", 9090).getMaxConnections(), is(10));
+        assertThat(config.getRouteConfig("other", 8080).getMaxConnections(), is(100));
+    }
+
+    @Test
+    public void usesDefaultPortOfRoute() {
+        ConnectionPoolConfig config = ConnectionPoolConfig.parse("secure:443 warmup=4; plain:80 warmup=2");
+
+        assertThat(config.getRouteConfig(new HttpRoute(new HttpHost("secure", -1, "https"), null, true))
+                .getWarmUpConnections(), is(4));
+        assertThat(config.getRouteConfig(new HttpRoute(new HttpHost("plain", -1, "http"), null, false))
+                .getWarmUpConnections(), is(2));
+    }
+
+    @Test
+    public void ignoresInvalidEntriesAndOptions() {
+        ConnectionPoolConfig config = ConnectionPoolConfig.parse("host:abc max=5; host max=x ttl=-1 warmup=3 foo=1;;");
+
+        assertThat(config.getEntries().size(), is(1));
+        ConnectionPoolConfig.RouteConfig routeConfig = config.getRouteConfig("host", 80);
+        assertThat(routeConfig.getMaxConnections(), is(-1));
+        assertThat(routeConfig.getTimeToLive(), is(-1L));
+        assertThat(routeConfig.getWarmUpConnections(), is(3));
+    }
+}
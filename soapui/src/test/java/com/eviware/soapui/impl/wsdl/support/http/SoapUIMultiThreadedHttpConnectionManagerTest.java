@@ -0,0 +1,224 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.http;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SoapUIMultiThreadedHttpConnectionManagerTest {
+    private ServerSocket serverSocket;
+    private final List<Socket> accepted = new CopyOnWriteArrayList<Socket>();
+    private SoapUIMultiThreadedHttpConnectionManager connectionManager;
+    private HttpRoute route;
+    private HttpParams params;
+
+    @Before
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(0);
+        Thread acceptor = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        accepted.add(serverSocket.accept());
+                    }
+                } catch (IOException e) {
+                    // closed
+                }
+            }
+        };
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        SchemeRegistry registry = new SchemeRegistry();
+        registry.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
+        connectionManager = new SoapUIMultiThreadedHttpConnectionManager(registry);
+        connectionManager.setMaxTotal(100);
+        connectionManager.setDefaultMaxPerRoute(50);
+        route = new HttpRoute(new HttpHost("localhost", serverSocket.getLocalPort(), "http"));
+        params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, 5000);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        connectionManager.shutdown();
+        serverSocket.close();
+        for (Socket socket : accepted) {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void opensSeparateConnectionsAndReturnsThemToThePool() throws Exception {
+        assertThat(connectionManager.warmUp(route, 3, params), is(3));
+
+        assertThat(connectionManager.getConnectionsInPool(route), is(3));
+        assertThat(connectionManager.getTotalStatistics().getLeased(), is(0));
+        assertThat(connectionManager.getTotalStatistics().getAvailable(), is(3));
+        waitForAccepted(3);
+    }
+
+    @Test
+    public void opensOnlyMissingConnections() throws Exception {
+        connectionManager.warmUp(route, 2, params);
+
+        assertThat(connectionManager.warmUp(route, 3, params), is(1));
+        assertThat(connectionManager.warmUp(route, 3, params), is(0));
+        waitForAccepted(3);
+    }
+
+    @Test
+    public void doesNotOpenMoreConnectionsThanAllowedForRoute() throws Exception {
+        connectionManager.setDefaultMaxPerRoute(2);
+
+        assertThat(connectionManager.warmUp(route, 5, params), is(2));
+        assertThat(connectionManager.getConnectionsInPool(route), is(2));
+    }
+
+    @Test
+    public void opensConnectionsWithSeveralThreads() throws Exception {
+        int count = SoapUIMultiThreadedHttpConnectionManager.MAX_WARM_UP_THREADS * 3 + 1;
+
+        assertThat(connectionManager.warmUp(route, count, params), is(count));
+        assertThat(connectionManager.getConnectionsInPool(route), is(count));
+        assertThat(connectionManager.getTotalStatistics().getLeased(), is(0));
+        waitForAccepted(count);
+    }
+
+    @Test
+    public void stopsWhenThePoolIsFull() throws Exception {
+        connectionManager.setMaxTotal(3);
+
+        assertThat(connectionManager.warmUp(route, 10, params), is(3));
+        assertThat(connectionManager.getConnectionsInPool(), is(3));
+    }
+
+    @Test
+    public void requestsReuseWarmedUpConnections() throws Exception {
+        connectionManager.warmUp(route, 1, params);
+
+        ManagedClientConnection connection = connectionManager.requestConnection(route, null).getConnection(1000,
+                TimeUnit.MILLISECONDS);
+        try {
+            assertThat(connection.isOpen(), is(true));
+            assertThat(connectionManager.getConnectionsInPool(route), is(1));
+        } finally {
+            connectionManager.releaseConnection(connection, -1, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Test
+    public void resumesTlsSessionOfFirstWarmedUpConnection() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        InputStream in = getClass().getResourceAsStream("/keys/keystore.jks");
+        try {
+            keyStore.load(in, "foobar42".toCharArray());
+        } finally {
+            in.close();
+        }
+
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, "foobar42".toCharArray());
+        SSLContext serverContext = SSLContext.getInstance("TLS");
+        serverContext.init(keyManagerFactory.getKeyManagers(), null, null);
+
+        final SSLServerSocket sslServerSocket = (SSLServerSocket) serverContext.getServerSocketFactory()
+                .createServerSocket(0);
+        // session ids are only reused by TLS 1.2 and earlier
+        sslServerSocket.setEnabledProtocols(new String[]{"TLSv1.2"});
+        Thread acceptor = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        SSLSocket socket = (SSLSocket) sslServerSocket.accept();
+                        accepted.add(socket);
+                        socket.startHandshake();
+                    }
+                } catch (IOException e) {
+                    // closed
+                }
+            }
+        };
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        SchemeRegistry registry = new SchemeRegistry();
+        registry.register(new Scheme("https", 443, new SoapUISSLSocketFactory(null, null)));
+        SoapUIMultiThreadedHttpConnectionManager sslConnectionManager = new SoapUIMultiThreadedHttpConnectionManager(
+                registry);
+        sslConnectionManager.setDefaultMaxPerRoute(3);
+        HttpRoute sslRoute = new HttpRoute(new HttpHost("localhost", sslServerSocket.getLocalPort(), "https"));
+        List<ManagedClientConnection> connections = new ArrayList<ManagedClientConnection>();
+        try {
+            assertThat(sslConnectionManager.warmUp(sslRoute, 3, params), is(3));
+
+            for (int c = 0; c < 3; c++) {
+                connections.add(sslConnectionManager.requestConnection(sslRoute, null).getConnection(1000,
+                        TimeUnit.MILLISECONDS));
+            }
+
+            byte[] sessionId = connections.get(0).getSSLSession().getId();
+            assertThat(connections.get(1).getSSLSession().getId(), is(sessionId));
+            assertThat(connections.get(2).getSSLSession().getId(), is(sessionId));
+        } finally {
+            for (ManagedClientConnection connection : connections) {
+                sslConnectionManager.releaseConnection(connection, -1, TimeUnit.MILLISECONDS);
+            }
+
+            sslConnectionManager.shutdown();
+            sslServerSocket.close();
+        }
+    }
+
+    private void waitForAccepted(int count) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5000;
+        while (accepted.size() < count && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+
+        assertThat(accepted.size(), is(count));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.impl.wsdl.support.soap;
+
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class SoapEnvelopeInfoTest {
+
+    private static final String SOAP11_ENVELOPE = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+            + "xmlns:ns=\"urn:test\">";
+
+    @Test
+    public void readsContentElementAfterHeader() {
+        SoapEnvelopeInfo info = SoapEnvelopeInfo.read(SOAP11_ENVELOPE
+                + "<soapenv:Header><ns:security><soapenv:Body/></ns:security></soapenv:Header>"
+                + "<soapenv:Body>\n  <ns:getItems><ns:id>1</ns:id></ns:getItems></soapenv:Body></soapenv:Envelope>");
+
+        assertThat(info.getSoapVersion(), is((SoapVersion) SoapVersion.Soap11));
+        assertThat(info.isBodyFound(), is(true));
+        assertThat(info.getContentElementName(), is(new QName("urn:test", "getItems")));
+    }
+
+    @Test
+    public void readsSoap12Envelopes() {
+        SoapEnvelopeInfo info = SoapEnvelopeInfo.read("<env:Envelope xmlns:env=\"http://www.w3.org/2003/05/soap-envelope\">"
+                + "<env:Body><getItems/></env:Body></env:Envelope>");
+
+        assertThat(info.getSoapVersion(), is((SoapVersion) SoapVersion.Soap12));
+        assertThat(info.getContentElementName(), is(new QName("getItems")));
+    }
+
+    @Test
+    public void handlesEmptyBody() {
+        SoapEnvelopeInfo info = SoapEnvelopeInfo.read(SOAP11_ENVELOPE + "<soapenv:Body/></soapenv:Envelope>");
+
+        assertThat(info.isBodyFound(), is(true));
+        assertThat(info.getContentElementName(), is(nullValue()));
+    }
+
+    @Test
+    public void doesNotReadBeyondContentElement() {
+        SoapEnvelopeInfo info = SoapEnvelopeInfo.read(SOAP11_ENVELOPE
+                + "<soapenv:Body><ns:getItems><unclosed></soapenv:Body>");
+
+        assertThat(info.isBodyFound(), is(true));
+        assertThat(info.getContentElementName(), is(new QName("urn:test", "getItems")));
+    }
+
+    @Test
+    public void readsRootElementOfOtherXml() {
+        SoapEnvelopeInfo info = SoapEnvelopeInfo.read("<items><item/></items>");
+
+        assertThat(info.getRootElementName(), is(new QName("items")));
+        assertThat(info.getSoapVersion(), is(nullValue()));
+        assertThat(info.isBodyFound(), is(false));
+    }
+
+    @Test
+    public void returnsNullForNonXmlContent() {
+        assertThat(SoapEnvelopeInfo.read("name=value"), is(nullValue()));
+        assertThat(SoapEnvelopeInfo.read(null), is(nullValue()));
+    }
+}
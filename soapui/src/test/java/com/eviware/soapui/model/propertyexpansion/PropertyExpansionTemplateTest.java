@@ -0,0 +1,118 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.model.propertyexpansion;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PropertyExpansionTemplateTest {
+
+    private final Map<String, String> values = new HashMap<String, String>();
+    private final PropertyExpansionTemplate.ValueResolver resolver = new PropertyExpansionTemplate.ValueResolver() {
+        public String resolveValue(String propertyName) {
+            return values.get(propertyName);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        PropertyExpansionTemplate.clearCache();
+        values.put("#Project#name", "soapui");
+        values.put("id", "42");
+    }
+
+    @Test
+    public void splitsContentIntoLiteralsAndExpansions() {
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.compile("<a>${#Project#name}</a><b>${id}</b>");
+
+        assertThat(template.getSegmentCount(), is(5));
+        assertThat(template.getPropertyName(0), is(nullValue()));
+        assertThat(template.getPropertyName(1), is("#Project#name"));
+        assertThat(template.getPropertyName(3), is("id"));
+        assertThat(template.expand(resolver), is("<a>soapui</a><b>42</b>"));
+    }
+
+    @Test
+    public void removesUnresolvedExpansions() {
+        assertThat(PropertyExpansionTemplate.compile("a${missing}b${}c").expand(resolver), is("abc"));
+    }
+
+    @Test
+    public void keepsEscapedExpansions() {
+        assertThat(PropertyExpansionTemplate.compile("$${id} ${id}").expand(resolver), is("${id} 42"));
+    }
+
+    @Test
+    public void keepsUnterminatedExpansions() {
+        assertThat(PropertyExpansionTemplate.compile("${id}${id").expand(resolver), is("42${id"));
+    }
+
+    @Test
+    public void doesNotCompileNestedExpansions() {
+        assertThat(PropertyExpansionTemplate.compile("${#Project#${id}}"), is(nullValue()));
+        assertThat(PropertyExpansionTemplate.getTemplate("${#Project#${id}}"), is(nullValue()));
+    }
+
+    @Test
+    public void reusesTemplatesForRepeatedContent() {
+        PropertyExpansionTemplate.getTemplate("<a>${id}</a>");
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate(new String("<a>${id}</a>"));
+
+        assertThat(PropertyExpansionTemplate.getTemplate(new String("<a>${id}</a>")), is(sameInstance(template)));
+    }
+
+    @Test
+    public void doesNotCacheOneOffContent() {
+        for (int c = 0; c < 100; c++) {
+            assertThat(PropertyExpansionTemplate.getTemplate("<a>${id}</a>" + c).expand(resolver), is("<a>42</a>" + c));
+        }
+
+        assertThat(PropertyExpansionTemplate.getCacheSize(), is(0));
+    }
+
+    @Test
+    public void doesNotCacheLargeContent() {
+        StringBuilder content = new StringBuilder("${id}");
+        while (content.length() <= PropertyExpansionTemplate.MAX_CACHED_CONTENT_LENGTH) {
+            content.append("<a>value</a>");
+        }
+
+        PropertyExpansionTemplate template = PropertyExpansionTemplate.getTemplate(content.toString());
+
+        assertThat(PropertyExpansionTemplate.getTemplate(content.toString()), is(not(sameInstance(template))));
+        assertThat(PropertyExpansionTemplate.getCacheSize(), is(0));
+    }
+
+    @Test
+    public void boundsNumberOfCachedTemplates() {
+        for (int c = 0; c < PropertyExpansionTemplate.MAX_CACHED_TEMPLATES * 2; c++) {
+            PropertyExpansionTemplate.getTemplate("${id}" + c);
+            PropertyExpansionTemplate.getTemplate("${id}" + c);
+        }
+
+        assertThat(PropertyExpansionTemplate.getCacheSize(), is(PropertyExpansionTemplate.MAX_CACHED_TEMPLATES));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.model.support;
+
+import com.eviware.soapui.model.mock.MockOperation;
+import com.eviware.soapui.model.mock.MockResponse;
+import com.eviware.soapui.model.mock.MockResult;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MockResultLogTest {
+
+    private final MockOperation operation = mock(MockOperation.class);
+
+    @Test
+    public void keepsOnlyTheMostRecentResults() {
+        MockResultLog log = new MockResultLog(2);
+        MockResult first = createResult(200, 10);
+        MockResult second = createResult(200, 10);
+        MockResult third = createResult(200, 10);
+
+        log.addResult(first);
+        log.addResult(second);
+        log.addResult(third);
+
+        assertThat(log.getResultCount(), is(3L));
+        assertThat(log.getResultAt(0), is(nullValue()));
+        assertThat(log.getResultAt(1), sameInstance(second));
+        assertThat(log.getResultAt(2), sameInstance(third));
+        assertThat(log.getResults().size(), is(2));
+    }
+
+    @Test
+    public void keepsMostRecentResultsWhenCapacityShrinks() {
+        MockResultLog log = new MockResultLog(3);
+        MockResult first = createResult(200, 10);
+        MockResult second = createResult(200, 10);
+        log.addResult(first);
+        log.addResult(second);
+
+        log.setCapacity(1);
+
+        assertThat(log.getResultAt(0), is(nullValue()));
+        assertThat(log.getResultAt(1), sameInstance(second));
+    }
+
+    @Test
+    public void samplesOneInN() {
+        MockResultLog log = new MockResultLog(100);
+        log.setSampleRate(3);
+
+        for (int c = 0; c < 9; c++) {
+            log.addResult(createResult(200, 10));
+        }
+
+        assertThat(log.getResultCount(), is(3L));
+        assertThat(log.getTotalResultCount(), is(9L));
+        assertThat(log.getOperationStatistics(operation).getCount(), is(9L));
+    }
+
+    @Test
+    public void keepsOnlyErrors() {
+        MockResultLog log = new MockResultLog(100);
+        log.setErrorsOnly(true);
+        MockResult error = createResult(500, 10);
+
+        log.addResult(createResult(200, 10));
+        log.addResult(error);
+
+        assertThat(log.getResultCount(), is(1L));
+        assertThat(log.getResultAt(0), sameInstance(error));
+        assertThat(log.getTotalErrorCount(), is(1L));
+    }
+
+    @Test
+    public void countsResultsWhenDisabled() {
+        MockResultLog log = new MockResultLog(100);
+        log.setEnabled(false);
+
+        log.addResult(createResult(200, 10));
+
+        assertThat(log.getResultCount(), is(0L));
+        assertThat(log.getOperationStatistics(operation).getCount(), is(1L));
+    }
+
+    @Test
+    public void clearRemovesKeptResultsOnly() {
+        MockResultLog log = new MockResultLog(100);
+        log.addResult(createResult(200, 10));
+
+        log.clear();
+
+        assertThat(log.getResultAt(0), is(nullValue()));
+        assertThat(log.getResults().size(), is(0));
+        assertThat(log.getTotalResultCount(), is(1L));
+    }
+
+    @Test
+    public void recordsTimeTakenPerOperation() {
+        MockResultLog log = new MockResultLog(0);
+        for (int c = 1; c <= 100; c++) {
+            log.addResult(createResult(200, c));
+        }
+
+        MockResultLog.OperationStatistics statistics = log.getOperationStatistics(operation);
+        assertThat(statistics.getCount(), is(100L));
+        assertThat(statistics.getAverageTimeTaken(), is(50L));
+        assertThat(statistics.getTimeTakenAtPercentile(95), is(95L));
+        assertThat(statistics.getMaxTimeTaken(), is(100L));
+        assertThat(log.getResultCount(), is(0L));
+    }
+
+    @Test
+    public void dropsStatisticsOfRemovedOperation() {
+        MockResultLog log = new MockResultLog(0);
+        log.addResult(createResult(200, 10));
+        assertThat(log.getOperationStatistics().size(), is(1));
+
+        log.removeOperationStatistics(operation);
+
+        assertThat(log.getOperationStatistics().size(), is(0));
+        assertThat(log.getTotalResultCount(), is(1L));
+    }
+
+    private MockResult createResult(int status, long timeTaken) {
+        MockResponse response = mock(MockResponse.class);
+        when(response.getResponseHttpStatus()).thenReturn(status);
+
+        MockResult result = mock(MockResult.class);
+        when(result.getMockResponse()).thenReturn(response);
+        when(result.getMockOperation()).thenReturn(operation);
+        when(result.getTimeTaken()).thenReturn(timeTaken);
+        return result;
+    }
+}
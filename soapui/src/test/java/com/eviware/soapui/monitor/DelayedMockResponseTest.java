@@ -0,0 +1,93 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.model.mock.MockRequest;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DelayedMockResponseTest {
+    private final StringWriter content = new StringWriter();
+    private final PrintWriter actualWriter = new PrintWriter(content);
+    private DelayedMockResponse response;
+    private MockRequest mockRequest;
+
+    @Before
+    public void setUp() throws Exception {
+        HttpServletResponse httpResponse = mock(HttpServletResponse.class);
+        when(httpResponse.getWriter()).thenReturn(actualWriter);
+        response = new DelayedMockResponse(httpResponse);
+
+        HttpServletRequest httpRequest = mock(HttpServletRequest.class);
+        when(httpRequest.getAttribute(DelayedMockResponse.REQUEST_ATTRIBUTE)).thenReturn(response);
+        mockRequest = mock(MockRequest.class);
+        when(mockRequest.getHttpRequest()).thenReturn(httpRequest);
+    }
+
+    @Test
+    public void writesResponsesWithoutDelayThrough() throws Exception {
+        assertThat(response.getWriter(), is(sameInstance(actualWriter)));
+        assertThat(DelayedMockResponse.runWhenComplete(mockRequest, new Runnable() {
+            public void run() {
+            }
+        }), is(false));
+    }
+
+    @Test
+    public void buffersDelayedResponsesUntilCompleted() throws Exception {
+        assertThat(DelayedMockResponse.addDelay(mockRequest, 100), is(true));
+        assertThat(response.getDelay(), is(100L));
+
+        response.getWriter().print("delayed");
+        response.flushBuffer();
+        assertThat(content.toString(), is(""));
+
+        final List<String> written = new ArrayList<String>();
+        assertThat(DelayedMockResponse.runWhenComplete(mockRequest, new Runnable() {
+            public void run() {
+                actualWriter.flush();
+                written.add(content.toString());
+            }
+        }), is(true));
+        assertThat(written.isEmpty(), is(true));
+
+        response.complete();
+        assertThat(written.size(), is(1));
+        assertThat(written.get(0), is("delayed"));
+    }
+
+    @Test
+    public void doesNotDelayResponsesThatHaveBeenWritten() throws Exception {
+        response.getWriter().print("written");
+
+        assertThat(DelayedMockResponse.addDelay(mockRequest, 100), is(false));
+        assertThat(response.isDelayed(), is(false));
+    }
+}
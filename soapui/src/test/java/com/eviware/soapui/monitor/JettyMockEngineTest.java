@@ -17,20 +17,42 @@
 package com.eviware.soapui.monitor;
 
 import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.model.mock.MockRequest;
+import com.eviware.soapui.model.mock.MockResult;
 import com.eviware.soapui.model.mock.MockRunContext;
 import com.eviware.soapui.model.mock.MockRunner;
 import com.eviware.soapui.model.mock.MockService;
 import com.eviware.soapui.settings.HttpSettings;
 import com.eviware.soapui.settings.SSLSettings;
 import java.lang.reflect.Field;
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -78,4 +100,81 @@ public class JettyMockEngineTest {
         // Then
         assertTrue("The sslConnector must be added after restarting the mockService!", (Boolean) addedSslConnectorField.get(sut));
     }
+
+    @Test
+    public void delaysConcurrentResponsesWithFewerThreadsThanRequests() throws Exception {
+        final int requests = 8;
+        final long delay = 1000;
+
+        SoapUI.getSettings().setBoolean(SSLSettings.ENABLE_MOCK_SSL, false);
+        SoapUI.getSettings().setBoolean(HttpSettings.ASYNC_MOCK_RESPONSE_DELAYS, true);
+        // one of the threads runs the selector of the connector
+        SoapUI.getSettings().setLong(HttpSettings.MOCK_MAX_THREADS, 3);
+
+        ServerSocket serverSocket = new ServerSocket(0);
+        final int port = serverSocket.getLocalPort();
+        serverSocket.close();
+
+        final AtomicInteger completed = new AtomicInteger();
+        when(mockService.getPort()).thenReturn(port);
+        when(mockService.getPath()).thenReturn("/delayed");
+        when(mockRunner.isRunning()).thenReturn(true);
+        when(mockRunner.dispatchRequest(any(HttpServletRequest.class), any(HttpServletResponse.class))).thenAnswer(
+                new Answer<MockResult>() {
+                    public MockResult answer(InvocationOnMock invocation) throws Throwable {
+                        HttpServletRequest request = (HttpServletRequest) invocation.getArguments()[0];
+                        HttpServletResponse response = (HttpServletResponse) invocation.getArguments()[1];
+
+                        MockRequest mockRequest = mock(MockRequest.class);
+                        when(mockRequest.getHttpRequest()).thenReturn(request);
+                        assertTrue(DelayedMockResponse.addDelay(mockRequest, delay));
+                        DelayedMockResponse.runWhenComplete(mockRequest, new Runnable() {
+                            public void run() {
+                                completed.incrementAndGet();
+                            }
+                        });
+
+                        response.setStatus(HttpServletResponse.SC_OK);
+                        response.getWriter().print("delayed");
+                        return mock(MockResult.class);
+                    }
+                });
+
+        ExecutorService clients = Executors.newFixedThreadPool(requests);
+        try {
+            sut.startMockService(mockRunner);
+
+            List<Future<String>> responses = new ArrayList<Future<String>>();
+            long start = System.currentTimeMillis();
+            for (int c = 0; c < requests; c++) {
+                responses.add(clients.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port
+                                + "/delayed").openConnection();
+                        InputStream in = connection.getInputStream();
+                        try {
+                            return new String(IOUtils.toByteArray(in), "UTF-8");
+                        } finally {
+                            in.close();
+                        }
+                    }
+                }));
+            }
+
+            for (Future<String> response : responses) {
+                assertEquals("delayed", response.get());
+            }
+
+            long timeTaken = System.currentTimeMillis() - start;
+            assertTrue("Responses were not delayed: " + timeTaken + "ms", timeTaken >= delay);
+            // two threads blocking for the delay would take requests / 2 * delay
+            assertTrue("Delayed responses held the threads: " + timeTaken + "ms", timeTaken < 3 * delay);
+            assertEquals(requests, completed.get());
+        } finally {
+            clients.shutdownNow();
+            sut.stopMockService(mockRunner);
+            SoapUI.getSettings().setBoolean(HttpSettings.ASYNC_MOCK_RESPONSE_DELAYS, false);
+            SoapUI.getSettings().setLong(HttpSettings.MOCK_MAX_THREADS, MockEngineThreadPool.DEFAULT_MAX_THREADS);
+        }
+    }
 }
\ No newline at end of file
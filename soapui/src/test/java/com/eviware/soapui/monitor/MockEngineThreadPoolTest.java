@@ -0,0 +1,208 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.monitor;
+
+import com.eviware.soapui.SoapUI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MockEngineThreadPoolTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private MockEngineThreadPool threadPool;
+
+    @Before
+    public void setUp() {
+        // initializes the SoapUI core used by the thread factory
+        SoapUI.getSettings();
+
+        threadPool = new MockEngineThreadPool();
+        threadPool.setMaxThreads(2);
+        threadPool.setMaxQueued(2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        threadPool.stop();
+    }
+
+    @Test
+    public void startsThreadsUpToMaxThreadsBeforeQueueing() throws Exception {
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        assertThat(threadPool.getThreads(), is(2));
+        assertThat(threadPool.getQueueSize(), is(0));
+
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        assertThat(threadPool.getThreads(), is(2));
+        assertThat(threadPool.getQueueSize(), is(1));
+        assertThat(threadPool.getLargestQueueSize(), is(1));
+        assertThat(threadPool.isLowOnThreads(), is(true));
+    }
+
+    @Test
+    public void rejectsRetriedDispatchesWhenQueueIsFull() throws Exception {
+        MockEngineThreadPool threadPool = new MockEngineThreadPool() {
+            @Override
+            boolean isRetriedByConnector(Runnable job) {
+                return true;
+            }
+        };
+        threadPool.setMaxThreads(1);
+        threadPool.setMaxQueued(1);
+
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        assertThat(threadPool.dispatch(new BlockingJob()), is(false));
+        assertThat(threadPool.getRejectedCount(), is(1L));
+        assertThat(threadPool.getLargestQueueSize(), is(1));
+    }
+
+    @Test
+    public void waitsForQueueRoomForConnectorsThatCanNotRetry() throws Exception {
+        fillPool();
+
+        new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                }
+                release.countDown();
+            }
+        }).start();
+
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        assertThat(threadPool.getRejectedCount(), is(0L));
+    }
+
+    @Test
+    public void rejectsAfterDispatchTimeout() throws Exception {
+        threadPool.setDispatchTimeout(50);
+        fillPool();
+
+        long start = System.currentTimeMillis();
+        assertThat(threadPool.dispatch(new BlockingJob()), is(false));
+        assertThat(System.currentTimeMillis() - start >= 50, is(true));
+        assertThat(threadPool.getRejectedCount(), is(1L));
+    }
+
+    @Test
+    public void rejectsWhenAllThreadsAreBusyWithoutQueue() throws Exception {
+        threadPool.setMaxQueued(0);
+        threadPool.setDispatchTimeout(5000);
+
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        assertThat(threadPool.dispatch(new BlockingJob()), is(false));
+        assertThat(threadPool.getRejectedCount(), is(1L));
+    }
+
+    @Test
+    public void countsCompletedJobsAndResizes() throws Exception {
+        fillPool();
+        threadPool.setMaxThreads(4);
+        assertThat(threadPool.getMaxThreads(), is(4));
+
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (threadPool.getCompletedCount() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(threadPool.getCompletedCount(), is(4L));
+        assertThat(threadPool.getQueueSize(), is(0));
+        assertThat(threadPool.getActiveThreads(), is(0));
+        assertThat(threadPool.toString().contains("completed: 4"), is(true));
+    }
+
+    @Test
+    public void stopsThreadsWhenStopped() throws Exception {
+        threadPool.start();
+        final AtomicBoolean daemon = new AtomicBoolean();
+        assertThat(threadPool.dispatch(new Runnable() {
+            public void run() {
+                daemon.set(Thread.currentThread().isDaemon());
+            }
+        }), is(true));
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+
+        final CountDownLatch joined = new CountDownLatch(1);
+        new Thread(new Runnable() {
+            public void run() {
+                try {
+                    threadPool.join();
+                    joined.countDown();
+                } catch (InterruptedException e) {
+                }
+            }
+        }).start();
+        assertThat(joined.await(100, TimeUnit.MILLISECONDS), is(false));
+
+        release.countDown();
+        long start = System.currentTimeMillis();
+        threadPool.stop();
+
+        assertThat(joined.await(1, TimeUnit.SECONDS), is(true));
+        assertThat(System.currentTimeMillis() - start < MockEngineThreadPool.STOP_TIMEOUT, is(true));
+        assertThat(threadPool.getThreads(), is(0));
+        assertThat(daemon.get(), is(true));
+    }
+
+    @Test
+    public void startsNewThreadsAfterRestart() throws Exception {
+        threadPool.start();
+        release.countDown();
+        assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        threadPool.stop();
+
+        threadPool.start();
+        final CountDownLatch ran = new CountDownLatch(1);
+        assertThat(threadPool.dispatch(new Runnable() {
+            public void run() {
+                ran.countDown();
+            }
+        }), is(true));
+        assertThat(ran.await(1, TimeUnit.SECONDS), is(true));
+    }
+
+    private void fillPool() {
+        for (int c = 0; c < 4; c++) {
+            assertThat(threadPool.dispatch(new BlockingJob()), is(true));
+        }
+
+        assertThat(threadPool.getQueueSize(), is(2));
+    }
+
+    private class BlockingJob implements Runnable {
+        public void run() {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
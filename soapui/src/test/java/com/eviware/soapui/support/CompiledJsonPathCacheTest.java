@@ -0,0 +1,62 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class CompiledJsonPathCacheTest {
+
+    @Test
+    public void compilesEachExpressionOnce() throws Exception {
+        CompiledJsonPathCache cache = new CompiledJsonPathCache(10);
+        JsonPath path = cache.compile("$.children[1].childProperty");
+
+        assertThat(cache.compile("$.children[1].childProperty"), is(sameInstance(path)));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedExpressions() throws Exception {
+        CompiledJsonPathCache cache = new CompiledJsonPathCache(2);
+        JsonPath first = cache.compile("$.a");
+        cache.compile("$.b");
+        cache.compile("$.a");
+        cache.compile("$.c");
+
+        assertThat(cache.getSize(), is(2));
+        assertThat(cache.compile("$.a"), is(sameInstance(first)));
+        assertThat(cache.getMisses(), is(3L));
+        cache.compile("$.b");
+        assertThat(cache.getMisses(), is(4L));
+    }
+
+    @Test
+    public void doesNotCacheWhenDisabled() throws Exception {
+        CompiledJsonPathCache cache = new CompiledJsonPathCache(0);
+        JsonPath path = cache.compile("$.a");
+
+        assertThat(cache.compile("$.a"), is(not(sameInstance(path))));
+        assertThat(cache.getSize(), is(0));
+    }
+}
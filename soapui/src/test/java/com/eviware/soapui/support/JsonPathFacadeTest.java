@@ -75,6 +75,25 @@ public class JsonPathFacadeTest {
         verifyJsonWrite(json, jsonPathExpression);
     }
 
+    @Test
+    public void readsAndWritesAfterAWrite() throws Exception {
+        JsonPathFacade jsonPathFacade = new JsonPathFacade(SIMPLE_JSON);
+        jsonPathFacade.writeValue("$.children[1].childProperty", "firstValue");
+        assertThat(jsonPathFacade.readStringValue("$.children[1].childProperty"), is("firstValue"));
+
+        jsonPathFacade.writeValue("$.children[0]", "secondValue");
+        String newJson = jsonPathFacade.getCurrentJson();
+        assertThat(JsonPath.read(newJson, "$.children[0]"), is((Object) "secondValue"));
+        assertThat(JsonPath.read(newJson, "$.children[1].childProperty"), is((Object) "firstValue"));
+    }
+
+    @Test
+    public void writeDoesNotChangeSharedParsedJson() throws Exception {
+        new JsonPathFacade(SIMPLE_JSON).writeValue("$.children[1].childProperty", "newValue");
+
+        assertThat(new JsonPathFacade(SIMPLE_JSON).readStringValue("$.children[1].childProperty"), is("propValue"));
+    }
+
     private void verifyJsonWrite(String json, String jsonPathExpression) {
         JsonPathFacade jsonPathFacade = new JsonPathFacade(json);
         jsonPathFacade.writeValue(jsonPathExpression, "newValue");
@@ -0,0 +1,143 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support;
+
+import net.sf.json.JSON;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ParsedContentCacheTest {
+
+    private static final String XML = "<root><!-- comment --><child>value</child></root>";
+
+    @Before
+    public void setUp() {
+        ParsedContentCache.clear();
+    }
+
+    @Test
+    public void parsesSameXmlContentOnce() throws Exception {
+        XmlObject first = ParsedContentCache.getXmlObject(XML);
+        XmlObject second = ParsedContentCache.getXmlObject(new String(XML));
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(first.xmlText().contains("<child>value</child>"), is(true));
+    }
+
+    @Test
+    public void keepsSeparateEntriesForStrippedComments() throws Exception {
+        XmlObject withComments = ParsedContentCache.getXmlObject(XML, false);
+        XmlObject withoutComments = ParsedContentCache.getXmlObject(XML, true);
+
+        assertThat(withoutComments, is(not(sameInstance(withComments))));
+        assertThat(withoutComments.xmlText().contains("comment"), is(false));
+    }
+
+    @Test
+    public void changedContentIsParsedAgain() throws Exception {
+        XmlObject first = ParsedContentCache.getXmlObject(XML);
+        XmlObject changed = ParsedContentCache.getXmlObject(XML.replace("value", "other"));
+
+        assertThat(changed, is(not(sameInstance(first))));
+    }
+
+    @Test
+    public void returnsNullForInvalidJson() {
+        assertThat(ParsedContentCache.getJson("not json"), is(nullValue()));
+        assertThat(ParsedContentCache.getJson(null), is(nullValue()));
+    }
+
+    @Test
+    public void parsesSameJsonContentOnce() {
+        String json = "{ name: 'value' }";
+        JSON first = ParsedContentCache.getJson(json);
+
+        assertThat(first, is(not(nullValue())));
+        assertThat(ParsedContentCache.getJson(json), is(sameInstance(first)));
+    }
+
+    @Test
+    public void doesNotShareParsedContentBetweenThreads() throws Exception {
+        final XmlObject first = ParsedContentCache.getXmlObject(XML);
+        final AtomicReference<XmlObject> other = new AtomicReference<XmlObject>();
+
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    other.set(ParsedContentCache.getXmlObject(XML));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(other.get(), is(not(nullValue())));
+        assertThat(other.get(), is(not(sameInstance(first))));
+        assertThat(ParsedContentCache.getXmlObject(XML), is(sameInstance(first)));
+    }
+
+    @Test
+    public void clearDropsCachedContent() throws Exception {
+        XmlObject first = ParsedContentCache.getXmlObject(XML);
+        ParsedContentCache.clear();
+
+        assertThat(ParsedContentCache.getXmlObject(XML), is(not(sameInstance(first))));
+    }
+
+    @Test
+    public void countsHitsAndMissesOfAllThreads() {
+        long hits = ParsedContentCache.getTotalHits();
+        long misses = ParsedContentCache.getTotalMisses();
+        String json = "{ name: 'counted' }";
+
+        ParsedContentCache.getJson(json);
+        ParsedContentCache.getJson(json);
+
+        assertThat(ParsedContentCache.getTotalHits() - hits, is(1L));
+        assertThat(ParsedContentCache.getTotalMisses() - misses, is(1L));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntries() {
+        ParsedContentCache cache = new ParsedContentCache(2);
+        String first = "first";
+        String second = "second";
+        String third = "third";
+
+        cache.put(first, 1);
+        cache.put(second, 2);
+        cache.get(first);
+        cache.put(third, 3);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get(first), is((Object) 1));
+        assertThat(cache.get(second), is(nullValue()));
+        assertThat(cache.getHits(), is(2L));
+        assertThat(cache.getMisses(), is(1L));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.jdbc;
+
+import com.eviware.soapui.support.SoapUIException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JdbcConnectionPoolTest {
+    private JdbcConnectionPool pool;
+    private CountingFactory factory;
+
+    @Before
+    public void setUp() {
+        pool = new JdbcConnectionPool(2, 100, -1, 0, 2);
+        factory = new CountingFactory();
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void reusesReleasedConnections() throws Exception {
+        JdbcConnectionPool.PooledConnection first = pool.getConnection("key", "db", factory);
+        Connection connection = first.getConnection();
+        first.release();
+
+        JdbcConnectionPool.PooledConnection second = pool.getConnection("key", "db", factory);
+        assertThat(second.getConnection(), sameInstance(connection));
+        assertThat(factory.created, is(1));
+
+        JdbcConnectionPoolStatistics statistics = pool.getStatistics().get(0);
+        assertThat(statistics.getActive(), is(1));
+        assertThat(statistics.getCreated(), is(1L));
+        assertThat(statistics.getBorrowCount(), is(2L));
+    }
+
+    @Test
+    public void separatesPoolsByKey() throws Exception {
+        pool.getConnection("key1", "db1", factory).release();
+        pool.getConnection("key2", "db2", factory).release();
+
+        assertThat(factory.created, is(2));
+        assertThat(pool.getStatistics().size(), is(2));
+    }
+
+    @Test
+    public void timesOutWhenAllConnectionsAreInUse() throws Exception {
+        pool.getConnection("key", "db", factory);
+        pool.getConnection("key", "db", factory);
+
+        try {
+            pool.getConnection("key", "db", factory);
+            fail("Expected timeout");
+        } catch (SQLException e) {
+            assertThat(factory.created, is(2));
+        }
+    }
+
+    @Test
+    public void replacesConnectionsThatFailValidation() throws Exception {
+        pool.configure(2, 100, 0, 0, 2);
+        JdbcConnectionPool.PooledConnection first = pool.getConnection("key", "db", factory);
+        Connection connection = first.getConnection();
+        when(connection.isValid(anyInt())).thenReturn(false);
+        first.release();
+
+        JdbcConnectionPool.PooledConnection second = pool.getConnection("key", "db", factory);
+        assertThat(second.getConnection(), not(sameInstance(connection)));
+        verify(connection).close();
+        assertThat(pool.getStatistics().get(0).getActive(), is(1));
+    }
+
+    @Test
+    public void evictsIdleConnections() throws Exception {
+        pool.configure(2, 100, -1, 1, 2);
+        JdbcConnectionPool.PooledConnection pooledConnection = pool.getConnection("key", "db", factory);
+        Connection connection = pooledConnection.getConnection();
+        pooledConnection.release();
+
+        Thread.sleep(10);
+        pool.evictIdleConnections();
+
+        verify(connection).close();
+        assertThat(pool.getStatistics().get(0).getIdle(), is(0));
+    }
+
+    @Test
+    public void isDisabledByDefault() throws Exception {
+        JdbcConnectionPool defaultPool = new JdbcConnectionPool();
+
+        assertThat(defaultPool.isEnabled(), is(false));
+        assertThat(defaultPool.getMaxConnections(), is(0));
+    }
+
+    @Test
+    public void resetsConnectionStateOnRelease() throws Exception {
+        JdbcConnectionPool.PooledConnection pooledConnection = pool.getConnection("key", "db", factory);
+        Connection connection = pooledConnection.getConnection();
+        when(connection.getAutoCommit()).thenReturn(false);
+        when(connection.isReadOnly()).thenReturn(true);
+        when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_SERIALIZABLE);
+        when(connection.getCatalog()).thenReturn("other");
+
+        pooledConnection.release();
+
+        verify(connection).rollback();
+        verify(connection).setAutoCommit(true);
+        verify(connection).setReadOnly(false);
+        verify(connection).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        verify(connection).setCatalog("catalog");
+        verify(connection).clearWarnings();
+        assertThat(pool.getStatistics().get(0).getIdle(), is(1));
+    }
+
+    @Test
+    public void closesConnectionsThatCanNotBeReset() throws Exception {
+        JdbcConnectionPool.PooledConnection pooledConnection = pool.getConnection("key", "db", factory);
+        Connection connection = pooledConnection.getConnection();
+        when(connection.getAutoCommit()).thenReturn(false);
+        doThrow(new SQLException("connection lost")).when(connection).rollback();
+
+        pooledConnection.release();
+
+        verify(connection).close();
+        assertThat(pool.getStatistics().get(0).getIdle(), is(0));
+        assertThat(pool.getConnection("key", "db", factory).getConnection(), not(sameInstance(connection)));
+    }
+
+    @Test
+    public void wakesWaitingThreadsWhenReconfigured() throws Exception {
+        pool.configure(1, 10000, -1, 0, 2);
+        pool.getConnection("key", "db", factory);
+
+        final JdbcConnectionPool.PooledConnection[] waited = new JdbcConnectionPool.PooledConnection[1];
+        Thread waiter = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    waited[0] = pool.getConnection("key", "db", factory);
+                } catch (Exception e) {
+                    // asserted below
+                }
+            }
+        };
+        waiter.start();
+
+        long end = System.currentTimeMillis() + 5000;
+        while (pool.getStatistics().get(0).getPending() == 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+
+        pool.configure(2, 10000, -1, 0, 2);
+        waiter.join(2000);
+
+        assertThat(waiter.isAlive(), is(false));
+        assertThat(waited[0] != null, is(true));
+        assertThat(factory.created, is(2));
+    }
+
+    @Test
+    public void cachesPreparedStatements() throws Exception {
+        JdbcConnectionPool.PooledConnection pooledConnection = pool.getConnection("key", "db", factory);
+        Connection connection = pooledConnection.getConnection();
+
+        PreparedStatement statement = pooledConnection.prepareStatement("select 1");
+        assertThat(pooledConnection.prepareStatement("select 1"), sameInstance(statement));
+        verify(statement).clearParameters();
+        verify(connection, times(1)).prepareStatement("select 1");
+
+        pooledConnection.prepareStatement("select 2");
+        pooledConnection.prepareStatement("select 3");
+        verify(statement).close();
+        assertThat(pooledConnection.isCached(statement), is(false));
+
+        JdbcConnectionPoolStatistics statistics = pool.getStatistics().get(0);
+        assertThat(statistics.getStatementCacheHits(), is(1L));
+        assertThat(statistics.getStatementCacheMisses(), is(3L));
+    }
+
+    private static class CountingFactory implements JdbcConnectionPool.ConnectionFactory {
+        private int created;
+
+        public Connection createConnection() throws SQLException, SoapUIException {
+            created++;
+            Connection connection = mock(Connection.class);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+            when(connection.getCatalog()).thenReturn("catalog");
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.prepareStatement(anyString())).thenAnswer(new org.mockito.stubbing.Answer<PreparedStatement>() {
+                public PreparedStatement answer(org.mockito.invocation.InvocationOnMock invocation) {
+                    return mock(PreparedStatement.class);
+                }
+            });
+            return connection;
+        }
+    }
+}
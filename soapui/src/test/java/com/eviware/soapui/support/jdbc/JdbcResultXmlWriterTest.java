@@ -0,0 +1,191 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.jdbc;
+
+import com.eviware.soapui.support.StringUtils;
+import org.apache.xml.serialize.OutputFormat;
+import org.apache.xml.serialize.XMLSerializer;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JdbcResultXmlWriterTest {
+
+    @Test
+    public void writesRowsOfResultSet() throws Exception {
+        Statement statement = mockStatement(mockResultSet(new String[][]{{"1", "a < b"}, {"2", null}}));
+
+        String xml = new JdbcResultXmlWriter(true, -1).write(statement);
+
+        assertThat(xml, is("<Results>\n"
+                + "    <ResultSet fetchSize=\"0\">\n"
+                + "        <Row rowNumber=\"1\">\n"
+                + "            <PERSON.ID>1</PERSON.ID>\n"
+                + "            <PERSON.NAME>a &lt; b</PERSON.NAME>\n"
+                + "        </Row>\n"
+                + "        <Row rowNumber=\"2\">\n"
+                + "            <PERSON.ID>2</PERSON.ID>\n"
+                + "            <PERSON.NAME/>\n"
+                + "        </Row>\n"
+                + "    </ResultSet>\n"
+                + "</Results>\n"));
+    }
+
+    @Test
+    public void readsColumnMetaDataOnce() throws Exception {
+        ResultSet resultSet = mockResultSet(new String[][]{{"1", "a"}, {"2", "b"}, {"3", "c"}});
+
+        new JdbcResultXmlWriter(false, -1).write(mockStatement(resultSet));
+
+        verify(resultSet.getMetaData(), times(2)).getColumnName(anyInt());
+    }
+
+    @Test
+    public void truncatesRowsAfterLimit() throws Exception {
+        Statement statement = mockStatement(mockResultSet(new String[][]{{"1", "a"}, {"2", "b"}, {"3", "c"}}));
+
+        String xml = new JdbcResultXmlWriter(false, 1).write(statement);
+
+        assertThat(xml, is("<Results>\n"
+                + "    <ResultSet fetchSize=\"0\" rowCount=\"3\" truncated=\"true\">\n"
+                + "        <Row rowNumber=\"1\">\n"
+                + "            <person.id>1</person.id>\n"
+                + "            <person.name>a</person.name>\n"
+                + "        </Row>\n"
+                + "    </ResultSet>\n"
+                + "</Results>\n"));
+    }
+
+    @Test
+    public void writesEmptyResultSetAndUpdateCount() throws Exception {
+        assertThat(new JdbcResultXmlWriter(true, 5).write(mockStatement(mockResultSet(new String[0][]))),
+                is("<Results>\n    <ResultSet fetchSize=\"0\"/>\n</Results>\n"));
+
+        Statement statement = mockStatement(null);
+        when(statement.getUpdateCount()).thenReturn(4);
+        assertThat(new JdbcResultXmlWriter(true, -1).write(statement),
+                is("<Results>\n    <UpdateCount>4</UpdateCount>\n</Results>\n"));
+    }
+
+    @Test
+    public void writesSameXmlAsXmlSerializer() throws Exception {
+        String[][] rows = {{"1", "a < b & c > d\r\nsecond line"}, {"2", null}, {"3", ""},
+                {"4", "a long value with many words that goes past the line width of seventy two characters"},
+                {"5", "  spaces\tand tabs  "}, {"6", "quotes \" and ' and ]]> and \u00e9\u20ac"}};
+
+        assertThat(new JdbcResultXmlWriter(true, -1).write(mockStatement(mockResultSet(rows))),
+                is(serializeWithXmlSerializer(rows, true)));
+        assertThat(new JdbcResultXmlWriter(false, -1).write(mockStatement(mockResultSet(rows))),
+                is(serializeWithXmlSerializer(rows, false)));
+        assertThat(new JdbcResultXmlWriter(false, -1).write(mockStatement(mockResultSet(new String[0][]))),
+                is(serializeWithXmlSerializer(new String[0][], false)));
+    }
+
+    /**
+     * Creates the XML the way it was created before the JdbcResultXmlWriter, as a DOM serialized by XMLSerializer
+     */
+
+    @SuppressWarnings("deprecation")
+    private static String serializeWithXmlSerializer(String[][] rows, boolean uppercase) throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element resultsElement = document.createElement("Results");
+        document.appendChild(resultsElement);
+        Element resultSetElement = document.createElement("ResultSet");
+        resultSetElement.setAttribute("fetchSize", "0");
+        resultsElement.appendChild(resultSetElement);
+
+        for (int r = 0; r < rows.length; r++) {
+            Element rowElement = document.createElement("Row");
+            rowElement.setAttribute("rowNumber", String.valueOf(r + 1));
+            String[] columnNames = uppercase ? new String[]{"PERSON.ID", "PERSON.NAME"} : new String[]{"person.id",
+                    "person.name"};
+            for (int c = 0; c < columnNames.length; c++) {
+                Element columnElement = document.createElement(columnNames[c]);
+                if (StringUtils.hasContent(rows[r][c])) {
+                    columnElement.appendChild(document.createTextNode(rows[r][c]));
+                }
+                rowElement.appendChild(columnElement);
+            }
+            resultSetElement.appendChild(rowElement);
+        }
+
+        OutputFormat outputFormat = new OutputFormat(document);
+        outputFormat.setOmitComments(true);
+        outputFormat.setOmitDocumentType(true);
+        outputFormat.setOmitXMLDeclaration(true);
+        outputFormat.setIndent(3);
+        outputFormat.setIndenting(true);
+
+        StringWriter out = new StringWriter();
+        XMLSerializer serializer = new XMLSerializer(new PrintWriter(out), outputFormat);
+        serializer.asDOMSerializer();
+        serializer.serialize(document);
+        return out.toString();
+    }
+
+    private static Statement mockStatement(ResultSet resultSet) throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(statement.getResultSet()).thenReturn(resultSet);
+        return statement;
+    }
+
+    private static ResultSet mockResultSet(final String[][] rows) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getTableName(anyInt())).thenReturn("person");
+        when(metaData.getColumnName(1)).thenReturn("id");
+        when(metaData.getColumnName(2)).thenReturn("name");
+
+        final int[] row = {0};
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.next()).thenAnswer(new Answer<Boolean>() {
+            public Boolean answer(InvocationOnMock invocation) {
+                return ++row[0] <= rows.length;
+            }
+        });
+        when(resultSet.getRow()).thenAnswer(new Answer<Integer>() {
+            public Integer answer(InvocationOnMock invocation) {
+                return row[0];
+            }
+        });
+        when(resultSet.getString(anyInt())).thenAnswer(new Answer<String>() {
+            public String answer(InvocationOnMock invocation) {
+                return rows[row[0] - 1][(Integer) invocation.getArguments()[0] - 1];
+            }
+        });
+        return resultSet;
+    }
+}
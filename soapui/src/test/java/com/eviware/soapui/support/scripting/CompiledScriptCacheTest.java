@@ -0,0 +1,72 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.scripting;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class CompiledScriptCacheTest {
+
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @Test
+    public void returnsCachedClassForSameScript() {
+        CompiledScriptCache cache = new CompiledScriptCache(10);
+        cache.put("Groovy", classLoader, "return 1", String.class);
+
+        assertEquals(String.class, cache.get("Groovy", classLoader, new String("return 1")));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(0L));
+    }
+
+    @Test
+    public void separatesEnginesAndClassLoaders() {
+        CompiledScriptCache cache = new CompiledScriptCache(10);
+        cache.put("Groovy", classLoader, "return 1", String.class);
+
+        assertThat(cache.get("JavaScript", classLoader, "return 1"), is(nullValue()));
+        assertThat(cache.get("Groovy", new ClassLoader(classLoader) {
+        }, "return 1"), is(nullValue()));
+        assertThat(cache.getMisses(), is(2L));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedScripts() {
+        CompiledScriptCache cache = new CompiledScriptCache(2);
+        cache.put("Groovy", classLoader, "a", String.class);
+        cache.put("Groovy", classLoader, "b", Integer.class);
+        cache.get("Groovy", classLoader, "a");
+        cache.put("Groovy", classLoader, "c", Long.class);
+
+        assertThat(cache.getSize(), is(2));
+        assertEquals(String.class, cache.get("Groovy", classLoader, "a"));
+        assertThat(cache.get("Groovy", classLoader, "b"), is(nullValue()));
+    }
+
+    @Test
+    public void cachesNothingWhenDisabled() {
+        CompiledScriptCache cache = new CompiledScriptCache(0);
+        cache.put("Groovy", classLoader, "return 1", String.class);
+
+        assertThat(cache.getSize(), is(0));
+        assertThat(cache.get("Groovy", classLoader, "return 1"), is(nullValue()));
+    }
+}
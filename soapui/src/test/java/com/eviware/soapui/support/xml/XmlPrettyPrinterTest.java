@@ -0,0 +1,67 @@
+/*
+ * SoapUI, Copyright (C) 2004-2019 SmartBear Software
+ *
+ * Licensed under the EUPL, Version 1.1 or - as soon as they will be approved by the European Commission - subsequent 
+ * versions of the EUPL (the "Licence"); 
+ * You may not use this work except in compliance with the Licence. 
+ * You may obtain a copy of the Licence at: 
+ * 
+ * http://ec.europa.eu/idabc/eupl 
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is 
+ * distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either 
+ * express or implied. See the Licence for the specific language governing permissions and limitations 
+ * under the Licence. 
+ */
+
+package com.eviware.soapui.support.xml;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class XmlPrettyPrinterTest {
+    private final XmlPrettyPrinter printer = new XmlPrettyPrinter();
+
+    @Test
+    public void indentsNestedElements() throws Exception {
+        String xml = "<soapenv:Envelope xmlns:soapenv='http://schemas.xmlsoap.org/soap/envelope/'><soapenv:Body>"
+                + "<name>value</name><empty></empty></soapenv:Body></soapenv:Envelope>";
+
+        assertEquals("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\">\n"
+                + "   <soapenv:Body>\n"
+                + "      <name>value</name>\n"
+                + "      <empty/>\n"
+                + "   </soapenv:Body>\n"
+                + "</soapenv:Envelope>", printer.prettyPrint(xml));
+    }
+
+    @Test
+    public void reindentsIndentedXml() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<a>\n\t\t<b  x = \"1\" >text</b>\n  <c/>\n</a>\n";
+
+        assertEquals("<a>\n  <b x=\"1\">text</b>\n  <c/>\n</a>", new XmlPrettyPrinter(2).prettyPrint(xml));
+    }
+
+    @Test
+    public void keepsMixedContentAndCdata() throws Exception {
+        assertEquals("<a>\n   <p>some <b>bold</b> text</p>\n   <c><![CDATA[<raw> & ]]></c>\n</a>",
+                printer.prettyPrint("<a><p>some <b>bold</b> text</p><c><![CDATA[<raw> & ]]></c></a>"));
+    }
+
+    @Test
+    public void writesCommentsOnTheirOwnLine() throws Exception {
+        assertEquals("<a>\n   <!-- comment -->\n   <b>&amp;</b>\n</a>",
+                printer.prettyPrint("<a><!-- comment --><b>&amp;</b></a>"));
+    }
+
+    @Test
+    public void rejectsXmlThatIsNotWellFormed() throws Exception {
+        assertNull(printer.prettyPrint("<a><b></a>"));
+        assertNull(printer.prettyPrint("not xml"));
+        assertNull(printer.prettyPrint("<a/><b/>"));
+        assertNull(printer.prettyPrint("<a x=1/>"));
+        assertNull(printer.prettyPrint("<a>"));
+    }
+}